@@ -0,0 +1,248 @@
+package com.nemostudio.ide;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent SSH reachability test used by ConnectWindow. Resolves all A/AAAA records, then races
+ * TCP connects to port 22 across the addresses happy-eyeballs style (a new attempt starts every 250 ms
+ * while earlier ones are still pending, alternating IPv6/IPv4) and reads the SSH banner on the first
+ * socket that connects. The first conclusive outcome wins; per-probe timings are kept for display.
+ * Resolved addresses (winner first) are handed to SessionPool so later sessions skip DNS.
+ */
+public final class ConnectionProber {
+
+    private static final int SSH_PORT = 22;
+    /** Delay before starting the next connection attempt (RFC 8305 "Connection Attempt Delay"). */
+    private static final long ATTEMPT_DELAY_MS = 250;
+    private static final int CONNECT_TIMEOUT_MS = 3000;
+    private static final int BANNER_TIMEOUT_MS = 3000;
+    /** Upper bound for the whole test. */
+    private static final long OVERALL_TIMEOUT_MS = 6000;
+
+    private static final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "connection-prober");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ConnectionProber() {}
+
+    /** Outcome of one probe step (DNS, one TCP attempt, banner read). */
+    public static final class Timing {
+        final String probe;
+        final long millis;
+        final boolean ok;
+        final String detail;
+
+        Timing(String probe, long millis, boolean ok, String detail) {
+            this.probe = probe;
+            this.millis = millis;
+            this.ok = ok;
+            this.detail = detail;
+        }
+
+        @Override
+        public String toString() {
+            return (ok ? "✓ " : "✗ ") + probe + " " + millis + " ms" + (detail == null || detail.isEmpty() ? "" : " — " + detail);
+        }
+    }
+
+    /** Result of a probe: null error means the host answered with an SSH banner. */
+    public static final class Result {
+        final String error;
+        final List<Timing> timings;
+        final List<InetAddress> addresses;
+
+        Result(String error, List<Timing> timings, List<InetAddress> addresses) {
+            this.error = error;
+            this.timings = timings;
+            this.addresses = addresses;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public List<Timing> getTimings() {
+            return timings;
+        }
+
+        public String formatTimings() {
+            StringBuilder sb = new StringBuilder();
+            for (Timing t : timings) {
+                if (sb.length() > 0) sb.append('\n');
+                sb.append(t);
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Probe host for a reachable SSH server. Blocks up to ~6 seconds; call off the FX thread.
+     */
+    public static Result probe(String host) {
+        List<Timing> timings = Collections.synchronizedList(new ArrayList<>());
+        if (host == null || host.isBlank()) {
+            return new Result("Please enter a hostname or IP address.", timings, List.of());
+        }
+        long t0 = System.nanoTime();
+        InetAddress[] resolved;
+        try {
+            resolved = InetAddress.getAllByName(host.trim());
+            timings.add(new Timing("DNS", elapsedMs(t0), true, resolved.length + " address(es)"));
+        } catch (UnknownHostException e) {
+            timings.add(new Timing("DNS", elapsedMs(t0), false, e.getMessage()));
+            return new Result("Unknown host: " + e.getMessage(), new ArrayList<>(timings), List.of());
+        }
+        List<InetAddress> ordered = interleaveFamilies(resolved);
+
+        CompletableFuture<Socket> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(ordered.size());
+        List<Socket> sockets = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < ordered.size(); i++) {
+            InetAddress addr = ordered.get(i);
+            long delay = i * ATTEMPT_DELAY_MS;
+            executor.execute(() -> {
+                try {
+                    if (delay > 0) {
+                        // Wait for the staggered start, but skip entirely once another attempt has won
+                        try {
+                            winner.get(delay, TimeUnit.MILLISECONDS);
+                            return;
+                        } catch (java.util.concurrent.TimeoutException ignored) {
+                            // still racing: start this attempt
+                        } catch (Exception e) {
+                            return;
+                        }
+                    }
+                    Socket socket = new Socket();
+                    sockets.add(socket);
+                    long start = System.nanoTime();
+                    try {
+                        socket.connect(new InetSocketAddress(addr, SSH_PORT), CONNECT_TIMEOUT_MS);
+                        timings.add(new Timing("TCP " + addr.getHostAddress() + ":" + SSH_PORT, elapsedMs(start), true, null));
+                        if (!winner.complete(socket)) closeQuietly(socket);
+                    } catch (IOException e) {
+                        timings.add(new Timing("TCP " + addr.getHostAddress() + ":" + SSH_PORT, elapsedMs(start), false, e.getMessage()));
+                        closeQuietly(socket);
+                    }
+                } finally {
+                    if (pending.decrementAndGet() == 0) {
+                        winner.completeExceptionally(new IOException("no address accepted a connection on port " + SSH_PORT));
+                    }
+                }
+            });
+        }
+
+        Socket socket;
+        try {
+            socket = winner.get(OVERALL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            winner.cancel(true);
+            synchronized (sockets) {
+                for (Socket s : sockets) closeQuietly(s);
+            }
+            String reason = e instanceof java.util.concurrent.TimeoutException ? "timed out" : rootMessage(e);
+            return new Result("SSH port " + SSH_PORT + " not reachable (" + reason + ").", snapshot(timings), ordered);
+        }
+        // Close the losers still connecting
+        synchronized (sockets) {
+            for (Socket s : sockets) if (s != socket) closeQuietly(s);
+        }
+
+        InetAddress winnerAddr = socket.getInetAddress();
+        List<InetAddress> cached = new ArrayList<>(ordered);
+        cached.remove(winnerAddr);
+        cached.add(0, winnerAddr);
+        SessionPool.rememberAddresses(host.trim(), cached);
+
+        long bannerStart = System.nanoTime();
+        try (Socket s = socket) {
+            s.setSoTimeout(BANNER_TIMEOUT_MS);
+            String banner = readLine(s.getInputStream());
+            boolean ssh = banner.startsWith("SSH-");
+            timings.add(new Timing("SSH banner", elapsedMs(bannerStart), ssh, banner));
+            if (!ssh) {
+                return new Result("Port " + SSH_PORT + " is open but did not answer with an SSH banner.", snapshot(timings), cached);
+            }
+            return new Result(null, snapshot(timings), cached);
+        } catch (IOException e) {
+            timings.add(new Timing("SSH banner", elapsedMs(bannerStart), false, e.getMessage()));
+            return new Result("Connected to port " + SSH_PORT + " but no SSH banner: " + e.getMessage(), snapshot(timings), cached);
+        }
+    }
+
+    /** Alternate address families, starting with the family of the first (OS-preferred) address. */
+    private static List<InetAddress> interleaveFamilies(InetAddress[] addrs) {
+        List<InetAddress> v6 = new ArrayList<>();
+        List<InetAddress> v4 = new ArrayList<>();
+        for (InetAddress a : addrs) {
+            (a instanceof Inet6Address ? v6 : v4).add(a);
+        }
+        boolean v6First = addrs.length > 0 && addrs[0] instanceof Inet6Address;
+        List<InetAddress> first = v6First ? v6 : v4;
+        List<InetAddress> second = v6First ? v4 : v6;
+        List<InetAddress> out = new ArrayList<>(addrs.length);
+        for (int i = 0; i < Math.max(first.size(), second.size()); i++) {
+            if (i < first.size()) out.add(first.get(i));
+            if (i < second.size()) out.add(second.get(i));
+        }
+        return out;
+    }
+
+    /** Read the SSH identification line (RFC 4253: servers may send other lines first; skip those). */
+    private static String readLine(InputStream in) throws IOException {
+        for (int lines = 0; lines < 10; lines++) {
+            StringBuilder sb = new StringBuilder();
+            int c;
+            while ((c = in.read()) != -1 && c != '\n') {
+                if (c != '\r') sb.append((char) c);
+                if (sb.length() > 255) break;
+            }
+            String line = new String(sb.toString().getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+            if (line.startsWith("SSH-") || c == -1) return line;
+        }
+        return "";
+    }
+
+    private static List<Timing> snapshot(List<Timing> timings) {
+        synchronized (timings) {
+            return new ArrayList<>(timings);
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable t = e;
+        while (t.getCause() != null) t = t.getCause();
+        return t.getMessage() == null ? t.getClass().getSimpleName() : t.getMessage();
+    }
+
+    private static void closeQuietly(Socket s) {
+        try {
+            s.close();
+        } catch (IOException ignored) {}
+    }
+}
@@ -1,20 +1,51 @@
 package com.nemostudio.ide;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
 /**
- * Application-wide state for the remote connection. Updated by RemoteFolderWindow
- * when it connects or disconnects; read by the status bar monitor.
+ * Application-wide state for the remote connection, published as a stream of LinkEvents.
+ * LinkHealthMonitor publishes probe results; RemoteFolderWindow reports connects and disconnects.
+ * Subscribers are called on the publishing thread and must hand UI work to the FX thread themselves.
  */
 public final class ConnectionState {
 
-    private static volatile boolean connected;
+    private static final List<Consumer<LinkEvent>> listeners = new CopyOnWriteArrayList<>();
+    private static volatile LinkEvent last = new LinkEvent(LinkEvent.State.UNKNOWN, LinkEvent.State.UNKNOWN, -1, -1);
 
     private ConnectionState() {}
 
     public static boolean isConnected() {
-        return connected;
+        return last.isUp();
+    }
+
+    public static LinkEvent getLast() {
+        return last;
     }
 
     public static void setConnected(boolean connected) {
-        ConnectionState.connected = connected;
+        LinkEvent prev = last;
+        publish(new LinkEvent(connected ? LinkEvent.State.UP : LinkEvent.State.DOWN, prev.getState(),
+                prev.getRttMedianMicros(), prev.getRttP99Micros()));
+    }
+
+    public static void publish(LinkEvent event) {
+        last = event;
+        for (Consumer<LinkEvent> l : listeners) {
+            try {
+                l.accept(event);
+            } catch (Exception ignored) {}
+        }
+    }
+
+    /**
+     * Subscribe to link events. The listener immediately receives the latest event.
+     * Returns a handle that unsubscribes when run.
+     */
+    public static Runnable subscribe(Consumer<LinkEvent> listener) {
+        listeners.add(listener);
+        listener.accept(last);
+        return () -> listeners.remove(listener);
     }
 }
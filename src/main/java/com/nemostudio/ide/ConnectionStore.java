@@ -17,6 +17,8 @@ public final class ConnectionStore {
     private static final String KEY_HOST = "host";
     private static final String KEY_USER = "user";
     private static final String KEY_REMOTE_FOLDER = "remoteFolder";
+    private static final String KEY_RECORD_SESSIONS = "recordSessions";
+    private static final String KEY_SYNC_FOLDER = "syncFolder";
 
     private ConnectionStore() {}
 
@@ -38,6 +40,16 @@ public final class ConnectionStore {
         return loadProperty(KEY_REMOTE_FOLDER);
     }
 
+    /** Whether terminal sessions are recorded to ~/.nemostudio/sessions (off unless the user opts in). */
+    public static boolean loadRecordSessions() {
+        return Boolean.parseBoolean(loadProperty(KEY_RECORD_SESSIONS));
+    }
+
+    /** Local folder last bound to remote data/sample by Project → Sync Local Folder (empty if none). */
+    public static String loadSyncFolder() {
+        return loadProperty(KEY_SYNC_FOLDER);
+    }
+
     private static String loadProperty(String key) {
         Path path = getConfigPath();
         if (!Files.isRegularFile(path)) {
@@ -103,4 +115,46 @@ public final class ConnectionStore {
             p.store(out, "Nemo Studio connection (editable)");
         }
     }
+
+    /**
+     * Saves the session recording opt-in. Other keys are preserved.
+     */
+    public static void saveRecordSessions(boolean on) throws IOException {
+        Path path = getConfigPath();
+        Path dir = path.getParent();
+        if (dir != null && !Files.isDirectory(dir)) {
+            Files.createDirectories(dir);
+        }
+        Properties p = new Properties();
+        if (Files.isRegularFile(path)) {
+            try (var in = Files.newInputStream(path)) {
+                p.load(in);
+            }
+        }
+        p.setProperty(KEY_RECORD_SESSIONS, String.valueOf(on));
+        try (var out = Files.newOutputStream(path)) {
+            p.store(out, "Nemo Studio connection (editable)");
+        }
+    }
+
+    /**
+     * Saves the local sync folder. Other keys are preserved.
+     */
+    public static void saveSyncFolder(String folder) throws IOException {
+        Path path = getConfigPath();
+        Path dir = path.getParent();
+        if (dir != null && !Files.isDirectory(dir)) {
+            Files.createDirectories(dir);
+        }
+        Properties p = new Properties();
+        if (Files.isRegularFile(path)) {
+            try (var in = Files.newInputStream(path)) {
+                p.load(in);
+            }
+        }
+        p.setProperty(KEY_SYNC_FOLDER, folder == null ? "" : folder.trim());
+        try (var out = Files.newOutputStream(path)) {
+            p.store(out, "Nemo Studio connection (editable)");
+        }
+    }
 }
@@ -0,0 +1,315 @@
+package com.nemostudio.ide;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.CheckMenuItem;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MenuButton;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.control.TextField;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.control.skin.VirtualFlow;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.util.Duration;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Logs of several containers at once, next to the docker status panel. Each checked container is followed
+ * by its own ContainerLogStream (one exec channel on the pooled session, bounded ring buffer). Every REFRESH
+ * the panel merges the rings into one timestamp-ordered view of the newest MAX_VIEW_LINES lines that pass the
+ * level and regex filters. The merge runs on a background thread and the ListView only renders visible rows,
+ * so a chatty GPU worker does not slow the UI. Pause freezes the view; the streams keep reading into their
+ * rings, and resuming shows everything that arrived meanwhile (up to each ring's capacity). New lines scroll
+ * the view only while it is at the bottom; scrolled up, it stays on the line at the top. The refresh only
+ * runs while the panel is shown (activate / deactivate) and in a scene.
+ */
+public final class ContainerLogPanel extends BorderPane {
+
+    private static final int MAX_VIEW_LINES = 5000;
+    private static final Duration REFRESH = Duration.millis(250);
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private final ObservableList<ContainerLogStream.Line> view = FXCollections.observableArrayList();
+    private final ListView<ContainerLogStream.Line> list = new ListView<>(view);
+    private final MenuButton containersButton = new MenuButton("Containers");
+    private final ComboBox<String> sinceBox = new ComboBox<>();
+    private final ComboBox<ContainerLogStream.Level> levelBox = new ComboBox<>();
+    private final TextField regexField = new TextField();
+    private final ToggleButton pauseBtn = new ToggleButton("Pause");
+    private final Label statusLabel = new Label("Pick containers to follow.");
+    /** Followed containers by id; FX thread only. */
+    private final Map<String, ContainerLogStream> streams = new LinkedHashMap<>();
+    private final Timeline timeline = new Timeline(new KeyFrame(REFRESH, e -> refresh()));
+    private final ExecutorService merger = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "container-log-merge");
+        t.setDaemon(true);
+        return t;
+    });
+    private Pattern regex;
+    private long shownAppended = -1;
+    private boolean filtersChanged;
+    private boolean merging;
+    private boolean activated;
+    private boolean shown;
+
+    public ContainerLogPanel() {
+        sinceBox.getItems().addAll("1m", "10m", "1h", "24h");
+        sinceBox.setValue("10m");
+        sinceBox.setOnAction(e -> restartStreams());
+        levelBox.getItems().addAll(ContainerLogStream.Level.values());
+        levelBox.setValue(ContainerLogStream.Level.DEBUG);
+        levelBox.setOnAction(e -> filtersChanged = true);
+        regexField.setPromptText("Filter (regex)");
+        regexField.textProperty().addListener((o, old, text) -> {
+            try {
+                regex = text == null || text.isEmpty() ? null : Pattern.compile(text, Pattern.CASE_INSENSITIVE);
+                regexField.setStyle("");
+            } catch (PatternSyntaxException ex) {
+                regexField.setStyle("-fx-border-color: #d32f2f;");
+                return;
+            }
+            filtersChanged = true;
+        });
+        HBox.setHgrow(regexField, Priority.ALWAYS);
+        containersButton.setOnShowing(e -> loadContainers(false));
+
+        HBox toolbar = new HBox(6, containersButton, new Label("Since"), sinceBox, new Label("Level ≥"), levelBox,
+                regexField, pauseBtn);
+        toolbar.setAlignment(Pos.CENTER_LEFT);
+        toolbar.setPadding(new Insets(4));
+        statusLabel.setPadding(new Insets(2, 4, 2, 4));
+
+        list.setStyle("-fx-font-family: monospace; -fx-font-size: 12px;");
+        list.setPlaceholder(new Label("No log lines (yet)."));
+        list.setCellFactory(lv -> new ListCell<>() {
+            @Override
+            protected void updateItem(ContainerLogStream.Line line, boolean empty) {
+                super.updateItem(line, empty);
+                if (empty || line == null) {
+                    setText(null);
+                    setStyle("");
+                    return;
+                }
+                setText(TIME.format(Instant.ofEpochSecond(0, line.epochNanos)) + "  " + line.stream.name + " │ "
+                        + line.text);
+                setStyle(switch (line.level) {
+                    case ERROR -> "-fx-text-fill: #d32f2f;";
+                    case WARN -> "-fx-text-fill: #e65100;";
+                    case DEBUG -> "-fx-text-fill: #888;";
+                    case INFO -> "";
+                });
+            }
+        });
+
+        setTop(toolbar);
+        setCenter(list);
+        setBottom(statusLabel);
+
+        timeline.setCycleCount(Timeline.INDEFINITE);
+        sceneProperty().addListener((o, old, scene) -> updateTimeline());
+    }
+
+    /** Called when the panel is shown: starts the refresh, and the first time follows the Curator containers. */
+    public void activate() {
+        shown = true;
+        updateTimeline();
+        if (activated) return;
+        activated = true;
+        loadContainers(true);
+    }
+
+    /** Called when the panel is hidden: stops the refresh. The streams keep filling their rings. */
+    public void deactivate() {
+        shown = false;
+        updateTimeline();
+    }
+
+    private void updateTimeline() {
+        if (shown && getScene() != null) timeline.play();
+        else timeline.stop();
+    }
+
+    /** Stop following every container. */
+    public void stopAll() {
+        for (ContainerLogStream s : streams.values()) s.stop();
+        streams.clear();
+        filtersChanged = true;
+    }
+
+    /**
+     * Fill the Containers menu from RemoteEnvironment (running containers, cached for a few seconds). With
+     * selectCurator, the Curator containers are followed right away.
+     */
+    private void loadContainers(boolean selectCurator) {
+        RemoteEnvironment.getAsync(EnumSet.of(RemoteEnvironment.Field.CONTAINERS), env -> {
+            List<String[]> containers = new ArrayList<>();
+            for (String line : env.all(RemoteEnvironment.Field.CONTAINERS, "container")) {
+                String[] f = line.split("\t");
+                if (f.length >= 4) containers.add(f);
+            }
+            Platform.runLater(() -> showContainers(containers, selectCurator));
+        });
+    }
+
+    /** containers: id, image, status, names. */
+    private void showContainers(List<String[]> containers, boolean selectCurator) {
+        List<MenuItem> items = new ArrayList<>();
+        for (String[] c : containers) {
+            String id = c[0];
+            String name = c[3];
+            CheckMenuItem item = new CheckMenuItem(name + "  (" + c[1] + ", " + c[2] + ")");
+            item.setSelected(streams.containsKey(id));
+            item.setOnAction(e -> {
+                if (item.isSelected()) follow(id, name);
+                else unfollow(id);
+            });
+            items.add(item);
+            if (selectCurator && c[1].equals(CuratorRunner.CURATOR_IMAGE) && !streams.containsKey(id)) {
+                item.setSelected(true);
+                follow(id, name);
+            }
+        }
+        if (items.isEmpty()) {
+            MenuItem none = new MenuItem("No running containers");
+            none.setDisable(true);
+            items.add(none);
+        }
+        MenuItem refresh = new MenuItem("Refresh list");
+        refresh.setOnAction(e -> {
+            TrafficScheduler.touch(TrafficScheduler.Priority.MONITORING);
+            RemoteEnvironment.invalidate(RemoteEnvironment.Field.CONTAINERS);
+            loadContainers(false);
+        });
+        items.add(new SeparatorMenuItem());
+        items.add(refresh);
+        containersButton.getItems().setAll(items);
+    }
+
+    private void follow(String id, String name) {
+        if (streams.containsKey(id)) return;
+        ContainerLogStream s = new ContainerLogStream(id, name, sinceBox.getValue());
+        streams.put(id, s);
+        s.start();
+        filtersChanged = true;
+    }
+
+    private void unfollow(String id) {
+        ContainerLogStream s = streams.remove(id);
+        if (s != null) s.stop();
+        filtersChanged = true;
+    }
+
+    /** A different --since: follow the same containers again from the new start. */
+    private void restartStreams() {
+        Map<String, String> followed = new LinkedHashMap<>();
+        for (ContainerLogStream s : streams.values()) followed.put(s.containerId, s.name);
+        stopAll();
+        followed.forEach(this::follow);
+    }
+
+    private void refresh() {
+        long appended = 0;
+        long dropped = 0;
+        List<String> states = new ArrayList<>();
+        for (ContainerLogStream s : streams.values()) {
+            appended += s.appended();
+            dropped += s.dropped();
+            if (!s.status().equals("following")) states.add(s.name + " " + s.status());
+        }
+        StringBuilder status = new StringBuilder();
+        status.append(streams.size()).append(streams.size() == 1 ? " stream" : " streams")
+                .append(String.format(" · %,d lines", appended));
+        if (dropped > 0) status.append(String.format(" · %,d rolled out of the buffers", dropped));
+        if (pauseBtn.isSelected()) {
+            status.append(String.format(" · paused (%,d new)", Math.max(0, appended - shownAppended)));
+        }
+        if (!states.isEmpty()) status.append(" · ").append(String.join(", ", states));
+        statusLabel.setText(status.toString());
+
+        if (pauseBtn.isSelected() || merging || (appended == shownAppended && !filtersChanged)) return;
+        merging = true;
+        filtersChanged = false;
+        long target = appended;
+        List<ContainerLogStream> sources = new ArrayList<>(streams.values());
+        ContainerLogStream.Level minLevel = levelBox.getValue();
+        Pattern filter = regex;
+        merger.execute(() -> {
+            List<ContainerLogStream.Line> merged = merge(sources, minLevel, filter);
+            Platform.runLater(() -> {
+                merging = false;
+                if (pauseBtn.isSelected()) return;
+                shownAppended = target;
+                VirtualFlow<?> flow = (VirtualFlow<?>) list.lookup(".virtual-flow");
+                IndexedCell<?> first = flow == null ? null : flow.getFirstVisibleCell();
+                IndexedCell<?> last = flow == null ? null : flow.getLastVisibleCell();
+                boolean follow = last == null || last.getIndex() >= view.size() - 1;
+                ContainerLogStream.Line top = follow || first.getIndex() >= view.size()
+                        ? null : view.get(first.getIndex());
+                view.setAll(merged);
+                if (follow) {
+                    if (!merged.isEmpty()) list.scrollTo(merged.size() - 1);
+                } else if (top != null) {
+                    int at = merged.indexOf(top);
+                    if (at >= 0) list.scrollTo(at);
+                }
+            });
+        });
+    }
+
+    /**
+     * The newest MAX_VIEW_LINES lines across sources that pass the filters, oldest first, ordered by timestamp
+     * (then arrival). Each ring is already in time order, so this walks all rings backwards from their ends.
+     */
+    private static List<ContainerLogStream.Line> merge(List<ContainerLogStream> sources, ContainerLogStream.Level minLevel,
+                                                       Pattern filter) {
+        List<List<ContainerLogStream.Line>> snapshots = new ArrayList<>();
+        for (ContainerLogStream s : sources) snapshots.add(s.snapshot());
+        int[] pos = new int[snapshots.size()];
+        for (int i = 0; i < pos.length; i++) pos[i] = snapshots.get(i).size() - 1;
+        List<ContainerLogStream.Line> out = new ArrayList<>();
+        while (out.size() < MAX_VIEW_LINES) {
+            int best = -1;
+            for (int i = 0; i < pos.length; i++) {
+                if (pos[i] < 0) continue;
+                if (best < 0 || newer(snapshots.get(i).get(pos[i]), snapshots.get(best).get(pos[best]))) best = i;
+            }
+            if (best < 0) break;
+            ContainerLogStream.Line line = snapshots.get(best).get(pos[best]--);
+            if (line.level.compareTo(minLevel) > 0) continue;
+            if (filter != null && !filter.matcher(line.text).find()) continue;
+            out.add(line);
+        }
+        Collections.reverse(out);
+        return out;
+    }
+
+    private static boolean newer(ContainerLogStream.Line a, ContainerLogStream.Line b) {
+        return a.epochNanos != b.epochNanos ? a.epochNanos > b.epochNanos : a.arrival > b.arrival;
+    }
+}
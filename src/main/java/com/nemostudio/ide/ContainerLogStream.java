@@ -0,0 +1,205 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.Session;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Follows one container's log with {@code docker logs -f --timestamps --since} on an exec channel of the
+ * pooled session, and keeps the newest CAPACITY lines in a ring buffer. The reader thread never touches the
+ * UI: ContainerLogPanel polls the rings and merges them. If the exec ends while the stream is still wanted
+ * (link drop, daemon restart), it is reopened with --since set to the last timestamp seen, and lines at or
+ * before that timestamp are skipped so nothing is shown twice.
+ */
+final class ContainerLogStream {
+
+    static final int CAPACITY = 20_000;
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    private static final long RETRY_MS = 3000;
+
+    enum Level { ERROR, WARN, INFO, DEBUG }
+
+    private static final Pattern ERROR = Pattern.compile("\\b(ERROR|CRITICAL|FATAL|Traceback)\\b|\\bE\\d{4} ",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern WARN = Pattern.compile("\\bWARN(ING)?\\b|\\bW\\d{4} ", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DEBUG = Pattern.compile("\\b(DEBUG|TRACE)\\b", Pattern.CASE_INSENSITIVE);
+
+    /** Arrival order across all streams; breaks ties between equal timestamps in the merged view. */
+    private static final AtomicLong arrivals = new AtomicLong();
+
+    /** One log line. */
+    static final class Line {
+        final long epochNanos;
+        final long arrival;
+        final ContainerLogStream stream;
+        final Level level;
+        final String text;
+
+        Line(long epochNanos, long arrival, ContainerLogStream stream, Level level, String text) {
+            this.epochNanos = epochNanos;
+            this.arrival = arrival;
+            this.stream = stream;
+            this.level = level;
+            this.text = text;
+        }
+    }
+
+    final String containerId;
+    final String name;
+    private final String since;
+    private final Line[] ring = new Line[CAPACITY];
+    private int head;
+    private int size;
+    private long appended;
+    private long dropped;
+    private volatile boolean stopped;
+    private volatile ChannelExec channel;
+    private volatile String status = "starting";
+    private long lastNanos = Long.MIN_VALUE;
+    /** After a reconnect, lines up to this time were already read. */
+    private long skipUpTo = Long.MIN_VALUE;
+    private String lastTimestamp;
+
+    /** since is passed to docker logs --since (e.g. "10m", or a timestamp). */
+    ContainerLogStream(String containerId, String name, String since) {
+        this.containerId = containerId;
+        this.name = name;
+        this.since = since;
+    }
+
+    void start() {
+        Thread t = new Thread(this::run, "container-log-" + name);
+        t.setDaemon(true);
+        t.start();
+    }
+
+    void stop() {
+        stopped = true;
+        ChannelExec ch = channel;
+        if (ch != null) ch.disconnect();
+    }
+
+    /** Lines appended since the stream started; the panel compares this to see whether to rebuild its view. */
+    synchronized long appended() {
+        return appended;
+    }
+
+    /** Lines evicted from the ring because it was full. */
+    synchronized long dropped() {
+        return dropped;
+    }
+
+    String status() {
+        return status;
+    }
+
+    /** The ring's lines, oldest first. */
+    synchronized List<Line> snapshot() {
+        List<Line> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add(ring[(head + i) % CAPACITY]);
+        return out;
+    }
+
+    private synchronized void add(Line line) {
+        ring[(head + size) % CAPACITY] = line;
+        if (size < CAPACITY) {
+            size++;
+        } else {
+            head = (head + 1) % CAPACITY;
+            dropped++;
+        }
+        appended++;
+    }
+
+    private void run() {
+        while (!stopped) {
+            try {
+                follow(SessionPool.acquire());
+                if (stopped) return;
+                status = "ended";
+                // docker logs -f returns when the container stops; check whether it is still running
+                if (!isRunning()) return;
+            } catch (Exception e) {
+                if (stopped) return;
+                status = "reconnecting (" + e.getMessage() + ")";
+            }
+            try {
+                Thread.sleep(RETRY_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void follow(Session session) throws Exception {
+        String from = lastTimestamp != null ? lastTimestamp : since;
+        skipUpTo = lastNanos;
+        String command = "docker logs -f --timestamps --since " + RemoteExec.shellQuote(from) + " "
+                + RemoteExec.shellQuote(containerId) + " 2>&1";
+        ChannelExec ch = (ChannelExec) session.openChannel("exec");
+        ch.setCommand(command);
+        channel = ch;
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(ch.getInputStream(), StandardCharsets.UTF_8));
+            FlightEvents.ChannelOpen event = new FlightEvents.ChannelOpen(session.getHost(), "exec");
+            ch.connect(CONNECT_TIMEOUT_MS);
+            event.commit();
+            if (stopped) return;
+            status = "following";
+            String raw;
+            while ((raw = reader.readLine()) != null) {
+                accept(raw);
+            }
+        } finally {
+            channel = null;
+            ch.disconnect();
+        }
+    }
+
+    private void accept(String raw) {
+        int sp = raw.indexOf(' ');
+        long nanos;
+        String text;
+        try {
+            Instant ts = Instant.parse(sp > 0 ? raw.substring(0, sp) : raw);
+            nanos = ts.getEpochSecond() * 1_000_000_000L + ts.getNano();
+            text = sp > 0 ? raw.substring(sp + 1) : "";
+            if (nanos <= skipUpTo) return; // Already read before a reconnect
+            if (nanos >= lastNanos) {
+                lastNanos = nanos;
+                lastTimestamp = raw.substring(0, sp > 0 ? sp : raw.length());
+            }
+        } catch (DateTimeParseException e) {
+            // Not a log line (e.g. "Error: No such container"): keep it, stamped with the previous line's time
+            nanos = lastNanos == Long.MIN_VALUE ? System.currentTimeMillis() * 1_000_000L : lastNanos;
+            text = raw;
+        }
+        add(new Line(nanos, arrivals.incrementAndGet(), this, levelOf(text), text));
+    }
+
+    static Level levelOf(String text) {
+        if (ERROR.matcher(text).find()) return Level.ERROR;
+        if (WARN.matcher(text).find()) return Level.WARN;
+        if (DEBUG.matcher(text).find()) return Level.DEBUG;
+        return Level.INFO;
+    }
+
+    private boolean isRunning() {
+        try {
+            String out = RemoteExec.capture(SessionPool.acquire(),
+                    "docker inspect -f '{{.State.Running}}' " + RemoteExec.shellQuote(containerId));
+            return out.trim().equals("true");
+        } catch (Exception e) {
+            return true; // Unknown: keep trying
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.Session;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * One long-lived {@code docker exec -i <container> sh} per container, attached through an SSH exec channel,
+ * so in-container commands skip the docker exec setup (hundreds of ms each) and finish in milliseconds.
+ * Commands are written to the shell's stdin one at a time. Each runs in a subshell (so cd or exit cannot
+ * disturb the next), with stdin from /dev/null and stderr merged. It is followed by a printf of a per-shell
+ * sentinel and the exit code, and output is read up to that sentinel. A failed read or a broken channel closes
+ * the shell; the next call opens a new one. Each command has a deadline: a command still running then (tail -f,
+ * a long script) has its shell closed and, through a one-off docker exec, the shell's process tree in the
+ * container killed, so it can neither hold the shell for later callers nor keep running unseen. SessionPool
+ * closes a session's shells when it drops the session.
+ */
+public final class ContainerShell {
+
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    /** Kills the process tree under PID $1, children first; only needs /proc and sed in the container. */
+    private static final String KILL_TREE = "k() { for p in /proc/[0-9]*; do"
+            + " [ \"$(sed -n 's/^PPid:[[:space:]]*//p' $p/status 2>/dev/null)\" = \"$1\" ] && k \"${p#/proc/}\";"
+            + " done; kill -KILL \"$1\" 2>/dev/null; }; k \"$1\"";
+    /** Deadline for run(command, onLine). */
+    public static final long DEFAULT_TIMEOUT_MS = 60_000;
+    private static final Map<String, ContainerShell> shells = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "container-shell-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Session session;
+    private final String container;
+    private final String sentinel = "__NSD_" + UUID.randomUUID().toString().replace("-", "") + "_EXIT_";
+    /** Held while a command runs; callers wait for it no longer than their own deadline. */
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile ChannelExec channel;
+    /** PID of the shell inside the container, read when it opens. */
+    private volatile int pid;
+    private OutputStream stdin;
+    private BufferedReader stdout;
+
+    private ContainerShell(Session session, String container) {
+        this.session = session;
+        this.container = container;
+    }
+
+    /** Shared shell for container on session's host, opened on first use. */
+    public static ContainerShell forContainer(Session session, String container) {
+        String key = session.getUserName() + "@" + session.getHost() + "/" + container;
+        return shells.compute(key, (k, shell) -> {
+            if (shell != null && shell.session == session) return shell;
+            if (shell != null) shell.close();
+            return new ContainerShell(session, container);
+        });
+    }
+
+    /** Close every container shell (e.g. when their sessions go away). */
+    public static void closeAll() {
+        for (ContainerShell shell : shells.values()) {
+            shell.close();
+        }
+        shells.clear();
+    }
+
+    /** Close and forget the shells opened on session (SessionPool calls this when it drops the session). */
+    public static void closeFor(Session session) {
+        shells.values().removeIf(shell -> {
+            if (shell.session != session) return false;
+            shell.close();
+            return true;
+        });
+    }
+
+    /** Run command with the DEFAULT_TIMEOUT_MS deadline; see run(String, Consumer, long). */
+    public int run(String command, Consumer<String> onLine) throws Exception {
+        return run(command, onLine, DEFAULT_TIMEOUT_MS);
+    }
+
+    /**
+     * Run command in the container (stderr merged) and pass each output line to onLine (on the calling thread).
+     * Callers on other threads wait their turn. Returns the command's exit status. Throws TimeoutException if
+     * the shell is still busy with another command after timeoutMs, or if this command has not finished
+     * timeoutMs after it was called (its shell is then closed).
+     */
+    public int run(String command, Consumer<String> onLine, long timeoutMs) throws Exception {
+        long start = System.nanoTime();
+        if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("Container shell for " + container + " is busy with another command");
+        }
+        AtomicBoolean expired = new AtomicBoolean();
+        ScheduledFuture<?> deadline = null;
+        try {
+            if (!isOpen()) open();
+            ChannelExec ch = channel;
+            int shellPid = pid;
+            long left = timeoutMs - (System.nanoTime() - start) / 1_000_000;
+            deadline = watchdog.schedule(() -> {
+                expired.set(true);
+                ch.disconnect();
+                kill(shellPid);
+            }, Math.max(1, left), TimeUnit.MILLISECONDS);
+            stdin.write(("( " + command + "\n) </dev/null 2>&1; printf '%s%d\\n' '" + sentinel + "' $?\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            stdin.flush();
+            String line;
+            while ((line = stdout.readLine()) != null) {
+                int at = line.indexOf(sentinel);
+                if (at < 0) {
+                    if (onLine != null) onLine.accept(line);
+                    continue;
+                }
+                // Output that did not end in a newline shares the sentinel's line
+                if (at > 0 && onLine != null) onLine.accept(line.substring(0, at));
+                Metrics.CONTAINER_EXEC.recordNanos(System.nanoTime() - start);
+                return Integer.parseInt(line.substring(at + sentinel.length()).trim());
+            }
+            throw new IOException("Container shell for " + container + " closed"
+                    + (ch.isClosed() ? " (exit " + ch.getExitStatus() + ")" : ""));
+        } catch (Exception e) {
+            // The stream may be mid-command: start over with a fresh shell next time
+            close();
+            if (expired.get()) {
+                throw new TimeoutException("Container command did not finish within " + timeoutMs / 1000 + " s");
+            }
+            throw e;
+        } finally {
+            if (deadline != null) deadline.cancel(false);
+            lock.unlock();
+        }
+    }
+
+    /** True while a command is running on this shell. */
+    public boolean isBusy() {
+        return lock.isLocked();
+    }
+
+    /** Run command and return its whole output; throws if the exit status is not 0. */
+    public String capture(String command) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        int exit = run(command, line -> sb.append(line).append('\n'));
+        if (exit != 0) {
+            throw new Exception("Container command failed (exit " + exit + "): " + sb.toString().trim());
+        }
+        return sb.toString();
+    }
+
+    /** Close the shell; a command running on it fails. Does not wait for the running command. */
+    public void close() {
+        ChannelExec ch = channel;
+        channel = null;
+        if (ch != null) ch.disconnect();
+    }
+
+    /** Kill the shell's process tree in the container: closing the channel does not stop it without a tty. */
+    private void kill(int shellPid) {
+        try {
+            RemoteExec.run(session, "docker exec " + RemoteExec.shellQuote(container) + " sh -c "
+                    + RemoteExec.shellQuote(KILL_TREE) + " sh " + shellPid, null, null);
+        } catch (Exception ignored) {
+            // Container or session already gone: nothing left to kill
+        }
+    }
+
+    private boolean isOpen() {
+        ChannelExec ch = channel;
+        return ch != null && ch.isConnected() && !ch.isClosed() && session.isConnected();
+    }
+
+    private void open() throws Exception {
+        close();
+        ChannelExec ch = (ChannelExec) session.openChannel("exec");
+        ch.setCommand("docker exec -i " + RemoteExec.shellQuote(container) + " sh 2>&1");
+        stdout = new BufferedReader(new InputStreamReader(ch.getInputStream(), StandardCharsets.UTF_8));
+        stdin = ch.getOutputStream();
+        FlightEvents.ChannelOpen event = new FlightEvents.ChannelOpen(session.getHost(), "docker-exec");
+        ch.connect(CONNECT_TIMEOUT_MS);
+        event.commit();
+        channel = ch;
+        stdin.write("echo $$\n".getBytes(StandardCharsets.UTF_8));
+        stdin.flush();
+        String first = stdout.readLine();
+        try {
+            pid = Integer.parseInt(first == null ? "" : first.trim());
+        } catch (NumberFormatException e) {
+            // docker exec's own error ("No such container", ...) arrives instead of the PID
+            throw new IOException("Cannot open a shell in " + container + (first == null ? "" : ": " + first));
+        }
+    }
+}
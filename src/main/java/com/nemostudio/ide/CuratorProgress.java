@@ -0,0 +1,251 @@
+package com.nemostudio.ide;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the console output of a NeMo Curator pipeline into per-stage figures. Understands three shapes of
+ * progress output: tqdm bars (Ray Data, "MapBatches(WordCountStage): 40%|###| 80/200 [00:02<00:03, 38.1 row/s]"),
+ * box or pipe tables with a header row (the Xenna status table, matched by column name), and plain log lines
+ * (loguru) that name a known stage next to "N tasks", "X tasks/s" or "latency X ms". When a stage reports a
+ * count but no rate, the rate is derived from how fast the count grows. Fed from one thread; snapshot() may be
+ * called from any.
+ */
+final class CuratorProgress {
+
+    private static final Pattern ANSI = Pattern.compile("\u001B\\[[0-9;?]*[ -/]*[@-~]");
+    private static final Pattern TQDM = Pattern.compile(
+            "^(.*?):?\\s*(\\d{1,3})%\\|[^|]*\\|\\s*(\\d+)(?:/(\\d+|\\?))?\\s*\\[([^\\]]*)\\]");
+    private static final Pattern TQDM_RATE = Pattern.compile("([\\d.]+)\\s*([A-Za-z]*)/s\\b");
+    private static final Pattern TQDM_INVERSE = Pattern.compile("([\\d.]+)\\s*s/([A-Za-z]+)");
+    private static final Pattern DECLARED = Pattern.compile("^\\s*(?:Stage\\s*)?\\d+\\s*[.:)]\\s*([A-Za-z_][\\w]*)");
+    private static final Pattern STAGE_WORD = Pattern.compile("\\b([A-Z][A-Za-z0-9]*Stage)\\b");
+    private static final Pattern LOG_TASKS = Pattern.compile("\\b(\\d+)\\s+tasks?\\b(?!\\s*/)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LOG_RATE = Pattern.compile("([\\d.]+)\\s*tasks?/s", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LOG_LATENCY = Pattern.compile(
+            "(?:latency|time per task|process(?:ing)?[_ ]time)\\D{0,4}([\\d.]+)\\s*(ms|s)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TOOK = Pattern.compile("took\\s+([\\d.]+)\\s*s", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NUMBER = Pattern.compile("-?[\\d.]+");
+
+    /** Figures for one stage; -1 means not reported (yet). */
+    static final class StageStats {
+        final String name;
+        long tasks = -1;
+        long total = -1;
+        double tasksPerSecond = -1;
+        double latencyMs = -1;
+        boolean rateReported;
+        long firstTasks = -1;
+        long firstNanos;
+        long lastNanos;
+
+        StageStats(String name) {
+            this.name = name;
+        }
+
+        StageStats copy() {
+            StageStats s = new StageStats(name);
+            s.tasks = tasks;
+            s.total = total;
+            s.tasksPerSecond = tasksPerSecond;
+            s.latencyMs = latencyMs;
+            s.rateReported = rateReported;
+            s.firstTasks = firstTasks;
+            s.firstNanos = firstNanos;
+            s.lastNanos = lastNanos;
+            return s;
+        }
+    }
+
+    private final Map<String, StageStats> stages = new LinkedHashMap<>();
+    private String[] header;
+    private int stageCol = -1;
+    private int tasksCol = -1;
+    private int rateCol = -1;
+    private int latencyCol = -1;
+    private double reportedSeconds = -1;
+
+    synchronized void accept(String rawLine) {
+        long now = System.nanoTime();
+        String line = ANSI.matcher(rawLine).replaceAll("").trim();
+        if (line.isEmpty()) return;
+
+        Matcher took = TOOK.matcher(line);
+        if (took.find()) reportedSeconds = parse(took.group(1));
+
+        Matcher bar = TQDM.matcher(line);
+        if (bar.find()) {
+            String name = stageName(bar.group(1));
+            if (name != null) {
+                StageStats s = stage(name);
+                String totalText = bar.group(4);
+                if (totalText != null && !totalText.equals("?")) s.total = Long.parseLong(totalText);
+                Matcher rate = TQDM_RATE.matcher(bar.group(5));
+                Matcher inverse = TQDM_INVERSE.matcher(bar.group(5));
+                if (rate.find()) {
+                    s.tasksPerSecond = parse(rate.group(1));
+                    s.rateReported = true;
+                } else if (inverse.find() && parse(inverse.group(1)) > 0) {
+                    s.tasksPerSecond = 1 / parse(inverse.group(1));
+                    s.rateReported = true;
+                }
+                setTasks(s, Long.parseLong(bar.group(3)), now);
+            }
+            return;
+        }
+
+        if (tableRow(line, now)) return;
+
+        Matcher declared = DECLARED.matcher(line);
+        if (declared.find() && looksLikeStage(declared.group(1))) {
+            stage(declared.group(1));
+            return;
+        }
+
+        // Plain log line: attribute figures to the stage it names
+        StageStats s = null;
+        for (StageStats known : stages.values()) {
+            if (line.contains(known.name)) {
+                s = known;
+                break;
+            }
+        }
+        if (s == null) {
+            Matcher word = STAGE_WORD.matcher(line);
+            if (!word.find()) return;
+            s = stage(word.group(1));
+        }
+        Matcher rate = LOG_RATE.matcher(line);
+        if (rate.find()) {
+            s.tasksPerSecond = parse(rate.group(1));
+            s.rateReported = true;
+        }
+        Matcher latency = LOG_LATENCY.matcher(line);
+        if (latency.find()) {
+            double v = parse(latency.group(1));
+            s.latencyMs = latency.group(2).equalsIgnoreCase("s") ? v * 1000 : v;
+        }
+        Matcher tasks = LOG_TASKS.matcher(line);
+        if (tasks.find()) setTasks(s, Long.parseLong(tasks.group(1)), now);
+        s.lastNanos = now;
+    }
+
+    /** Copies of all stages in the order they were first seen. */
+    synchronized List<StageStats> snapshot() {
+        List<StageStats> out = new ArrayList<>(stages.size());
+        for (StageStats s : stages.values()) out.add(s.copy());
+        return out;
+    }
+
+    /** Wall time the script printed itself ("took N seconds"), or -1. */
+    synchronized double reportedSeconds() {
+        return reportedSeconds;
+    }
+
+    /**
+     * A header row ("Stage | ... | Completed | Throughput (tasks/s) | Latency ...") sets the column mapping;
+     * later rows with a stage name in the stage column are read through it. Returns true if line was a row.
+     */
+    private boolean tableRow(String line, long now) {
+        if (line.indexOf('|') < 0 && line.indexOf('│') < 0 && line.indexOf('┃') < 0) return false;
+        String[] cells = line.split("\\s*[|│┃]\\s*", -1);
+        List<String> kept = new ArrayList<>();
+        for (String c : cells) {
+            if (!c.isEmpty()) kept.add(c.trim());
+        }
+        if (kept.size() < 2) return false;
+        String[] row = kept.toArray(new String[0]);
+
+        int nameCol = -1;
+        for (int i = 0; i < row.length; i++) {
+            if (row[i].equalsIgnoreCase("stage") || row[i].equalsIgnoreCase("stage name")) nameCol = i;
+        }
+        if (nameCol >= 0) {
+            header = row;
+            stageCol = nameCol;
+            tasksCol = rateCol = latencyCol = -1;
+            for (int i = 0; i < row.length; i++) {
+                String h = row[i].toLowerCase(Locale.ROOT);
+                if (h.contains("/s") || h.contains("throughput") || h.contains("speed")) {
+                    if (rateCol < 0) rateCol = i;
+                } else if (h.contains("latency") || h.contains("time")) {
+                    if (latencyCol < 0) latencyCol = i;
+                } else if (h.contains("completed") || h.contains("processed") || h.equals("tasks")) {
+                    if (tasksCol < 0) tasksCol = i;
+                }
+            }
+            return true;
+        }
+        if (header == null || stageCol >= row.length) return false;
+        String name = stageName(row[stageCol]);
+        if (name == null) return false;
+        StageStats s = stage(name);
+        double rate = cellNumber(row, rateCol);
+        if (rate >= 0) {
+            s.tasksPerSecond = rate;
+            s.rateReported = true;
+        }
+        double latency = cellNumber(row, latencyCol);
+        if (latency >= 0) {
+            String h = header[latencyCol].toLowerCase(Locale.ROOT);
+            boolean seconds = (h.contains("(s)") || h.contains("[s]") || row[latencyCol].endsWith("s"))
+                    && !h.contains("ms") && !row[latencyCol].endsWith("ms");
+            s.latencyMs = seconds ? latency * 1000 : latency;
+        }
+        double tasks = cellNumber(row, tasksCol);
+        if (tasks >= 0) setTasks(s, (long) tasks, now);
+        s.lastNanos = now;
+        return true;
+    }
+
+    private void setTasks(StageStats s, long tasks, long now) {
+        if (s.firstTasks < 0) {
+            s.firstTasks = tasks;
+            s.firstNanos = now;
+        } else if (!s.rateReported && tasks > s.firstTasks && now > s.firstNanos) {
+            s.tasksPerSecond = (tasks - s.firstTasks) / ((now - s.firstNanos) / 1e9);
+        }
+        s.tasks = tasks;
+        s.lastNanos = now;
+    }
+
+    private StageStats stage(String name) {
+        return stages.computeIfAbsent(name, StageStats::new);
+    }
+
+    /** Stage name from a progress label: "- MapBatches(WordCountStage) 2" → "WordCountStage". */
+    private static String stageName(String label) {
+        String s = label.trim();
+        int open = s.lastIndexOf('(');
+        int close = s.indexOf(')', open + 1);
+        if (open >= 0 && close > open + 1) s = s.substring(open + 1, close);
+        s = s.replaceFirst("^[-*•>\\s]+", "").replaceFirst("[\\s:]+\\d*$", "").replaceFirst("^_+", "").trim();
+        return looksLikeStage(s) ? s : null;
+    }
+
+    private static boolean looksLikeStage(String s) {
+        if (s.isEmpty() || s.length() > 80 || !Character.isLetter(s.charAt(0))) return false;
+        String lower = s.toLowerCase(Locale.ROOT);
+        return !lower.equals("total") && !lower.startsWith("running") && s.chars().noneMatch(Character::isWhitespace);
+    }
+
+    private static double cellNumber(String[] row, int col) {
+        if (col < 0 || col >= row.length) return -1;
+        // "12/200" or "38.1 tasks/s": the first number in the cell
+        Matcher m = NUMBER.matcher(row[col]);
+        return m.find() ? parse(m.group()) : -1;
+    }
+
+    private static double parse(String s) {
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.nemostudio.ide;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * History of Curator pipeline runs in an editable properties file, like HostProfileStore.
+ * File: {@code ~/.nemostudio/curator-runs.properties} with keys {@code run.<id>.script}, {@code .args},
+ * {@code .label}, {@code .started}, {@code .wallMs}, {@code .exit}, {@code .stages} (one
+ * {@code name,tasks,tasksPerSecond,latencyMs} entry per stage, separated by ';'), plus {@code runs=<id>,...}
+ * newest first. Only the last MAX_RUNS are kept.
+ */
+public final class CuratorRunStore {
+
+    private static final String DIR_NAME = ".nemostudio";
+    private static final String FILE_NAME = "curator-runs.properties";
+    private static final String KEY_ORDER = "runs";
+    private static final int MAX_RUNS = 100;
+
+    /** One finished (or stopped) run. */
+    public static final class Run {
+        final String id;
+        final String script;
+        final String args;
+        final String label;
+        final long started;
+        final long wallMs;
+        final int exit;
+        final List<CuratorProgress.StageStats> stages;
+
+        Run(String id, String script, String args, String label, long started, long wallMs, int exit,
+            List<CuratorProgress.StageStats> stages) {
+            this.id = id;
+            this.script = script;
+            this.args = args;
+            this.label = label;
+            this.started = started;
+            this.wallMs = wallMs;
+            this.exit = exit;
+            this.stages = stages;
+        }
+    }
+
+    private CuratorRunStore() {}
+
+    public static Path getConfigPath() {
+        return Path.of(System.getProperty("user.home")).resolve(DIR_NAME).resolve(FILE_NAME);
+    }
+
+    /** All saved runs, newest first. */
+    public static List<Run> loadAll() {
+        List<Run> out = new ArrayList<>();
+        Properties p = load();
+        for (String id : p.getProperty(KEY_ORDER, "").split(",")) {
+            id = id.trim();
+            if (id.isEmpty()) continue;
+            String prefix = "run." + id + ".";
+            try {
+                out.add(new Run(id,
+                        p.getProperty(prefix + "script", ""),
+                        p.getProperty(prefix + "args", ""),
+                        p.getProperty(prefix + "label", ""),
+                        Long.parseLong(p.getProperty(prefix + "started", "0")),
+                        Long.parseLong(p.getProperty(prefix + "wallMs", "0")),
+                        Integer.parseInt(p.getProperty(prefix + "exit", "-1")),
+                        decodeStages(p.getProperty(prefix + "stages", ""))));
+            } catch (NumberFormatException e) {
+                // Hand-edited entry we cannot read: skip it
+            }
+        }
+        return out;
+    }
+
+    /** Add run as the newest entry, dropping the oldest beyond MAX_RUNS. */
+    public static synchronized void add(Run run) throws IOException {
+        Properties p = load();
+        List<String> order = new ArrayList<>();
+        order.add(run.id);
+        for (String id : p.getProperty(KEY_ORDER, "").split(",")) {
+            id = id.trim();
+            if (!id.isEmpty() && !id.equals(run.id)) order.add(id);
+        }
+        while (order.size() > MAX_RUNS) {
+            String dropped = order.remove(order.size() - 1);
+            p.keySet().removeIf(k -> k.toString().startsWith("run." + dropped + "."));
+        }
+        String prefix = "run." + run.id + ".";
+        p.setProperty(prefix + "script", run.script);
+        p.setProperty(prefix + "args", run.args);
+        p.setProperty(prefix + "label", run.label);
+        p.setProperty(prefix + "started", String.valueOf(run.started));
+        p.setProperty(prefix + "wallMs", String.valueOf(run.wallMs));
+        p.setProperty(prefix + "exit", String.valueOf(run.exit));
+        p.setProperty(prefix + "stages", encodeStages(run.stages));
+        p.setProperty(KEY_ORDER, String.join(",", order));
+
+        Path path = getConfigPath();
+        Path dir = path.getParent();
+        if (dir != null && !Files.isDirectory(dir)) {
+            Files.createDirectories(dir);
+        }
+        try (var out = Files.newOutputStream(path)) {
+            p.store(out, "Nemo Studio Curator run history (editable)");
+        }
+    }
+
+    private static Properties load() {
+        Properties p = new Properties();
+        Path path = getConfigPath();
+        if (Files.isRegularFile(path)) {
+            try (var in = Files.newInputStream(path)) {
+                p.load(in);
+            } catch (IOException e) {
+                // Start a fresh history
+            }
+        }
+        return p;
+    }
+
+    private static String encodeStages(List<CuratorProgress.StageStats> stages) {
+        StringBuilder sb = new StringBuilder();
+        for (CuratorProgress.StageStats s : stages) {
+            if (sb.length() > 0) sb.append(';');
+            sb.append(s.name.replace(';', '_').replace(',', '_')).append(',').append(s.tasks)
+                    .append(',').append(s.tasksPerSecond).append(',').append(s.latencyMs);
+        }
+        return sb.toString();
+    }
+
+    private static List<CuratorProgress.StageStats> decodeStages(String text) {
+        List<CuratorProgress.StageStats> out = new ArrayList<>();
+        for (String entry : text.split(";")) {
+            String[] f = entry.split(",");
+            if (f.length < 4) continue;
+            CuratorProgress.StageStats s = new CuratorProgress.StageStats(f[0]);
+            s.tasks = Long.parseLong(f[1]);
+            s.tasksPerSecond = Double.parseDouble(f[2]);
+            s.latencyMs = Double.parseDouble(f[3]);
+            out.add(s);
+        }
+        return out;
+    }
+}
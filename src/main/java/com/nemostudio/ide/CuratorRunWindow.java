@@ -0,0 +1,373 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.Session;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Workflow → Curator Runs: starts an example pipeline (or any script under /workspace) in the running Curator
+ * container via CuratorRunner, shows a live per-stage table parsed from its output (CuratorProgress) next to
+ * the raw log, and keeps a history of runs with wall time, arguments and per-stage throughput
+ * (CuratorRunStore) so runs with different batch sizes or executors can be compared. Selecting a past run
+ * shows its stage figures. One-off commands run in the container through its ContainerShell.
+ */
+public class CuratorRunWindow {
+
+    private static final int MAX_LOG_CHARS = 200_000;
+    private static final Duration REFRESH = Duration.millis(500);
+
+    /** Stage table row. */
+    private static final class StageRow {
+        final SimpleStringProperty name = new SimpleStringProperty();
+        final SimpleStringProperty tasks = new SimpleStringProperty();
+        final SimpleStringProperty rate = new SimpleStringProperty();
+        final SimpleStringProperty latency = new SimpleStringProperty();
+    }
+
+    /** History table row. */
+    private static final class RunRow {
+        final CuratorRunStore.Run run;
+        final SimpleStringProperty started = new SimpleStringProperty();
+        final SimpleStringProperty label = new SimpleStringProperty();
+        final SimpleStringProperty script = new SimpleStringProperty();
+        final SimpleStringProperty args = new SimpleStringProperty();
+        final SimpleStringProperty wall = new SimpleStringProperty();
+        final SimpleStringProperty exit = new SimpleStringProperty();
+        final SimpleStringProperty throughput = new SimpleStringProperty();
+
+        RunRow(CuratorRunStore.Run run) {
+            this.run = run;
+            started.set(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(run.started)));
+            label.set(run.label);
+            script.set(run.script);
+            args.set(run.args);
+            wall.set(formatWall(run.wallMs));
+            exit.set(String.valueOf(run.exit));
+            StringBuilder sb = new StringBuilder();
+            for (CuratorProgress.StageStats s : run.stages) {
+                if (s.tasksPerSecond < 0) continue;
+                if (sb.length() > 0) sb.append(", ");
+                sb.append(s.name).append(' ').append(String.format("%.1f/s", s.tasksPerSecond));
+            }
+            throughput.set(sb.toString());
+        }
+    }
+
+    public static void show(Stage owner) {
+        Stage stage = new Stage();
+        stage.initModality(Modality.NONE);
+        if (owner != null) {
+            stage.initOwner(owner);
+        }
+        stage.setTitle("Curator Runs");
+
+        ComboBox<String> scriptBox = new ComboBox<>();
+        scriptBox.setEditable(true);
+        scriptBox.getItems().addAll(CuratorRunner.EXAMPLE_SCRIPTS);
+        scriptBox.setValue(CuratorRunner.EXAMPLE_SCRIPTS[0]);
+        scriptBox.setPrefWidth(320);
+        TextField argsField = new TextField();
+        argsField.setPromptText("e.g. --split valid");
+        TextField labelField = new TextField();
+        labelField.setPromptText("e.g. batch_size=8, Xenna");
+        Button runBtn = new Button("Run");
+        runBtn.setDefaultButton(true);
+        Button stopBtn = new Button("Stop");
+        stopBtn.setDisable(true);
+
+        GridPane form = new GridPane();
+        form.setHgap(8);
+        form.setVgap(6);
+        form.add(new Label("Script (in " + CuratorRunner.WORKDIR + "):"), 0, 0);
+        form.add(scriptBox, 1, 0);
+        form.add(new Label("Arguments:"), 0, 1);
+        form.add(argsField, 1, 1);
+        form.add(new Label("Label:"), 0, 2);
+        form.add(labelField, 1, 2);
+        HBox runButtons = new HBox(8, runBtn, stopBtn);
+        form.add(runButtons, 2, 0);
+        TextField commandField = new TextField();
+        commandField.setPromptText("e.g. nvidia-smi, ls example/scripts");
+        Button execBtn = new Button("Exec");
+        form.add(new Label("Container command:"), 0, 3);
+        form.add(commandField, 1, 3);
+        form.add(execBtn, 2, 3);
+        GridPane.setHgrow(argsField, Priority.ALWAYS);
+
+        ObservableList<StageRow> stageRows = FXCollections.observableArrayList();
+        TableView<StageRow> stageTable = new TableView<>(stageRows);
+        stageTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        stageTable.getColumns().add(column("Stage", 220, r -> r.name));
+        stageTable.getColumns().add(column("Tasks", 100, r -> r.tasks));
+        stageTable.getColumns().add(column("Tasks/s", 90, r -> r.rate));
+        stageTable.getColumns().add(column("Latency (ms)", 100, r -> r.latency));
+        stageTable.setPlaceholder(new Label("Stage figures appear here once the pipeline reports progress."));
+
+        TextArea log = new TextArea();
+        log.setEditable(false);
+        log.setStyle("-fx-font-family: monospace; -fx-font-size: 12px;");
+
+        ObservableList<RunRow> runRows = FXCollections.observableArrayList();
+        for (CuratorRunStore.Run r : CuratorRunStore.loadAll()) runRows.add(new RunRow(r));
+        TableView<RunRow> history = new TableView<>(runRows);
+        history.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        history.getColumns().add(column("Started", 140, r -> r.started));
+        history.getColumns().add(column("Label", 140, r -> r.label));
+        history.getColumns().add(column("Script", 200, r -> r.script));
+        history.getColumns().add(column("Arguments", 120, r -> r.args));
+        history.getColumns().add(column("Wall time", 80, r -> r.wall));
+        history.getColumns().add(column("Exit", 50, r -> r.exit));
+        history.getColumns().add(column("Throughput", 260, r -> r.throughput));
+        history.setPlaceholder(new Label("No runs yet (" + CuratorRunStore.getConfigPath() + ")"));
+
+        SplitPane live = new SplitPane(stageTable, log);
+        live.setDividerPositions(0.45);
+        TitledPane historyPane = new TitledPane("History", history);
+        historyPane.setCollapsible(false);
+        SplitPane center = new SplitPane(live, historyPane);
+        center.setOrientation(Orientation.VERTICAL);
+        center.setDividerPositions(0.62);
+
+        Label statusLabel = new Label("Runs the script in the Curator container started by Get Ready 01.");
+        statusLabel.setStyle("-fx-text-fill: #666;");
+        Button closeBtn = new Button("Close");
+        closeBtn.setOnAction(e -> stage.close());
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox bottom = new HBox(10, statusLabel, spacer, closeBtn);
+        bottom.setAlignment(Pos.CENTER_LEFT);
+
+        VBox root = new VBox(10, form, center, bottom);
+        VBox.setVgrow(center, Priority.ALWAYS);
+        root.setPadding(new Insets(12));
+
+        // Run state, touched on the FX thread except where noted
+        CuratorProgress[] progress = { null };
+        StringBuilder pendingLog = new StringBuilder(); // Appended on the run thread; guarded by itself
+        long[] startedNanos = { 0 };
+        String[] running = { null, null }; // container, script while a run is active
+        Session[] runSession = { null };
+
+        Runnable refresh = () -> {
+            String chunk;
+            synchronized (pendingLog) {
+                chunk = pendingLog.toString();
+                pendingLog.setLength(0);
+            }
+            if (!chunk.isEmpty()) {
+                log.appendText(chunk);
+                if (log.getLength() > MAX_LOG_CHARS) log.deleteText(0, log.getLength() - MAX_LOG_CHARS);
+            }
+            if (progress[0] != null && running[0] != null) {
+                showStages(stageRows, progress[0].snapshot());
+                statusLabel.setText("Running " + running[1] + " in " + running[0] + " for "
+                        + formatWall((System.nanoTime() - startedNanos[0]) / 1_000_000));
+            }
+        };
+        Timeline timeline = new Timeline(new KeyFrame(REFRESH, e -> refresh.run()));
+        timeline.setCycleCount(Timeline.INDEFINITE);
+        timeline.play();
+        stage.setOnHidden(e -> timeline.stop());
+
+        history.getSelectionModel().selectedItemProperty().addListener((o, old, row) -> {
+            if (row != null && running[0] == null) {
+                showStages(stageRows, row.run.stages);
+                statusLabel.setText("Run of " + row.run.script + " on " + row.started.get() + ": " + row.wall.get()
+                        + ", exit " + row.run.exit);
+            }
+        });
+
+        runBtn.setOnAction(e -> {
+            String script = scriptBox.getEditor().getText() == null ? "" : scriptBox.getEditor().getText().trim();
+            if (script.isEmpty()) {
+                statusLabel.setText("Enter a script path.");
+                return;
+            }
+            String args = argsField.getText() == null ? "" : argsField.getText().trim();
+            String label = labelField.getText() == null ? "" : labelField.getText().trim();
+            runBtn.setDisable(true);
+            history.getSelectionModel().clearSelection();
+            stageRows.clear();
+            log.clear();
+            CuratorProgress p = new CuratorProgress();
+            progress[0] = p;
+            statusLabel.setText("Looking for the Curator container...");
+            new Thread(() -> {
+                long startedAt = System.currentTimeMillis();
+                int exit = -1;
+                String container = null;
+                try {
+                    Session session = SessionPool.acquire();
+                    container = CuratorRunner.findContainer(session);
+                    if (container == null) {
+                        Platform.runLater(() -> {
+                            statusLabel.setText("No running " + CuratorRunner.CURATOR_IMAGE
+                                    + " container. Run Get Ready 01 first.");
+                            runBtn.setDisable(false);
+                        });
+                        return;
+                    }
+                    String c = container;
+                    Platform.runLater(() -> {
+                        running[0] = c;
+                        running[1] = script;
+                        runSession[0] = session;
+                        startedNanos[0] = System.nanoTime();
+                        stopBtn.setDisable(false);
+                    });
+                    FlightEvents.WorkflowStep event = new FlightEvents.WorkflowStep("CuratorRun", script);
+                    exit = CuratorRunner.run(session, container, script, args, line -> {
+                        p.accept(line);
+                        synchronized (pendingLog) {
+                            pendingLog.append(line).append('\n');
+                        }
+                    });
+                    event.success = exit == 0;
+                    event.commit();
+                } catch (Exception ex) {
+                    synchronized (pendingLog) {
+                        pendingLog.append("[CuratorRun] Error: ").append(ex.getMessage()).append('\n');
+                    }
+                    if (container == null) {
+                        Platform.runLater(() -> {
+                            statusLabel.setText("Could not start: " + ex.getMessage());
+                            runBtn.setDisable(false);
+                        });
+                        return;
+                    }
+                }
+                long wallMs = System.currentTimeMillis() - startedAt;
+                double reported = p.reportedSeconds();
+                CuratorRunStore.Run run = new CuratorRunStore.Run(UUID.randomUUID().toString().substring(0, 8),
+                        script, args, label, startedAt, wallMs, exit, p.snapshot());
+                String saveError = null;
+                try {
+                    CuratorRunStore.add(run);
+                } catch (Exception ex) {
+                    saveError = ex.getMessage();
+                }
+                int exitCode = exit;
+                String err = saveError;
+                Platform.runLater(() -> {
+                    running[0] = null;
+                    runSession[0] = null;
+                    refresh.run();
+                    showStages(stageRows, run.stages);
+                    runRows.add(0, new RunRow(run));
+                    runBtn.setDisable(false);
+                    stopBtn.setDisable(true);
+                    statusLabel.setText("Finished with exit " + exitCode + " in " + formatWall(wallMs)
+                            + (reported >= 0 ? String.format(" (pipeline reported %.1f s)", reported) : "")
+                            + (err != null ? ". History not saved: " + err : "."));
+                });
+            }, "curator-run").start();
+        });
+
+        // Quick in-container commands over the container's persistent shell; output goes to the log
+        String[] knownContainer = { null };
+        Runnable exec = () -> {
+            String command = commandField.getText() == null ? "" : commandField.getText().trim();
+            if (command.isEmpty()) return;
+            execBtn.setDisable(true);
+            synchronized (pendingLog) {
+                pendingLog.append("$ ").append(command).append('\n');
+            }
+            new Thread(() -> {
+                String result;
+                try {
+                    Session session = SessionPool.acquire();
+                    if (knownContainer[0] == null) knownContainer[0] = CuratorRunner.findContainer(session);
+                    if (knownContainer[0] == null) {
+                        result = "No running " + CuratorRunner.CURATOR_IMAGE + " container.";
+                    } else {
+                        long start = System.nanoTime();
+                        int exit = ContainerShell.forContainer(session, knownContainer[0]).run(
+                                "cd " + CuratorRunner.WORKDIR + " && " + command, line -> {
+                                    synchronized (pendingLog) {
+                                        pendingLog.append(line).append('\n');
+                                    }
+                                });
+                        result = "Exit " + exit + " in " + (System.nanoTime() - start) / 1_000_000 + " ms";
+                    }
+                } catch (Exception ex) {
+                    knownContainer[0] = null; // Container may have been replaced
+                    result = "Exec failed: " + ex.getMessage();
+                }
+                String text = result;
+                Platform.runLater(() -> {
+                    execBtn.setDisable(false);
+                    if (running[0] == null) statusLabel.setText(text);
+                });
+            }, "curator-exec").start();
+        };
+        execBtn.setOnAction(e -> exec.run());
+        commandField.setOnAction(e -> {
+            exec.run();
+            e.consume(); // Enter here must not also press the default Run button
+        });
+
+        stopBtn.setOnAction(e -> {
+            String container = running[0];
+            String script = running[1];
+            Session session = runSession[0];
+            if (container == null || session == null) return;
+            stopBtn.setDisable(true);
+            statusLabel.setText("Stopping " + script + "...");
+            new Thread(() -> {
+                try {
+                    CuratorRunner.stop(session, container, script);
+                } catch (Exception ex) {
+                    Platform.runLater(() -> statusLabel.setText("Stop failed: " + ex.getMessage()));
+                }
+            }, "curator-stop").start();
+        });
+
+        stage.setScene(new Scene(root, 1000, 720));
+        stage.show();
+    }
+
+    private static void showStages(ObservableList<StageRow> rows, List<CuratorProgress.StageStats> stats) {
+        while (rows.size() > stats.size()) rows.remove(rows.size() - 1);
+        for (int i = 0; i < stats.size(); i++) {
+            CuratorProgress.StageStats s = stats.get(i);
+            StageRow r = i < rows.size() ? rows.get(i) : new StageRow();
+            r.name.set(s.name);
+            r.tasks.set(s.tasks < 0 ? "" : s.tasks + (s.total > 0 ? " / " + s.total : ""));
+            r.rate.set(s.tasksPerSecond < 0 ? "" : String.format("%.1f", s.tasksPerSecond));
+            r.latency.set(s.latencyMs < 0 ? "" : String.format("%.1f", s.latencyMs));
+            if (i >= rows.size()) rows.add(r);
+        }
+    }
+
+    private static <R> TableColumn<R, String> column(String title, double width,
+                                                     Function<R, SimpleStringProperty> property) {
+        TableColumn<R, String> col = new TableColumn<>(title);
+        col.setPrefWidth(width);
+        col.setCellValueFactory(c -> property.apply(c.getValue()));
+        return col;
+    }
+
+    private static String formatWall(long ms) {
+        long s = ms / 1000;
+        return s >= 60 ? String.format("%d:%02d", s / 60, s % 60) : String.format("%.1f s", ms / 1000.0);
+    }
+}
@@ -0,0 +1,91 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.Session;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Runs a pipeline script inside the running NeMo Curator container (started by GetReady01) over an SSH exec
+ * channel: {@code docker exec} with unbuffered Python so progress lines arrive as they are printed. The remote
+ * folder is mounted at /workspace, so the uploaded examples live under /workspace/example/scripts.
+ */
+public final class CuratorRunner {
+
+    static final String CURATOR_IMAGE = "nvcr.io/nvidia/nemo-curator:25.09";
+    static final String WORKDIR = "/workspace";
+    static final String[] EXAMPLE_SCRIPTS = {
+            "example/scripts/quickstart.py",
+            "example/scripts/tinystories/main.py"
+    };
+    private static final int STOP_GRACE_MS = 5000;
+    /** Deadline for each signal / check command while stopping. */
+    private static final long STOP_COMMAND_TIMEOUT_MS = 3000;
+
+    private CuratorRunner() {}
+
+    /**
+     * ID of the running Curator container, or null if there is none. Asks the Docker Engine API directly;
+     * falls back to docker ps if the socket cannot be reached.
+     */
+    public static String findContainer(Session session) throws Exception {
+        try {
+            List<DockerClient.Container> running = DockerClient.overSsh(session).listContainersByImage(CURATOR_IMAGE);
+            return running.isEmpty() ? null : running.get(0).shortId();
+        } catch (Exception e) {
+            // No stream-local forwarding or no socket access: use the CLI
+        }
+        String out = RemoteExec.capture(session,
+                "docker ps --filter " + RemoteExec.shellQuote("ancestor=" + CURATOR_IMAGE) + " --format '{{.ID}}'");
+        for (String line : out.split("\n")) {
+            if (!line.trim().isEmpty()) return line.trim();
+        }
+        return null;
+    }
+
+    /**
+     * Run script (relative to /workspace) with args (passed through the remote shell as typed) in container,
+     * passing each output line to onLine. Blocks until the script exits; returns its exit status.
+     */
+    public static int run(Session session, String container, String script, String args,
+                          Consumer<String> onLine) throws Exception {
+        String command = "docker exec -e PYTHONUNBUFFERED=1 -w " + WORKDIR + " " + RemoteExec.shellQuote(container)
+                + " python -u " + RemoteExec.shellQuote(script) + (args == null || args.isBlank() ? "" : " " + args.trim());
+        return RemoteExec.run(session, command, null, onLine);
+    }
+
+    /**
+     * Stop a running script: SIGINT (Python raises KeyboardInterrupt, Ray shuts down), then SIGKILL if it is
+     * still there after STOP_GRACE_MS. Closing the exec channel alone would leave it running in the container.
+     * The polling goes through the container's ContainerShell, so each check costs milliseconds, unless that
+     * shell is busy with another command (see stopCommand).
+     */
+    public static void stop(Session session, String container, String script) throws Exception {
+        String pattern = RemoteExec.shellQuote("python -u " + script);
+        stopCommand(session, container, "pkill -INT -f " + pattern);
+        long deadline = System.currentTimeMillis() + STOP_GRACE_MS;
+        while (System.currentTimeMillis() < deadline) {
+            Thread.sleep(250);
+            if (stopCommand(session, container, "pgrep -f " + pattern) != 0) return;
+        }
+        stopCommand(session, container, "pkill -KILL -f " + pattern);
+    }
+
+    /**
+     * Run command in container on its ContainerShell, or with a one-off docker exec if the shell is running
+     * something else (e.g. a tail -f from the command field), so Stop never waits behind it.
+     */
+    private static int stopCommand(Session session, String container, String command) throws Exception {
+        ContainerShell shell = ContainerShell.forContainer(session, container);
+        if (!shell.isBusy()) {
+            try {
+                return shell.run(command, null, STOP_COMMAND_TIMEOUT_MS);
+            } catch (TimeoutException e) {
+                // Another command took the shell first
+            }
+        }
+        return RemoteExec.run(session, "docker exec " + RemoteExec.shellQuote(container) + " sh -c "
+                + RemoteExec.shellQuote(command), null, null);
+    }
+}
@@ -0,0 +1,332 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.Session;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * rsync-style delta upload of a large file that already exists on the remote in an older version. The remote
+ * cuts its copy into fixed blocks and sends each block's Adler-32 and MD5 (a python3 script over exec, so
+ * zlib/hashlib do the work). The local file is scanned with a rolling Adler-32, in parallel segments, for
+ * blocks the remote already has at any offset. Only the bytes between matches are sent, inside a recipe of
+ * COPY(block, count) and DATA(bytes) records that a second script applies into a temp file next to the
+ * target. The result replaces the target only if its SHA-256 equals the local file's, so a bad patch leaves
+ * the old file in place. An append or a few edited records in a multi-GB JSONL then cost a few blocks.
+ */
+final class DeltaUploader {
+
+    /** Smaller files are just put; the signature round trip would not pay off. */
+    static final long MIN_BYTES = 64L * 1024 * 1024;
+    private static final int MIN_BLOCK = 2 * 1024;
+    private static final int MAX_BLOCK = 128 * 1024;
+    /** Local bytes per parallel scan task (one memory-mapped region each). */
+    private static final long SEGMENT_BYTES = 256L * 1024 * 1024;
+    private static final int ADLER_MOD = 65521;
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+
+    // argv: path, block size. One "adler32 md5" line per full block.
+    private static final String SIGNATURE_SCRIPT = String.join("\n",
+            "import sys, zlib, hashlib",
+            "b = int(sys.argv[2])",
+            "w = sys.stdout.write",
+            "with open(sys.argv[1], 'rb') as f:",
+            "    while True:",
+            "        d = f.read(b)",
+            "        if len(d) < b: break",
+            "        w('%08x %s\\n' % (zlib.adler32(d), hashlib.md5(d).hexdigest()))");
+
+    // argv: path, block size, expected sha256. Reads C<u64 block><u32 count>, D<u64 len><bytes>, E from stdin.
+    private static final String APPLY_SCRIPT = String.join("\n",
+            "import sys, os, shutil, hashlib, struct",
+            "p, b, want = sys.argv[1], int(sys.argv[2]), sys.argv[3]",
+            "t = p + '.nsdelta'",
+            "i = sys.stdin.buffer",
+            "h = hashlib.sha256()",
+            "def copy(src, n):",
+            "    while n > 0:",
+            "        d = src.read(min(n, 1 << 20))",
+            "        if not d: sys.exit('delta: unexpected end of input')",
+            "        o.write(d); h.update(d); n -= len(d)",
+            "try:",
+            "    with open(p, 'rb') as s, open(t, 'wb') as o:",
+            "        while True:",
+            "            op = i.read(1)",
+            "            if op == b'C':",
+            "                n, c = struct.unpack('>QI', i.read(12))",
+            "                s.seek(n * b)",
+            "                copy(s, c * b)",
+            "            elif op == b'D':",
+            "                copy(i, struct.unpack('>Q', i.read(8))[0])",
+            "            elif op == b'E':",
+            "                break",
+            "            else:",
+            "                sys.exit('delta: bad record')",
+            "        o.flush(); os.fsync(o.fileno())",
+            "    if h.hexdigest() != want: sys.exit('delta: checksum mismatch')",
+            "    shutil.copymode(p, t)",
+            "    os.replace(t, p)",
+            "except BaseException:",
+            "    if os.path.exists(t): os.remove(t)",
+            "    raise");
+
+    /** What a delta upload sent. */
+    static final class Result {
+        final long literalBytes;
+        final long matchedBytes;
+        final int block;
+
+        Result(long literalBytes, long matchedBytes, int block) {
+            this.literalBytes = literalBytes;
+            this.matchedBytes = matchedBytes;
+            this.block = block;
+        }
+    }
+
+    /** Remote block signatures: weak checksum → block indexes, and each block's MD5. */
+    private static final class Signatures {
+        final Map<Integer, int[]> byWeak = new HashMap<>();
+        final List<byte[]> strong = new ArrayList<>();
+
+        void add(int weak, byte[] md5) {
+            int idx = strong.size();
+            strong.add(md5);
+            int[] old = byWeak.get(weak);
+            int[] idxs = old == null ? new int[1] : Arrays.copyOf(old, old.length + 1);
+            idxs[idxs.length - 1] = idx;
+            byWeak.put(weak, idxs);
+        }
+
+        /** Index of a remote block equal to block bytes of buf at p, or -1. */
+        int match(int weak, MappedByteBuffer buf, int p, byte[] window, MessageDigest md5) {
+            int[] idxs = byWeak.get(weak);
+            if (idxs == null) return -1;
+            buf.get(p, window, 0, window.length);
+            byte[] digest = md5.digest(window);
+            for (int idx : idxs) {
+                if (Arrays.equals(digest, strong.get(idx))) return idx;
+            }
+            return -1;
+        }
+    }
+
+    private DeltaUploader() {}
+
+    /**
+     * Send local to remotePath as a delta against the remote's current copy. Returns null, with nothing
+     * changed on the remote, if there is no remote copy or no python3 there; the caller then puts the file.
+     * Progress goes to callback (position in the local file); the file's SHA-256 is recorded in verifier.
+     */
+    static Result upload(Session session, File local, String remotePath, SftpHelper.ProgressCallback callback,
+                         UploadVerifier verifier) throws Exception {
+        String quoted = RemoteExec.shellQuote(remotePath);
+        if (RemoteExec.run(session, "test -f " + quoted + " && command -v python3 >/dev/null", null, null) != 0) {
+            return null;
+        }
+        long size = local.length();
+        int block = blockSize(size);
+        Signatures sigs = new Signatures();
+        HexFormat hex = HexFormat.of();
+        int exit = RemoteExec.run(session, "python3 -c " + RemoteExec.shellQuote(SIGNATURE_SCRIPT) + " " + quoted + " " + block,
+                null, line -> {
+                    int sp = line.indexOf(' ');
+                    if (sp != 8 || line.length() != 41) return;
+                    sigs.add(Integer.parseUnsignedInt(line.substring(0, 8), 16), hex.parseHex(line.substring(9)));
+                });
+        if (exit != 0 || sigs.strong.isEmpty()) return null;
+
+        FlightEvents.SftpOperation event = new FlightEvents.SftpOperation("delta", remotePath);
+        List<long[]> matches = new ArrayList<>();
+        MessageDigest sha256;
+        try (RandomAccessFile raf = new RandomAccessFile(local, "r"); FileChannel fc = raf.getChannel()) {
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+            ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "delta-scan");
+                t.setDaemon(true);
+                return t;
+            });
+            try {
+                Future<MessageDigest> hash = pool.submit(() -> sha256(fc, size));
+                List<Future<List<long[]>>> segments = new ArrayList<>();
+                for (long start = 0; start < size; start += SEGMENT_BYTES) {
+                    long s = start;
+                    segments.add(pool.submit(() -> scan(fc, s, Math.min(size, s + SEGMENT_BYTES), size, block, sigs)));
+                }
+                // A match may run past its segment's end; later matches that overlap it are dropped
+                long covered = 0;
+                for (Future<List<long[]>> f : segments) {
+                    for (long[] m : f.get()) {
+                        if (m[0] >= covered) {
+                            matches.add(m);
+                            covered = m[0] + block;
+                        }
+                    }
+                }
+                sha256 = hash.get();
+            } finally {
+                pool.shutdownNow();
+            }
+            String want = hex.formatHex(((MessageDigest) sha256.clone()).digest());
+            long[] sent = send(session, fc, size, block, matches, remotePath, want, callback);
+            if (sent == null) return null;
+            verifier.record(local, remotePath, sha256);
+            Metrics.DELTA_LITERAL_BYTES.add(sent[0]);
+            Metrics.DELTA_MATCHED_BYTES.add(sent[1]);
+            event.bytes = sent[0];
+            event.commit();
+            return new Result(sent[0], sent[1], block);
+        }
+    }
+
+    /** About sqrt(size) rounded up to a power of two, within MIN_BLOCK..MAX_BLOCK (as rsync does). */
+    static int blockSize(long size) {
+        int b = MIN_BLOCK;
+        while (b < MAX_BLOCK && (long) b * b < size) b <<= 1;
+        return b;
+    }
+
+    private static MessageDigest sha256(FileChannel fc, long size) throws IOException {
+        MessageDigest md = UploadVerifier.newDigest();
+        for (long pos = 0; pos < size; pos += SEGMENT_BYTES) {
+            md.update(fc.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(SEGMENT_BYTES, size - pos)));
+        }
+        return md;
+    }
+
+    /**
+     * Greedy rolling-checksum scan for matches starting in [start, end): {file offset, remote block index}
+     * in order. The mapped region extends block - 1 bytes past end so a match can start near the end.
+     */
+    private static List<long[]> scan(FileChannel fc, long start, long end, long size, int block, Signatures sigs)
+            throws Exception {
+        List<long[]> out = new ArrayList<>();
+        long mapLen = Math.min(size - start, end - start + block - 1);
+        if (mapLen < block) return out;
+        MappedByteBuffer buf = fc.map(FileChannel.MapMode.READ_ONLY, start, mapLen);
+        MessageDigest md5 = MessageDigest.getInstance("MD5");
+        byte[] window = new byte[block];
+        int limit = (int) Math.min(end - start, mapLen - block + 1);
+        int p = 0;
+        int a = 0;
+        int b = 0;
+        boolean fresh = true;
+        while (p < limit) {
+            if (fresh) {
+                a = 1;
+                b = 0;
+                for (int i = 0; i < block; i++) {
+                    a = (a + (buf.get(p + i) & 0xff)) % ADLER_MOD;
+                    b = (b + a) % ADLER_MOD;
+                }
+                fresh = false;
+            }
+            int idx = sigs.match((b << 16) | a, buf, p, window, md5);
+            if (idx >= 0) {
+                out.add(new long[] { start + p, idx });
+                p += block;
+                fresh = true;
+                continue;
+            }
+            if (p + 1 >= limit) break;
+            int drop = buf.get(p) & 0xff;
+            int add = buf.get(p + block) & 0xff;
+            a = (a - drop + add) % ADLER_MOD;
+            if (a < 0) a += ADLER_MOD;
+            b = (int) (((long) b - (long) block * drop + a - 1) % ADLER_MOD);
+            if (b < 0) b += ADLER_MOD;
+            p++;
+        }
+        return out;
+    }
+
+    /**
+     * Stream the recipe (consecutive matched blocks merged into one COPY) and the unmatched bytes to the apply
+     * script. Returns {literal bytes, matched bytes}, or null if the remote could not apply it.
+     */
+    private static long[] send(Session session, FileChannel fc, long size, int block, List<long[]> matches,
+                               String remotePath, String sha256, SftpHelper.ProgressCallback callback) throws Exception {
+        ChannelExec channel = (ChannelExec) session.openChannel("exec");
+        channel.setCommand("python3 -c " + RemoteExec.shellQuote(APPLY_SCRIPT) + " " + RemoteExec.shellQuote(remotePath)
+                + " " + block + " " + sha256);
+        long literal = 0;
+        long matched = 0;
+        try {
+            InputStream stdout = channel.getInputStream();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(TrafficScheduler.bulk(channel.getOutputStream()),
+                    64 * 1024));
+            FlightEvents.ChannelOpen open = new FlightEvents.ChannelOpen(session.getHost(), "exec");
+            channel.connect(CONNECT_TIMEOUT_MS);
+            open.commit();
+            long cursor = 0;
+            byte[] buf = new byte[64 * 1024];
+            int i = 0;
+            while (i < matches.size()) {
+                long pos = matches.get(i)[0];
+                long first = matches.get(i)[1];
+                int count = 1;
+                while (i + count < matches.size() && matches.get(i + count)[0] == pos + (long) count * block
+                        && matches.get(i + count)[1] == first + count) {
+                    count++;
+                }
+                literal += writeData(out, fc, cursor, pos, buf, size, callback);
+                out.writeByte('C');
+                out.writeLong(first);
+                out.writeInt(count);
+                matched += (long) count * block;
+                cursor = pos + (long) count * block;
+                if (callback != null) {
+                    callback.onFileProgress(cursor, size);
+                    if (callback.isCancelled()) throw new Exception("Upload cancelled.");
+                }
+                i += count;
+            }
+            literal += writeData(out, fc, cursor, size, buf, size, callback);
+            out.writeByte('E');
+            out.flush();
+            out.close();
+            stdout.readAllBytes();
+            while (!channel.isClosed()) {
+                Thread.sleep(20);
+            }
+            return channel.getExitStatus() == 0 ? new long[] { literal, matched } : null;
+        } finally {
+            channel.disconnect();
+        }
+    }
+
+    /** One DATA record with local bytes [from, to); returns the number of bytes sent. */
+    private static long writeData(DataOutputStream out, FileChannel fc, long from, long to, byte[] buf, long size,
+                                  SftpHelper.ProgressCallback callback) throws Exception {
+        if (to <= from) return 0;
+        out.writeByte('D');
+        out.writeLong(to - from);
+        for (long pos = from; pos < to; ) {
+            int n = fc.read(java.nio.ByteBuffer.wrap(buf, 0, (int) Math.min(buf.length, to - pos)), pos);
+            if (n <= 0) throw new IOException("Local file shrank while sending");
+            out.write(buf, 0, n);
+            pos += n;
+            if (callback != null) {
+                callback.onFileProgress(pos, size);
+                if (callback.isCancelled()) throw new Exception("Upload cancelled.");
+            }
+        }
+        return to - from;
+    }
+}
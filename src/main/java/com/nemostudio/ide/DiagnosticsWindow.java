@@ -0,0 +1,228 @@
+package com.nemostudio.ide;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Help → Diagnostics: every Metrics counter, gauge and histogram in a table (value, rate per second,
+ * p50/p99), rolling charts of transfer throughput and p99 latencies, and the FxStallWatchdog report.
+ * Refreshes once per second while open; "Export now" writes the Prometheus/JSON snapshot immediately.
+ * "Remote environment" shows every RemoteEnvironment field when expanded.
+ */
+public class DiagnosticsWindow {
+
+    private static final int WINDOW_POINTS = 120;
+
+    /** Table row, rebuilt on each refresh. */
+    private static final class Row {
+        final SimpleStringProperty name = new SimpleStringProperty();
+        final SimpleStringProperty value = new SimpleStringProperty();
+        final SimpleStringProperty rate = new SimpleStringProperty();
+        final SimpleStringProperty p50 = new SimpleStringProperty();
+        final SimpleStringProperty p99 = new SimpleStringProperty();
+    }
+
+    public static void show(Stage owner) {
+        Stage stage = new Stage();
+        stage.initModality(Modality.NONE);
+        if (owner != null) {
+            stage.initOwner(owner);
+        }
+        stage.setTitle("Diagnostics");
+
+        ObservableList<Row> rows = FXCollections.observableArrayList();
+        TableView<Row> table = new TableView<>(rows);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        table.getColumns().add(column("Metric", 260, r -> r.name));
+        table.getColumns().add(column("Value / count", 110, r -> r.value));
+        table.getColumns().add(column("Rate /s", 90, r -> r.rate));
+        table.getColumns().add(column("p50", 90, r -> r.p50));
+        table.getColumns().add(column("p99", 90, r -> r.p99));
+
+        XYChart.Series<Number, Number> uploadSeries = series("SFTP upload");
+        XYChart.Series<Number, Number> tarSeries = series("Tar stream");
+        XYChart.Series<Number, Number> terminalSeries = series("Terminal in");
+        LineChart<Number, Number> throughputChart = chart("Throughput (KiB/s)", uploadSeries, tarSeries, terminalSeries);
+
+        XYChart.Series<Number, Number> handshakeSeries = series("SSH handshake");
+        XYChart.Series<Number, Number> lsSeries = series("Remote ls");
+        XYChart.Series<Number, Number> rttSeries = series("Link RTT");
+        XYChart.Series<Number, Number> fxSeries = series("FX queue delay");
+        LineChart<Number, Number> latencyChart = chart("p99 latency (ms)", handshakeSeries, lsSeries, rttSeries, fxSeries);
+
+        Label exportLabel = new Label("Exported every 15 s to " + Metrics.getExportDir());
+        exportLabel.setStyle("-fx-text-fill: #666;");
+        Button exportBtn = new Button("Export now");
+        exportBtn.setOnAction(e -> {
+            try {
+                Metrics.exportNow();
+                exportLabel.setText("Exported to " + Metrics.getExportDir());
+            } catch (Exception ex) {
+                exportLabel.setText("Export failed: " + ex.getMessage());
+            }
+        });
+        Button closeBtn = new Button("Close");
+        closeBtn.setOnAction(e -> stage.close());
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox buttons = new HBox(10, exportLabel, spacer, exportBtn, closeBtn);
+        buttons.setPadding(new Insets(8, 0, 0, 0));
+
+        HBox charts = new HBox(8, throughputChart, latencyChart);
+        HBox.setHgrow(throughputChart, Priority.ALWAYS);
+        HBox.setHgrow(latencyChart, Priority.ALWAYS);
+
+        TextArea stallReport = new TextArea();
+        stallReport.setEditable(false);
+        stallReport.setPrefRowCount(12);
+        stallReport.setStyle("-fx-font-family: monospace;");
+        TitledPane stallPane = new TitledPane("FX stalls (" + FxStallWatchdog.getReportPath() + ")", stallReport);
+        stallPane.setExpanded(false);
+
+        TextArea envText = new TextArea();
+        envText.setEditable(false);
+        envText.setPrefRowCount(12);
+        envText.setStyle("-fx-font-family: monospace;");
+        Button envRefresh = new Button("Probe again");
+        VBox envBox = new VBox(6, envText, envRefresh);
+        TitledPane envPane = new TitledPane("Remote environment", envBox);
+        envPane.setExpanded(false);
+        Runnable loadEnv = () -> {
+            envText.setText("Probing...");
+            TrafficScheduler.touch(TrafficScheduler.Priority.MONITORING); // The user is waiting on the answer
+            RemoteEnvironment.getAsync(EnumSet.allOf(RemoteEnvironment.Field.class),
+                    env -> Platform.runLater(() -> envText.setText(env.describe())));
+        };
+        envPane.expandedProperty().addListener((obs, was, expanded) -> {
+            if (expanded) loadEnv.run();
+        });
+        envRefresh.setOnAction(e -> {
+            RemoteEnvironment.invalidate(RemoteEnvironment.Field.values());
+            loadEnv.run();
+        });
+
+        VBox root = new VBox(8, charts, table, stallPane, envPane, buttons);
+        VBox.setVgrow(table, Priority.ALWAYS);
+        root.setPadding(new Insets(12));
+
+        Map<String, Long> lastValues = new HashMap<>();
+        long[] lastTick = { System.nanoTime() };
+        int[] tick = { 0 };
+        Runnable refresh = () -> {
+            long now = System.nanoTime();
+            double seconds = Math.max(1e-3, (now - lastTick[0]) / 1e9);
+            lastTick[0] = now;
+            Map<String, Double> rates = new HashMap<>();
+            rows.clear();
+            Metrics.values().forEach((name, v) -> {
+                Row r = new Row();
+                r.name.set(name);
+                r.value.set(String.valueOf(v));
+                if (!Metrics.isGauge(name)) {
+                    Long prev = lastValues.get(name);
+                    double rate = prev == null ? 0 : (v - prev) / seconds;
+                    rates.put(name, rate);
+                    r.rate.set(String.format("%.1f", rate));
+                }
+                lastValues.put(name, v);
+                rows.add(r);
+            });
+            Metrics.histograms().forEach((name, h) -> {
+                Row r = new Row();
+                r.name.set(name + (h.time ? " (ms)" : ""));
+                r.value.set(String.valueOf(h.histogram.count()));
+                r.p50.set(formatPercentile(h, 0.5));
+                r.p99.set(formatPercentile(h, 0.99));
+                rows.add(r);
+            });
+
+            int x = tick[0]++;
+            add(uploadSeries, x, rates.getOrDefault("sftp_put_bytes_total", 0.0) / 1024);
+            add(tarSeries, x, rates.getOrDefault("tar_stream_bytes_total", 0.0) / 1024);
+            add(terminalSeries, x, rates.getOrDefault("terminal_bytes_in_total", 0.0) / 1024);
+            Map<String, Metrics.Histogram> hs = Metrics.histograms();
+            add(handshakeSeries, x, p99Millis(hs.get("ssh_handshake")));
+            add(lsSeries, x, p99Millis(hs.get("remote_ls")));
+            add(rttSeries, x, p99Millis(hs.get("link_rtt")));
+            add(fxSeries, x, p99Millis(hs.get("fx_queue_delay")));
+            if (stallPane.isExpanded()) {
+                String text = FxStallWatchdog.report();
+                if (!text.equals(stallReport.getText())) stallReport.setText(text);
+            }
+        };
+        refresh.run();
+        Timeline timeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh.run()));
+        timeline.setCycleCount(Timeline.INDEFINITE);
+        timeline.play();
+        stage.setOnHidden(e -> timeline.stop());
+
+        stage.setScene(new Scene(root, 900, 640));
+        stage.show();
+    }
+
+    private static TableColumn<Row, String> column(String title, double width,
+                                                   java.util.function.Function<Row, SimpleStringProperty> property) {
+        TableColumn<Row, String> col = new TableColumn<>(title);
+        col.setPrefWidth(width);
+        col.setCellValueFactory(c -> property.apply(c.getValue()));
+        return col;
+    }
+
+    private static XYChart.Series<Number, Number> series(String name) {
+        XYChart.Series<Number, Number> s = new XYChart.Series<>();
+        s.setName(name);
+        return s;
+    }
+
+    @SafeVarargs
+    private static LineChart<Number, Number> chart(String title, XYChart.Series<Number, Number>... series) {
+        NumberAxis xAxis = new NumberAxis();
+        xAxis.setForceZeroInRange(false);
+        xAxis.setTickLabelsVisible(false);
+        xAxis.setLabel("last " + WINDOW_POINTS + " s");
+        LineChart<Number, Number> chart = new LineChart<>(xAxis, new NumberAxis());
+        chart.setTitle(title);
+        chart.setAnimated(false);
+        chart.setCreateSymbols(false);
+        chart.setPrefHeight(240);
+        for (XYChart.Series<Number, Number> s : series) chart.getData().add(s);
+        return chart;
+    }
+
+    private static void add(XYChart.Series<Number, Number> s, int x, double y) {
+        s.getData().add(new XYChart.Data<>(x, y));
+        if (s.getData().size() > WINDOW_POINTS) {
+            s.getData().remove(0);
+        }
+    }
+
+    private static double p99Millis(Metrics.Histogram h) {
+        if (h == null) return 0;
+        long p = h.histogram.percentileMicros(0.99);
+        return p < 0 ? 0 : p / 1000.0;
+    }
+
+    private static String formatPercentile(Metrics.Histogram h, double q) {
+        long p = h.histogram.percentileMicros(q);
+        if (p < 0) return "";
+        return h.time ? String.format("%.2f", p / 1000.0) : String.valueOf(p);
+    }
+}
@@ -0,0 +1,84 @@
+package com.nemostudio.ide;
+
+import javafx.geometry.Pos;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Screen;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * Workflow diagram background shown behind the IDE panels. The SVG is rasterized once per DPI into
+ * {@code ~/.nemostudio/cache} and displayed as an ImageView, so WebKit is not loaded on normal startups.
+ * On a cache miss the bitmap is rendered after the first frame (see DiagramRasterizer).
+ */
+public final class DiagramBackground {
+
+    static final String HTML_RESOURCE = "/diagram-background.html";
+    static final String SVG_RESOURCE = "/images/gtcdc25-nemo-diagram.svg";
+    /** SVG viewBox is 796.6 x 199.9; render at a logical width large enough for full-screen windows. */
+    static final double RENDER_WIDTH = 1600;
+    static final double RENDER_HEIGHT = Math.ceil(RENDER_WIDTH * 199.92661 / 796.62385);
+
+    private static final String DIR_NAME = ".nemostudio";
+    private static final String CACHE_DIR = "cache";
+
+    private final ImageView imageView = new ImageView();
+    private final double scale;
+    private final Path cacheFile;
+
+    public DiagramBackground(StackPane root) {
+        scale = Math.max(1.0, Screen.getPrimary().getOutputScaleX());
+        cacheFile = cachePath(scale);
+        imageView.setPreserveRatio(true);
+        imageView.setSmooth(true);
+        imageView.setMouseTransparent(true);
+        imageView.fitWidthProperty().bind(root.widthProperty());
+        imageView.fitHeightProperty().bind(root.heightProperty());
+        StackPane.setAlignment(imageView, Pos.TOP_CENTER);
+        if (cacheFile != null && Files.isRegularFile(cacheFile)) {
+            // Decode on a background thread; the image pops in without delaying the first frame
+            imageView.setImage(new Image(cacheFile.toUri().toString(), true));
+        }
+    }
+
+    public ImageView getNode() {
+        return imageView;
+    }
+
+    /** True when the cached bitmap was found and the WebView render can be skipped. */
+    public boolean isCached() {
+        return imageView.getImage() != null;
+    }
+
+    /**
+     * If there is no cached bitmap yet, render the diagram with WebView into the cache and show it.
+     * Call after the first frame so WebKit never sits on the startup path.
+     */
+    public void renderIfMissing(StackPane root) {
+        if (isCached() || cacheFile == null) return;
+        DiagramRasterizer.render(root, scale, cacheFile, image -> {
+            if (image != null) imageView.setImage(image);
+        });
+    }
+
+    /** Cache file name encodes the content hash (HTML + SVG) and the DPI scale, so either change re-renders. */
+    private static Path cachePath(double scale) {
+        CRC32 crc = new CRC32();
+        for (String resource : new String[] { HTML_RESOURCE, SVG_RESOURCE }) {
+            try (InputStream in = DiagramBackground.class.getResourceAsStream(resource)) {
+                if (in == null) return null;
+                crc.update(in.readAllBytes());
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        String name = String.format("diagram-%08x-s%d.png", crc.getValue(), Math.round(scale * 100));
+        return Path.of(System.getProperty("user.home")).resolve(DIR_NAME).resolve(CACHE_DIR).resolve(name);
+    }
+}
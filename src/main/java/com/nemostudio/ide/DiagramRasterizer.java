@@ -0,0 +1,163 @@
+package com.nemostudio.ide;
+
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Worker;
+import javafx.scene.Group;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Transform;
+import javafx.scene.web.WebView;
+import javafx.util.Duration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * One-shot WebView render of the workflow diagram into a PNG cache file. Kept in its own class so
+ * WebKit classes are only loaded when the cache is missing (first run, new DPI or changed SVG).
+ */
+final class DiagramRasterizer {
+
+    /** Let WebKit finish painting after the load completes before taking the snapshot. */
+    private static final double SETTLE_MS = 300;
+
+    private DiagramRasterizer() {}
+
+    /**
+     * Render the diagram off-screen at the given DPI scale, write it to target and pass the image to onDone
+     * (on the FX thread). If the snapshot comes out blank, the live WebView is kept as the background instead
+     * (the old behaviour) and onDone receives null.
+     */
+    static void render(StackPane root, double scale, Path target, Consumer<Image> onDone) {
+        URL htmlUrl = DiagramRasterizer.class.getResource(DiagramBackground.HTML_RESOURCE);
+        if (htmlUrl == null) {
+            onDone.accept(null);
+            return;
+        }
+        WebView webView = new WebView();
+        webView.setMouseTransparent(true);
+        webView.setContextMenuEnabled(false);
+        webView.setPrefSize(DiagramBackground.RENDER_WIDTH, DiagramBackground.RENDER_HEIGHT);
+        // Unmanaged host outside the visible area: rendered by pulses, but never seen at the wrong size
+        Group host = new Group(webView);
+        host.setManaged(false);
+        host.setTranslateX(-DiagramBackground.RENDER_WIDTH * 2);
+        root.getChildren().add(0, host);
+
+        webView.getEngine().getLoadWorker().stateProperty().addListener((obs, old, state) -> {
+            if (state == Worker.State.SUCCEEDED) {
+                PauseTransition settle = new PauseTransition(Duration.millis(SETTLE_MS));
+                settle.setOnFinished(e -> capture(root, host, webView, scale, target, onDone));
+                settle.play();
+            } else if (state == Worker.State.FAILED || state == Worker.State.CANCELLED) {
+                root.getChildren().remove(host);
+                onDone.accept(null);
+            }
+        });
+        webView.getEngine().load(htmlUrl.toExternalForm());
+    }
+
+    private static void capture(StackPane root, Group host, WebView webView, double scale, Path target,
+                                Consumer<Image> onDone) {
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.WHITE);
+        params.setTransform(Transform.scale(scale, scale));
+        WritableImage image = webView.snapshot(params, null);
+        root.getChildren().remove(host);
+        if (isBlank(image)) {
+            // Snapshot did not capture the page: fall back to the live WebView filling the window
+            host.getChildren().clear();
+            webView.setPrefSize(1000, 700);
+            webView.setMinSize(0, 0);
+            root.getChildren().add(0, webView);
+            onDone.accept(null);
+            return;
+        }
+        onDone.accept(image);
+        int w = (int) image.getWidth();
+        int h = (int) image.getHeight();
+        byte[] bgra = new byte[w * h * 4];
+        image.getPixelReader().getPixels(0, 0, w, h, PixelFormat.getByteBgraInstance(), bgra, 0, w * 4);
+        Thread writer = new Thread(() -> {
+            try {
+                writePng(bgra, w, h, target);
+            } catch (IOException ignored) {
+                // No cached bitmap: the next launch renders the diagram again
+            }
+        }, "diagram-cache-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** A snapshot where a coarse grid of samples is a single colour means WebKit had not painted yet. */
+    private static boolean isBlank(WritableImage image) {
+        int w = (int) image.getWidth();
+        int h = (int) image.getHeight();
+        if (w == 0 || h == 0) return true;
+        int first = image.getPixelReader().getArgb(0, 0);
+        for (int y = 0; y < h; y += Math.max(1, h / 16)) {
+            for (int x = 0; x < w; x += Math.max(1, w / 64)) {
+                if (image.getPixelReader().getArgb(x, y) != first) return false;
+            }
+        }
+        return true;
+    }
+
+    /** Minimal RGBA PNG encoder (no AWT/ImageIO needed); writes to a temp file and moves it into place. */
+    private static void writePng(byte[] bgra, int w, int h, Path target) throws IOException {
+        ByteArrayOutputStream idat = new ByteArrayOutputStream(bgra.length / 4);
+        try (DeflaterOutputStream z = new DeflaterOutputStream(idat, new Deflater(Deflater.BEST_SPEED))) {
+            byte[] row = new byte[1 + w * 4];
+            for (int y = 0; y < h; y++) {
+                row[0] = 0; // filter: none
+                int src = y * w * 4;
+                for (int x = 0; x < w; x++, src += 4) {
+                    int dst = 1 + x * 4;
+                    row[dst] = bgra[src + 2];
+                    row[dst + 1] = bgra[src + 1];
+                    row[dst + 2] = bgra[src];
+                    row[dst + 3] = bgra[src + 3];
+                }
+                z.write(row);
+            }
+        }
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tmp))) {
+            out.write(new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' });
+            ByteArrayOutputStream ihdr = new ByteArrayOutputStream();
+            DataOutputStream d = new DataOutputStream(ihdr);
+            d.writeInt(w);
+            d.writeInt(h);
+            d.write(new byte[] { 8, 6, 0, 0, 0 }); // 8-bit, RGBA, deflate, no filter, no interlace
+            writeChunk(out, "IHDR", ihdr.toByteArray());
+            writeChunk(out, "IDAT", idat.toByteArray());
+            writeChunk(out, "IEND", new byte[0]);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeChunk(DataOutputStream out, String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt((int) crc.getValue());
+    }
+}
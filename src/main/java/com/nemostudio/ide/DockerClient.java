@@ -0,0 +1,238 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.Session;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Docker Engine API client over a DockerTransport: plain HTTP/1.1 on one connection per request (Connection:
+ * close), with Content-Length, chunked and read-to-EOF bodies. Returns structured containers instead of
+ * {@code docker ps} text. Calls block; run them off the FX thread.
+ */
+public final class DockerClient {
+
+    /** Entry from GET /containers/json. */
+    public static final class Container {
+        public final String id;
+        public final String name;
+        public final String image;
+        public final String state;
+        public final String status;
+        public final long created;
+
+        Container(Map<String, Object> o) {
+            id = Json.string(o, "Id");
+            List<Object> names = Json.array(o.get("Names"));
+            String n = names.isEmpty() ? "" : String.valueOf(names.get(0));
+            name = n.startsWith("/") ? n.substring(1) : n;
+            image = Json.string(o, "Image");
+            state = Json.string(o, "State");
+            status = Json.string(o, "Status");
+            created = Json.number(o, "Created");
+        }
+
+        public String shortId() {
+            return id.length() > 12 ? id.substring(0, 12) : id;
+        }
+    }
+
+    private final DockerTransport transport;
+
+    public DockerClient(DockerTransport transport) {
+        this.transport = transport;
+    }
+
+    /** Client for the Docker socket on session's host. */
+    public static DockerClient overSsh(Session session) {
+        return new DockerClient(DockerTransport.overSsh(session, DockerTransport.DEFAULT_SOCKET));
+    }
+
+    public DockerTransport getTransport() {
+        return transport;
+    }
+
+    public List<Container> listContainers(boolean all) throws Exception {
+        List<Container> out = new ArrayList<>();
+        for (Object o : Json.array(Json.parse(requestText("GET", "/containers/json" + (all ? "?all=true" : ""), null)))) {
+            out.add(new Container(Json.object(o)));
+        }
+        return out;
+    }
+
+    /** Running containers created from image (as docker ps --filter ancestor=image). */
+    public List<Container> listContainersByImage(String image) throws Exception {
+        String filters = Json.write(Map.of("ancestor", List.of(image)));
+        List<Container> out = new ArrayList<>();
+        for (Object o : Json.array(Json.parse(requestText("GET", "/containers/json?filters=" + encode(filters), null)))) {
+            out.add(new Container(Json.object(o)));
+        }
+        return out;
+    }
+
+    /** Perform a request and return the whole body as text; throws on HTTP status 400 and above. */
+    String requestText(String method, String path, String body) throws Exception {
+        try (DockerTransport.Stream s = transport.open()) {
+            Response r = send(s, method, path, body);
+            return new String(r.body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Response {
+        final int status;
+        final Map<String, String> headers;
+        final InputStream body;
+
+        Response(int status, Map<String, String> headers, InputStream body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    private Response send(DockerTransport.Stream s, String method, String path, String body) throws IOException {
+        byte[] payload = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        StringBuilder head = new StringBuilder();
+        head.append(method).append(' ').append(path).append(" HTTP/1.1\r\n")
+                .append("Host: docker\r\n")
+                .append("User-Agent: NemoStudio\r\n")
+                .append("Connection: close\r\n");
+        if (body != null) {
+            head.append("Content-Type: application/json\r\n");
+        }
+        if (body != null || method.equals("POST")) {
+            head.append("Content-Length: ").append(payload.length).append("\r\n");
+        }
+        head.append("\r\n");
+        OutputStream out = s.out();
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        out.write(payload);
+        out.flush();
+
+        InputStream in = new BufferedInputStream(s.in(), 16 * 1024);
+        String statusLine = readLine(in);
+        if (statusLine == null || !statusLine.startsWith("HTTP/1.")) {
+            throw new IOException("No HTTP response from " + transport.describe() + (statusLine == null ? "" : ": " + statusLine));
+        }
+        String[] parts = statusLine.split(" ", 3);
+        int status = Integer.parseInt(parts[1]);
+        Map<String, String> headers = new HashMap<>();
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+        }
+        InputStream bodyIn;
+        if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+            bodyIn = new ChunkedInputStream(in);
+        } else if (headers.containsKey("content-length")) {
+            bodyIn = new LimitedInputStream(in, Long.parseLong(headers.get("content-length")));
+        } else {
+            bodyIn = status == 204 || status == 304 ? InputStream.nullInputStream() : in;
+        }
+        if (status >= 400) {
+            String text = new String(bodyIn.readAllBytes(), StandardCharsets.UTF_8).trim();
+            String message = text;
+            try {
+                message = Json.string(Json.object(Json.parse(text)), "message");
+            } catch (IllegalArgumentException ignored) {
+                // Not JSON: use the text as is
+            }
+            throw new IOException("Docker API " + status + " for " + method + " " + path + ": " + message);
+        }
+        return new Response(status, headers, bodyIn);
+    }
+
+    /** Header line without CRLF (ISO-8859-1), or null at end of stream. */
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (b == '\n') break;
+            if (b != '\r') buf.write(b);
+        }
+        if (b < 0 && buf.size() == 0) return null;
+        return buf.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private static String encode(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+
+    /** Decodes Transfer-Encoding: chunked; ends at the zero-length chunk. */
+    private static final class ChunkedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+        private boolean done;
+
+        ChunkedInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (done) return -1;
+            if (remaining == 0) {
+                String size = readLine(in);
+                if (size != null && size.isEmpty()) size = readLine(in); // CRLF after the previous chunk
+                if (size == null) throw new IOException("Truncated chunked response");
+                int semi = size.indexOf(';');
+                remaining = Long.parseLong((semi >= 0 ? size.substring(0, semi) : size).trim(), 16);
+                if (remaining == 0) {
+                    done = true;
+                    while ((size = readLine(in)) != null && !size.isEmpty()) {
+                        // Trailers: ignored
+                    }
+                    return -1;
+                }
+            }
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n < 0) throw new IOException("Truncated chunked response");
+            remaining -= n;
+            return n;
+        }
+    }
+
+    /** Body with a Content-Length. */
+    private static final class LimitedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long length) {
+            this.in = in;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = in.read();
+            if (b >= 0) remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) return -1;
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) remaining -= n;
+            return n;
+        }
+    }
+}
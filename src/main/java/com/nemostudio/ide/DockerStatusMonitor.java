@@ -0,0 +1,109 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.Session;
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills the docker status panel: every REFRESH_SECONDS lists running containers through the Docker Engine API
+ * (DockerClient over the pooled SSH session) and shows them as a docker ps style table, with no shell and no
+ * text scraping. If the API cannot be reached over a live session before it has ever worked (e.g. stream-local
+ * forwarding disabled on the server), it falls back to typing docker ps into the panel's shell as before. A link
+ * that is not up yet is not such a failure: the API is tried again on the next refresh.
+ */
+public final class DockerStatusMonitor {
+
+    private static final int REFRESH_SECONDS = 5;
+
+    private final RemoteTerminalPanel panel;
+    private ScheduledExecutorService scheduler;
+    private boolean apiWorked;
+
+    public DockerStatusMonitor(RemoteTerminalPanel panel) {
+        this.panel = panel;
+    }
+
+    public void start() {
+        stop();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "docker-status");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, REFRESH_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void refresh() {
+        Session session;
+        try {
+            session = SessionPool.acquire();
+        } catch (Exception e) {
+            // Link not up yet: try the API again next time
+            show("Waiting for connection: " + e.getMessage() + "\n");
+            return;
+        }
+        String text;
+        try {
+            text = format(DockerClient.overSsh(session).listContainers(false));
+            apiWorked = true;
+        } catch (Exception e) {
+            if (!apiWorked && session.isConnected()) {
+                // The session is fine but the socket cannot be reached through it
+                stop();
+                Platform.runLater(this::startShellFallback);
+                return;
+            }
+            text = "Docker API unavailable: " + e.getMessage() + "\n";
+        }
+        show(text);
+    }
+
+    private void show(String text) {
+        Platform.runLater(() -> {
+            panel.clearOutput();
+            panel.appendOutput(text);
+        });
+    }
+
+    /** The previous behaviour: a shell in the panel running docker ps every REFRESH_SECONDS. */
+    private void startShellFallback() {
+        panel.setBackgroundTraffic(true);
+        panel.connect(() -> {
+            panel.clearOutput();
+            ScheduledExecutorService shell = Executors.newSingleThreadScheduledExecutor();
+            shell.scheduleAtFixedRate(() -> Platform.runLater(() -> {
+                panel.clearOutput();
+                panel.sendCommand("docker ps");
+            }), 0, REFRESH_SECONDS, TimeUnit.SECONDS);
+        });
+    }
+
+    /** docker ps style columns: CONTAINER ID, IMAGE, STATUS, NAMES. */
+    static String format(List<DockerClient.Container> containers) {
+        int imageWidth = "IMAGE".length();
+        int statusWidth = "STATUS".length();
+        for (DockerClient.Container c : containers) {
+            imageWidth = Math.max(imageWidth, c.image.length());
+            statusWidth = Math.max(statusWidth, c.status.length());
+        }
+        String row = "%-15s%-" + (imageWidth + 3) + "s%-" + (statusWidth + 3) + "s%s%n";
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(row, "CONTAINER ID", "IMAGE", "STATUS", "NAMES"));
+        for (DockerClient.Container c : containers) {
+            sb.append(String.format(row, c.shortId(), c.image, c.status, c.name));
+        }
+        if (containers.isEmpty()) sb.append("(no running containers)\n");
+        return sb.toString();
+    }
+}
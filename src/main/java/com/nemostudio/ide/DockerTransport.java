@@ -0,0 +1,104 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelDirectStreamLocal;
+import com.jcraft.jsch.Session;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Byte stream to a Docker daemon's API socket, opened once per request by DockerClient. overSsh reaches the
+ * remote /var/run/docker.sock through an SSH direct-streamlocal channel (OpenSSH's AllowStreamLocalForwarding,
+ * on by default); unixSocket talks to a local socket, e.g. a local daemon or a stand-in server.
+ */
+public interface DockerTransport {
+
+    String DEFAULT_SOCKET = "/var/run/docker.sock";
+
+    /** One open connection; close releases the channel or socket. */
+    interface Stream extends Closeable {
+        InputStream in();
+
+        OutputStream out();
+    }
+
+    Stream open() throws Exception;
+
+    /** Short description for messages, e.g. "ssh://user@host/var/run/docker.sock". */
+    String describe();
+
+    static DockerTransport overSsh(Session session, String socketPath) {
+        int connectTimeoutMs = 10000;
+        return new DockerTransport() {
+            @Override
+            public Stream open() throws Exception {
+                ChannelDirectStreamLocal ch = (ChannelDirectStreamLocal) session.openChannel("direct-streamlocal@openssh.com");
+                ch.setSocketPath(socketPath);
+                InputStream in = ch.getInputStream();
+                OutputStream out = ch.getOutputStream();
+                FlightEvents.ChannelOpen event = new FlightEvents.ChannelOpen(session.getHost(), "docker-socket");
+                ch.connect(connectTimeoutMs);
+                event.commit();
+                return new Stream() {
+                    @Override
+                    public InputStream in() {
+                        return in;
+                    }
+
+                    @Override
+                    public OutputStream out() {
+                        return out;
+                    }
+
+                    @Override
+                    public void close() {
+                        ch.disconnect();
+                    }
+                };
+            }
+
+            @Override
+            public String describe() {
+                return "ssh://" + session.getUserName() + "@" + session.getHost() + socketPath;
+            }
+        };
+    }
+
+    static DockerTransport unixSocket(Path socketPath) {
+        return new DockerTransport() {
+            @Override
+            public Stream open() throws IOException {
+                SocketChannel ch = SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+                InputStream in = Channels.newInputStream(ch);
+                OutputStream out = Channels.newOutputStream(ch);
+                return new Stream() {
+                    @Override
+                    public InputStream in() {
+                        return in;
+                    }
+
+                    @Override
+                    public OutputStream out() {
+                        return out;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        ch.close();
+                    }
+                };
+            }
+
+            @Override
+            public String describe() {
+                return "unix://" + socketPath;
+            }
+        };
+    }
+}
@@ -0,0 +1,184 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelSftp;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Uploads the same local files to many hosts while reading them from disk only once. A single reader
+ * walks the tree and reads each chunk; every host has its own writer thread and bounded queue, and all
+ * queues share the same chunk arrays. A slow host applies backpressure once its queue is full; a failed
+ * host is dropped without stopping the others.
+ */
+public final class FanOutUploader {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    /** Per-host queue depth: 64 chunks = 4 MB of buffered data per host. */
+    private static final int QUEUE_CHUNKS = 64;
+
+    /** One destination: an open SFTP channel and the remote directory the sources are uploaded into. */
+    public static final class Target {
+        final String id;
+        final ChannelSftp channel;
+        final String remoteDir;
+        private final BlockingQueue<Op> queue = new ArrayBlockingQueue<>(QUEUE_CHUNKS);
+        private volatile String error;
+        private long bytesDone;
+
+        public Target(String id, ChannelSftp channel, String remoteDir) {
+            this.id = id;
+            this.channel = channel;
+            this.remoteDir = remoteDir.endsWith("/") && remoteDir.length() > 1
+                    ? remoteDir.substring(0, remoteDir.length() - 1) : remoteDir;
+        }
+    }
+
+    public interface Listener {
+        void onProgress(String targetId, long bytesDone, long bytesTotal);
+        void onFileStart(String targetId, String relativePath);
+    }
+
+    private enum Kind { MKDIR, OPEN, DATA, CLOSE, END }
+
+    /** Queue entry; DATA ops carry a chunk shared by all targets (never modified after reading). */
+    private static final class Op {
+        final Kind kind;
+        final String path;
+        final byte[] data;
+        final int length;
+
+        Op(Kind kind, String path, byte[] data, int length) {
+            this.kind = kind;
+            this.path = path;
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    private FanOutUploader() {}
+
+    /**
+     * Upload each source (file or directory, recursively) into every target's remoteDir.
+     * Blocks until all targets finished. Returns target id → error message (null when that target succeeded).
+     */
+    public static Map<String, String> upload(List<File> sources, List<Target> targets, Listener listener) throws Exception {
+        long total = 0;
+        for (File f : sources) total += sizeOf(f);
+        final long bytesTotal = total;
+
+        List<Thread> writers = new ArrayList<>();
+        for (Target t : targets) {
+            Thread w = new Thread(() -> writeLoop(t, bytesTotal, listener), "fanout-writer-" + t.id);
+            w.setDaemon(true);
+            w.start();
+            writers.add(w);
+        }
+        try {
+            broadcast(targets, new Op(Kind.MKDIR, "", null, 0));
+            for (File f : sources) {
+                send(f, f.getName(), targets);
+            }
+        } finally {
+            broadcast(targets, new Op(Kind.END, null, null, 0));
+            for (Thread w : writers) w.join();
+        }
+        Map<String, String> results = new LinkedHashMap<>();
+        for (Target t : targets) results.put(t.id, t.error);
+        return results;
+    }
+
+    private static void send(File file, String relative, List<Target> targets) throws Exception {
+        if (file.isDirectory()) {
+            broadcast(targets, new Op(Kind.MKDIR, relative, null, 0));
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    if (child.getName().equals(".gitkeep")) continue;
+                    send(child, relative + "/" + child.getName(), targets);
+                }
+            }
+            return;
+        }
+        broadcast(targets, new Op(Kind.OPEN, relative, null, 0));
+        try (FileInputStream in = new FileInputStream(file)) {
+            while (true) {
+                byte[] chunk = new byte[CHUNK_SIZE];
+                int n = in.readNBytes(chunk, 0, CHUNK_SIZE);
+                if (n <= 0) break;
+                broadcast(targets, new Op(Kind.DATA, relative, chunk, n));
+                if (n < CHUNK_SIZE) break;
+            }
+        }
+        broadcast(targets, new Op(Kind.CLOSE, relative, null, 0));
+    }
+
+    private static void broadcast(List<Target> targets, Op op) throws InterruptedException {
+        for (Target t : targets) {
+            // Failed targets still get END so their writer thread exits
+            if (t.error == null || op.kind == Kind.END) t.queue.put(op);
+        }
+    }
+
+    private static void writeLoop(Target t, long bytesTotal, Listener listener) {
+        OutputStream out = null;
+        while (true) {
+            Op op;
+            try {
+                op = t.queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (op.kind == Kind.END) break;
+            if (t.error != null) continue;
+            try {
+                String remote = op.path.isEmpty() ? t.remoteDir : t.remoteDir + "/" + op.path;
+                switch (op.kind) {
+                    case MKDIR -> SftpHelper.ensureDirectoryExists(t.channel, remote);
+                    case OPEN -> {
+                        if (listener != null) listener.onFileStart(t.id, op.path);
+                        out = t.channel.put(remote, ChannelSftp.OVERWRITE);
+                    }
+                    case DATA -> {
+                        out.write(op.data, 0, op.length);
+                        t.bytesDone += op.length;
+                        Metrics.SFTP_PUT_BYTES.add(op.length);
+                        if (listener != null) listener.onProgress(t.id, t.bytesDone, bytesTotal);
+                    }
+                    case CLOSE -> {
+                        out.close();
+                        out = null;
+                        Metrics.SFTP_PUT_FILES.inc();
+                    }
+                    default -> {}
+                }
+            } catch (Exception e) {
+                // Keep draining (skipping ops) until END so the reader never blocks on this queue
+                t.error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+                if (out != null) {
+                    try { out.close(); } catch (Exception ignored) {}
+                    out = null;
+                }
+            }
+        }
+        if (out != null) {
+            try { out.close(); } catch (Exception ignored) {}
+        }
+    }
+
+    private static long sizeOf(File f) {
+        if (!f.isDirectory()) return f.length();
+        long n = 0;
+        File[] children = f.listFiles();
+        if (children != null) for (File c : children) n += sizeOf(c);
+        return n;
+    }
+}
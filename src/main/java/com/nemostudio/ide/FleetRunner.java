@@ -0,0 +1,278 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a Get Ready step or an upload on several hosts at once (fleet mode). Every host gets its own pooled
+ * session; uploads go through FanOutUploader so each local byte is read once and streamed to all hosts.
+ * Blocking: call from a background thread. Progress is reported per host through the Listener.
+ */
+public final class FleetRunner {
+
+    public enum Phase { QUEUED, CONNECTING, UPLOADING, RUNNING, DONE, FAILED }
+
+    public interface Listener {
+        void onPhase(HostProfile host, Phase phase, String detail);
+        void onProgress(HostProfile host, double fraction);
+        void onOutput(HostProfile host, String line);
+        void onFinished(HostProfile host, HostResult result);
+    }
+
+    /** One row of the results matrix. Times are -1 when the phase did not run. */
+    public static final class HostResult {
+        long connectMs = -1;
+        long uploadMs = -1;
+        long scriptMs = -1;
+        int exitCode = Integer.MIN_VALUE;
+        String error;
+
+        public boolean isSuccess() {
+            return error == null && (exitCode == Integer.MIN_VALUE || exitCode == 0);
+        }
+
+        public long getConnectMs() {
+            return connectMs;
+        }
+
+        public long getUploadMs() {
+            return uploadMs;
+        }
+
+        public long getScriptMs() {
+            return scriptMs;
+        }
+
+        /** Script exit code, or null when no script ran. */
+        public Integer getExitCode() {
+            return exitCode == Integer.MIN_VALUE ? null : exitCode;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private FleetRunner() {}
+
+    /**
+     * Run Get Ready step (1..7) on every host. Step 1 first uploads the example folder to
+     * &lt;remoteFolder&gt;/example on all hosts (read once), then runs GetReady01.sh with REMOTE_PATH set.
+     */
+    public static Map<HostProfile, HostResult> runStep(List<HostProfile> hosts, int step, Listener listener) {
+        String script = step == 1 ? null : loadScript("/scripts/GetReady0" + step + ".sh");
+        Map<HostProfile, HostResult> results = connectAll(hosts, listener);
+        List<HostProfile> ready = alive(results);
+        if (step == 1) {
+            ready = uploadToAll(ready, results, listener, folderHosts -> {
+                File example = GetReady01.materializeExampleFolder();
+                try {
+                    File[] children = example.listFiles();
+                    List<File> sources = new ArrayList<>();
+                    if (children != null) {
+                        for (File c : children) if (!c.getName().equals(".gitkeep")) sources.add(c);
+                    }
+                    return fanOut(folderHosts, sources, "/example", results, listener);
+                } finally {
+                    GetReady01.deleteExampleFolder(example);
+                }
+            });
+        }
+        ExecutorService pool = newPool(ready.size(), "fleet-script");
+        List<Future<?>> futures = new ArrayList<>();
+        for (HostProfile h : ready) {
+            futures.add(pool.submit(() -> {
+                HostResult r = results.get(h);
+                String body = step == 1 ? GetReady01.buildScript(h.getRemoteFolder()) : script;
+                if (body == null) {
+                    fail(h, r, "Could not load script for step " + step, listener);
+                    return;
+                }
+                listener.onPhase(h, Phase.RUNNING, "GetReady0" + step + ".sh");
+                long start = System.nanoTime();
+                try {
+                    Session session = session(h);
+                    r.exitCode = RemoteExec.run(session, "bash -s", body.getBytes(StandardCharsets.UTF_8),
+                            line -> listener.onOutput(h, line));
+                    r.scriptMs = (System.nanoTime() - start) / 1_000_000;
+                    if (r.exitCode == 0) {
+                        listener.onProgress(h, 1.0);
+                        listener.onPhase(h, Phase.DONE, "exit 0");
+                    } else {
+                        listener.onPhase(h, Phase.FAILED, "exit " + r.exitCode);
+                    }
+                } catch (Exception e) {
+                    r.scriptMs = (System.nanoTime() - start) / 1_000_000;
+                    fail(h, r, e.getMessage(), listener);
+                }
+            }));
+        }
+        awaitAll(futures);
+        pool.shutdown();
+        results.forEach(listener::onFinished);
+        return results;
+    }
+
+    /** Upload files/folders to &lt;remoteFolder&gt;/data/sample on every host, reading each file once. */
+    public static Map<HostProfile, HostResult> upload(List<HostProfile> hosts, List<File> files, Listener listener) {
+        Map<HostProfile, HostResult> results = connectAll(hosts, listener);
+        List<HostProfile> done = uploadToAll(alive(results), results, listener,
+                folderHosts -> fanOut(folderHosts, files, "/data/sample", results, listener));
+        for (HostProfile h : done) listener.onPhase(h, Phase.DONE, "uploaded");
+        results.forEach(listener::onFinished);
+        return results;
+    }
+
+    private interface UploadStep {
+        List<HostProfile> run(List<HostProfile> hosts) throws Exception;
+    }
+
+    private static List<HostProfile> uploadToAll(List<HostProfile> hosts, Map<HostProfile, HostResult> results,
+                                                 Listener listener, UploadStep step) {
+        List<HostProfile> withFolder = new ArrayList<>();
+        for (HostProfile h : hosts) {
+            if (h.getRemoteFolder().isEmpty()) {
+                fail(h, results.get(h), "No remote folder set for this host.", listener);
+            } else {
+                withFolder.add(h);
+            }
+        }
+        if (withFolder.isEmpty()) return withFolder;
+        try {
+            return step.run(withFolder);
+        } catch (Exception e) {
+            for (HostProfile h : withFolder) fail(h, results.get(h), "Upload failed: " + e.getMessage(), listener);
+            return List.of();
+        }
+    }
+
+    /** Fan-out upload into &lt;remoteFolder&gt;&lt;suffix&gt;; returns the hosts that succeeded. */
+    private static List<HostProfile> fanOut(List<HostProfile> hosts, List<File> sources, String suffix,
+                                            Map<HostProfile, HostResult> results, Listener listener) throws Exception {
+        Map<String, HostProfile> byId = new LinkedHashMap<>();
+        List<FanOutUploader.Target> targets = new ArrayList<>();
+        List<ChannelSftp> channels = new ArrayList<>();
+        List<HostProfile> ok = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (HostProfile h : hosts) {
+                try {
+                    ChannelSftp ch = SessionPool.openSftp(session(h));
+                    channels.add(ch);
+                    byId.put(h.getId(), h);
+                    targets.add(new FanOutUploader.Target(h.getId(), ch, h.getRemoteFolder() + suffix));
+                    listener.onPhase(h, Phase.UPLOADING, "to " + h.getRemoteFolder() + suffix);
+                } catch (Exception e) {
+                    fail(h, results.get(h), "SFTP: " + e.getMessage(), listener);
+                }
+            }
+            Map<String, String> errors = FanOutUploader.upload(sources, targets, new FanOutUploader.Listener() {
+                @Override
+                public void onProgress(String targetId, long bytesDone, long bytesTotal) {
+                    if (bytesTotal > 0) listener.onProgress(byId.get(targetId), (double) bytesDone / bytesTotal);
+                }
+
+                @Override
+                public void onFileStart(String targetId, String relativePath) {
+                    listener.onOutput(byId.get(targetId), "[upload] " + relativePath);
+                }
+            });
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            errors.forEach((id, error) -> {
+                HostProfile h = byId.get(id);
+                HostResult r = results.get(h);
+                r.uploadMs = elapsed;
+                if (error != null) {
+                    fail(h, r, "Upload failed: " + error, listener);
+                } else {
+                    ok.add(h);
+                }
+            });
+            return ok;
+        } finally {
+            for (ChannelSftp ch : channels) ch.disconnect();
+        }
+    }
+
+    private static Map<HostProfile, HostResult> connectAll(List<HostProfile> hosts, Listener listener) {
+        Map<HostProfile, HostResult> results = new LinkedHashMap<>();
+        for (HostProfile h : hosts) {
+            results.put(h, new HostResult());
+            listener.onPhase(h, Phase.QUEUED, "");
+        }
+        ExecutorService pool = newPool(hosts.size(), "fleet-connect");
+        List<Future<?>> futures = new ArrayList<>();
+        for (HostProfile h : hosts) {
+            futures.add(pool.submit(() -> {
+                HostResult r = results.get(h);
+                listener.onPhase(h, Phase.CONNECTING, h.getUser() + "@" + h.getHost());
+                long start = System.nanoTime();
+                try {
+                    session(h);
+                    r.connectMs = (System.nanoTime() - start) / 1_000_000;
+                } catch (Exception e) {
+                    r.connectMs = (System.nanoTime() - start) / 1_000_000;
+                    fail(h, r, "Connect failed: " + e.getMessage(), listener);
+                }
+            }));
+        }
+        awaitAll(futures);
+        pool.shutdown();
+        return results;
+    }
+
+    /** Pooled session for a profile: its own saved password, else the global saved password or SSH key. */
+    private static Session session(HostProfile h) throws Exception {
+        char[] passChars = SecurePasswordStore.loadPassword(h.getId());
+        String pass = (passChars != null && passChars.length > 0) ? new String(passChars) : null;
+        if (passChars != null) java.util.Arrays.fill(passChars, '\0');
+        return SessionPool.acquire(h.getHost(), h.getUser(), pass);
+    }
+
+    private static List<HostProfile> alive(Map<HostProfile, HostResult> results) {
+        List<HostProfile> out = new ArrayList<>();
+        results.forEach((h, r) -> { if (r.error == null) out.add(h); });
+        return out;
+    }
+
+    private static void fail(HostProfile h, HostResult r, String error, Listener listener) {
+        r.error = error == null ? "failed" : error;
+        listener.onPhase(h, Phase.FAILED, r.error);
+    }
+
+    private static ExecutorService newPool(int size, String name) {
+        return Executors.newFixedThreadPool(Math.max(1, size), runnable -> {
+            Thread t = new Thread(runnable, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static void awaitAll(List<Future<?>> futures) {
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (Exception ignored) {}
+        }
+    }
+
+    private static String loadScript(String resource) {
+        try (InputStream in = FleetRunner.class.getResourceAsStream(resource)) {
+            return in == null ? null : new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
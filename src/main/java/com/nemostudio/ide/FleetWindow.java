@@ -0,0 +1,344 @@
+package com.nemostudio.ide;
+
+import javafx.application.Platform;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.CheckBoxTableCell;
+import javafx.scene.control.cell.ProgressBarTableCell;
+import javafx.scene.layout.*;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fleet mode: a list of saved host profiles, each with its own status, progress and results row.
+ * Selected hosts run a Get Ready step or a data/sample upload concurrently (FleetRunner); the log area
+ * shows the output of the host selected in the table.
+ */
+public class FleetWindow {
+
+    private static final String[] ACTIONS = {
+            "Get Ready 01", "Get Ready 02", "Get Ready 03", "Get Ready 04",
+            "Get Ready 05", "Get Ready 06", "Get Ready 07",
+            "Upload files to data/sample", "Upload folder to data/sample"
+    };
+    /** Per-host log is capped so a chatty script cannot grow the window without bound. */
+    private static final int MAX_LOG_CHARS = 200_000;
+
+    /** Table row: a profile plus its live state for the current run. */
+    private static final class Row {
+        final HostProfile profile;
+        final SimpleBooleanProperty selected = new SimpleBooleanProperty(true);
+        final SimpleStringProperty status = new SimpleStringProperty("");
+        final SimpleDoubleProperty progress = new SimpleDoubleProperty(0);
+        final SimpleStringProperty connect = new SimpleStringProperty("");
+        final SimpleStringProperty upload = new SimpleStringProperty("");
+        final SimpleStringProperty script = new SimpleStringProperty("");
+        final SimpleStringProperty exit = new SimpleStringProperty("");
+        final StringBuilder log = new StringBuilder();
+
+        Row(HostProfile profile) {
+            this.profile = profile;
+        }
+    }
+
+    public static void show(Stage owner) {
+        Stage stage = new Stage();
+        stage.initModality(Modality.NONE);
+        if (owner != null) {
+            stage.initOwner(owner);
+        }
+        stage.setTitle("Fleet");
+
+        ObservableList<Row> rows = FXCollections.observableArrayList();
+        for (HostProfile p : HostProfileStore.loadAll()) rows.add(new Row(p));
+
+        TableView<Row> table = new TableView<>(rows);
+        table.setEditable(true);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+
+        TableColumn<Row, Boolean> selectCol = new TableColumn<>("");
+        selectCol.setCellValueFactory(c -> c.getValue().selected);
+        selectCol.setCellFactory(CheckBoxTableCell.forTableColumn(selectCol));
+        selectCol.setEditable(true);
+        selectCol.setPrefWidth(32);
+        selectCol.setResizable(false);
+
+        TableColumn<Row, String> nameCol = textColumn("Name", 120);
+        nameCol.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().profile.getName()));
+        TableColumn<Row, String> hostCol = textColumn("Host", 150);
+        hostCol.setCellValueFactory(c -> new SimpleStringProperty(
+                c.getValue().profile.getUser() + "@" + c.getValue().profile.getHost()));
+        TableColumn<Row, String> statusCol = textColumn("Status", 180);
+        statusCol.setCellValueFactory(c -> c.getValue().status);
+        TableColumn<Row, Double> progressCol = new TableColumn<>("Progress");
+        progressCol.setCellValueFactory(c -> c.getValue().progress.asObject());
+        progressCol.setCellFactory(ProgressBarTableCell.forTableColumn());
+        progressCol.setPrefWidth(110);
+        TableColumn<Row, String> connectCol = textColumn("Connect", 70);
+        connectCol.setCellValueFactory(c -> c.getValue().connect);
+        TableColumn<Row, String> uploadCol = textColumn("Upload", 70);
+        uploadCol.setCellValueFactory(c -> c.getValue().upload);
+        TableColumn<Row, String> scriptCol = textColumn("Script", 70);
+        scriptCol.setCellValueFactory(c -> c.getValue().script);
+        TableColumn<Row, String> exitCol = textColumn("Exit", 50);
+        exitCol.setCellValueFactory(c -> c.getValue().exit);
+        table.getColumns().addAll(List.of(selectCol, nameCol, hostCol, statusCol, progressCol,
+                connectCol, uploadCol, scriptCol, exitCol));
+        table.setPlaceholder(new Label("No hosts yet. Use Add Host or Add Current Connection."));
+
+        TextArea logArea = new TextArea();
+        logArea.setEditable(false);
+        logArea.setWrapText(false);
+        logArea.setPrefRowCount(12);
+        logArea.setStyle("-fx-font-family: monospace;");
+        table.getSelectionModel().selectedItemProperty().addListener((o, a, row) ->
+                logArea.setText(row == null ? "" : row.log.toString()));
+
+        Label messageLabel = new Label();
+        messageLabel.setWrapText(true);
+
+        Button addButton = new Button("Add Host...");
+        Button addCurrentButton = new Button("Add Current Connection");
+        Button removeButton = new Button("Remove");
+        ComboBox<String> actionBox = new ComboBox<>(FXCollections.observableArrayList(ACTIONS));
+        actionBox.getSelectionModel().selectFirst();
+        Button runButton = new Button("Run on Selected");
+        Button closeButton = new Button("Close");
+
+        Runnable save = () -> {
+            List<HostProfile> profiles = new ArrayList<>();
+            for (Row r : rows) profiles.add(r.profile);
+            try {
+                HostProfileStore.saveAll(profiles);
+            } catch (Exception ex) {
+                messageLabel.setText("Could not save hosts: " + ex.getMessage());
+                messageLabel.setStyle("-fx-text-fill: #c00;");
+            }
+        };
+
+        addButton.setOnAction(e -> {
+            HostProfile p = showAddHostDialog(stage);
+            if (p != null) {
+                rows.add(new Row(p));
+                save.run();
+            }
+        });
+        addCurrentButton.setOnAction(e -> {
+            HostProfile p = HostProfileStore.fromCurrentConnection();
+            if (p.getHost().isEmpty() || p.getUser().isEmpty()) {
+                messageLabel.setText("No saved connection. Use Project → Connect and Open Remote Folder first.");
+                messageLabel.setStyle("-fx-text-fill: #c00;");
+                return;
+            }
+            rows.add(new Row(p));
+            save.run();
+        });
+        removeButton.setOnAction(e -> {
+            Row row = table.getSelectionModel().getSelectedItem();
+            if (row == null) return;
+            rows.remove(row);
+            SecurePasswordStore.deleteSavedPassword(row.profile.getId());
+            save.run();
+        });
+
+        runButton.setOnAction(e -> {
+            List<HostProfile> targets = new ArrayList<>();
+            for (Row r : rows) if (r.selected.get()) targets.add(r.profile);
+            if (targets.isEmpty()) {
+                messageLabel.setText("Select at least one host.");
+                messageLabel.setStyle("-fx-text-fill: #c00;");
+                return;
+            }
+            int action = actionBox.getSelectionModel().getSelectedIndex();
+            List<File> files = null;
+            if (action == 7) {
+                FileChooser chooser = new FileChooser();
+                chooser.setTitle("Files to upload to data/sample");
+                List<File> chosen = chooser.showOpenMultipleDialog(stage);
+                if (chosen == null || chosen.isEmpty()) return;
+                files = new ArrayList<>(chosen);
+            } else if (action == 8) {
+                DirectoryChooser chooser = new DirectoryChooser();
+                chooser.setTitle("Folder to upload to data/sample");
+                File dir = chooser.showDialog(stage);
+                if (dir == null) return;
+                files = List.of(dir);
+            }
+            for (Row r : rows) {
+                if (!r.selected.get()) continue;
+                r.status.set("");
+                r.progress.set(0);
+                r.connect.set("");
+                r.upload.set("");
+                r.script.set("");
+                r.exit.set("");
+                r.log.setLength(0);
+            }
+            logArea.clear();
+            runButton.setDisable(true);
+            messageLabel.setText("Running " + ACTIONS[action] + " on " + targets.size() + " host(s)...");
+            messageLabel.setStyle("-fx-text-fill: gray;");
+
+            FleetRunner.Listener listener = new FleetRunner.Listener() {
+                @Override
+                public void onPhase(HostProfile host, FleetRunner.Phase phase, String detail) {
+                    Platform.runLater(() -> {
+                        Row r = rowFor(rows, host);
+                        if (r == null) return;
+                        String label = phase.name().charAt(0) + phase.name().substring(1).toLowerCase();
+                        r.status.set(detail == null || detail.isEmpty() ? label : label + ": " + detail);
+                    });
+                }
+
+                @Override
+                public void onProgress(HostProfile host, double fraction) {
+                    Platform.runLater(() -> {
+                        Row r = rowFor(rows, host);
+                        if (r != null) r.progress.set(fraction);
+                    });
+                }
+
+                @Override
+                public void onOutput(HostProfile host, String line) {
+                    Platform.runLater(() -> {
+                        Row r = rowFor(rows, host);
+                        if (r == null) return;
+                        r.log.append(line).append('\n');
+                        if (r.log.length() > MAX_LOG_CHARS) r.log.delete(0, r.log.length() - MAX_LOG_CHARS);
+                        if (table.getSelectionModel().getSelectedItem() == r) logArea.appendText(line + "\n");
+                    });
+                }
+
+                @Override
+                public void onFinished(HostProfile host, FleetRunner.HostResult result) {
+                    Platform.runLater(() -> {
+                        Row r = rowFor(rows, host);
+                        if (r == null) return;
+                        r.connect.set(formatMs(result.getConnectMs()));
+                        r.upload.set(formatMs(result.getUploadMs()));
+                        r.script.set(formatMs(result.getScriptMs()));
+                        r.exit.set(result.getExitCode() == null ? "" : String.valueOf(result.getExitCode()));
+                        if (result.getError() != null) r.log.append("Error: ").append(result.getError()).append('\n');
+                    });
+                }
+            };
+
+            final List<File> uploadFiles = files;
+            new Thread(() -> {
+                java.util.Map<HostProfile, FleetRunner.HostResult> results = uploadFiles != null
+                        ? FleetRunner.upload(targets, uploadFiles, listener)
+                        : FleetRunner.runStep(targets, action + 1, listener);
+                long ok = results.values().stream().filter(FleetRunner.HostResult::isSuccess).count();
+                Platform.runLater(() -> {
+                    runButton.setDisable(false);
+                    messageLabel.setText(ok + " of " + results.size() + " host(s) succeeded.");
+                    messageLabel.setStyle(ok == results.size() ? "-fx-text-fill: green;" : "-fx-text-fill: #c00;");
+                    Row selected = table.getSelectionModel().getSelectedItem();
+                    if (selected != null) logArea.setText(selected.log.toString());
+                });
+            }, "fleet-run").start();
+        });
+
+        closeButton.setOnAction(e -> stage.close());
+
+        HBox hostButtons = new HBox(10, addButton, addCurrentButton, removeButton);
+        HBox runBar = new HBox(10, new Label("Action:"), actionBox, runButton);
+        runBar.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox bottom = new HBox(10, messageLabel, spacer, closeButton);
+        bottom.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+
+        VBox root = new VBox(10, hostButtons, table, runBar, logArea, bottom);
+        root.setPadding(new Insets(16));
+        VBox.setVgrow(table, Priority.ALWAYS);
+        VBox.setVgrow(logArea, Priority.SOMETIMES);
+
+        Scene scene = new Scene(root, 960, 640);
+        java.net.URL css = FleetWindow.class.getResource("/styles/ide.css");
+        if (css != null) {
+            scene.getStylesheets().add(css.toExternalForm());
+        }
+        stage.setScene(scene);
+        stage.show();
+    }
+
+    /** Modal dialog for a new host profile; the password (optional) is saved encrypted under the profile id. */
+    private static HostProfile showAddHostDialog(Stage owner) {
+        Dialog<HostProfile> dialog = new Dialog<>();
+        dialog.initOwner(owner);
+        dialog.setTitle("Add Host");
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        TextField nameField = new TextField();
+        nameField.setPromptText("Optional display name");
+        TextField hostField = new TextField();
+        hostField.setPromptText("Hostname or IP address");
+        TextField userField = new TextField();
+        userField.setText(ConnectionStore.loadUsername());
+        PasswordField passwordField = new PasswordField();
+        passwordField.setPromptText("Leave empty to use saved password or SSH key");
+        TextField folderField = new TextField();
+        folderField.setPromptText("/home/user/project");
+        folderField.setText(ConnectionStore.loadRemoteFolder());
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(16));
+        grid.addRow(0, new Label("Name:"), nameField);
+        grid.addRow(1, new Label("Host:"), hostField);
+        grid.addRow(2, new Label("Username:"), userField);
+        grid.addRow(3, new Label("Password:"), passwordField);
+        grid.addRow(4, new Label("Remote folder:"), folderField);
+        dialog.getDialogPane().setContent(grid);
+
+        Button ok = (Button) dialog.getDialogPane().lookupButton(ButtonType.OK);
+        ok.disableProperty().bind(hostField.textProperty().isEmpty().or(userField.textProperty().isEmpty()));
+
+        dialog.setResultConverter(button -> {
+            if (button != ButtonType.OK) return null;
+            HostProfile p = new HostProfile(HostProfileStore.newId(), nameField.getText(), hostField.getText(),
+                    userField.getText(), folderField.getText());
+            String password = passwordField.getText();
+            if (!password.isEmpty()) {
+                try {
+                    SecurePasswordStore.savePassword(p.getId(), password.toCharArray());
+                } catch (Exception ignored) {
+                    // Connect will fall back to the saved password or SSH key
+                }
+            }
+            return p;
+        });
+        return dialog.showAndWait().orElse(null);
+    }
+
+    private static TableColumn<Row, String> textColumn(String title, double width) {
+        TableColumn<Row, String> col = new TableColumn<>(title);
+        col.setPrefWidth(width);
+        col.setEditable(false);
+        return col;
+    }
+
+    private static Row rowFor(List<Row> rows, HostProfile host) {
+        for (Row r : rows) if (r.profile == host) return r;
+        return null;
+    }
+
+    private static String formatMs(long ms) {
+        if (ms < 0) return "";
+        return ms < 10_000 ? ms + " ms" : String.format("%.1f s", ms / 1000.0);
+    }
+}
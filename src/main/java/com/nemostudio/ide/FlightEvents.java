@@ -0,0 +1,136 @@
+package com.nemostudio.ide;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Custom Java Flight Recorder events, so a recording (Help → Start Flight Recording, or
+ * {@code -XX:StartFlightRecording}) shows SSH, SFTP, script and FX activity on the same timeline as GC and
+ * thread data. Duration events begin in their constructor; callers fill in results and commit(). When no
+ * recording is running, commit() is a no-op and the JIT removes most of the cost.
+ */
+public final class FlightEvents {
+
+    private static final String CATEGORY = "Nemo Studio";
+
+    private FlightEvents() {}
+
+    @Name("com.nemostudio.SshConnect")
+    @Label("SSH Connect")
+    @Description("TCP connect, key exchange and authentication of a new session")
+    @Category({ CATEGORY, "SSH" })
+    @StackTrace(false)
+    static final class SshConnect extends Event {
+        @Label("Host") String host;
+        @Label("User") String user;
+        @Label("Success") boolean success;
+        @Label("Error") String error;
+
+        SshConnect(String host, String user) {
+            this.host = host;
+            this.user = user;
+            begin();
+        }
+    }
+
+    @Name("com.nemostudio.ChannelOpen")
+    @Label("SSH Channel Open")
+    @Category({ CATEGORY, "SSH" })
+    @StackTrace(false)
+    static final class ChannelOpen extends Event {
+        @Label("Host") String host;
+        @Label("Type") String type;
+
+        ChannelOpen(String host, String type) {
+            this.host = host;
+            this.type = type;
+            begin();
+        }
+    }
+
+    @Name("com.nemostudio.SftpOperation")
+    @Label("SFTP Operation")
+    @Description("One SFTP request: put, ls, mkdir, rename, rm or rmdir")
+    @Category({ CATEGORY, "SFTP" })
+    @StackTrace(false)
+    static final class SftpOperation extends Event {
+        @Label("Operation") String operation;
+        @Label("Path") String path;
+        @Label("Bytes") long bytes;
+
+        SftpOperation(String operation, String path) {
+            this.operation = operation;
+            this.path = path;
+            begin();
+        }
+    }
+
+    @Name("com.nemostudio.ScriptRun")
+    @Label("Terminal Script Run")
+    @Description("Script run in the remote terminal as a heredoc (time covers sending it until it exits)")
+    @Category({ CATEGORY, "Terminal" })
+    @StackTrace(false)
+    static final class ScriptRun extends Event {
+        @Label("Delimiter") String delimiter;
+        @Label("Script Bytes") long bytes;
+        @Label("Exit Code") @Description("-1 if the script could not be sent or the shell closed first") int exitCode;
+
+        ScriptRun(String delimiter, long bytes) {
+            this.delimiter = delimiter;
+            this.bytes = bytes;
+            begin();
+        }
+    }
+
+    @Name("com.nemostudio.WorkflowStep")
+    @Label("Workflow Step")
+    @Description("A phase of a Get Ready step (upload, script)")
+    @Category({ CATEGORY, "Workflow" })
+    @StackTrace(false)
+    static final class WorkflowStep extends Event {
+        @Label("Step") String step;
+        @Label("Phase") String phase;
+        @Label("Success") boolean success;
+
+        WorkflowStep(String step, String phase) {
+            this.step = step;
+            this.phase = phase;
+            begin();
+        }
+    }
+
+    @Name("com.nemostudio.LinkState")
+    @Label("Link State")
+    @Description("Link state and RTT percentiles as shown in the status bar")
+    @Category({ CATEGORY, "SSH" })
+    @StackTrace(false)
+    static final class LinkState extends Event {
+        @Label("State") String state;
+        @Label("RTT p50") @Timespan(Timespan.MICROSECONDS) long rttP50;
+        @Label("RTT p99") @Timespan(Timespan.MICROSECONDS) long rttP99;
+    }
+
+    @Name("com.nemostudio.FxQueueDelay")
+    @Label("FX Queue Delay")
+    @Description("A watchdog heartbeat waited 100 ms or more before running on the FX thread")
+    @Category({ CATEGORY, "JavaFX" })
+    @StackTrace(false)
+    static final class FxQueueDelay extends Event {
+        @Label("Delay") @Timespan(Timespan.MICROSECONDS) long delay;
+    }
+
+    @Name("com.nemostudio.FxStall")
+    @Label("FX Stall")
+    @Description("FX thread blocked past the watchdog threshold; frame is the most sampled application frame")
+    @Category({ CATEGORY, "JavaFX" })
+    @StackTrace(false)
+    static final class FxStall extends Event {
+        @Label("Stall") @Timespan(Timespan.MICROSECONDS) long stall;
+        @Label("Offending Frame") String frame;
+    }
+}
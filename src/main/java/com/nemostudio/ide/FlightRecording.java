@@ -0,0 +1,67 @@
+package com.nemostudio.ide;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Starts and stops an in-app Java Flight Recording (JDK "default" settings plus the FlightEvents types)
+ * and dumps it to {@code ~/.nemostudio/recordings/nemostudio-<timestamp>.jfr} for JDK Mission Control or
+ * {@code jfr print}.
+ */
+public final class FlightRecording {
+
+    private static final String DIR_NAME = ".nemostudio";
+    private static final String RECORDINGS_DIR = "recordings";
+    /** Keep at most this much history so a forgotten recording does not fill the disk. */
+    private static final Duration MAX_AGE = Duration.ofMinutes(30);
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static Recording recording;
+
+    private FlightRecording() {}
+
+    public static synchronized boolean isRecording() {
+        return recording != null;
+    }
+
+    public static synchronized void start() throws Exception {
+        if (recording != null) return;
+        Recording r = new Recording(Configuration.getConfiguration("default"));
+        r.setName("Nemo Studio");
+        r.setToDisk(true);
+        r.setMaxAge(MAX_AGE);
+        for (Class<?> c : FlightEvents.class.getDeclaredClasses()) {
+            if (Event.class.isAssignableFrom(c)) r.enable(c.asSubclass(Event.class));
+        }
+        r.start();
+        recording = r;
+    }
+
+    /** Stop the running recording and write it to the recordings folder; returns the file, or null if none ran. */
+    public static synchronized Path stop() throws Exception {
+        if (recording == null) return null;
+        Recording r = recording;
+        recording = null;
+        try {
+            r.stop();
+            Path dir = getRecordingsDir();
+            Files.createDirectories(dir);
+            Path file = dir.resolve("nemostudio-" + LocalDateTime.now().format(STAMP) + ".jfr");
+            r.dump(file);
+            return file;
+        } finally {
+            r.close();
+        }
+    }
+
+    public static Path getRecordingsDir() {
+        return Path.of(System.getProperty("user.home")).resolve(DIR_NAME).resolve(RECORDINGS_DIR);
+    }
+}
@@ -0,0 +1,391 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a remote folder (normally remote-path/data/sample) in step with a local folder. A WatchService on
+ * every local directory collects changed paths; once no event has arrived for DEBOUNCE_MS (or MAX_DELAY_MS
+ * after the first one, for files that keep changing) the changed paths are compared with the state DB and
+ * only new or modified files are put, and deleted ones removed, over the pooled session. The SHA-256 of
+ * each sent file is checked on the remote as for Upload Files. A folder deleted locally only loses the
+ * files sync pushed into it; the remote folder is removed once empty, and one still holding other files is
+ * left in place and reported.
+ * <p>
+ * The state DB ({@code ~/.nemostudio/sync/<id>.properties}, one per local/remote pair) has the size and
+ * mtime of every file last pushed. On start only the local tree is stat'ed against it, so a restart sends
+ * what changed while sync was off and nothing else. If a push fails (link down), the changes stay pending
+ * and are retried every RETRY_MS.
+ */
+public final class FolderSync {
+
+    private static final long DEBOUNCE_MS = 750;
+    private static final long MAX_DELAY_MS = 5000;
+    private static final long RETRY_MS = 5000;
+    private static final String DIR_NAME = ".nemostudio";
+    private static final String STATE_DIR = "sync";
+    private static final String FILE_PREFIX = "f.";
+
+    private final Path localRoot;
+    private final String remoteRoot;
+    private final Consumer<String> log;
+    /** Relative path ('/' separated) → {size, mtime millis} as last pushed. Sync thread only. */
+    private final Map<String, long[]> state = new HashMap<>();
+    /** Local paths (files or directories) changed since the last push. Sync thread only. */
+    private final Set<Path> dirty = new HashSet<>();
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    private WatchService watcher;
+    private Thread thread;
+    private volatile boolean running;
+    private ChannelSftp channel;
+
+    public FolderSync(Path localRoot, String remoteRoot, Consumer<String> log) {
+        this.localRoot = localRoot.toAbsolutePath().normalize();
+        this.remoteRoot = remoteRoot.endsWith("/") ? remoteRoot.substring(0, remoteRoot.length() - 1) : remoteRoot;
+        this.log = log;
+    }
+
+    public Path getLocalRoot() {
+        return localRoot;
+    }
+
+    public String getRemoteRoot() {
+        return remoteRoot;
+    }
+
+    /** Start watching; the first push sends whatever changed since the last run. log is called from the sync thread. */
+    public void start() throws IOException {
+        if (!Files.isDirectory(localRoot)) {
+            throw new IOException("Not a folder: " + localRoot);
+        }
+        loadState();
+        watcher = localRoot.getFileSystem().newWatchService();
+        registerAll(localRoot);
+        dirty.add(localRoot);
+        running = true;
+        thread = new Thread(this::loop, "folder-sync");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            if (watcher != null) watcher.close();
+        } catch (IOException ignored) {}
+        if (thread != null) thread.interrupt();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void loop() {
+        long firstDirtyAt = System.currentTimeMillis();
+        try {
+            while (running) {
+                WatchKey key;
+                if (dirty.isEmpty()) {
+                    key = watcher.take();
+                    firstDirtyAt = System.currentTimeMillis();
+                } else {
+                    long wait = Math.min(DEBOUNCE_MS, Math.max(0, firstDirtyAt + MAX_DELAY_MS - System.currentTimeMillis()));
+                    key = watcher.poll(wait, TimeUnit.MILLISECONDS);
+                }
+                if (key != null) {
+                    collect(key);
+                    continue;
+                }
+                if (!push()) {
+                    Thread.sleep(RETRY_MS);
+                }
+                firstDirtyAt = System.currentTimeMillis();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Stopped
+        } finally {
+            running = false;
+            if (channel != null) channel.disconnect();
+            channel = null;
+        }
+    }
+
+    private void collect(WatchKey key) {
+        Path dir = keys.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                dirty.add(localRoot);
+                continue;
+            }
+            Path child = dir.resolve((Path) event.context());
+            if (ignored(child)) continue;
+            dirty.add(child);
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child)) {
+                try {
+                    registerAll(child);
+                } catch (IOException e) {
+                    log.accept("Cannot watch " + child + ": " + e.getMessage());
+                }
+            }
+        }
+        if (!key.reset()) keys.remove(key);
+    }
+
+    /** Compare the dirty paths with the state DB and push the differences. Returns false if the push failed. */
+    private boolean push() {
+        Map<String, long[]> upload = new HashMap<>();
+        Set<String> deleteFiles = new TreeSet<>();
+        for (Path p : dirty) {
+            try {
+                reconcile(p, upload, deleteFiles);
+            } catch (IOException e) {
+                log.accept("Cannot read " + p + ": " + e.getMessage());
+            }
+        }
+        if (upload.isEmpty() && deleteFiles.isEmpty()) {
+            dirty.clear();
+            return true;
+        }
+        long start = System.nanoTime();
+        long bytes = 0;
+        try {
+            Session session = SessionPool.acquire();
+            ChannelSftp ch = channel(session);
+            for (String rel : deleteFiles) {
+                try {
+                    FlightEvents.SftpOperation event = new FlightEvents.SftpOperation("rm", remote(rel));
+                    ch.rm(remote(rel));
+                    event.commit();
+                } catch (Exception e) {
+                    // Already gone on the remote
+                }
+            }
+            List<String> keptDirs = removeEmptyDirs(ch, deleteFiles);
+            UploadVerifier verifier = new UploadVerifier();
+            Set<String> madeDirs = new HashSet<>();
+            for (String rel : new TreeSet<>(upload.keySet())) {
+                String remotePath = remote(rel);
+                String parent = remotePath.substring(0, remotePath.lastIndexOf('/'));
+                if (madeDirs.add(parent)) SftpHelper.ensureDirectoryExists(ch, parent);
+                SftpHelper.putFile(ch, localRoot.resolve(rel).toFile(), remotePath, null, verifier);
+                bytes += upload.get(rel)[0];
+            }
+            List<String> resentPaths = new ArrayList<>();
+            SftpHelper.verifyAndResend(session, ch, verifier, new SftpHelper.ProgressCallback() {
+                @Override
+                public void onFileStart(String fileName) {}
+                @Override
+                public void onFileProgress(long bytesTransferred, long totalBytes) {}
+                @Override
+                public void onFileComplete(String fileName, long fileSize) {}
+                @Override
+                public boolean isCancelled() {
+                    return !running;
+                }
+                @Override
+                public void onVerified(int checked, List<String> resent, boolean verified) {
+                    resentPaths.addAll(resent);
+                }
+            });
+            for (String rel : deleteFiles) state.remove(rel);
+            state.putAll(upload);
+            saveState();
+            dirty.clear();
+            log.accept(String.format("Pushed %d file(s) (%,d bytes), removed %d in %.1f s%s%s", upload.size(),
+                    bytes, deleteFiles.size(),
+                    (System.nanoTime() - start) / 1e9,
+                    resentPaths.isEmpty() ? "" : "; re-sent after checksum mismatch: " + String.join(", ", resentPaths),
+                    keptDirs.isEmpty() ? "" : "; kept remote folder(s) holding files not synced from here: "
+                            + String.join(", ", keptDirs)));
+            return true;
+        } catch (Exception e) {
+            if (channel != null) channel.disconnect();
+            channel = null;
+            log.accept("Push failed (" + e.getMessage() + "); retrying in " + RETRY_MS / 1000 + " s");
+            return false;
+        }
+    }
+
+    /** Add what differs between local path p (or its subtree) and the state DB to the upload/delete sets. */
+    private void reconcile(Path p, Map<String, long[]> upload, Set<String> deleteFiles) throws IOException {
+        String rel = relative(p);
+        if (Files.isDirectory(p)) {
+            Files.walkFileTree(p, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return !dir.equals(p) && ignored(dir) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && !ignored(file)) changed(file, attrs, upload);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            String prefix = rel.isEmpty() ? "" : rel + "/";
+            for (String k : state.keySet()) {
+                if (k.startsWith(prefix) && !Files.exists(localRoot.resolve(k))) deleteFiles.add(k);
+            }
+        } else if (Files.isRegularFile(p)) {
+            changed(p, Files.readAttributes(p, BasicFileAttributes.class), upload);
+        } else {
+            if (state.containsKey(rel)) deleteFiles.add(rel);
+            String prefix = rel + "/";
+            for (String k : state.keySet()) {
+                if (k.startsWith(prefix)) deleteFiles.add(k);
+            }
+        }
+    }
+
+    private void changed(Path file, BasicFileAttributes attrs, Map<String, long[]> upload) {
+        long[] now = { attrs.size(), attrs.lastModifiedTime().toMillis() };
+        String rel = relative(file);
+        long[] was = state.get(rel);
+        if (was == null || was[0] != now[0] || was[1] != now[1]) upload.put(rel, now);
+    }
+
+    /** Editor backups, lock files and dotfiles are not synced. */
+    private static boolean ignored(Path p) {
+        Path name = p.getFileName();
+        if (name == null) return false;
+        String n = name.toString();
+        return n.startsWith(".") || n.endsWith("~");
+    }
+
+    /**
+     * rmdir, deepest first, each remote folder above a deleted file that no longer exists locally. Returns
+     * the folders left because they still hold files sync never pushed (rmdir refuses a non-empty folder).
+     */
+    private List<String> removeEmptyDirs(ChannelSftp ch, Set<String> deleteFiles) {
+        Set<String> dirs = new TreeSet<>(Comparator.reverseOrder());
+        for (String rel : deleteFiles) {
+            for (int i = rel.lastIndexOf('/'); i > 0; i = rel.lastIndexOf('/', i - 1)) {
+                String dir = rel.substring(0, i);
+                if (Files.exists(localRoot.resolve(dir))) break;
+                dirs.add(dir);
+            }
+        }
+        List<String> kept = new ArrayList<>();
+        for (String dir : dirs) {
+            try {
+                FlightEvents.SftpOperation event = new FlightEvents.SftpOperation("rmdir", remote(dir));
+                ch.rmdir(remote(dir));
+                event.commit();
+            } catch (SftpException e) {
+                if (e.id != ChannelSftp.SSH_FX_NO_SUCH_FILE) kept.add(dir);
+            }
+        }
+        Collections.reverse(kept);
+        return kept;
+    }
+
+    private void registerAll(Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path d, BasicFileAttributes attrs) throws IOException {
+                if (!d.equals(localRoot) && ignored(d)) return FileVisitResult.SKIP_SUBTREE;
+                keys.put(d.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY), d);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private ChannelSftp channel(Session session) throws Exception {
+        if (channel != null && channel.isConnected() && channel.getSession() == session) return channel;
+        if (channel != null) channel.disconnect();
+        channel = SessionPool.openSftp(session);
+        return channel;
+    }
+
+    private String relative(Path p) {
+        return localRoot.relativize(p).toString().replace('\\', '/');
+    }
+
+    private String remote(String rel) {
+        return rel.isEmpty() ? remoteRoot : remoteRoot + "/" + rel;
+    }
+
+    /** State file for this local/remote pair. */
+    private Path statePath() {
+        String id = HexFormat.of().formatHex(UploadVerifier.newDigest()
+                .digest((localRoot + "\n" + remoteRoot).getBytes(StandardCharsets.UTF_8))).substring(0, 16);
+        return Path.of(System.getProperty("user.home")).resolve(DIR_NAME).resolve(STATE_DIR).resolve(id + ".properties");
+    }
+
+    private void loadState() {
+        state.clear();
+        Path path = statePath();
+        if (!Files.isRegularFile(path)) return;
+        Properties p = new Properties();
+        try (var in = Files.newInputStream(path)) {
+            p.load(in);
+        } catch (IOException e) {
+            return; // Unreadable: treat as first run
+        }
+        for (String key : p.stringPropertyNames()) {
+            if (!key.startsWith(FILE_PREFIX)) continue;
+            String[] v = p.getProperty(key).split(",");
+            try {
+                state.put(key.substring(FILE_PREFIX.length()), new long[] { Long.parseLong(v[0]), Long.parseLong(v[1]) });
+            } catch (RuntimeException e) {
+                // Hand-edited entry we cannot read: the file is pushed again
+            }
+        }
+    }
+
+    /** Write the state DB to a temp file and move it into place, so a crash never leaves half a file. */
+    private void saveState() throws IOException {
+        Path path = statePath();
+        Files.createDirectories(path.getParent());
+        Properties p = new Properties();
+        p.setProperty("local", localRoot.toString());
+        p.setProperty("remote", remoteRoot);
+        for (Map.Entry<String, long[]> e : state.entrySet()) {
+            p.setProperty(FILE_PREFIX + e.getKey(), e.getValue()[0] + "," + e.getValue()[1]);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var out = Files.newOutputStream(tmp)) {
+            p.store(out, "Nemo Studio folder sync state (size,mtime of each pushed file)");
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
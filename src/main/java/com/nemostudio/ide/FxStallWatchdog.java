@@ -0,0 +1,215 @@
+package com.nemostudio.ide;
+
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detects FX thread stalls. A daemon thread posts a heartbeat with Platform.runLater every HEARTBEAT_MS
+ * (never two at once) and otherwise sleeps; the heartbeat's queue delay goes to Metrics.FX_QUEUE_DELAY.
+ * Only while a heartbeat is overdue (waiting longer than STALL_THRESHOLD_MS) is the FX thread sampled
+ * every TICK_MS, until the heartbeat runs. A stall is timed from when its heartbeat was posted, so it can
+ * read up to HEARTBEAT_MS short. Each sample is attributed to its top-most application frame (the code that
+ * blocked), and the stall report keeps per-frame sample/stall counts plus the most recent stalls. The report
+ * is rewritten to {@code ~/.nemostudio/fx-stalls.txt} after each stall and shown in Help → Diagnostics.
+ */
+public final class FxStallWatchdog {
+
+    private static final String DIR_NAME = ".nemostudio";
+    private static final String REPORT_FILE = "fx-stalls.txt";
+    private static final long HEARTBEAT_MS = 200;
+    private static final long TICK_MS = 20;
+    private static final long STALL_THRESHOLD_MS = 200;
+    /** Probe delays at or above this are also emitted as FlightEvents.FxQueueDelay. */
+    private static final long JFR_DELAY_THRESHOLD_MS = 100;
+    private static final String APP_PACKAGE = "com.nemostudio.";
+    private static final int EXAMPLE_FRAMES = 12;
+    private static final int MAX_RECENT = 50;
+    private static final int MAX_FRAMES = 200;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final Metrics.Counter STALLS = Metrics.counter("fx_stalls_total", "FX thread stalls over the threshold");
+    private static final LatencyHistogram STALL_TIME = Metrics.timeHistogram("fx_stall", "FX thread stall duration");
+
+    /** Aggregate for one offending frame. */
+    private static final class FrameStats {
+        long samples;
+        long stalls;
+        long totalMillis;
+        String example;
+    }
+
+    private static final Map<String, FrameStats> frames = new HashMap<>();
+    private static final Deque<String> recent = new ArrayDeque<>();
+    private static long totalStalls;
+    private static long totalStallMillis;
+
+    private static volatile Thread fxThread;
+    /** nanoTime the pending heartbeat was posted, or 0 when none is pending. */
+    private static volatile long pendingSince;
+    private static Thread watchdog;
+
+    private FxStallWatchdog() {}
+
+    /** Start the watchdog (idempotent). Call on the FX thread. */
+    public static synchronized void start() {
+        if (watchdog != null) return;
+        fxThread = Thread.currentThread();
+        watchdog = new Thread(FxStallWatchdog::run, "fx-stall-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    private static void run() {
+        Map<String, Integer> stallSamples = new LinkedHashMap<>();
+        Map<String, String> stallExamples = new HashMap<>();
+        long stallStart = 0;
+        long lastPosted = System.nanoTime() - HEARTBEAT_MS * 1_000_000;
+        while (true) {
+            long now = System.nanoTime();
+            long posted = pendingSince;
+            long sleepNanos;
+            if (posted == 0) {
+                if (stallStart != 0) {
+                    finishStall((now - stallStart) / 1_000_000, stallSamples, stallExamples);
+                    stallSamples.clear();
+                    stallExamples.clear();
+                    stallStart = 0;
+                }
+                long due = lastPosted + HEARTBEAT_MS * 1_000_000;
+                if (now - due >= 0) {
+                    lastPosted = now;
+                    postHeartbeat(now);
+                    sleepNanos = STALL_THRESHOLD_MS * 1_000_000;
+                } else {
+                    sleepNanos = due - now;
+                }
+            } else if (now - posted >= STALL_THRESHOLD_MS * 1_000_000) {
+                if (stallStart == 0) stallStart = posted;
+                sample(stallSamples, stallExamples);
+                sleepNanos = TICK_MS * 1_000_000;
+            } else {
+                // Heartbeat pending but not yet overdue: wake when it would be
+                sleepNanos = posted + STALL_THRESHOLD_MS * 1_000_000 - now;
+            }
+            try {
+                Thread.sleep(Math.max(1, sleepNanos / 1_000_000));
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static void postHeartbeat(long now) {
+        pendingSince = now;
+        Platform.runLater(() -> {
+            long delay = System.nanoTime() - now;
+            pendingSince = 0;
+            Metrics.FX_QUEUE_DELAY.recordNanos(delay);
+            if (delay >= JFR_DELAY_THRESHOLD_MS * 1_000_000) {
+                FlightEvents.FxQueueDelay event = new FlightEvents.FxQueueDelay();
+                event.delay = delay / 1000;
+                event.commit();
+            }
+        });
+    }
+
+    private static void sample(Map<String, Integer> samples, Map<String, String> examples) {
+        Thread fx = fxThread;
+        if (fx == null) return;
+        StackTraceElement[] stack = fx.getStackTrace();
+        if (stack.length == 0) return;
+        String key = offendingFrame(stack);
+        samples.merge(key, 1, Integer::sum);
+        examples.putIfAbsent(key, formatStack(stack));
+    }
+
+    /** Top-most application frame, or the top frame if no application code is on the stack. */
+    static String offendingFrame(StackTraceElement[] stack) {
+        for (StackTraceElement e : stack) {
+            if (e.getClassName().startsWith(APP_PACKAGE)
+                    && !e.getClassName().startsWith(FxStallWatchdog.class.getName())) {
+                return e.toString();
+            }
+        }
+        return stack[0].toString();
+    }
+
+    private static String formatStack(StackTraceElement[] stack) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(EXAMPLE_FRAMES, stack.length); i++) {
+            sb.append("        at ").append(stack[i]).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void finishStall(long millis, Map<String, Integer> samples, Map<String, String> examples) {
+        STALLS.inc();
+        STALL_TIME.recordMicros(millis * 1000);
+        String worst = samples.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse("(no sample taken)");
+        FlightEvents.FxStall event = new FlightEvents.FxStall();
+        event.stall = millis * 1000;
+        event.frame = worst;
+        event.commit();
+        synchronized (FxStallWatchdog.class) {
+            totalStalls++;
+            totalStallMillis += millis;
+            for (Map.Entry<String, Integer> e : samples.entrySet()) {
+                if (frames.size() >= MAX_FRAMES && !frames.containsKey(e.getKey())) continue;
+                FrameStats s = frames.computeIfAbsent(e.getKey(), k -> new FrameStats());
+                s.samples += e.getValue();
+                s.stalls++;
+                s.totalMillis += millis;
+                if (s.example == null) s.example = examples.get(e.getKey());
+            }
+            recent.addFirst(LocalDateTime.now().format(TIME) + "  " + millis + " ms  " + worst);
+            while (recent.size() > MAX_RECENT) recent.removeLast();
+        }
+        try {
+            Path path = getReportPath();
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, report(), StandardCharsets.UTF_8);
+        } catch (IOException ignored) {
+            // Report stays available in Help → Diagnostics
+        }
+    }
+
+    /** Stall report: offending frames by samples (with an example stack), then the most recent stalls. */
+    public static synchronized String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("FX stall report (threshold ").append(STALL_THRESHOLD_MS).append(" ms, sampled every ")
+                .append(TICK_MS).append(" ms): ").append(totalStalls).append(" stall(s), ")
+                .append(totalStallMillis).append(" ms total\n");
+        if (totalStalls == 0) return sb.toString();
+        sb.append("\nOffending frames (samples / stalls / stall ms):\n");
+        List<Map.Entry<String, FrameStats>> sorted = new ArrayList<>(frames.entrySet());
+        sorted.sort((a, b) -> Long.compare(b.getValue().samples, a.getValue().samples));
+        for (Map.Entry<String, FrameStats> e : sorted) {
+            FrameStats s = e.getValue();
+            sb.append(String.format("%6d %5d %8d  %s%n", s.samples, s.stalls, s.totalMillis, e.getKey()));
+            if (s.example != null) sb.append(s.example);
+        }
+        sb.append("\nRecent stalls:\n");
+        for (String r : recent) sb.append("  ").append(r).append('\n');
+        return sb.toString();
+    }
+
+    public static Path getReportPath() {
+        return Path.of(System.getProperty("user.home")).resolve(DIR_NAME).resolve(REPORT_FILE);
+    }
+}
@@ -13,7 +13,9 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -26,6 +28,11 @@ import java.util.zip.ZipOutputStream;
 public final class GetReady01 {
 
     private static final String SCRIPT_RESOURCE = "/scripts/GetReady01.sh";
+    private static final String EXAMPLE_RESOURCE = "/data/getready01";
+    private static final Set<RemoteEnvironment.Field> PREFLIGHT_FIELDS = EnumSet.of(RemoteEnvironment.Field.DOCKER,
+            RemoteEnvironment.Field.IMAGES, RemoteEnvironment.Field.CONTAINERS, RemoteEnvironment.Field.GPU,
+            RemoteEnvironment.Field.DISK, RemoteEnvironment.Field.SYSTEM);
+    private static final long MIN_FREE_BYTES_FOR_PULL = 20L * 1024 * 1024 * 1024;
 
     private GetReady01() {}
 
@@ -35,26 +42,127 @@ public final class GetReady01 {
             terminal.appendOutput("[GetReady01] No remote folder selected. Use Project → Open Remote Folder first.\n");
             return;
         }
-        runScript(terminal, remotePath.trim());
+        if (!terminal.isRemoteConnected()) {
+            queue(terminal);
+            return;
+        }
+        terminal.appendOutput("[GetReady01] Checking remote environment...\n");
+        RemoteEnvironment.getAsync(PREFLIGHT_FIELDS, env -> Platform.runLater(() -> {
+            if (preflight(terminal, env)) runScript(terminal, remotePath.trim());
+        }));
+    }
+
+    /**
+     * Report what the step will find on the remote (RemoteEnvironment, usually cached). Returns false if it
+     * cannot work there (no Docker); a missing GPU or low disk is only a warning.
+     */
+    private static boolean preflight(RemoteTerminalPanel terminal, RemoteEnvironment.Snapshot env) {
+        if (!env.has(RemoteEnvironment.Field.DOCKER)) {
+            terminal.appendOutput("[GetReady01] Could not check the remote environment; continuing.\n");
+            return true;
+        }
+        if (env.dockerVersion() == null) {
+            terminal.appendOutput("[GetReady01] Docker is not available on the remote (not installed, or the daemon "
+                    + "is not reachable for this user). Install Docker and try again.\n");
+            return false;
+        }
+        String image = CuratorRunner.CURATOR_IMAGE;
+        String digest = env.imageDigest(image);
+        terminal.appendOutput("[GetReady01] " + env.summary() + "\n");
+        if (env.gpus().isEmpty()) {
+            terminal.appendOutput("[GetReady01] Warning: no NVIDIA GPU found (nvidia-smi); the container is started "
+                    + "with --gpus all and may fail.\n");
+        }
+        terminal.appendOutput(digest != null
+                ? "[GetReady01] " + image + " is present (" + digest + ").\n"
+                : "[GetReady01] " + image + " is not present; it will be pulled, which can take a while.\n");
+        if (digest == null && env.diskFreeBytes() >= 0 && env.diskFreeBytes() < MIN_FREE_BYTES_FOR_PULL) {
+            terminal.appendOutput("[GetReady01] Warning: only " + env.diskFreeBytes() / (1024 * 1024 * 1024)
+                    + " GB free under the remote folder; the image needs about 20 GB.\n");
+        }
+        int running = env.runningContainers(image);
+        if (running > 0) {
+            terminal.appendOutput("[GetReady01] " + running + " running container(s) from " + image
+                    + " will be replaced.\n");
+        }
+        return true;
+    }
+
+    /** Queue this step to run again once the link is back (OfflineQueue). Safe to call from FX thread. */
+    private static void queue(RemoteTerminalPanel terminal) {
+        OfflineQueue.enqueueWorkflow(1);
+        terminal.appendOutput("[GetReady01] Not connected. Queued; it will run when the link is back.\n");
     }
 
     private static void runScript(RemoteTerminalPanel terminal, String remotePath) {
         // Upload script files from resources to remote scripts/example directory
-        uploadScriptFiles(terminal, remotePath, () -> {
+        FlightEvents.WorkflowStep uploadEvent = new FlightEvents.WorkflowStep("GetReady01", "upload");
+        uploadScriptFiles(terminal, remotePath, uploadEvent, () -> {
+            uploadEvent.commit();
             // After upload completes, run the main script
-            String script = loadScript(SCRIPT_RESOURCE);
-            if (script != null) {
-                String safePath = remotePath.trim().replace("'", "'\"'\"'");
-                script = "REMOTE_PATH='" + safePath + "'\n" + script;
-                terminal.runScript(script);
+            FlightEvents.WorkflowStep scriptEvent = new FlightEvents.WorkflowStep("GetReady01", "script");
+            String script = buildScript(remotePath);
+            if (script != null && !terminal.isRemoteConnected()) {
+                queue(terminal);
+            } else if (script != null) {
+                // The event covers the script's run: it ends when the terminal sees the exit status
+                terminal.runScript(script, exitCode -> {
+                    scriptEvent.success = exitCode == 0;
+                    scriptEvent.commit();
+                    // The script has pulled the image and replaced the container
+                    RemoteEnvironment.invalidate(RemoteEnvironment.Field.IMAGES, RemoteEnvironment.Field.CONTAINERS);
+                });
             } else {
                 terminal.appendOutput("[GetReady01] Could not load script " + SCRIPT_RESOURCE + "\n");
+                scriptEvent.commit();
             }
         });
     }
 
-    private static void uploadScriptFiles(RemoteTerminalPanel terminal, String remotePath, Runnable onComplete) {
-        String scriptsResourcePath = "/data/getready01";
+    /** GetReady01.sh with REMOTE_PATH set to remotePath, or null if the resource is missing. */
+    static String buildScript(String remotePath) {
+        String script = loadScript(SCRIPT_RESOURCE);
+        if (script == null) return null;
+        String safePath = remotePath.trim().replace("'", "'\"'\"'");
+        return "REMOTE_PATH='" + safePath + "'\n" + script;
+    }
+
+    /**
+     * Local directory holding the example tree (data/getready01), for uploads that bypass the terminal
+     * (fleet mode). Running from classes this is the resource folder itself; running from a JAR the tree is
+     * extracted to a new temp directory, which the caller should delete (see isTemporaryExampleFolder).
+     */
+    static File materializeExampleFolder() throws IOException {
+        java.net.URL resourceUrl = GetReady01.class.getResource(EXAMPLE_RESOURCE);
+        if (resourceUrl == null) {
+            throw new IOException("Resource not found: " + EXAMPLE_RESOURCE);
+        }
+        if ("file".equals(resourceUrl.getProtocol())) {
+            try {
+                return new File(resourceUrl.toURI());
+            } catch (URISyntaxException e) {
+                throw new IOException("Invalid resource URI", e);
+            }
+        }
+        Path tempDir = Files.createTempDirectory("nemostudio-example-");
+        if (!extractJarTree(EXAMPLE_RESOURCE, tempDir.toFile())) {
+            deleteRecursively(tempDir.toFile());
+            throw new IOException("No content in resource " + EXAMPLE_RESOURCE);
+        }
+        return tempDir.toFile();
+    }
+
+    static boolean isTemporaryExampleFolder(File folder) {
+        return folder.getName().startsWith("nemostudio-example-");
+    }
+
+    static void deleteExampleFolder(File folder) {
+        if (isTemporaryExampleFolder(folder)) deleteRecursively(folder);
+    }
+
+    private static void uploadScriptFiles(RemoteTerminalPanel terminal, String remotePath,
+                                          FlightEvents.WorkflowStep event, Runnable onComplete) {
+        String scriptsResourcePath = EXAMPLE_RESOURCE;
         String remoteScriptsPath = remotePath.trim() + "/example";
         
         terminal.appendOutput("[GetReady01] Uploading example folder to " + remoteScriptsPath + "...\n");
@@ -81,6 +189,11 @@ public final class GetReady01 {
                     public void onFileComplete(String fileName, long fileSize) {
                         Platform.runLater(() -> terminal.appendOutput("[GetReady01] Uploaded " + fileName + " (" + fileSize + " bytes)\n"));
                     }
+                    @Override
+                    public void onVerified(int checked, List<String> resent, boolean verified) {
+                        String text = SftpHelper.describeVerification(checked, resent, verified);
+                        Platform.runLater(() -> terminal.appendOutput("[GetReady01] " + text + "\n"));
+                    }
                 };
                 
                 if ("file".equals(resourceUrl.getProtocol())) {
@@ -106,10 +219,12 @@ public final class GetReady01 {
                         });
                         return;
                     }
+                    List<File> children = new ArrayList<>();
                     for (File child : topLevel) {
-                        if (child.getName().equals(".gitkeep")) continue;
-                        SftpHelper.upload(child, remoteScriptsPath, callback);
+                        if (!child.getName().equals(".gitkeep")) children.add(child);
                     }
+                    SftpHelper.uploadAll(children, remoteScriptsPath, callback);
+                    event.success = true;
                     Platform.runLater(() -> {
                         terminal.appendOutput("[GetReady01] Example folder uploaded successfully.\n");
                         onComplete.run();
@@ -119,7 +234,7 @@ public final class GetReady01 {
                 
                 // Running from JAR: zip the example folder and upload example.zip; script will unzip and remove it
                 if ("jar".equals(resourceUrl.getProtocol())) {
-                    uploadExampleFromJar(scriptsResourcePath, remotePath.trim(), terminal, callback, onComplete);
+                    uploadExampleFromJar(scriptsResourcePath, remotePath.trim(), terminal, callback, event, onComplete);
                 } else {
                     Platform.runLater(() -> {
                         terminal.appendOutput("[GetReady01] Unsupported resource protocol: " + resourceUrl.getProtocol() + "\n");
@@ -129,7 +244,8 @@ public final class GetReady01 {
             } catch (Exception e) {
                 Platform.runLater(() -> {
                     terminal.appendOutput("[GetReady01] Error uploading example folder: " + e.getMessage() + "\n");
-                    onComplete.run();
+                    if (OfflineQueue.isLinkFailure(e)) queue(terminal);
+                    else onComplete.run();
                 });
             }
         }).start();
@@ -137,50 +253,15 @@ public final class GetReady01 {
     
     /** When running from JAR: extract resource tree to temp dir, zip it, upload the zip to remote; script will unzip and remove it. */
     private static void uploadExampleFromJar(String scriptsResourcePath, String remotePath,
-            RemoteTerminalPanel terminal, SftpHelper.ProgressCallback callback, Runnable onComplete) {
+            RemoteTerminalPanel terminal, SftpHelper.ProgressCallback callback, FlightEvents.WorkflowStep event,
+            Runnable onComplete) {
         try {
-            String normalizedPath = scriptsResourcePath.startsWith("/") ? scriptsResourcePath.substring(1) : scriptsResourcePath;
-            if (!normalizedPath.endsWith("/")) normalizedPath += "/";
-            java.net.URL resourceUrl = GetReady01.class.getResource("/" + normalizedPath);
-            if (resourceUrl == null) {
-                Platform.runLater(() -> { terminal.appendOutput("[GetReady01] Resource not found.\n"); onComplete.run(); });
-                return;
-            }
-            String jarPath = resourceUrl.getPath().substring(5, resourceUrl.getPath().indexOf("!"));
-            List<String> filePaths = new ArrayList<>();
-            List<String> dirPaths = new ArrayList<>();
-            try (JarFile jar = new JarFile(jarPath)) {
-                final String prefix = normalizedPath;
-                jar.stream()
-                        .filter(entry -> entry.getName().startsWith(prefix) && !entry.getName().equals(prefix))
-                        .forEach(entry -> {
-                            String name = entry.getName().substring(prefix.length());
-                            if (name.isEmpty() || name.equals(".gitkeep")) return;
-                            if (name.endsWith("/")) dirPaths.add(name.substring(0, name.length() - 1));
-                            else filePaths.add(name);
-                        });
-            }
-            if (filePaths.isEmpty() && dirPaths.isEmpty()) {
-                Platform.runLater(() -> { terminal.appendOutput("[GetReady01] No content in resource.\n"); onComplete.run(); });
-                return;
-            }
             Path tempDir = Files.createTempDirectory("nemostudio-example-");
             File tempDirFile = tempDir.toFile();
             try {
-                dirPaths.sort(Comparator.comparingInt(String::length));
-                for (String d : dirPaths) {
-                    if (d.equals(".gitkeep")) continue;
-                    Files.createDirectories(new File(tempDirFile, d).toPath());
-                }
-                for (String relativePath : filePaths) {
-                    if (relativePath.equals(".gitkeep")) continue;
-                    try (InputStream in = GetReady01.class.getResourceAsStream("/" + normalizedPath + relativePath)) {
-                        if (in != null) {
-                            File dest = new File(tempDirFile, relativePath);
-                            Files.createDirectories(dest.getParentFile().toPath());
-                            Files.copy(in, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
-                        }
-                    }
+                if (!extractJarTree(scriptsResourcePath, tempDirFile)) {
+                    Platform.runLater(() -> { terminal.appendOutput("[GetReady01] No content in resource.\n"); onComplete.run(); });
+                    return;
                 }
                 // Zip the contents of temp dir (so zip has top-level entries: input/, scripts/, etc.)
                 File zipFile = new File(tempDir.toFile().getParent(), "example.zip");
@@ -189,6 +270,7 @@ public final class GetReady01 {
                 // Upload zip to remote folder root (script will unzip -d example and remove zip)
                 SftpHelper.upload(zipFile, remotePath.trim(), callback);
                 Files.deleteIfExists(zipFile.toPath());
+                event.success = true;
                 Platform.runLater(() -> {
                     terminal.appendOutput("[GetReady01] Example zip uploaded. Script will unzip it on the remote.\n");
                     onComplete.run();
@@ -199,10 +281,57 @@ public final class GetReady01 {
         } catch (Exception e) {
             Platform.runLater(() -> {
                 terminal.appendOutput("[GetReady01] Error uploading from JAR: " + e.getMessage() + "\n");
-                onComplete.run();
+                if (OfflineQueue.isLinkFailure(e)) queue(terminal);
+                else onComplete.run();
             });
         }
     }
+
+    /**
+     * Extract the resource tree under resourcePath from the application JAR into destDir (skipping .gitkeep).
+     * Returns false if the resource has no content.
+     */
+    private static boolean extractJarTree(String resourcePath, File destDir) throws IOException {
+        String normalizedPath = resourcePath.startsWith("/") ? resourcePath.substring(1) : resourcePath;
+        if (!normalizedPath.endsWith("/")) normalizedPath += "/";
+        java.net.URL resourceUrl = GetReady01.class.getResource("/" + normalizedPath);
+        if (resourceUrl == null) {
+            return false;
+        }
+        String jarPath = resourceUrl.getPath().substring(5, resourceUrl.getPath().indexOf("!"));
+        List<String> filePaths = new ArrayList<>();
+        List<String> dirPaths = new ArrayList<>();
+        try (JarFile jar = new JarFile(jarPath)) {
+            final String prefix = normalizedPath;
+            jar.stream()
+                    .filter(entry -> entry.getName().startsWith(prefix) && !entry.getName().equals(prefix))
+                    .forEach(entry -> {
+                        String name = entry.getName().substring(prefix.length());
+                        if (name.isEmpty() || name.equals(".gitkeep")) return;
+                        if (name.endsWith("/")) dirPaths.add(name.substring(0, name.length() - 1));
+                        else filePaths.add(name);
+                    });
+        }
+        if (filePaths.isEmpty() && dirPaths.isEmpty()) {
+            return false;
+        }
+        dirPaths.sort(Comparator.comparingInt(String::length));
+        for (String d : dirPaths) {
+            if (d.equals(".gitkeep")) continue;
+            Files.createDirectories(new File(destDir, d).toPath());
+        }
+        for (String relativePath : filePaths) {
+            if (relativePath.equals(".gitkeep")) continue;
+            try (InputStream in = GetReady01.class.getResourceAsStream("/" + normalizedPath + relativePath)) {
+                if (in != null) {
+                    File dest = new File(destDir, relativePath);
+                    Files.createDirectories(dest.getParentFile().toPath());
+                    Files.copy(in, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        return true;
+    }
     
     /** Create a zip file with the contents of dir (entry names are relative to dir, e.g. input/foo, scripts/bar). */
     private static void createZipFromDir(File dir, File zipFile) throws IOException {
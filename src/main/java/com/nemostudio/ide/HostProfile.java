@@ -0,0 +1,47 @@
+package com.nemostudio.ide;
+
+/**
+ * One remote machine in fleet mode: display name, host, user and remote folder. The password (if any)
+ * is kept encrypted by SecurePasswordStore under the profile id, never in this object.
+ */
+public final class HostProfile {
+
+    private final String id;
+    private final String name;
+    private final String host;
+    private final String user;
+    private final String remoteFolder;
+
+    public HostProfile(String id, String name, String host, String user, String remoteFolder) {
+        this.id = id;
+        this.name = name == null || name.isBlank() ? host : name.trim();
+        this.host = host == null ? "" : host.trim();
+        this.user = user == null ? "" : user.trim();
+        this.remoteFolder = remoteFolder == null ? "" : remoteFolder.trim();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getRemoteFolder() {
+        return remoteFolder;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + user + "@" + host + ")";
+    }
+}
@@ -0,0 +1,87 @@
+package com.nemostudio.ide;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Saves and loads fleet host profiles to an editable properties file, like ConnectionStore.
+ * File: {@code ~/.nemostudio/hosts.properties} with keys {@code profile.<id>.host}, {@code .user},
+ * {@code .name}, {@code .remoteFolder}, plus {@code profiles=<id>,<id>,...} to keep the order.
+ */
+public final class HostProfileStore {
+
+    private static final String DIR_NAME = ".nemostudio";
+    private static final String FILE_NAME = "hosts.properties";
+    private static final String KEY_ORDER = "profiles";
+
+    private HostProfileStore() {}
+
+    public static Path getConfigPath() {
+        return Path.of(System.getProperty("user.home")).resolve(DIR_NAME).resolve(FILE_NAME);
+    }
+
+    public static List<HostProfile> loadAll() {
+        List<HostProfile> out = new ArrayList<>();
+        Path path = getConfigPath();
+        if (!Files.isRegularFile(path)) {
+            return out;
+        }
+        Properties p = new Properties();
+        try (var in = Files.newInputStream(path)) {
+            p.load(in);
+        } catch (IOException e) {
+            return out;
+        }
+        for (String id : p.getProperty(KEY_ORDER, "").split(",")) {
+            id = id.trim();
+            if (id.isEmpty()) continue;
+            String prefix = "profile." + id + ".";
+            String host = p.getProperty(prefix + "host", "").trim();
+            if (host.isEmpty()) continue;
+            out.add(new HostProfile(id,
+                    p.getProperty(prefix + "name", ""),
+                    host,
+                    p.getProperty(prefix + "user", ""),
+                    p.getProperty(prefix + "remoteFolder", "")));
+        }
+        return out;
+    }
+
+    public static void saveAll(List<HostProfile> profiles) throws IOException {
+        Path path = getConfigPath();
+        Path dir = path.getParent();
+        if (dir != null && !Files.isDirectory(dir)) {
+            Files.createDirectories(dir);
+        }
+        Properties p = new Properties();
+        StringBuilder order = new StringBuilder();
+        for (HostProfile hp : profiles) {
+            if (order.length() > 0) order.append(',');
+            order.append(hp.getId());
+            String prefix = "profile." + hp.getId() + ".";
+            p.setProperty(prefix + "name", hp.getName());
+            p.setProperty(prefix + "host", hp.getHost());
+            p.setProperty(prefix + "user", hp.getUser());
+            p.setProperty(prefix + "remoteFolder", hp.getRemoteFolder());
+        }
+        p.setProperty(KEY_ORDER, order.toString());
+        try (var out = Files.newOutputStream(path)) {
+            p.store(out, "Nemo Studio fleet host profiles (editable)");
+        }
+    }
+
+    /** Profile for the currently saved single connection (ConnectionStore), with a new id. */
+    public static HostProfile fromCurrentConnection() {
+        return new HostProfile(newId(), "", ConnectionStore.loadHost(), ConnectionStore.loadUsername(),
+                ConnectionStore.loadRemoteFolder());
+    }
+
+    public static String newId() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -9,11 +9,14 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.Label;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
@@ -29,9 +32,19 @@ public class IdeView {
 
     /** Distance of the "Get Ready" button from the bottom of each panel, as a fraction of panel height (0.3 = 30%). */
     private static final double BUTTON_BOTTOM_OFFSET_RATIO = 0.25;
+    /** How long a queued operation waits for the terminal to reconnect before it is retried later. */
+    private static final long QUEUE_TERMINAL_WAIT_MS = 20000;
 
     private final BorderPane root;
     private final StatusBarMonitor statusBarMonitor;
+    private final RemoteTerminalPanel terminalPanel;
+    private FolderSync folderSync;
+    private final RemoteTerminalPanel dockerStatusTerminal;
+    private final DockerStatusMonitor dockerStatusMonitor;
+    private final Region connectionIndicator;
+    private final Label connectionLabel;
+    private final Label remoteFolderLabel;
+    private boolean backgroundWorkStarted;
 
     public IdeView() {
         root = new BorderPane();
@@ -61,41 +74,33 @@ public class IdeView {
         VBox centerSplit = new VBox();
         centerSplit.setStyle("-fx-background-color: transparent;");
 
-        // Remote terminal: visible at startup; connect at startup
-        RemoteTerminalPanel terminalPanel = new RemoteTerminalPanel();
+        // Remote terminal: visible at startup; connects after the first frame (see startBackgroundWork)
+        terminalPanel = new RemoteTerminalPanel();
+        terminalPanel.setRecordingName("terminal");
+        terminalPanel.setQueueWhenOffline(true);
         terminalPanel.appendOutput("Waiting for user action.\n");
         Pane terminalPlaceholder = new Pane();
         terminalPlaceholder.setStyle("-fx-background-color: transparent;");
         StackPane terminalStack = new StackPane();
         terminalStack.getChildren().addAll(terminalPlaceholder, terminalPanel);
-        final boolean[] leftTerminalConnectOnce = { false };
-        terminalStack.sceneProperty().addListener((obs, oldScene, newScene) -> {
-            if (newScene != null && !leftTerminalConnectOnce[0]) {
-                leftTerminalConnectOnce[0] = true;
-                terminalPanel.connect(null);
-            }
-        });
 
-        // Right panel: terminal that shows only docker ps output, refreshed every 5s (clear then run)
-        RemoteTerminalPanel dockerStatusTerminal = new RemoteTerminalPanel("Docker status (refreshes every 5s). Connecting...");
-        StackPane rightTerminalStack = new StackPane();
-        rightTerminalStack.getChildren().add(dockerStatusTerminal);
-        final boolean[] dockerTerminalConnectOnce = { false };
-        rightTerminalStack.sceneProperty().addListener((obs, oldScene, newScene) -> {
-            if (newScene != null && !dockerTerminalConnectOnce[0]) {
-                dockerTerminalConnectOnce[0] = true;
-                dockerStatusTerminal.connect(() -> {
-                    dockerStatusTerminal.clearOutput();
-                    java.util.concurrent.ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-                    scheduler.scheduleAtFixedRate(() -> javafx.application.Platform.runLater(() -> {
-                        dockerStatusTerminal.clearOutput();
-                        dockerStatusTerminal.sendCommand("docker ps");
-                    }), 0, 5, TimeUnit.SECONDS);
-                });
-            }
+        // Right panel: running containers from the Docker Engine API, refreshed every 5s (DockerStatusMonitor)
+        dockerStatusTerminal = new RemoteTerminalPanel("Docker status (refreshes every 5s). Connecting...");
+        dockerStatusMonitor = new DockerStatusMonitor(dockerStatusTerminal);
+        // Logs tab: several containers' logs merged by timestamp (ContainerLogPanel); starts when first shown
+        ContainerLogPanel logPanel = new ContainerLogPanel();
+        Tab statusTab = new Tab("Containers", dockerStatusTerminal);
+        Tab logsTab = new Tab("Logs", logPanel);
+        logsTab.setOnSelectionChanged(e -> {
+            if (logsTab.isSelected()) logPanel.activate();
+            else logPanel.deactivate();
         });
+        TabPane rightTabs = new TabPane(statusTab, logsTab);
+        rightTabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+        StackPane rightTerminalStack = new StackPane();
+        rightTerminalStack.getChildren().add(rightTabs);
 
-        // Bottom half: left = terminal (50%), right = docker status terminal (50%)
+        // Bottom half: left = terminal (50%), right = docker status / container logs tabs (50%)
         HBox bottomHalf = new HBox();
         bottomHalf.setStyle("-fx-background-color: transparent;");
         bottomHalf.getChildren().addAll(terminalStack, rightTerminalStack);
@@ -175,7 +180,7 @@ public class IdeView {
         terminalStack.setMinHeight(0);
         rightTerminalStack.setMinHeight(0);
 
-        // Strict 50/50 height: top = 8 panels, bottom = terminal (left 50%) + docker status terminal (right 50%)
+        // Strict 50/50 height: top = 8 panels, bottom = terminal (left 50%) + docker status / logs tabs (right 50%)
         centerOverlay.prefHeightProperty().bind(centerSplit.heightProperty().multiply(0.5));
         centerOverlay.maxHeightProperty().bind(centerSplit.heightProperty().multiply(0.5));
         bottomHalf.prefHeightProperty().bind(centerSplit.heightProperty().multiply(0.5));
@@ -184,8 +189,53 @@ public class IdeView {
         centerSplit.getChildren().addAll(centerOverlay, bottomHalf);
         root.setCenter(centerSplit);
 
+        this.connectionIndicator = connectionIndicator;
+        this.connectionLabel = connectionLabel;
+        this.remoteFolderLabel = remoteFolderLabel;
         statusBarMonitor = new StatusBarMonitor();
+    }
+
+    /**
+     * Start SSH connects, the status bar monitor, the metrics exporter and the FX stall watchdog. Called once by NemoStudioApp after the first frame
+     * has been rendered, so network work never delays first paint.
+     */
+    public void startBackgroundWork() {
+        if (backgroundWorkStarted) return;
+        backgroundWorkStarted = true;
+        terminalPanel.connect(null);
+        startOfflineQueue();
+        dockerStatusMonitor.start();
         statusBarMonitor.start(connectionIndicator, connectionLabel, remoteFolderLabel);
+        Metrics.startExporter();
+        FxStallWatchdog.start();
+    }
+
+    /**
+     * Replay operations queued while the link was down (OfflineQueue): commands and Get Ready steps run in
+     * the main terminal once it has reconnected; uploads are replayed by the queue itself.
+     */
+    private void startOfflineQueue() {
+        OfflineQueue.setLog(line -> javafx.application.Platform.runLater(() -> terminalPanel.appendOutput("[Queue] " + line + "\n")));
+        OfflineQueue.setHandler(OfflineQueue.Kind.COMMAND, op -> {
+            awaitTerminal();
+            javafx.application.Platform.runLater(() -> terminalPanel.sendCommand(op.getTarget()));
+        });
+        OfflineQueue.setHandler(OfflineQueue.Kind.WORKFLOW, op -> {
+            awaitTerminal();
+            int step = Integer.parseInt(op.getTarget());
+            javafx.application.Platform.runLater(() -> runGetReady(step, terminalPanel));
+        });
+        OfflineQueue.start();
+        int waiting = OfflineQueue.size();
+        if (waiting > 0) {
+            terminalPanel.appendOutput("[Queue] " + waiting + " operation(s) queued while offline will be replayed.\n");
+        }
+    }
+
+    private void awaitTerminal() throws Exception {
+        if (!terminalPanel.awaitConnected(QUEUE_TERMINAL_WAIT_MS)) {
+            throw new java.net.SocketException("Terminal could not reconnect");
+        }
     }
 
     private void runGetReady(int panelIndex, RemoteTerminalPanel terminal) {
@@ -196,6 +246,110 @@ public class IdeView {
         }
     }
 
+    /** Measure the saved host's link again (LinkTuner) and report the chosen settings in the terminal. */
+    private void retuneLink() {
+        String host = ConnectionStore.loadHost();
+        String user = ConnectionStore.loadUsername();
+        if (host.isEmpty() || user.isEmpty()) {
+            terminalPanel.appendOutput("[Link] No host or username saved. Use Project → Connect first.\n");
+            return;
+        }
+        char[] passChars = SecurePasswordStore.loadPassword();
+        String pass = (passChars != null && passChars.length > 0) ? new String(passChars) : null;
+        if (passChars != null) Arrays.fill(passChars, '\0');
+        terminalPanel.appendOutput("[Link] Measuring " + host + " (RTT, cipher throughput, compression)...\n");
+        new Thread(() -> {
+            try {
+                LinkTuner.tune(host, user, pass, line ->
+                        javafx.application.Platform.runLater(() -> terminalPanel.appendOutput("[Link] " + line + "\n")));
+                javafx.application.Platform.runLater(() ->
+                        terminalPanel.appendOutput("[Link] New sessions use these settings.\n"));
+            } catch (Exception ex) {
+                javafx.application.Platform.runLater(() ->
+                        terminalPanel.appendOutput("[Link] Tuning failed: " + ex.getMessage() + "\n"));
+            }
+        }).start();
+    }
+
+    /**
+     * Start (after choosing the local folder) or stop syncing a local folder to remote-path/data/sample.
+     * Returns whether sync is now on.
+     */
+    private boolean setFolderSync(boolean on) {
+        if (!on) {
+            if (folderSync != null) {
+                folderSync.stop();
+                terminalPanel.appendOutput("[Sync] Stopped syncing " + folderSync.getLocalRoot() + "\n");
+                folderSync = null;
+            }
+            return false;
+        }
+        String remotePath = ConnectionStore.loadRemoteFolder();
+        if (remotePath == null || remotePath.trim().isEmpty()) {
+            terminalPanel.appendOutput("[Sync] No remote folder selected. Use Project → Open Remote Folder first.\n");
+            return false;
+        }
+        javafx.stage.DirectoryChooser chooser = new javafx.stage.DirectoryChooser();
+        chooser.setTitle("Local folder to sync to " + remotePath.trim() + "/data/sample");
+        java.io.File saved = new java.io.File(ConnectionStore.loadSyncFolder());
+        chooser.setInitialDirectory(saved.isDirectory() ? saved : new java.io.File(System.getProperty("user.home")));
+        java.io.File local = chooser.showDialog(terminalPanel.getScene() == null ? null : terminalPanel.getScene().getWindow());
+        if (local == null) return false;
+        FolderSync sync = new FolderSync(local.toPath(), remotePath.trim() + "/data/sample",
+                line -> javafx.application.Platform.runLater(() -> terminalPanel.appendOutput("[Sync] " + line + "\n")));
+        try {
+            sync.start();
+            ConnectionStore.saveSyncFolder(local.getAbsolutePath());
+        } catch (java.io.IOException ex) {
+            terminalPanel.appendOutput("[Sync] Could not start: " + ex.getMessage() + "\n");
+            return sync.isRunning();
+        }
+        folderSync = sync;
+        terminalPanel.appendOutput("[Sync] Watching " + sync.getLocalRoot() + " → " + sync.getRemoteRoot() + "\n");
+        return true;
+    }
+
+    private void setSessionRecording(boolean on) {
+        try {
+            ConnectionStore.saveRecordSessions(on);
+        } catch (java.io.IOException ex) {
+            terminalPanel.appendOutput("[Sessions] Could not save setting: " + ex.getMessage() + "\n");
+        }
+        terminalPanel.setRecording(on);
+        terminalPanel.appendOutput(on
+                ? "[Sessions] Recording terminal sessions to " + SessionRecorder.getSessionsDir() + "\n"
+                : "[Sessions] Session recording off.\n");
+    }
+
+    /** Start a flight recording, or stop the running one and dump it (off the FX thread) to ~/.nemostudio/recordings. */
+    private void toggleFlightRecording(MenuItem item) {
+        if (!FlightRecording.isRecording()) {
+            try {
+                FlightRecording.start();
+                item.setText("Stop Flight Recording");
+                terminalPanel.appendOutput("[JFR] Recording started.\n");
+            } catch (Exception ex) {
+                terminalPanel.appendOutput("[JFR] Could not start recording: " + ex.getMessage() + "\n");
+            }
+            return;
+        }
+        item.setDisable(true);
+        new Thread(() -> {
+            String message;
+            try {
+                message = "[JFR] Recording saved to " + FlightRecording.stop() + "\n";
+            } catch (Exception ex) {
+                message = "[JFR] Could not save recording: " + ex.getMessage() + "\n";
+            }
+            String text = message;
+            javafx.application.Platform.runLater(() -> {
+                item.setText("Start Flight Recording");
+                item.setDisable(false);
+                terminalPanel.appendOutput(text);
+            });
+        }).start();
+    }
+
     private void showComingSoonAlert() {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Coming Soon");
@@ -219,7 +373,19 @@ public class IdeView {
         connectItem.setOnAction(e -> ConnectWindow.show(null));
         MenuItem openRemoteFolderItem = new MenuItem("Open Remote Folder");
         openRemoteFolderItem.setOnAction(e -> RemoteFolderWindow.show(null));
-        projectMenu.getItems().addAll(connectItem, openRemoteFolderItem);
+        MenuItem fleetItem = new MenuItem("Fleet...");
+        fleetItem.setOnAction(e -> FleetWindow.show(null));
+        MenuItem retuneItem = new MenuItem("Re-tune Link");
+        retuneItem.setOnAction(e -> retuneLink());
+        CheckMenuItem recordItem = new CheckMenuItem("Record Terminal Sessions");
+        recordItem.setSelected(ConnectionStore.loadRecordSessions());
+        recordItem.setOnAction(e -> setSessionRecording(recordItem.isSelected()));
+        MenuItem recordingsItem = new MenuItem("Session Recordings...");
+        recordingsItem.setOnAction(e -> SessionReplayWindow.show(null));
+        CheckMenuItem syncItem = new CheckMenuItem("Sync Local Folder...");
+        syncItem.setOnAction(e -> syncItem.setSelected(setFolderSync(syncItem.isSelected())));
+        projectMenu.getItems().addAll(connectItem, openRemoteFolderItem, syncItem, new SeparatorMenuItem(), fleetItem,
+                retuneItem, new SeparatorMenuItem(), recordItem, recordingsItem);
 
         Menu workflowMenu = buildWorkflowMenu();
 
@@ -234,8 +400,12 @@ public class IdeView {
         );
 
         Menu helpMenu = new Menu("Help");
+        MenuItem diagnosticsItem = new MenuItem("Diagnostics");
+        diagnosticsItem.setOnAction(e -> DiagnosticsWindow.show(null));
+        MenuItem recordingItem = new MenuItem("Start Flight Recording");
+        recordingItem.setOnAction(e -> toggleFlightRecording(recordingItem));
         MenuItem aboutItem = new MenuItem("About");
-        helpMenu.getItems().add(aboutItem);
+        helpMenu.getItems().addAll(diagnosticsItem, recordingItem, new SeparatorMenuItem(), aboutItem);
 
         exitItem.setOnAction(e -> javafx.application.Platform.exit());
         aboutItem.setOnAction(e -> showAbout());
@@ -290,6 +460,9 @@ public class IdeView {
                 monitor,
                 optimize
         );
+        MenuItem curatorRuns = new MenuItem("Curator Runs...");
+        curatorRuns.setOnAction(e -> CuratorRunWindow.show(null));
+        workflowMenu.getItems().addAll(new SeparatorMenuItem(), curatorRuns);
         return workflowMenu;
     }
 
@@ -0,0 +1,251 @@
+package com.nemostudio.ide;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader and writer for the Docker Engine API. Objects parse to LinkedHashMap, arrays to
+ * ArrayList, numbers to Double or Long, plus String, Boolean and null. Small typed getters keep call sites short.
+ */
+public final class Json {
+
+    private final String text;
+    private int pos;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /** Parse one JSON value; throws IllegalArgumentException on malformed input. */
+    public static Object parse(String text) {
+        Json p = new Json(text);
+        p.skipSpace();
+        Object v = p.value();
+        p.skipSpace();
+        if (p.pos != text.length()) throw p.error("trailing characters");
+        return v;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> object(Object v) {
+        return v instanceof Map ? (Map<String, Object>) v : Collections.emptyMap();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static List<Object> array(Object v) {
+        return v instanceof List ? (List<Object>) v : Collections.emptyList();
+    }
+
+    public static String string(Map<String, Object> o, String key) {
+        Object v = o.get(key);
+        return v == null ? "" : String.valueOf(v);
+    }
+
+    public static long number(Map<String, Object> o, String key) {
+        Object v = o.get(key);
+        return v instanceof Number ? ((Number) v).longValue() : 0;
+    }
+
+    /** Serialize a Map/List/String/Number/Boolean/null tree. */
+    public static String write(Object v) {
+        StringBuilder sb = new StringBuilder();
+        write(sb, v);
+        return sb.toString();
+    }
+
+    private static void write(StringBuilder sb, Object v) {
+        if (v == null) {
+            sb.append("null");
+        } else if (v instanceof String s) {
+            quote(sb, s);
+        } else if (v instanceof Number || v instanceof Boolean) {
+            sb.append(v);
+        } else if (v instanceof Map<?, ?> m) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : m.entrySet()) {
+                if (!first) sb.append(',');
+                first = false;
+                quote(sb, String.valueOf(e.getKey()));
+                sb.append(':');
+                write(sb, e.getValue());
+            }
+            sb.append('}');
+        } else if (v instanceof List<?> l) {
+            sb.append('[');
+            for (int i = 0; i < l.size(); i++) {
+                if (i > 0) sb.append(',');
+                write(sb, l.get(i));
+            }
+            sb.append(']');
+        } else {
+            quote(sb, v.toString());
+        }
+    }
+
+    private static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    private Object value() {
+        if (pos >= text.length()) throw error("unexpected end");
+        char c = text.charAt(pos);
+        switch (c) {
+            case '{':
+                return objectValue();
+            case '[':
+                return arrayValue();
+            case '"':
+                return stringValue();
+            case 't':
+                return literal("true", Boolean.TRUE);
+            case 'f':
+                return literal("false", Boolean.FALSE);
+            case 'n':
+                return literal("null", null);
+            default:
+                return numberValue();
+        }
+    }
+
+    private Map<String, Object> objectValue() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        pos++;
+        skipSpace();
+        if (peek() == '}') {
+            pos++;
+            return m;
+        }
+        while (true) {
+            skipSpace();
+            if (peek() != '"') throw error("expected key");
+            String key = stringValue();
+            skipSpace();
+            expect(':');
+            skipSpace();
+            m.put(key, value());
+            skipSpace();
+            char c = next();
+            if (c == '}') return m;
+            if (c != ',') throw error("expected , or }");
+        }
+    }
+
+    private List<Object> arrayValue() {
+        List<Object> l = new ArrayList<>();
+        pos++;
+        skipSpace();
+        if (peek() == ']') {
+            pos++;
+            return l;
+        }
+        while (true) {
+            skipSpace();
+            l.add(value());
+            skipSpace();
+            char c = next();
+            if (c == ']') return l;
+            if (c != ',') throw error("expected , or ]");
+        }
+    }
+
+    private String stringValue() {
+        pos++;
+        StringBuilder sb = null;
+        int start = pos;
+        while (true) {
+            if (pos >= text.length()) throw error("unterminated string");
+            char c = text.charAt(pos);
+            if (c == '"') {
+                String s = sb == null ? text.substring(start, pos) : sb.append(text, start, pos).toString();
+                pos++;
+                return s;
+            }
+            if (c != '\\') {
+                pos++;
+                continue;
+            }
+            if (sb == null) sb = new StringBuilder();
+            sb.append(text, start, pos);
+            pos++;
+            char e = next();
+            switch (e) {
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (pos + 4 > text.length()) throw error("bad \\u escape");
+                    sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    pos += 4;
+                }
+                default -> sb.append(e);
+            }
+            start = pos;
+        }
+    }
+
+    private Object numberValue() {
+        int start = pos;
+        boolean fraction = false;
+        while (pos < text.length()) {
+            char c = text.charAt(pos);
+            if (c == '.' || c == 'e' || c == 'E') fraction = true;
+            else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) break;
+            pos++;
+        }
+        if (start == pos) throw error("unexpected character");
+        String s = text.substring(start, pos);
+        try {
+            return fraction ? (Object) Double.parseDouble(s) : (Object) Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            return Double.parseDouble(s); // Beyond long range
+        }
+    }
+
+    private Object literal(String word, Object v) {
+        if (!text.startsWith(word, pos)) throw error("unexpected character");
+        pos += word.length();
+        return v;
+    }
+
+    private void skipSpace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+    }
+
+    private char peek() {
+        return pos < text.length() ? text.charAt(pos) : 0;
+    }
+
+    private char next() {
+        if (pos >= text.length()) throw error("unexpected end");
+        return text.charAt(pos++);
+    }
+
+    private void expect(char c) {
+        if (next() != c) throw error("expected " + c);
+    }
+
+    private IllegalArgumentException error(String what) {
+        return new IllegalArgumentException("JSON " + what + " at " + pos);
+    }
+}
@@ -0,0 +1,109 @@
+package com.nemostudio.ide;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets (HDR-style): 16 sub-buckets per power of two,
+ * so any recorded value is reported within ~6% of its true value. Values are in microseconds.
+ * Recording is one array increment, cheap enough for every probe or transfer event.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Covers shifts 0..59, i.e. every non-negative long. */
+    private static final int BUCKETS = 61 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1000);
+    }
+
+    public void recordMicros(long micros) {
+        long v = Math.max(0, micros);
+        counts.incrementAndGet(indexOf(v));
+        sum.add(v);
+    }
+
+    /** Sum of all recorded values (microseconds), for exporters that report totals. */
+    public long sumMicros() {
+        return sum.sum();
+    }
+
+    /** Total number of recorded values. */
+    public long count() {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) n += counts.get(i);
+        return n;
+    }
+
+    /**
+     * Value at the given quantile (0..1) in microseconds, or -1 if empty. Returns the bucket midpoint.
+     */
+    public long percentileMicros(double quantile) {
+        long total = count();
+        if (total == 0) return -1;
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return (lowerBound(i) + upperBound(i)) / 2;
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Halve every bucket so old samples fade out and percentiles follow the recent link behaviour.
+     * Concurrent increments during a decay may be lost; that is acceptable for monitoring data.
+     */
+    public void decay() {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.get(i);
+            if (c != 0) counts.set(i, c >> 1);
+        }
+        long s = sum.sumThenReset();
+        sum.add(s >> 1);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        sum.reset();
+    }
+
+    /** Snapshot of bucket counts with their upper bounds, for exporters: {upperBoundMicros, count} pairs. */
+    public long[][] buckets() {
+        int used = 0;
+        for (int i = 0; i < BUCKETS; i++) if (counts.get(i) != 0) used++;
+        long[][] out = new long[used][];
+        int j = 0;
+        for (int i = 0; i < BUCKETS && j < used; i++) {
+            long c = counts.get(i);
+            if (c != 0) out[j++] = new long[] { upperBound(i), c };
+        }
+        return out;
+    }
+
+    static int indexOf(long v) {
+        if (v < SUB_BUCKETS) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BUCKET_BITS;
+        int top = (int) (v >>> shift); // in [16, 31]
+        return (shift + 1) * SUB_BUCKETS + (top - SUB_BUCKETS);
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long top = SUB_BUCKETS + (index % SUB_BUCKETS);
+        return top << shift;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long top = SUB_BUCKETS + (index % SUB_BUCKETS);
+        return ((top + 1) << shift) - 1;
+    }
+}
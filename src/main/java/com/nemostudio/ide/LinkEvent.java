@@ -0,0 +1,64 @@
+package com.nemostudio.ide;
+
+/**
+ * Immutable link health update published through ConnectionState: current state, the state before it,
+ * and the recent round-trip latency percentiles measured over the SSH session.
+ */
+public final class LinkEvent {
+
+    public enum State {
+        /** No probe has completed yet. */
+        UNKNOWN,
+        /** No host saved in ConnectionStore. */
+        NOT_CONFIGURED,
+        /** SSH session up and answering probes. */
+        UP,
+        /** Probe failed or session could not be established. */
+        DOWN
+    }
+
+    private final State state;
+    private final State previous;
+    private final long rttMedianMicros;
+    private final long rttP99Micros;
+    private final long timestampMillis;
+
+    public LinkEvent(State state, State previous, long rttMedianMicros, long rttP99Micros) {
+        this.state = state;
+        this.previous = previous;
+        this.rttMedianMicros = rttMedianMicros;
+        this.rttP99Micros = rttP99Micros;
+        this.timestampMillis = System.currentTimeMillis();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public State getPrevious() {
+        return previous;
+    }
+
+    /** True when this event records a transition rather than a new latency sample. */
+    public boolean isStateChange() {
+        return state != previous;
+    }
+
+    public boolean isUp() {
+        return state == State.UP;
+    }
+
+    /** Median RTT in microseconds, or -1 if no samples yet. */
+    public long getRttMedianMicros() {
+        return rttMedianMicros;
+    }
+
+    /** 99th percentile RTT in microseconds, or -1 if no samples yet. */
+    public long getRttP99Micros() {
+        return rttP99Micros;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+}
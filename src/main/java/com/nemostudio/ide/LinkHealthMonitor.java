@@ -0,0 +1,174 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures link health over the pooled SSH session instead of opening a fresh TCP connection per check.
+ * Each probe opens and closes a bare "session" channel: one CHANNEL_OPEN / OPEN_CONFIRMATION round-trip
+ * handled by sshd itself (no process is started), which doubles as a keepalive.
+ * <p>
+ * The poll interval adapts: 5s while the link is stable, exponential backoff up to 60s while the host is
+ * down, and 1s for a while after the state flips so flapping links are tracked closely.
+ * Results go to ConnectionState as LinkEvents with median and p99 RTT.
+ */
+public final class LinkHealthMonitor {
+
+    private static final long STABLE_INTERVAL_MS = 5000;
+    private static final long FLAP_INTERVAL_MS = 1000;
+    private static final long DOWN_MIN_INTERVAL_MS = 2000;
+    private static final long DOWN_MAX_INTERVAL_MS = 60000;
+    /** Number of fast polls after a state change. */
+    private static final int FLAP_FAST_PROBES = 10;
+    private static final int PROBE_TIMEOUT_MS = 3000;
+    /** Halve the histogram every N samples so percentiles reflect recent behaviour. */
+    private static final int DECAY_EVERY_SAMPLES = 120;
+    private static final int SSH_PORT = 22;
+    /** After an authentication failure, use TCP probes for this long before trying SSH again. */
+    private static final long AUTH_RETRY_MS = 5 * 60 * 1000;
+
+    private final LatencyHistogram rtt = new LatencyHistogram();
+    /** Created by start() and shut down by stop(), so the monitor can be started again. */
+    private ScheduledExecutorService scheduler;
+
+    private LinkEvent.State state = LinkEvent.State.UNKNOWN;
+    private long downIntervalMs = DOWN_MIN_INTERVAL_MS;
+    private int fastProbesLeft;
+    private int samplesSinceDecay;
+    private long authFailedAt = -AUTH_RETRY_MS;
+    private volatile boolean running;
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        Metrics.registerTimeHistogram("link_rtt", "SSH/TCP probe round-trip time", rtt);
+        ScheduledExecutorService exec = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "link-health-monitor");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler = exec;
+        exec.execute(() -> cycle(exec));
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public LatencyHistogram getRttHistogram() {
+        return rtt;
+    }
+
+    private void cycle(ScheduledExecutorService exec) {
+        if (!running || exec.isShutdown()) return;
+        long nextDelay;
+        try {
+            nextDelay = probeOnce();
+        } catch (Exception e) {
+            nextDelay = STABLE_INTERVAL_MS;
+        }
+        if (running && !exec.isShutdown()) {
+            try {
+                exec.schedule(() -> cycle(exec), nextDelay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignored) {
+                // Stopped while probing
+            }
+        }
+    }
+
+    /** Runs one probe, publishes the result and returns the delay before the next probe. */
+    private long probeOnce() {
+        String host = ConnectionStore.loadHost();
+        if (host == null || host.trim().isEmpty()) {
+            transition(LinkEvent.State.NOT_CONFIGURED);
+            return STABLE_INTERVAL_MS;
+        }
+        long rttNanos = probeRtt(host.trim());
+        if (rttNanos >= 0) {
+            rtt.recordNanos(rttNanos);
+            if (++samplesSinceDecay >= DECAY_EVERY_SAMPLES) {
+                rtt.decay();
+                samplesSinceDecay = 0;
+            }
+            transition(LinkEvent.State.UP);
+            downIntervalMs = DOWN_MIN_INTERVAL_MS;
+        } else {
+            transition(LinkEvent.State.DOWN);
+        }
+        if (fastProbesLeft > 0) {
+            fastProbesLeft--;
+            return FLAP_INTERVAL_MS;
+        }
+        if (state == LinkEvent.State.DOWN) {
+            long delay = downIntervalMs;
+            downIntervalMs = Math.min(DOWN_MAX_INTERVAL_MS, downIntervalMs * 2);
+            return delay;
+        }
+        return STABLE_INTERVAL_MS;
+    }
+
+    /**
+     * RTT of one channel open over the pooled session, in nanoseconds; -1 if the link is down.
+     * If no session can be authenticated (no saved password or key), falls back to timing a TCP connect.
+     */
+    private long probeRtt(String host) {
+        if (System.currentTimeMillis() - authFailedAt < AUTH_RETRY_MS) {
+            return probeTcp(host);
+        }
+        Session session;
+        try {
+            session = SessionPool.acquire();
+        } catch (JSchException e) {
+            String msg = e.getMessage() == null ? "" : e.getMessage().toLowerCase();
+            if (!msg.contains("auth")) return -1;
+            authFailedAt = System.currentTimeMillis();
+            return probeTcp(host);
+        } catch (Exception e) {
+            return -1;
+        }
+        Channel channel = null;
+        try {
+            long start = System.nanoTime();
+            channel = session.openChannel("session");
+            channel.connect(PROBE_TIMEOUT_MS);
+            return System.nanoTime() - start;
+        } catch (Exception e) {
+            SessionPool.invalidate(session);
+            return -1;
+        } finally {
+            if (channel != null) channel.disconnect();
+        }
+    }
+
+    private static long probeTcp(String host) {
+        try (Socket socket = new Socket()) {
+            long start = System.nanoTime();
+            socket.connect(new InetSocketAddress(host, SSH_PORT), PROBE_TIMEOUT_MS);
+            return System.nanoTime() - start;
+        } catch (Exception ignored) {
+            return -1;
+        }
+    }
+
+    private void transition(LinkEvent.State next) {
+        LinkEvent.State previous = state;
+        if (next != previous && previous != LinkEvent.State.UNKNOWN) {
+            fastProbesLeft = FLAP_FAST_PROBES;
+        }
+        state = next;
+        ConnectionState.publish(new LinkEvent(next, previous,
+                rtt.percentileMicros(0.50), rtt.percentileMicros(0.99)));
+    }
+}
@@ -0,0 +1,223 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.Session;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+
+/**
+ * Measures a link once per host and picks LinkTuning settings:
+ * <ul>
+ *   <li>RTT: median of bare channel opens on a live session;</li>
+ *   <li>bandwidth and local CPU cost per byte: an upload of random bytes into {@code cat > /dev/null}
+ *       with each candidate cipher (compression off);</li>
+ *   <li>zlib: on when local deflate of JSONL-like text outruns the link by enough that compressed
+ *       transfers finish sooner;</li>
+ *   <li>SFTP request depth and channel count: enough outstanding 32 KB writes to cover the
+ *       bandwidth-delay product.</li>
+ * </ul>
+ * Runs on first connect to an untuned host (in the background) or on demand; results go to LinkTuning.
+ */
+public final class LinkTuner {
+
+    /** Candidates JSch can run without extra providers (chacha20 needs Bouncy Castle). */
+    private static final String[] CIPHERS = { "aes128-gcm@openssh.com", "aes256-gcm@openssh.com", "aes128-ctr" };
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    private static final int RTT_SAMPLES = 5;
+    private static final int PROBE_BYTES = 1024 * 1024;
+    private static final long MAX_TEST_BYTES = 64L * 1024 * 1024;
+    /** Target duration per cipher test once the rough bandwidth is known. */
+    private static final double TEST_SECONDS = 1.5;
+    private static final int SFTP_PACKET = 32 * 1024;
+    private static final int MAX_BULK_REQUESTS = 128;
+    private static final int MAX_CHANNELS = 4;
+    /** Enable zlib only if it is expected to cut transfer time by at least this factor. */
+    private static final double COMPRESSION_GAIN = 0.8;
+
+    private static final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    private LinkTuner() {}
+
+    /** Start tuning host in the background unless it is already tuned or being tuned. */
+    static void tuneInBackgroundIfNeeded(String host, String user, String pass) {
+        if (LinkTuning.load(host) != null || running.contains(host)) return;
+        Thread t = new Thread(() -> {
+            try {
+                tune(host, user, pass, null);
+            } catch (Exception ignored) {
+                // Untuned hosts keep JSch defaults; next connect tries again
+            }
+        }, "link-tuner");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Measure host and save the chosen settings. status gets progress lines (may be null). Blocking. */
+    public static LinkTuning tune(String host, String user, String pass, Consumer<String> status) throws Exception {
+        if (!running.add(host)) {
+            throw new Exception("Tuning for " + host + " is already running.");
+        }
+        try {
+            long rttMicros;
+            long roughBw;
+            Session first = SessionPool.openSession(host, user, pass, session -> {});
+            try {
+                rttMicros = measureRttMicros(first);
+                report(status, String.format("RTT %.1f ms", rttMicros / 1000.0));
+                roughBw = measureUpload(first, PROBE_BYTES)[0];
+            } finally {
+                first.disconnect();
+            }
+            long testBytes = Math.max(PROBE_BYTES, Math.min(MAX_TEST_BYTES, (long) (roughBw * TEST_SECONDS)));
+
+            String bestCipher = "";
+            long bestBw = roughBw;
+            double bestCpu = 0;
+            for (String cipher : CIPHERS) {
+                Session s;
+                try {
+                    // Only this cipher, so the connect fails instead of silently negotiating another one
+                    s = SessionPool.openSession(host, user, pass, session -> {
+                        session.setConfig("cipher.c2s", cipher);
+                        session.setConfig("cipher.s2c", cipher);
+                    });
+                } catch (Exception e) {
+                    report(status, cipher + ": not offered by server");
+                    continue;
+                }
+                try {
+                    long[] r = measureUpload(s, testBytes);
+                    double cpu = (double) r[1] / testBytes;
+                    report(status, String.format("%s: %.1f MB/s, %.1f ns/byte CPU", cipher, r[0] / 1e6, cpu));
+                    // Prefer throughput; within 10% prefer the cheaper cipher
+                    if (bestCipher.isEmpty() || r[0] > bestBw * 1.1 || (r[0] > bestBw * 0.9 && cpu < bestCpu)) {
+                        bestCipher = cipher;
+                        bestBw = r[0];
+                        bestCpu = cpu;
+                    }
+                } catch (Exception e) {
+                    report(status, cipher + ": " + e.getMessage());
+                } finally {
+                    s.disconnect();
+                }
+            }
+
+            double[] deflate = measureDeflate();
+            double deflateBytesPerSec = deflate[0];
+            double ratio = deflate[1];
+            double plainSeconds = 1.0 / Math.max(1, bestBw);
+            double zlibSeconds = Math.max(1.0 / deflateBytesPerSec, 1.0 / (ratio * Math.max(1, bestBw)));
+            boolean compression = zlibSeconds < plainSeconds * COMPRESSION_GAIN;
+            report(status, String.format("zlib: %.0f MB/s locally, %.1f× on JSONL → %s",
+                    deflateBytesPerSec / 1e6, ratio, compression ? "on" : "off"));
+
+            double bdp = bestBw * (rttMicros / 1e6);
+            int bulk = (int) Math.max(LinkTuning.DEFAULT_BULK_REQUESTS,
+                    Math.min(MAX_BULK_REQUESTS, Math.ceil(2 * bdp / SFTP_PACKET)));
+            int channels = (int) Math.max(1, Math.min(MAX_CHANNELS,
+                    Math.ceil(2 * bdp / ((double) MAX_BULK_REQUESTS * SFTP_PACKET))));
+
+            LinkTuning result = new LinkTuning(bestCipher, compression, bulk, channels, bestBw, rttMicros, bestCpu,
+                    System.currentTimeMillis());
+            LinkTuning.save(host, result);
+            report(status, "Saved: " + result.describe());
+            return result;
+        } finally {
+            running.remove(host);
+        }
+    }
+
+    private static void report(Consumer<String> status, String line) {
+        if (status != null) status.accept(line);
+    }
+
+    private static long measureRttMicros(Session session) throws Exception {
+        long[] samples = new long[RTT_SAMPLES];
+        for (int i = 0; i < RTT_SAMPLES; i++) {
+            long start = System.nanoTime();
+            Channel ch = session.openChannel("session");
+            try {
+                ch.connect(CONNECT_TIMEOUT_MS);
+            } finally {
+                ch.disconnect();
+            }
+            samples[i] = (System.nanoTime() - start) / 1000;
+        }
+        Arrays.sort(samples);
+        return samples[RTT_SAMPLES / 2];
+    }
+
+    /**
+     * Upload bytes of random data into cat > /dev/null. Returns {bytes per second, process CPU nanos}
+     * (CPU of this JVM: encryption, MAC and socket writes).
+     */
+    private static long[] measureUpload(Session session, long bytes) throws Exception {
+        byte[] block = new byte[64 * 1024];
+        new Random(42).nextBytes(block);
+        ChannelExec ch = (ChannelExec) session.openChannel("exec");
+        ch.setCommand("cat > /dev/null");
+        try {
+            OutputStream out = ch.getOutputStream();
+            ch.connect(CONNECT_TIMEOUT_MS);
+            long cpuStart = processCpuNanos();
+            long start = System.nanoTime();
+            for (long sent = 0; sent < bytes; sent += block.length) {
+                out.write(block, 0, (int) Math.min(block.length, bytes - sent));
+            }
+            out.close();
+            // The remote closes after reading everything, so this includes draining the window
+            while (!ch.isClosed()) {
+                Thread.sleep(5);
+            }
+            long nanos = Math.max(1, System.nanoTime() - start);
+            long cpu = processCpuNanos() - cpuStart;
+            return new long[] { (long) (bytes * 1e9 / nanos), Math.max(0, cpu) };
+        } finally {
+            ch.disconnect();
+        }
+    }
+
+    /** Local deflate speed (bytes/s) and ratio on synthetic JSONL, at JSch's default level 6. */
+    private static double[] measureDeflate() {
+        StringBuilder sb = new StringBuilder();
+        Random r = new Random(7);
+        String[] words = { "the", "data", "model", "curator", "text", "score", "quality", "token", "sample", "filter" };
+        for (int i = 0; sb.length() < PROBE_BYTES; i++) {
+            sb.append("{\"id\":").append(i).append(",\"text\":\"");
+            for (int w = 0; w < 40; w++) sb.append(words[r.nextInt(words.length)]).append(' ');
+            sb.append("\",\"score\":").append(r.nextDouble()).append("}\n");
+        }
+        byte[] input = sb.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        byte[] out = new byte[input.length + 1024];
+        Deflater deflater = new Deflater(6);
+        long compressed = 0;
+        long start = System.nanoTime();
+        int rounds = 4;
+        for (int i = 0; i < rounds; i++) {
+            deflater.reset();
+            deflater.setInput(input);
+            deflater.finish();
+            compressed = 0;
+            while (!deflater.finished()) compressed += deflater.deflate(out);
+        }
+        long nanos = Math.max(1, System.nanoTime() - start);
+        deflater.end();
+        return new double[] { input.length * (double) rounds * 1e9 / nanos, input.length / (double) Math.max(1, compressed) };
+    }
+
+    private static long processCpuNanos() {
+        var os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean sun) {
+            return sun.getProcessCpuTime();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,179 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Per-host SSH transfer settings chosen by LinkTuner: cipher, zlib compression, SFTP request depth and
+ * number of parallel transfer channels, plus the measurements they were based on. Persisted in
+ * {@code ~/.nemostudio/link-tuning.properties} (keys {@code <host>.cipher}, {@code <host>.compression}, ...)
+ * so later sessions start tuned; delete a host's keys (or use Project → Re-tune Link) to measure again.
+ */
+public final class LinkTuning {
+
+    private static final String DIR_NAME = ".nemostudio";
+    private static final String FILE_NAME = "link-tuning.properties";
+    /** JSch's own SFTP request depth, used until a host is tuned. */
+    static final int DEFAULT_BULK_REQUESTS = 16;
+
+    private final String cipher;
+    private final boolean compression;
+    private final int bulkRequests;
+    private final int transferChannels;
+    private final long bandwidthBytesPerSec;
+    private final long rttMicros;
+    private final double cpuNanosPerByte;
+    private final long measuredAt;
+
+    LinkTuning(String cipher, boolean compression, int bulkRequests, int transferChannels,
+               long bandwidthBytesPerSec, long rttMicros, double cpuNanosPerByte, long measuredAt) {
+        this.cipher = cipher;
+        this.compression = compression;
+        this.bulkRequests = bulkRequests;
+        this.transferChannels = transferChannels;
+        this.bandwidthBytesPerSec = bandwidthBytesPerSec;
+        this.rttMicros = rttMicros;
+        this.cpuNanosPerByte = cpuNanosPerByte;
+        this.measuredAt = measuredAt;
+    }
+
+    /** Preferred cipher (JSch name), or empty for JSch's default order. */
+    public String getCipher() {
+        return cipher;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    public int getBulkRequests() {
+        return bulkRequests;
+    }
+
+    public int getTransferChannels() {
+        return transferChannels;
+    }
+
+    public long getBandwidthBytesPerSec() {
+        return bandwidthBytesPerSec;
+    }
+
+    public long getRttMicros() {
+        return rttMicros;
+    }
+
+    public double getCpuNanosPerByte() {
+        return cpuNanosPerByte;
+    }
+
+    public long getMeasuredAt() {
+        return measuredAt;
+    }
+
+    /** Put the preferred cipher first (others stay as fallback) and enable zlib if chosen. Call before connect. */
+    public void applyTo(Session session) {
+        if (!cipher.isEmpty()) {
+            StringBuilder order = new StringBuilder(cipher);
+            String fallback = session.getConfig("cipher.c2s");
+            if (fallback != null) {
+                for (String c : fallback.split(",")) {
+                    if (!c.isEmpty() && !c.equals(cipher)) order.append(',').append(c);
+                }
+            }
+            session.setConfig("cipher.c2s", order.toString());
+            session.setConfig("cipher.s2c", order.toString());
+        }
+        if (compression) {
+            // java.util.zip (native) deflater instead of the pure-Java default
+            session.setConfig("zlib@openssh.com", "com.jcraft.jsch.juz.Compression");
+            session.setConfig("zlib", "com.jcraft.jsch.juz.Compression");
+            session.setConfig("compression.c2s", "zlib@openssh.com,zlib,none");
+            session.setConfig("compression.s2c", "zlib@openssh.com,zlib,none");
+        }
+    }
+
+    public void applyTo(ChannelSftp channel) {
+        try {
+            channel.setBulkRequests(bulkRequests);
+        } catch (Exception ignored) {
+            // Keep JSch's default depth
+        }
+    }
+
+    public String describe() {
+        return String.format("cipher %s, zlib %s, SFTP depth %d, %d channel(s)  ·  measured %.1f MB/s, RTT %.1f ms, %.1f ns/byte CPU",
+                cipher.isEmpty() ? "default" : cipher, compression ? "on" : "off", bulkRequests, transferChannels,
+                bandwidthBytesPerSec / 1e6, rttMicros / 1000.0, cpuNanosPerByte);
+    }
+
+    public static Path getConfigPath() {
+        return Path.of(System.getProperty("user.home")).resolve(DIR_NAME).resolve(FILE_NAME);
+    }
+
+    /** Saved settings for host, or null if the host has not been tuned. */
+    public static LinkTuning load(String host) {
+        Properties p = loadAll();
+        String prefix = host.trim() + ".";
+        if (p.getProperty(prefix + "measuredAt") == null) {
+            return null;
+        }
+        try {
+            return new LinkTuning(
+                    p.getProperty(prefix + "cipher", ""),
+                    Boolean.parseBoolean(p.getProperty(prefix + "compression", "false")),
+                    Integer.parseInt(p.getProperty(prefix + "bulkRequests", String.valueOf(DEFAULT_BULK_REQUESTS))),
+                    Integer.parseInt(p.getProperty(prefix + "transferChannels", "1")),
+                    Long.parseLong(p.getProperty(prefix + "bandwidthBytesPerSec", "0")),
+                    Long.parseLong(p.getProperty(prefix + "rttMicros", "0")),
+                    Double.parseDouble(p.getProperty(prefix + "cpuNanosPerByte", "0")),
+                    Long.parseLong(p.getProperty(prefix + "measuredAt")));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Saved settings for host, or JSch defaults (no compression, one channel) when not tuned. */
+    public static LinkTuning forHost(String host) {
+        LinkTuning t = host == null ? null : load(host);
+        return t != null ? t : new LinkTuning("", false, DEFAULT_BULK_REQUESTS, 1, 0, 0, 0, 0);
+    }
+
+    public static synchronized void save(String host, LinkTuning t) throws IOException {
+        Path path = getConfigPath();
+        Path dir = path.getParent();
+        if (dir != null && !Files.isDirectory(dir)) {
+            Files.createDirectories(dir);
+        }
+        Properties p = loadAll();
+        String prefix = host.trim() + ".";
+        p.setProperty(prefix + "cipher", t.cipher);
+        p.setProperty(prefix + "compression", String.valueOf(t.compression));
+        p.setProperty(prefix + "bulkRequests", String.valueOf(t.bulkRequests));
+        p.setProperty(prefix + "transferChannels", String.valueOf(t.transferChannels));
+        p.setProperty(prefix + "bandwidthBytesPerSec", String.valueOf(t.bandwidthBytesPerSec));
+        p.setProperty(prefix + "rttMicros", String.valueOf(t.rttMicros));
+        p.setProperty(prefix + "cpuNanosPerByte", String.format(java.util.Locale.ROOT, "%.3f", t.cpuNanosPerByte));
+        p.setProperty(prefix + "measuredAt", String.valueOf(t.measuredAt));
+        try (var out = Files.newOutputStream(path)) {
+            p.store(out, "Nemo Studio link tuning per host (editable; delete a host's keys to re-measure)");
+        }
+    }
+
+    private static Properties loadAll() {
+        Properties p = new Properties();
+        Path path = getConfigPath();
+        if (Files.isRegularFile(path)) {
+            try (var in = Files.newInputStream(path)) {
+                p.load(in);
+            } catch (IOException ignored) {
+                // Treat as not tuned
+            }
+        }
+        return p;
+    }
+}
@@ -0,0 +1,250 @@
+package com.nemostudio.ide;
+
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process metrics registry: counters (LongAdder), gauges and LatencyHistograms, always on. Hot paths
+ * hold the metric in a static field (the constants below) so an event costs one adder or array increment,
+ * no lookup or allocation. startExporter() writes Prometheus text and JSON snapshots to
+ * {@code ~/.nemostudio/metrics/} every EXPORT_INTERVAL_S seconds. FX_QUEUE_DELAY is fed by FxStallWatchdog's
+ * heartbeat. Help → Diagnostics shows the same data live.
+ */
+public final class Metrics {
+
+    private static final String DIR_NAME = ".nemostudio";
+    private static final String METRICS_DIR = "metrics";
+    private static final String PREFIX = "nemostudio_";
+    private static final long EXPORT_INTERVAL_S = 15;
+
+    /** Monotonic count, cheap under contention. */
+    public static final class Counter {
+        private final LongAdder adder = new LongAdder();
+
+        public void inc() {
+            adder.increment();
+        }
+
+        public void add(long n) {
+            adder.add(n);
+        }
+
+        public long get() {
+            return adder.sum();
+        }
+    }
+
+    /** A registered histogram: time histograms hold microseconds and export as seconds. */
+    static final class Histogram {
+        final LatencyHistogram histogram;
+        final boolean time;
+
+        Histogram(LatencyHistogram histogram, boolean time) {
+            this.histogram = histogram;
+            this.time = time;
+        }
+    }
+
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private static final Map<String, String> help = new ConcurrentHashMap<>();
+    private static final LongAdder fxPending = new LongAdder();
+    private static volatile ScheduledExecutorService exporter;
+
+    public static final LatencyHistogram SSH_HANDSHAKE = timeHistogram("ssh_handshake", "SSH connect + auth time");
+    public static final Counter SSH_HANDSHAKE_FAILURES = counter("ssh_handshake_failures_total", "Failed SSH connects");
+    public static final Counter SFTP_PUT_BYTES = counter("sftp_put_bytes_total", "Bytes written with SFTP put");
+    public static final Counter SFTP_PUT_FILES = counter("sftp_put_files_total", "Files written with SFTP put");
+    public static final LatencyHistogram SFTP_PUT_TIME = timeHistogram("sftp_put_file", "Time per SFTP put");
+    public static final LatencyHistogram SFTP_PUT_RATE = histogram("sftp_put_file_kib_per_second", "Per-file SFTP put rate (KiB/s)");
+    public static final Counter UPLOAD_CHECKSUM_MISMATCHES = counter("upload_checksum_mismatches_total", "Uploaded files whose remote SHA-256 differed (re-sent)");
+    public static final Counter DELTA_LITERAL_BYTES = counter("delta_literal_bytes_total", "Bytes sent by delta uploads (changed data)");
+    public static final Counter DELTA_MATCHED_BYTES = counter("delta_matched_bytes_total", "Bytes delta uploads reused from the remote copy");
+    public static final Counter TAR_STREAM_BYTES = counter("tar_stream_bytes_total", "Local bytes sent in tar bundles");
+    public static final LatencyHistogram REMOTE_LS = timeHistogram("remote_ls", "Remote folder listing time");
+    public static final LatencyHistogram REMOTE_ENV_PROBE = timeHistogram("remote_env_probe", "Batched remote environment probe time (RemoteEnvironment)");
+    public static final LatencyHistogram CONTAINER_EXEC = timeHistogram("container_exec", "In-container command time (ContainerShell)");
+    public static final Counter TERMINAL_BYTES_IN = counter("terminal_bytes_in_total", "Bytes received by the terminal");
+    public static final Counter TERMINAL_BYTES_OUT = counter("terminal_bytes_out_total", "Bytes sent by the terminal");
+    public static final LatencyHistogram FX_QUEUE_DELAY = timeHistogram("fx_queue_delay", "Delay from runLater to execution");
+
+    static {
+        gauge("fx_queue_depth", "Runnables posted through Metrics.runLater not yet run", fxPending::sum);
+    }
+
+    private Metrics() {}
+
+    public static Counter counter(String name, String description) {
+        help.putIfAbsent(name, description);
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    /** Histogram of plain values (rates, sizes). */
+    public static LatencyHistogram histogram(String name, String description) {
+        return register(name, description, new LatencyHistogram(), false);
+    }
+
+    /** Histogram of durations in microseconds; exported in seconds with a _seconds suffix. */
+    public static LatencyHistogram timeHistogram(String name, String description) {
+        return register(name, description, new LatencyHistogram(), true);
+    }
+
+    /** Register an existing histogram of microseconds (e.g. LinkHealthMonitor's RTT). */
+    public static void registerTimeHistogram(String name, String description, LatencyHistogram h) {
+        help.put(name, description);
+        histograms.put(name, new Histogram(h, true));
+    }
+
+    public static void gauge(String name, String description, LongSupplier value) {
+        help.put(name, description);
+        gauges.put(name, value);
+    }
+
+    private static LatencyHistogram register(String name, String description, LatencyHistogram h, boolean time) {
+        help.putIfAbsent(name, description);
+        return histograms.computeIfAbsent(name, n -> new Histogram(h, time)).histogram;
+    }
+
+    /** One finished SFTP put of bytes that took nanos. */
+    public static void recordPut(long bytes, long nanos) {
+        SFTP_PUT_FILES.inc();
+        SFTP_PUT_BYTES.add(bytes);
+        SFTP_PUT_TIME.recordNanos(nanos);
+        SFTP_PUT_RATE.recordMicros(bytes * 1_000_000_000L / Math.max(1, nanos) / 1024);
+    }
+
+    /** Platform.runLater that is counted in fx_queue_depth; use on high-rate posting paths. */
+    public static void runLater(Runnable r) {
+        fxPending.increment();
+        Platform.runLater(() -> {
+            fxPending.decrement();
+            r.run();
+        });
+    }
+
+    /** Sorted snapshot of counter and gauge values. */
+    static Map<String, Long> values() {
+        Map<String, Long> out = new TreeMap<>();
+        counters.forEach((k, c) -> out.put(k, c.get()));
+        gauges.forEach((k, g) -> out.put(k, g.getAsLong()));
+        return out;
+    }
+
+    static Map<String, Histogram> histograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    static boolean isGauge(String name) {
+        return gauges.containsKey(name);
+    }
+
+    static String help(String name) {
+        return help.getOrDefault(name, "");
+    }
+
+    /** Prometheus text exposition format; histograms as summaries (p50, p90, p99, _sum, _count). */
+    public static String toPrometheus() {
+        StringBuilder sb = new StringBuilder();
+        values().forEach((name, v) -> {
+            String full = PREFIX + name;
+            sb.append("# HELP ").append(full).append(' ').append(help(name)).append('\n');
+            sb.append("# TYPE ").append(full).append(isGauge(name) ? " gauge\n" : " counter\n");
+            sb.append(full).append(' ').append(v).append('\n');
+        });
+        histograms().forEach((name, h) -> {
+            String full = PREFIX + name + (h.time ? "_seconds" : "");
+            double scale = h.time ? 1e-6 : 1;
+            sb.append("# HELP ").append(full).append(' ').append(help(name)).append('\n');
+            sb.append("# TYPE ").append(full).append(" summary\n");
+            for (double q : new double[] { 0.5, 0.9, 0.99 }) {
+                long p = h.histogram.percentileMicros(q);
+                sb.append(full).append("{quantile=\"").append(q).append("\"} ")
+                        .append(p < 0 ? "NaN" : fmt(p * scale)).append('\n');
+            }
+            sb.append(full).append("_sum ").append(fmt(h.histogram.sumMicros() * scale)).append('\n');
+            sb.append(full).append("_count ").append(h.histogram.count()).append('\n');
+        });
+        return sb.toString();
+    }
+
+    public static String toJson() {
+        StringBuilder sb = new StringBuilder("{\n  \"timestamp\": ").append(System.currentTimeMillis());
+        sb.append(",\n  \"values\": {");
+        boolean[] first = { true };
+        values().forEach((name, v) -> {
+            sb.append(first[0] ? "\n" : ",\n").append("    \"").append(name).append("\": ").append(v);
+            first[0] = false;
+        });
+        sb.append("\n  },\n  \"histograms\": {");
+        first[0] = true;
+        histograms().forEach((name, h) -> {
+            sb.append(first[0] ? "\n" : ",\n").append("    \"").append(name).append("\": {")
+                    .append("\"unit\": \"").append(h.time ? "us" : "value").append('"')
+                    .append(", \"count\": ").append(h.histogram.count())
+                    .append(", \"sum\": ").append(h.histogram.sumMicros())
+                    .append(", \"p50\": ").append(h.histogram.percentileMicros(0.5))
+                    .append(", \"p90\": ").append(h.histogram.percentileMicros(0.9))
+                    .append(", \"p99\": ").append(h.histogram.percentileMicros(0.99)).append('}');
+            first[0] = false;
+        });
+        return sb.append("\n  }\n}\n").toString();
+    }
+
+    private static String fmt(double v) {
+        return String.format(Locale.ROOT, "%.6g", v);
+    }
+
+    public static Path getExportDir() {
+        return Path.of(System.getProperty("user.home")).resolve(DIR_NAME).resolve(METRICS_DIR);
+    }
+
+    /** Write metrics.prom and metrics.json (replaced atomically so scrapers never see half a file). */
+    public static void exportNow() throws IOException {
+        Path dir = getExportDir();
+        Files.createDirectories(dir);
+        write(dir.resolve("metrics.prom"), toPrometheus());
+        write(dir.resolve("metrics.json"), toJson());
+    }
+
+    private static void write(Path target, String content) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(tmp, content, StandardCharsets.UTF_8);
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Start periodic export (idempotent). */
+    public static synchronized void startExporter() {
+        if (exporter != null) return;
+        exporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-exporter");
+            t.setDaemon(true);
+            return t;
+        });
+        exporter.scheduleAtFixedRate(() -> {
+            try {
+                exportNow();
+            } catch (IOException ignored) {
+                // Next round retries
+            }
+        }, EXPORT_INTERVAL_S, EXPORT_INTERVAL_S, TimeUnit.SECONDS);
+    }
+}
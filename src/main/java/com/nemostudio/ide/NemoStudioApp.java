@@ -4,9 +4,6 @@ import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
-import javafx.scene.web.WebView;
-
-import java.net.URL;
 
 /**
  * Entry point for Nemo Studio Desktop — a basic demo IDE.
@@ -15,19 +12,13 @@ public class NemoStudioApp extends Application {
 
     @Override
     public void start(Stage primaryStage) {
+        StartupTimer.mark("fxStart");
         IdeView ideView = new IdeView();
         StackPane root = new StackPane();
 
-        // Background: workflow diagram SVG loaded via HTML from same origin so the image loads
-        URL htmlUrl = getClass().getResource("/diagram-background.html");
-        if (htmlUrl != null) {
-            WebView webView = new WebView();
-            webView.setMouseTransparent(true);
-            webView.setPrefSize(1000, 700);
-            webView.setMinSize(0, 0);
-            webView.getEngine().load(htmlUrl.toExternalForm());
-            root.getChildren().add(webView);
-        }
+        // Background: workflow diagram from the per-DPI bitmap cache (WebView only renders it on a cache miss)
+        DiagramBackground diagram = new DiagramBackground(root);
+        root.getChildren().add(diagram.getNode());
 
         // Main UI on top; transparent so diagram shows where there is no content
         ideView.getRoot().setStyle("-fx-background-color: transparent;");
@@ -39,6 +30,13 @@ public class NemoStudioApp extends Application {
         primaryStage.setScene(scene);
         primaryStage.setMinWidth(640);
         primaryStage.setMinHeight(480);
+        StartupTimer.mark(diagram.isCached() ? "sceneBuilt(cached)" : "sceneBuilt(uncached)");
+
+        // SSH connects and the diagram render (cache miss only) wait until the first frame is on screen
+        StartupTimer.whenFirstFrame(scene, () -> {
+            ideView.startBackgroundWork();
+            diagram.renderIfMissing(root);
+        });
         primaryStage.show();
     }
 
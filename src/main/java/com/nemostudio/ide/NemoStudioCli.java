@@ -0,0 +1,301 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.Session;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless entry point (the nsd script): upload files, run a Get Ready step or report the remote
+ * environment without starting JavaFX, for nightly jobs and many hosts. It uses the same saved connection
+ * (ConnectionStore, SecurePasswordStore), fleet profiles (HostProfileStore) and runners (SftpHelper,
+ * FleetRunner, RemoteEnvironment) as the app. Nothing here may reference a JavaFX class, so startup
+ * does not load the toolkit.
+ * <p>
+ * Output is one JSON object per line on stdout; the last line has "event":"summary". The exit status is
+ * 0 if every host succeeded, 1 if any failed and 2 for usage errors.
+ */
+public final class NemoStudioCli {
+
+    private static final String USAGE = String.join("\n",
+            "Usage: nsd <command> [options]",
+            "  upload <path>... [--to <remote dir>]   Upload files/folders (default <remote folder>/data/sample)",
+            "  getready <step>                        Run Get Ready step 1-7 (step 1 uploads the example folder first)",
+            "  status                                 Connect and probe OS, Docker, images, containers, GPUs, disk, Python",
+            "Options:",
+            "  --hosts all|<id or name>,...           Fleet host profiles instead of the saved connection",
+            "Output: one JSON object per line. Exit status: 0 success, 1 failure, 2 usage error.");
+
+    private static final int EXIT_OK = 0;
+    private static final int EXIT_FAILED = 1;
+    private static final int EXIT_USAGE = 2;
+
+    /** JSON is always UTF-8, whatever the platform encoding of System.out. */
+    private static final PrintStream OUT = new PrintStream(new FileOutputStream(FileDescriptor.out), true,
+            StandardCharsets.UTF_8);
+
+    private NemoStudioCli() {}
+
+    public static void main(String[] args) {
+        int code;
+        try {
+            code = run(args);
+        } catch (UsageException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            code = EXIT_USAGE;
+        } catch (Exception e) {
+            emit(event("error", "message", String.valueOf(e.getMessage())));
+            code = EXIT_FAILED;
+        }
+        SessionPool.closeAll();
+        System.exit(code);
+    }
+
+    private static int run(String[] args) throws Exception {
+        if (args.length == 0) throw new UsageException("No command given.");
+        if (args[0].equals("-h") || args[0].equals("--help")) {
+            OUT.println(USAGE);
+            return EXIT_OK;
+        }
+        String command = args[0];
+        List<String> positional = new ArrayList<>();
+        String hostsArg = null;
+        String to = null;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--hosts" -> hostsArg = value(args, ++i, "--hosts");
+                case "--to" -> to = value(args, ++i, "--to");
+                default -> {
+                    if (args[i].startsWith("--")) throw new UsageException("Unknown option " + args[i]);
+                    positional.add(args[i]);
+                }
+            }
+        }
+        List<HostProfile> hosts = resolveHosts(hostsArg);
+        long start = System.nanoTime();
+        int failed = switch (command) {
+            case "upload" -> upload(positional, to, hosts, hostsArg != null);
+            case "getready" -> getReady(positional, hosts);
+            case "status" -> status(hosts);
+            default -> throw new UsageException("Unknown command " + command);
+        };
+        emit(event("summary", "command", command, "hosts", hosts.size(), "failed", failed,
+                "ms", (System.nanoTime() - start) / 1_000_000));
+        return failed == 0 ? EXIT_OK : EXIT_FAILED;
+    }
+
+    private static int upload(List<String> paths, String to, List<HostProfile> hosts, boolean fleet) throws Exception {
+        if (paths.isEmpty()) throw new UsageException("upload needs at least one path.");
+        List<File> files = new ArrayList<>();
+        for (String p : paths) {
+            File f = new File(p);
+            if (!f.exists()) throw new UsageException("No such file or folder: " + p);
+            files.add(f);
+        }
+        if (fleet) {
+            if (to != null) throw new UsageException("--to cannot be combined with --hosts (fleet uploads go to data/sample).");
+            return countFailed(FleetRunner.upload(hosts, files, new JsonListener()));
+        }
+        HostProfile host = hosts.get(0);
+        String dest = to;
+        if (dest == null) {
+            if (host.getRemoteFolder().isEmpty()) {
+                throw new UsageException("No remote folder saved; pass --to <remote dir>.");
+            }
+            dest = host.getRemoteFolder() + "/data/sample";
+        }
+        String label = label(host);
+        long start = System.nanoTime();
+        try {
+            SftpHelper.uploadAll(files, dest, new SftpHelper.ProgressCallback() {
+                @Override
+                public void onFileStart(String fileName) {
+                    emit(event("output", "host", label, "line", "[upload] " + fileName));
+                }
+
+                @Override
+                public void onFileProgress(long bytesTransferred, long totalBytes) {}
+
+                @Override
+                public void onFileComplete(String fileName, long fileSize) {
+                    emit(event("file", "host", label, "name", fileName, "bytes", fileSize));
+                }
+
+                @Override
+                public void onVerified(int checked, List<String> resent, boolean verified) {
+                    emit(event("verified", "host", label, "checked", checked, "resent", resent, "verified", verified));
+                }
+            });
+            emit(event("result", "host", label, "success", true, "destination", dest,
+                    "uploadMs", (System.nanoTime() - start) / 1_000_000));
+            return 0;
+        } catch (Exception e) {
+            emit(event("result", "host", label, "success", false, "destination", dest, "error", e.getMessage()));
+            return 1;
+        }
+    }
+
+    private static int getReady(List<String> args, List<HostProfile> hosts) {
+        int step;
+        try {
+            step = args.size() == 1 ? Integer.parseInt(args.get(0)) : -1;
+        } catch (NumberFormatException e) {
+            step = -1;
+        }
+        if (step < 1 || step > 7) throw new UsageException("getready needs one step number, 1-7.");
+        return countFailed(FleetRunner.runStep(hosts, step, new JsonListener()));
+    }
+
+    private static int status(List<HostProfile> hosts) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(hosts.size(), 16)), r -> {
+            Thread t = new Thread(r, "nsd-status");
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (HostProfile h : hosts) {
+            futures.add(pool.submit(() -> {
+                String label = label(h);
+                long start = System.nanoTime();
+                try {
+                    Session session = SessionPool.acquire(h.getHost(), h.getUser(), password(h));
+                    long connectMs = (System.nanoTime() - start) / 1_000_000;
+                    long probeStart = System.nanoTime();
+                    RemoteEnvironment.Snapshot env = RemoteEnvironment.get(session, h.getRemoteFolder(),
+                            EnumSet.allOf(RemoteEnvironment.Field.class));
+                    emit(event("status", "host", label, "success", true, "connectMs", connectMs,
+                            "probeMs", (System.nanoTime() - probeStart) / 1_000_000, "summary", env.summary(),
+                            "environment", env.toMap()));
+                    return true;
+                } catch (Exception e) {
+                    emit(event("status", "host", label, "success", false, "error", e.getMessage()));
+                    return false;
+                }
+            }));
+        }
+        int failed = 0;
+        for (Future<Boolean> f : futures) {
+            if (!f.get()) failed++;
+        }
+        pool.shutdown();
+        return failed;
+    }
+
+    /** FleetRunner progress as JSON lines; progress is reported in 10% steps per host. */
+    private static final class JsonListener implements FleetRunner.Listener {
+        private final Map<HostProfile, Integer> lastDecile = new ConcurrentHashMap<>();
+
+        @Override
+        public void onPhase(HostProfile host, FleetRunner.Phase phase, String detail) {
+            emit(event("phase", "host", label(host), "phase", phase.name(), "detail", detail));
+        }
+
+        @Override
+        public void onProgress(HostProfile host, double fraction) {
+            int decile = (int) (fraction * 10);
+            Integer prev = lastDecile.put(host, decile);
+            if (prev == null || prev != decile) {
+                emit(event("progress", "host", label(host), "fraction", Math.round(fraction * 100) / 100.0));
+            }
+        }
+
+        @Override
+        public void onOutput(HostProfile host, String line) {
+            emit(event("output", "host", label(host), "line", line));
+        }
+
+        @Override
+        public void onFinished(HostProfile host, FleetRunner.HostResult result) {
+            emit(event("result", "host", label(host), "success", result.isSuccess(),
+                    "connectMs", result.getConnectMs(), "uploadMs", result.getUploadMs(),
+                    "scriptMs", result.getScriptMs(), "exitCode", result.getExitCode(), "error", result.getError()));
+        }
+    }
+
+    private static int countFailed(Map<HostProfile, FleetRunner.HostResult> results) {
+        int failed = 0;
+        for (FleetRunner.HostResult r : results.values()) {
+            if (!r.isSuccess()) failed++;
+        }
+        return failed;
+    }
+
+    /** Saved connection if hostsArg is null; else "all" or a comma list of fleet profile ids or names. */
+    private static List<HostProfile> resolveHosts(String hostsArg) {
+        if (hostsArg == null) {
+            HostProfile current = HostProfileStore.fromCurrentConnection();
+            if (current.getHost().isEmpty() || current.getUser().isEmpty()) {
+                throw new UsageException("No host or username saved. Connect once in the app (Project → Connect) "
+                        + "or pass --hosts.");
+            }
+            return List.of(current);
+        }
+        List<HostProfile> all = HostProfileStore.loadAll();
+        if (hostsArg.equals("all")) {
+            if (all.isEmpty()) throw new UsageException("No fleet hosts in " + HostProfileStore.getConfigPath());
+            return all;
+        }
+        List<HostProfile> out = new ArrayList<>();
+        for (String want : hostsArg.split(",")) {
+            String w = want.trim();
+            HostProfile match = null;
+            for (HostProfile h : all) {
+                if (h.getId().equals(w) || h.getName().equals(w)) match = h;
+            }
+            if (match == null) throw new UsageException("No fleet host with id or name " + w);
+            out.add(match);
+        }
+        return out;
+    }
+
+    /** The profile's own saved password, or null to use the global password or SSH key. */
+    private static String password(HostProfile h) {
+        char[] chars = SecurePasswordStore.loadPassword(h.getId());
+        String pass = (chars != null && chars.length > 0) ? new String(chars) : null;
+        if (chars != null) java.util.Arrays.fill(chars, '\0');
+        return pass;
+    }
+
+    private static String label(HostProfile h) {
+        return h.getUser() + "@" + h.getHost();
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) throw new UsageException(option + " needs a value.");
+        return args[i];
+    }
+
+    private static Map<String, Object> event(String type, Object... keyValues) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("event", type);
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            m.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return m;
+    }
+
+    private static synchronized void emit(Map<String, Object> event) {
+        OUT.println(Json.write(event));
+    }
+
+    private static final class UsageException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UsageException(String message) {
+            super(message);
+        }
+    }
+}
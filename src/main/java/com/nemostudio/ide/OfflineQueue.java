@@ -0,0 +1,377 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.JSchException;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Operations that could not run because the link was down: terminal commands, uploads and Get Ready
+ * workflow steps. Each is journaled as one properties file under ~/.nemostudio/queue, so the queue
+ * survives a restart. A worker reconnects with exponential backoff (waking early when ConnectionState
+ * reports the link up) and replays the operations in the order they were queued.
+ * <p>
+ * Dedup: enqueueing an upload or workflow step identical to one still waiting returns the waiting one.
+ * Commands are never merged, since repeating one (ls after each cd) is part of what the user typed. Uploads
+ * and workflow steps are idempotent and are simply run again after a failure. A command is marked dispatched
+ * in its journal before it is sent; if the app stops while one is dispatched it is not replayed, since
+ * it may already have run.
+ */
+public final class OfflineQueue {
+
+    /** What an operation does on replay. */
+    public enum Kind { COMMAND, UPLOAD, WORKFLOW }
+
+    /** Replays one operation once the link is up. Returning normally removes it; throwing keeps it queued. */
+    public interface Handler {
+        void replay(Op op) throws Exception;
+    }
+
+    /** One queued operation. */
+    public static final class Op {
+        final long seq;
+        final String id;
+        final Kind kind;
+        /** Command text, remote directory (UPLOAD) or workflow step. */
+        final String target;
+        final List<String> files;
+        final long created;
+        int attempts;
+        boolean dispatched;
+
+        Op(long seq, String id, Kind kind, String target, List<String> files, long created) {
+            this.seq = seq;
+            this.id = id;
+            this.kind = kind;
+            this.target = target;
+            this.files = files;
+            this.created = created;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        String dedupKey() {
+            return kind + "\n" + target + "\n" + String.join("\n", files);
+        }
+
+        String describe() {
+            return switch (kind) {
+                case COMMAND -> "command: " + target;
+                case UPLOAD -> "upload of " + files.size() + " item(s) to " + target;
+                case WORKFLOW -> "Get Ready step " + target;
+            };
+        }
+    }
+
+    private static final long INITIAL_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+    /** Replays that fail with the link up are given up on after this many tries. */
+    private static final int MAX_ATTEMPTS = 5;
+    private static final String SEP = "\n";
+
+    private static final Object lock = new Object();
+    private static final Deque<Op> pending = new ArrayDeque<>();
+    private static final Map<Kind, Handler> handlers = new ConcurrentHashMap<>();
+    private static volatile Consumer<String> log = line -> {};
+    private static long nextSeq = 1;
+    private static boolean loaded;
+    private static boolean started;
+    private static boolean wake;
+
+    static {
+        handlers.put(Kind.UPLOAD, OfflineQueue::replayUpload);
+    }
+
+    private OfflineQueue() {}
+
+    /** Where replay progress and failures are reported (e.g. the terminal); called on the worker thread. */
+    public static void setLog(Consumer<String> sink) {
+        log = sink != null ? sink : line -> {};
+    }
+
+    /** Register how operations of kind are replayed. Commands and workflow steps need the UI's terminal. */
+    public static void setHandler(Kind kind, Handler handler) {
+        handlers.put(kind, handler);
+        wakeUp();
+    }
+
+    /**
+     * Load the journal left by a previous run and start the replay worker. Operations of a kind with no
+     * handler yet wait until one is registered.
+     */
+    public static void start() {
+        synchronized (lock) {
+            if (started) return;
+            started = true;
+            loadJournal();
+        }
+        ConnectionState.subscribe(event -> {
+            if (event.isUp() && event.isStateChange()) wakeUp();
+        });
+        Thread worker = new Thread(OfflineQueue::run, "offline-queue");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public static Op enqueueCommand(String command) {
+        return enqueue(Kind.COMMAND, command, List.of());
+    }
+
+    public static Op enqueueUpload(List<File> localFiles, String remoteDir) {
+        List<String> paths = new ArrayList<>();
+        for (File f : localFiles) paths.add(f.getAbsolutePath());
+        return enqueue(Kind.UPLOAD, remoteDir, paths);
+    }
+
+    public static Op enqueueWorkflow(int step) {
+        return enqueue(Kind.WORKFLOW, String.valueOf(step), List.of());
+    }
+
+    public static int size() {
+        synchronized (lock) {
+            loadJournal();
+            return pending.size();
+        }
+    }
+
+    /** True if e (or a cause) means the host could not be reached, rather than that the operation failed. */
+    public static boolean isLinkFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof JSchException || t instanceof SocketException || t instanceof SocketTimeoutException
+                    || t instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Op enqueue(Kind kind, String target, List<String> files) {
+        Op op;
+        synchronized (lock) {
+            loadJournal();
+            Op candidate = new Op(nextSeq, UUID.randomUUID().toString(), kind, target, files,
+                    System.currentTimeMillis());
+            if (kind != Kind.COMMAND) {
+                for (Op existing : pending) {
+                    if (!existing.dispatched && existing.dedupKey().equals(candidate.dedupKey())) return existing;
+                }
+            }
+            nextSeq++;
+            op = candidate;
+            pending.add(op);
+            try {
+                save(op);
+            } catch (IOException e) {
+                log.accept("Could not journal " + op.describe() + " (kept in memory only): " + e.getMessage());
+            }
+            wake = true;
+            lock.notifyAll();
+        }
+        return op;
+    }
+
+    private static void wakeUp() {
+        synchronized (lock) {
+            wake = true;
+            lock.notifyAll();
+        }
+    }
+
+    private static void run() {
+        long backoff = INITIAL_BACKOFF_MS;
+        boolean announcedWait = false;
+        while (true) {
+            Op op;
+            try {
+                synchronized (lock) {
+                    while (pending.isEmpty()) lock.wait();
+                    op = pending.peekFirst();
+                    wake = false;
+                }
+                Handler handler = handlers.get(op.kind);
+                if (handler == null) {
+                    sleep(MAX_BACKOFF_MS);
+                    continue;
+                }
+                try {
+                    SessionPool.acquire();
+                } catch (Exception e) {
+                    if (!announcedWait) {
+                        log.accept("Link down (" + e.getMessage() + "); " + size() + " operation(s) waiting. "
+                                + "Reconnecting with backoff.");
+                        announcedWait = true;
+                    }
+                    sleep(backoff);
+                    backoff = Math.min(MAX_BACKOFF_MS, backoff * 2);
+                    continue;
+                }
+                backoff = INITIAL_BACKOFF_MS;
+                announcedWait = false;
+                replay(op, handler);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static void replay(Op op, Handler handler) throws InterruptedException {
+        if (op.kind == Kind.COMMAND && op.dispatched) {
+            log.accept("Not replaying " + op.describe() + ": it was being sent when the app stopped and may have run.");
+            remove(op);
+            return;
+        }
+        op.dispatched = true;
+        saveQuietly(op);
+        log.accept("Replaying " + op.describe());
+        try {
+            handler.replay(op);
+            remove(op);
+        } catch (Exception e) {
+            op.dispatched = false;
+            if (!isLinkFailure(e)) op.attempts++;
+            if (op.attempts >= MAX_ATTEMPTS) {
+                log.accept("Giving up on " + op.describe() + " after " + op.attempts + " attempts: " + e.getMessage());
+                remove(op);
+                return;
+            }
+            saveQuietly(op);
+            log.accept("Replay of " + op.describe() + " failed: " + e.getMessage() + "; will retry.");
+            sleep(INITIAL_BACKOFF_MS << Math.min(op.attempts, 6));
+        }
+    }
+
+    /** Wait up to ms, returning early when an operation is queued, a handler is set or the link comes up. */
+    private static void sleep(long ms) throws InterruptedException {
+        long end = System.currentTimeMillis() + ms;
+        synchronized (lock) {
+            long left;
+            while (!wake && (left = end - System.currentTimeMillis()) > 0) lock.wait(left);
+            wake = false;
+        }
+    }
+
+    private static void replayUpload(Op op) throws Exception {
+        List<File> files = new ArrayList<>();
+        for (String path : op.files) {
+            File f = new File(path);
+            if (f.exists()) files.add(f);
+            else log.accept("Skipping " + path + ": no longer exists.");
+        }
+        if (files.isEmpty()) return;
+        SftpHelper.uploadAll(files, op.target, new SftpHelper.ProgressCallback() {
+            @Override
+            public void onFileStart(String fileName) {}
+            @Override
+            public void onFileProgress(long bytesTransferred, long totalBytes) {}
+            @Override
+            public void onFileComplete(String fileName, long fileSize) {
+                log.accept("Uploaded " + fileName + " (" + fileSize + " bytes)");
+            }
+            @Override
+            public void onVerified(int checked, List<String> resent, boolean verified) {
+                log.accept(SftpHelper.describeVerification(checked, resent, verified));
+            }
+        });
+    }
+
+    private static void remove(Op op) {
+        synchronized (lock) {
+            pending.remove(op);
+        }
+        try {
+            Files.deleteIfExists(journalPath(op));
+        } catch (IOException ignored) {}
+    }
+
+    private static Path queueDir() {
+        return Paths.get(System.getProperty("user.home"), ".nemostudio", "queue");
+    }
+
+    private static Path journalPath(Op op) {
+        return queueDir().resolve(String.format("%012d.properties", op.seq));
+    }
+
+    private static void saveQuietly(Op op) {
+        try {
+            save(op);
+        } catch (IOException e) {
+            log.accept("Could not update journal for " + op.describe() + ": " + e.getMessage());
+        }
+    }
+
+    /** Write op's journal entry to a temp file and move it into place, so a crash never leaves half a file. */
+    private static void save(Op op) throws IOException {
+        Path path = journalPath(op);
+        Files.createDirectories(path.getParent());
+        Properties p = new Properties();
+        p.setProperty("id", op.id);
+        p.setProperty("kind", op.kind.name());
+        p.setProperty("target", op.target);
+        p.setProperty("files", String.join(SEP, op.files));
+        p.setProperty("created", String.valueOf(op.created));
+        p.setProperty("attempts", String.valueOf(op.attempts));
+        p.setProperty("dispatched", String.valueOf(op.dispatched));
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var out = Files.newOutputStream(tmp)) {
+            p.store(out, "Nemo Studio queued operation");
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read the journal once, before the first enqueue or start. Caller holds lock. Entries are replayed in
+     * file name (sequence) order; unreadable ones are skipped.
+     */
+    private static void loadJournal() {
+        if (loaded) return;
+        loaded = true;
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(queueDir(), "*.properties")) {
+            for (Path f : dir) files.add(f);
+        } catch (IOException e) {
+            return; // No queue yet
+        }
+        files.sort(null);
+        for (Path f : files) {
+            Properties p = new Properties();
+            try (var in = Files.newInputStream(f)) {
+                p.load(in);
+                String name = f.getFileName().toString();
+                long seq = Long.parseLong(name.substring(0, name.indexOf('.')));
+                String joined = p.getProperty("files", "");
+                Op op = new Op(seq, p.getProperty("id"), Kind.valueOf(p.getProperty("kind")),
+                        p.getProperty("target", ""), joined.isEmpty() ? List.of() : List.of(joined.split(SEP)),
+                        Long.parseLong(p.getProperty("created", "0")));
+                op.attempts = Integer.parseInt(p.getProperty("attempts", "0"));
+                op.dispatched = Boolean.parseBoolean(p.getProperty("dispatched"));
+                pending.add(op);
+                nextSeq = Math.max(nextSeq, seq + 1);
+            } catch (IOException | RuntimeException e) {
+                // Hand-edited or truncated entry: leave the file for inspection
+            }
+        }
+    }
+}
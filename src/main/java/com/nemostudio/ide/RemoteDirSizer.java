@@ -0,0 +1,154 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.Session;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Disk usage and item counts of the folders in a remote directory, for the remote browser's Size and Items
+ * columns. One exec walks the tree with {@code find -printf} and a small awk script adds up blocks and
+ * entries per top-level folder. Because find finishes one folder before starting the next, each total
+ * is printed (and flushed) as soon as its folder is done, so columns fill in progressively. Results are
+ * cached per path and reused while the folder's mtime is unchanged and the entry is younger than MAX_AGE_MS
+ * (a folder's mtime only changes with its direct entries, so deep changes are picked up by the age limit).
+ */
+final class RemoteDirSizer {
+
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    private static final long MAX_AGE_MS = 10 * 60 * 1000;
+    private static final int MAX_CACHED = 20_000;
+    /** With more folders to size than this, walk the whole directory instead of naming each one. */
+    private static final int MAX_NAMED = 500;
+
+    // Per top-level entry under the start: bytes on disk (find %b is 512-byte blocks) and items below it.
+    // Prints "bytes<TAB>items<TAB>name" for folders only, and an empty line every HEARTBEAT entries so that
+    // once the channel is closed (cancel) the next write fails with SIGPIPE and stops awk and find.
+    private static final int HEARTBEAT = 20_000;
+    private static final String AWK = "awk -F'\\t' '"
+            + "function out() { if (cur != \"\" && dir) { printf \"%.0f\\t%.0f\\t%s\\n\", bytes, items, cur; fflush() } } "
+            + "{ line = $0; sub(/^[^\\t]*\\t[^\\t]*\\t\\.\\//, \"\", line); i = index(line, \"/\"); "
+            + "top = i ? substr(line, 1, i - 1) : line; "
+            + "if (top != cur) { out(); cur = top; bytes = 0; items = -1; dir = ($1 == \"d\") } "
+            + "bytes += $2 * 512; items++; if (++n % " + HEARTBEAT + " == 0) { print \"\"; fflush() } } "
+            + "END { out() }'";
+
+    /** Usage of one folder. */
+    static final class Usage {
+        final String name;
+        final long bytes;
+        final long items;
+        final long mtime;
+        final long computedAt;
+
+        Usage(String name, long bytes, long items, long mtime, long computedAt) {
+            this.name = name;
+            this.bytes = bytes;
+            this.items = items;
+            this.mtime = mtime;
+            this.computedAt = computedAt;
+        }
+    }
+
+    /**
+     * One compute call. cancel() closes its exec channel at once, so the remote find stops and the caller's
+     * thread is free even while awk is still walking a big folder and printing nothing.
+     */
+    static final class Job {
+        private volatile ChannelExec channel;
+        private volatile boolean cancelled;
+
+        void cancel() {
+            cancelled = true;
+            ChannelExec ch = channel;
+            if (ch != null) ch.disconnect();
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static final Map<String, Usage> cache = new ConcurrentHashMap<>();
+
+    private RemoteDirSizer() {}
+
+    /** Cached usage of dir/name if still valid for the folder's current mtime (seconds), else null. */
+    static Usage cached(Session session, String dir, String name, long mtime) {
+        Usage u = cache.get(key(session, dir, name));
+        if (u == null || u.mtime != mtime || System.currentTimeMillis() - u.computedAt > MAX_AGE_MS) return null;
+        return u;
+    }
+
+    /**
+     * Size the given folders of dir (name → mtime in seconds) and pass each result to onUsage as it
+     * completes (on the calling thread). Returns early, without an exception, once job is cancelled.
+     * Folders that could not be read are reported with their own size only.
+     */
+    static void compute(Session session, String dir, Map<String, Long> folders, Consumer<Usage> onUsage,
+                        Job job) throws Exception {
+        if (folders.isEmpty() || job.isCancelled()) return;
+        String start = folders.size() > MAX_NAMED ? "." : startPoints(folders.keySet());
+        String command = "cd " + RemoteExec.shellQuote(dir) + " && find " + start
+                + (start.equals(".") ? " -mindepth 1" : "") + " -printf '%y\\t%b\\t%p\\n' 2>/dev/null | " + AWK;
+        if (cache.size() > MAX_CACHED) cache.clear();
+        ChannelExec ch = (ChannelExec) session.openChannel("exec");
+        ch.setCommand(command);
+        job.channel = ch;
+        try {
+            if (job.isCancelled()) return;
+            BufferedReader reader = new BufferedReader(new InputStreamReader(ch.getInputStream(), StandardCharsets.UTF_8));
+            FlightEvents.ChannelOpen event = new FlightEvents.ChannelOpen(session.getHost(), "exec");
+            ch.connect(CONNECT_TIMEOUT_MS);
+            event.commit();
+            String line;
+            while (!job.isCancelled() && (line = reader.readLine()) != null) {
+                accept(session, dir, folders, line, onUsage);
+            }
+        } catch (Exception e) {
+            // Cancelled: the channel was closed under the read
+            if (!job.isCancelled()) throw e;
+        } finally {
+            job.channel = null;
+            ch.disconnect();
+        }
+    }
+
+    private static void accept(Session session, String dir, Map<String, Long> folders, String line,
+                               Consumer<Usage> onUsage) {
+        String[] f = line.split("\t", 3);
+        if (f.length < 3) return;
+        Long mtime = folders.get(f[2]);
+        if (mtime == null) return;
+        Usage u;
+        try {
+            u = new Usage(f[2], Long.parseLong(f[0]), Math.max(0, Long.parseLong(f[1])), mtime,
+                    System.currentTimeMillis());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        cache.put(key(session, dir, u.name), u);
+        onUsage.accept(u);
+    }
+
+    private static String startPoints(Collection<String> names) {
+        StringBuilder sb = new StringBuilder();
+        for (String n : names) {
+            if (sb.length() > 0) sb.append(' ');
+            // "./" keeps names starting with '-' from being read as options, and matches the awk prefix
+            sb.append(RemoteExec.shellQuote("./" + n));
+        }
+        return sb.toString();
+    }
+
+    private static String key(Session session, String dir, String name) {
+        String base = dir.endsWith("/") ? dir : dir + "/";
+        return session.getUserName() + "@" + session.getHost() + ":" + base + name;
+    }
+}
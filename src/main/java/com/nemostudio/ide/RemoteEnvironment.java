@@ -0,0 +1,330 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.Session;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * What the remote machine has: OS and architecture, Docker version, images and their digests, running
+ * containers, GPUs and their memory, free disk under the remote folder, and Python / Ray versions. All stale
+ * fields are probed in one exec round-trip: a shell script on stdin prints "FIELD&lt;TAB&gt;key&lt;TAB&gt;value" lines,
+ * and "FIELD&lt;TAB&gt;@" once a field is done (so a missing tool still counts as probed). Each Field is cached per
+ * host for its own TTL, so the status bar, Get Ready steps and Help → Diagnostics share one view of the host
+ * without each running its own commands.
+ */
+public final class RemoteEnvironment {
+
+    /** Probed fields, each with its cache TTL and the shell snippet that reports it. */
+    public enum Field {
+        SYSTEM(60 * 60 * 1000, "out os \"$(uname -s)\"; out kernel \"$(uname -r)\"; out arch \"$(uname -m)\"; "
+                + "out cpus \"$(nproc)\"; out distro \"$(. /etc/os-release && echo \"$PRETTY_NAME\")\""),
+        DOCKER(10 * 60 * 1000, "command -v docker >/dev/null && out version \"$(docker version --format '{{.Server.Version}}')\""),
+        IMAGES(2 * 60 * 1000, "docker images --digests --format '{{.Repository}}:{{.Tag}}\\t{{.Digest}}' | lines image"),
+        CONTAINERS(5 * 1000, "docker ps --format '{{.ID}}\\t{{.Image}}\\t{{.Status}}\\t{{.Names}}' | lines container"),
+        GPU(15 * 1000, "nvidia-smi --query-gpu=name,memory.total,memory.used --format=csv,noheader,nounits | lines gpu"),
+        DISK(60 * 1000, "out path \"$d\"; df -Pk \"$d\" | awk 'NR == 2 { printf \"%.0f %.0f\\n\", $4 * 1024, $2 * 1024 }' "
+                + "| { read -r free total; out free \"$free\"; out total \"$total\"; }"),
+        PYTHON(10 * 60 * 1000, "p=$(command -v python3 || command -v python) && { "
+                + "out python \"$(\"$p\" -c 'import platform; print(platform.python_version())')\"; "
+                + "out ray \"$(\"$p\" -c 'import importlib.metadata as m; print(m.version(\"ray\"))')\"; }");
+
+        final long ttlMs;
+        final String snippet;
+
+        Field(long ttlMs, String snippet) {
+            this.ttlMs = ttlMs;
+            this.snippet = snippet;
+        }
+    }
+
+    // $1 is the remote folder (DISK falls back to $HOME if it does not exist); sections set F before running
+    private static final String HEADER = String.join("\n",
+            "d=\"${1:-$HOME}\"; [ -d \"$d\" ] || d=\"$HOME\"",
+            "out() { [ -n \"$2\" ] && printf '%s\\t%s\\t%s\\n' \"$F\" \"$1\" \"$2\"; return 0; }",
+            "lines() { while IFS= read -r l; do out \"$1\" \"$l\"; done; }",
+            "");
+
+    /** One probed field: key → values in output order. */
+    private static final class Entry {
+        final Map<String, List<String>> values;
+        final long fetchedAt;
+        final String folder;
+
+        Entry(Map<String, List<String>> values, long fetchedAt, String folder) {
+            this.values = values;
+            this.fetchedAt = fetchedAt;
+            this.folder = folder;
+        }
+    }
+
+    /** Immutable view of the cached fields for one host. Missing fields read as null / empty / -1. */
+    public static final class Snapshot {
+        private final Map<Field, Entry> entries;
+
+        Snapshot(Map<Field, Entry> entries) {
+            this.entries = entries;
+        }
+
+        public boolean has(Field field) {
+            return entries.containsKey(field);
+        }
+
+        /** Age of field's data in ms, or -1 if it was never probed. */
+        public long ageMs(Field field) {
+            Entry e = entries.get(field);
+            return e == null ? -1 : System.currentTimeMillis() - e.fetchedAt;
+        }
+
+        public String get(Field field, String key) {
+            List<String> all = all(field, key);
+            return all.isEmpty() ? null : all.get(0);
+        }
+
+        public List<String> all(Field field, String key) {
+            Entry e = entries.get(field);
+            List<String> v = e == null ? null : e.values.get(key);
+            return v == null ? List.of() : v;
+        }
+
+        public String arch() {
+            return get(Field.SYSTEM, "arch");
+        }
+
+        /** Docker server version, or null if docker is missing or its daemon is not reachable. */
+        public String dockerVersion() {
+            return get(Field.DOCKER, "version");
+        }
+
+        /** Digest of image (repository:tag), "&lt;none&gt;" for a local build, or null if the image is not present. */
+        public String imageDigest(String image) {
+            for (String line : all(Field.IMAGES, "image")) {
+                String[] f = line.split("\t", 2);
+                if (f[0].equals(image)) return f.length > 1 ? f[1] : "<none>";
+            }
+            return null;
+        }
+
+        /** Running containers started from image. */
+        public int runningContainers(String image) {
+            int n = 0;
+            for (String line : all(Field.CONTAINERS, "container")) {
+                String[] f = line.split("\t");
+                if (f.length > 1 && f[1].equals(image)) n++;
+            }
+            return n;
+        }
+
+        /** GPUs as "name, total MiB, used MiB" (nvidia-smi CSV). */
+        public List<String> gpus() {
+            return all(Field.GPU, "gpu");
+        }
+
+        public long diskFreeBytes() {
+            return parseLong(get(Field.DISK, "free"));
+        }
+
+        public String pythonVersion() {
+            return get(Field.PYTHON, "python");
+        }
+
+        public String rayVersion() {
+            return get(Field.PYTHON, "ray");
+        }
+
+        /** One line for the status bar, e.g. "x86_64 · Docker 27.1.1 · 2× NVIDIA A100 (80 GB) · 120 GB free". */
+        public String summary() {
+            List<String> parts = new ArrayList<>();
+            if (arch() != null) parts.add(arch());
+            if (has(Field.DOCKER)) parts.add(dockerVersion() != null ? "Docker " + dockerVersion() : "no Docker");
+            List<String> gpus = gpus();
+            if (!gpus.isEmpty()) {
+                String[] f = gpus.get(0).split(",\\s*");
+                String mem = f.length > 1 ? " (" + Math.round(parseLong(f[1]) / 1024.0) + " GB)" : "";
+                parts.add(gpus.size() + "× " + f[0] + mem);
+            } else if (has(Field.GPU)) {
+                parts.add("no GPU");
+            }
+            if (diskFreeBytes() >= 0) parts.add(formatGigabytes(diskFreeBytes()) + " free");
+            return String.join("  ·  ", parts);
+        }
+
+        /** Probed fields as field → key → values (names in lower case), e.g. for JSON output. */
+        public Map<String, Object> toMap() {
+            Map<String, Object> out = new LinkedHashMap<>();
+            for (Field field : Field.values()) {
+                Entry e = entries.get(field);
+                if (e != null) out.put(field.name().toLowerCase(Locale.ROOT), new LinkedHashMap<>(e.values));
+            }
+            return out;
+        }
+
+        /** Every field and value, one per line, for diagnostics. */
+        public String describe() {
+            StringBuilder sb = new StringBuilder();
+            for (Field field : Field.values()) {
+                Entry e = entries.get(field);
+                sb.append(field).append(e == null ? "  (not probed)" : "  (" + ageMs(field) / 1000 + " s old)").append('\n');
+                if (e == null) continue;
+                if (e.values.isEmpty()) sb.append("    (none)\n");
+                e.values.forEach((k, vs) -> vs.forEach(v -> sb.append("    ").append(k).append(": ")
+                        .append(v.replace('\t', ' ')).append('\n')));
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final Map<String, Map<Field, Entry>> cache = new ConcurrentHashMap<>();
+    private static final Map<String, Object> probeLocks = new ConcurrentHashMap<>();
+    /** System.nanoTime() of each field's last invalidate(), so a probe already running does not re-cache old data. */
+    private static final AtomicLongArray invalidatedAt = new AtomicLongArray(Field.values().length);
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "remote-environment");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        // nanoTime may be negative: start from "now" rather than 0 so that no probe looks invalidated
+        long now = System.nanoTime() - 1;
+        for (int i = 0; i < invalidatedAt.length(); i++) invalidatedAt.set(i, now);
+    }
+
+    private RemoteEnvironment() {}
+
+    /** Cached fields for the pooled session's host, without probing (may be empty). */
+    public static Snapshot cached() {
+        Session session = SessionPool.peek();
+        if (session == null) return new Snapshot(Map.of());
+        return new Snapshot(copy(hostCache(session)));
+    }
+
+    /**
+     * The requested fields (plus any still cached) for the saved host, probing the stale ones in one exec.
+     * Concurrent callers for the same host wait for a single probe. Blocks; do not call on the FX thread.
+     */
+    public static Snapshot get(Set<Field> fields) throws Exception {
+        String folder = ConnectionStore.loadRemoteFolder();
+        return get(SessionPool.acquire(), folder == null ? "" : folder.trim(), fields);
+    }
+
+    /** As get(fields), for any session (e.g. a fleet host) with DISK measured under folder. */
+    public static Snapshot get(Session session, String folder, Set<Field> fields) throws Exception {
+        Map<Field, Entry> host = hostCache(session);
+        synchronized (probeLocks.computeIfAbsent(key(session), k -> new Object())) {
+            Set<Field> stale = EnumSet.noneOf(Field.class);
+            for (Field f : fields) {
+                Entry e = host.get(f);
+                if (e == null || System.currentTimeMillis() - e.fetchedAt > f.ttlMs
+                        || (f == Field.DISK && !e.folder.equals(folder))) {
+                    stale.add(f);
+                }
+            }
+            if (!stale.isEmpty()) probe(session, stale, folder, host);
+        }
+        return new Snapshot(copy(host));
+    }
+
+    /** get() on a background thread; onResult gets the snapshot, or what is cached if the probe failed. */
+    public static void getAsync(Set<Field> fields, Consumer<Snapshot> onResult) {
+        executor.execute(() -> {
+            Snapshot s;
+            try {
+                s = get(fields);
+            } catch (Exception e) {
+                s = cached();
+            }
+            onResult.accept(s);
+        });
+    }
+
+    /**
+     * Drop cached fields that an action has just changed (e.g. images and containers once a Get Ready script
+     * has finished). Call it after the change: a probe that started earlier does not store these fields.
+     */
+    public static void invalidate(Field... fields) {
+        long now = System.nanoTime();
+        for (Field f : fields) invalidatedAt.set(f.ordinal(), now);
+        for (Map<Field, Entry> host : cache.values()) {
+            for (Field f : fields) host.remove(f);
+        }
+    }
+
+    private static void probe(Session session, Set<Field> fields, String folder, Map<Field, Entry> host) throws Exception {
+        StringBuilder script = new StringBuilder(HEADER);
+        for (Field f : fields) {
+            script.append("F=").append(f.name()).append("; { ").append(f.snippet).append("; } 2>/dev/null; ")
+                    .append("printf '%s\\t@\\n' \"$F\"\n");
+        }
+        Map<Field, Map<String, List<String>>> parsed = new EnumMap<>(Field.class);
+        Set<Field> done = EnumSet.noneOf(Field.class);
+        long start = System.nanoTime();
+        RemoteExec.run(session, "sh -s -- " + RemoteExec.shellQuote(folder),
+                script.toString().getBytes(StandardCharsets.UTF_8), line -> {
+                    String[] f = line.split("\t", 3);
+                    Field field;
+                    try {
+                        field = Field.valueOf(f[0]);
+                    } catch (IllegalArgumentException e) {
+                        return; // Stray output (e.g. a login banner)
+                    }
+                    if (f.length == 2 && f[1].equals("@")) {
+                        done.add(field);
+                    } else if (f.length == 3) {
+                        parsed.computeIfAbsent(field, k -> new LinkedHashMap<>())
+                                .computeIfAbsent(f[1], k -> new ArrayList<>()).add(f[2]);
+                    }
+                });
+        Metrics.REMOTE_ENV_PROBE.recordMicros((System.nanoTime() - start) / 1000);
+        long now = System.currentTimeMillis();
+        for (Field f : done) {
+            if (invalidatedAt.get(f.ordinal()) - start >= 0) continue; // Changed while probing
+            Map<String, List<String>> values = parsed.computeIfAbsent(f, k -> new LinkedHashMap<>());
+            values.replaceAll((k, v) -> Collections.unmodifiableList(v));
+            host.put(f, new Entry(Collections.unmodifiableMap(values), now, folder));
+        }
+    }
+
+    private static Map<Field, Entry> hostCache(Session session) {
+        return cache.computeIfAbsent(key(session), k -> Collections.synchronizedMap(new EnumMap<>(Field.class)));
+    }
+
+    private static Map<Field, Entry> copy(Map<Field, Entry> host) {
+        Map<Field, Entry> m = new EnumMap<>(Field.class);
+        synchronized (host) {
+            m.putAll(host);
+        }
+        return m;
+    }
+
+    private static String key(Session session) {
+        return session.getUserName() + "@" + session.getHost();
+    }
+
+    private static long parseLong(String s) {
+        if (s == null) return -1;
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String formatGigabytes(long bytes) {
+        double gb = bytes / (1024.0 * 1024 * 1024);
+        return gb >= 10 ? Math.round(gb) + " GB" : String.format("%.1f GB", gb);
+    }
+}
@@ -0,0 +1,70 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.Session;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Runs a command over an SSH exec channel on an existing (usually pooled) session and streams its output
+ * line by line. Unlike RemoteTerminalPanel this needs no shell or UI, so it can run on many hosts at once.
+ */
+public final class RemoteExec {
+
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+
+    private RemoteExec() {}
+
+    /**
+     * Run command (stderr merged into stdout), feeding stdin if not null, and pass each output line to
+     * onLine (on the calling thread). Blocks until the command exits; returns its exit status.
+     */
+    public static int run(Session session, String command, byte[] stdin, Consumer<String> onLine) throws Exception {
+        ChannelExec channel = (ChannelExec) session.openChannel("exec");
+        channel.setCommand(command + " 2>&1");
+        try {
+            InputStream out = channel.getInputStream();
+            OutputStream in = channel.getOutputStream();
+            FlightEvents.ChannelOpen event = new FlightEvents.ChannelOpen(session.getHost(), "exec");
+            channel.connect(CONNECT_TIMEOUT_MS);
+            event.commit();
+            if (stdin != null) {
+                in.write(stdin);
+                in.flush();
+            }
+            in.close();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(out, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (onLine != null) onLine.accept(line);
+                }
+            }
+            while (!channel.isClosed()) {
+                Thread.sleep(20);
+            }
+            return channel.getExitStatus();
+        } finally {
+            channel.disconnect();
+        }
+    }
+
+    /** Run command and return its whole output (stderr merged); throws if the exit status is not 0. */
+    public static String capture(Session session, String command) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        int exit = run(session, command, null, line -> sb.append(line).append('\n'));
+        if (exit != 0) {
+            throw new Exception("Remote command failed (exit " + exit + "): " + sb.toString().trim());
+        }
+        return sb.toString();
+    }
+
+    /** Quote a value for a POSIX shell command line. */
+    public static String shellQuote(String s) {
+        return "'" + s.replace("'", "'\"'\"'") + "'";
+    }
+}
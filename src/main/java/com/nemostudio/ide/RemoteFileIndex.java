@@ -0,0 +1,423 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.Session;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable in-memory index of every file and folder under a remote root, built by streaming
+ * {@code find -printf} over an exec channel. Entries are kept in flat arrays sorted by path: each entry
+ * stores only its parent entry index and the id of its (interned) name in a sorted segment table, so
+ * hundreds of thousands of paths cost a few int/long arrays instead of a tree of objects.
+ * <p>
+ * Search matches names (or whole relative paths when the query contains '/') case-insensitively: the
+ * segment table is scanned once, then a single pass over the entries (parents always precede children)
+ * resolves matches. refresh() only re-lists directories whose mtime changed and returns a new index.
+ */
+public final class RemoteFileIndex {
+
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    private static final int PROGRESS_EVERY = 5000;
+    /** Name tables larger than this (in chars) are searched in SCAN_SLICES parallel slices. */
+    private static final int PARALLEL_SCAN_CHARS = 1 << 20;
+    private static final int SCAN_SLICES = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    public static final byte TYPE_FILE = 'f';
+    public static final byte TYPE_DIR = 'd';
+    public static final byte TYPE_LINK = 'l';
+
+    /** One search result. Path is relative to the index root. */
+    public static final class Hit {
+        private final String path;
+        private final boolean dir;
+        private final long size;
+        private final long mtimeMillis;
+
+        Hit(String path, boolean dir, long size, long mtimeMillis) {
+            this.path = path;
+            this.dir = dir;
+            this.size = size;
+            this.mtimeMillis = mtimeMillis;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public boolean isDir() {
+            return dir;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getMtimeMillis() {
+            return mtimeMillis;
+        }
+
+        @Override
+        public String toString() {
+            return (dir ? "[DIR]  " : "       ") + path;
+        }
+    }
+
+    /** Search outcome: total number of matches, the first hits in path order, and the time taken. */
+    public static final class SearchResult {
+        private final int total;
+        private final List<Hit> hits;
+        private final long nanos;
+
+        SearchResult(int total, List<Hit> hits, long nanos) {
+            this.total = total;
+            this.hits = hits;
+            this.nanos = nanos;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public List<Hit> getHits() {
+            return hits;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    private final String root;
+    private final String[] segments;
+    /** All lower-cased names joined by '\n', so a search is one intrinsic indexOf scan instead of one per name. */
+    private final String segmentBlob;
+    private final int[] segmentStart;
+    private final int[] parent;
+    private final int[] segment;
+    private final byte[] type;
+    private final long[] size;
+    private final long[] mtime;
+    private final long buildMillis;
+
+    private RemoteFileIndex(String root, String[] segments, int[] parent, int[] segment, byte[] type,
+                            long[] size, long[] mtime, long buildMillis) {
+        this.root = root;
+        this.segments = segments;
+        this.segmentStart = new int[segments.length + 1];
+        StringBuilder blob = new StringBuilder();
+        for (int i = 0; i < segments.length; i++) {
+            segmentStart[i] = blob.length();
+            blob.append(segments[i].toLowerCase(Locale.ROOT)).append('\n');
+        }
+        segmentStart[segments.length] = blob.length();
+        this.segmentBlob = blob.toString();
+        this.parent = parent;
+        this.segment = segment;
+        this.type = type;
+        this.size = size;
+        this.mtime = mtime;
+        this.buildMillis = buildMillis;
+    }
+
+    /** Index everything under root (absolute remote path). progress gets the running entry count. */
+    public static RemoteFileIndex build(Session session, String root, IntConsumer progress) throws Exception {
+        long start = System.currentTimeMillis();
+        String normalized = normalizeRoot(root);
+        Map<String, Raw> entries = new HashMap<>();
+        stream(session, "find " + RemoteExec.shellQuote(normalized) + " -mindepth 1 -printf '%y %s %T@ %P\\0'",
+                "", raw -> entries.put(raw.path, raw), progress);
+        return pack(normalized, entries.values(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * New index for the same root: lists only directories first, then re-lists the direct children of
+     * directories that are new or whose mtime changed (adds, removes and renames change it). Content
+     * changes of existing files without a directory change keep their old size and mtime.
+     */
+    public RemoteFileIndex refresh(Session session, IntConsumer progress) throws Exception {
+        long start = System.currentTimeMillis();
+        Map<String, Long> dirs = new HashMap<>();
+        dirs.put("", -1L);
+        stream(session, "find " + RemoteExec.shellQuote(root) + " -mindepth 1 -type d -printf '%y %s %T@ %P\\0'",
+                "", raw -> dirs.put(raw.path, raw.mtime), null);
+
+        Map<String, Raw> entries = new HashMap<>(size() * 2);
+        List<String> changed = new ArrayList<>();
+        changed.add(""); // root mtime is not indexed; always re-list its children
+        Map<String, Integer> known = new HashMap<>();
+        for (int i = 0; i < size(); i++) {
+            if (type[i] == TYPE_DIR) known.put(pathOf(i), i);
+        }
+        for (Map.Entry<String, Long> d : dirs.entrySet()) {
+            if (d.getKey().isEmpty()) continue;
+            Integer i = known.get(d.getKey());
+            if (i == null || mtime[i] != d.getValue()) changed.add(d.getKey());
+        }
+        Set<String> relist = new HashSet<>(changed);
+        for (int i = 0; i < size(); i++) {
+            String path = pathOf(i);
+            String dir = parentPath(path);
+            // Keep entries whose directory still exists and is unchanged
+            if (dirs.containsKey(dir) && !relist.contains(dir)) {
+                if (type[i] == TYPE_DIR && !dirs.containsKey(path)) continue;
+                entries.put(path, new Raw(path, type[i], size[i],
+                        type[i] == TYPE_DIR ? dirs.get(path) : mtime[i]));
+            }
+        }
+        // Re-list changed directories in batches so the command line stays short
+        int[] count = { entries.size() };
+        for (int from = 0; from < changed.size(); from += 200) {
+            List<String> batch = changed.subList(from, Math.min(changed.size(), from + 200));
+            StringBuilder cmd = new StringBuilder("cd ").append(RemoteExec.shellQuote(root)).append(" && find");
+            for (String d : batch) cmd.append(' ').append(RemoteExec.shellQuote(d.isEmpty() ? "." : "./" + d));
+            cmd.append(" -mindepth 1 -maxdepth 1 -printf '%y %s %T@ %p\\0'");
+            stream(session, cmd.toString(), "./", raw -> {
+                if (raw.type == TYPE_DIR && dirs.containsKey(raw.path)) raw = new Raw(raw.path, raw.type, raw.size, dirs.get(raw.path));
+                if (entries.put(raw.path, raw) == null && progress != null && ++count[0] % PROGRESS_EVERY == 0) {
+                    progress.accept(count[0]);
+                }
+            }, null);
+        }
+        return pack(root, entries.values(), System.currentTimeMillis() - start);
+    }
+
+    public String getRoot() {
+        return root;
+    }
+
+    public int size() {
+        return parent.length;
+    }
+
+    /** Wall time of the build or refresh that produced this index. */
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    /** Absolute remote path for a hit. */
+    public String absolutePath(Hit hit) {
+        return "/".equals(root) ? "/" + hit.getPath() : root + "/" + hit.getPath();
+    }
+
+    /**
+     * Case-insensitive substring search. Without '/', matches entry names; with '/', matches the path
+     * relative to the root. Returns at most limit hits in path order plus the total match count.
+     */
+    public SearchResult search(String query, int limit) {
+        long start = System.nanoTime();
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty() || size() == 0) {
+            return new SearchResult(0, List.of(), System.nanoTime() - start);
+        }
+        boolean pathQuery = q.indexOf('/') >= 0;
+        String piece = pathQuery ? longestPiece(q) : q;
+
+        boolean[] segHit = new boolean[segments.length];
+        boolean anyHit;
+        if (piece.isEmpty()) {
+            Arrays.fill(segHit, true); // query is only slashes: every path is a candidate
+            anyHit = true;
+        } else {
+            // Large tables are scanned in parallel slices cut at name boundaries
+            int slices = segmentBlob.length() < PARALLEL_SCAN_CHARS ? 1 : SCAN_SLICES;
+            anyHit = java.util.stream.IntStream.range(0, slices).parallel()
+                    .map(k -> scanSlice(piece, segHit,
+                            segments.length * k / slices, segments.length * (k + 1) / slices))
+                    .sum() > 0;
+        }
+        int n = size();
+        int total = 0;
+        List<Hit> hits = new ArrayList<>(Math.min(limit, 256));
+        if (!anyHit) {
+            return new SearchResult(0, hits, System.nanoTime() - start);
+        }
+        if (!pathQuery) {
+            for (int i = 0; i < n; i++) {
+                if (!segHit[segment[i]]) continue;
+                if (total++ < limit) hits.add(hitAt(i));
+            }
+        } else {
+            // An entry can only match if it or an ancestor contains the longest '/'-free piece
+            boolean[] candidate = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                candidate[i] = segHit[segment[i]] || (parent[i] >= 0 && candidate[parent[i]]);
+                if (!candidate[i]) continue;
+                String path = pathOf(i);
+                if (!path.toLowerCase(Locale.ROOT).contains(q)) continue;
+                if (total++ < limit) hits.add(hitAt(i));
+            }
+        }
+        return new SearchResult(total, hits, System.nanoTime() - start);
+    }
+
+    /** Mark names in [fromSeg, toSeg) containing piece; returns how many matched. */
+    private int scanSlice(String piece, boolean[] segHit, int fromSeg, int toSeg) {
+        int end = segmentStart[toSeg];
+        int from = segmentStart[fromSeg];
+        int seg = fromSeg;
+        int found = 0;
+        while (from < end) {
+            int at = segmentBlob.indexOf(piece, from, end);
+            if (at < 0) break;
+            while (segmentStart[seg + 1] <= at) seg++;
+            segHit[seg] = true;
+            found++;
+            from = segmentStart[seg + 1];
+        }
+        return found;
+    }
+
+    private Hit hitAt(int i) {
+        return new Hit(pathOf(i), type[i] == TYPE_DIR, size[i], mtime[i]);
+    }
+
+    private String pathOf(int i) {
+        int depth = 0;
+        for (int p = i; p >= 0; p = parent[p]) depth++;
+        String[] parts = new String[depth];
+        for (int p = i; p >= 0; p = parent[p]) parts[--depth] = segments[segment[p]];
+        return String.join("/", parts);
+    }
+
+    private static String longestPiece(String q) {
+        String best = "";
+        for (String part : q.split("/")) {
+            if (part.length() > best.length()) best = part;
+        }
+        return best;
+    }
+
+    private static String parentPath(String path) {
+        int slash = path.lastIndexOf('/');
+        return slash < 0 ? "" : path.substring(0, slash);
+    }
+
+    private static String normalizeRoot(String root) {
+        String r = root == null || root.isBlank() ? "/" : root.trim();
+        while (r.length() > 1 && r.endsWith("/")) r = r.substring(0, r.length() - 1);
+        return r;
+    }
+
+    /** Parsed find record before packing. mtime is in milliseconds. */
+    private static final class Raw {
+        final String path;
+        final byte type;
+        final long size;
+        final long mtime;
+
+        Raw(String path, byte type, long size, long mtime) {
+            this.path = path;
+            this.type = type;
+            this.size = size;
+            this.mtime = mtime;
+        }
+    }
+
+    /**
+     * Sort by path (a parent is a prefix of its children, so it always sorts first), intern the names
+     * into a sorted segment table and fill the flat arrays. Entries whose parent is missing are dropped.
+     */
+    private static RemoteFileIndex pack(String root, java.util.Collection<Raw> raws, long buildMillis) {
+        Raw[] sorted = raws.toArray(new Raw[0]);
+        Arrays.sort(sorted, (a, b) -> a.path.compareTo(b.path));
+
+        Map<String, Integer> segmentIds = new HashMap<>();
+        for (Raw r : sorted) segmentIds.putIfAbsent(r.path.substring(r.path.lastIndexOf('/') + 1), 0);
+        String[] segments = segmentIds.keySet().toArray(new String[0]);
+        Arrays.sort(segments);
+        for (int s = 0; s < segments.length; s++) segmentIds.put(segments[s], s);
+
+        int n = sorted.length;
+        int[] parent = new int[n];
+        int[] segment = new int[n];
+        byte[] type = new byte[n];
+        long[] size = new long[n];
+        long[] mtime = new long[n];
+        Map<String, Integer> dirIndex = new HashMap<>();
+        int count = 0;
+        for (Raw r : sorted) {
+            int slash = r.path.lastIndexOf('/');
+            int p = -1;
+            if (slash >= 0) {
+                Integer pi = dirIndex.get(r.path.substring(0, slash));
+                if (pi == null) continue; // parent not listed (e.g. unreadable); skip orphan
+                p = pi;
+            }
+            parent[count] = p;
+            segment[count] = segmentIds.get(r.path.substring(slash + 1));
+            type[count] = r.type;
+            size[count] = r.size;
+            mtime[count] = r.mtime;
+            if (r.type == TYPE_DIR) dirIndex.put(r.path, count);
+            count++;
+        }
+        return new RemoteFileIndex(root, segments, Arrays.copyOf(parent, count), Arrays.copyOf(segment, count),
+                Arrays.copyOf(type, count), Arrays.copyOf(size, count), Arrays.copyOf(mtime, count), buildMillis);
+    }
+
+    /**
+     * Run a find command whose records are "&lt;type&gt; &lt;size&gt; &lt;mtime&gt; &lt;path&gt;\0" and pass each
+     * parsed record to sink. stripPrefix is removed from paths (for %p output relative to "."). Unreadable
+     * directories are skipped (stderr discarded, non-zero exit ignored).
+     */
+    private static void stream(Session session, String command, String stripPrefix,
+                               java.util.function.Consumer<Raw> sink, IntConsumer progress) throws Exception {
+        ChannelExec channel = (ChannelExec) session.openChannel("exec");
+        channel.setCommand(command + " 2>/dev/null");
+        try {
+            InputStream in = channel.getInputStream();
+            channel.connect(CONNECT_TIMEOUT_MS);
+            ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+            byte[] buf = new byte[64 * 1024];
+            int count = 0;
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                int from = 0;
+                for (int i = 0; i < n; i++) {
+                    if (buf[i] != 0) continue;
+                    record.write(buf, from, i - from);
+                    from = i + 1;
+                    Raw raw = parse(record.toString(StandardCharsets.UTF_8), stripPrefix);
+                    record.reset();
+                    if (raw == null) continue;
+                    sink.accept(raw);
+                    if (progress != null && ++count % PROGRESS_EVERY == 0) progress.accept(count);
+                }
+                record.write(buf, from, n - from);
+            }
+            if (progress != null) progress.accept(count);
+        } finally {
+            channel.disconnect();
+        }
+    }
+
+    private static Raw parse(String record, String stripPrefix) {
+        int s1 = record.indexOf(' ');
+        int s2 = s1 < 0 ? -1 : record.indexOf(' ', s1 + 1);
+        int s3 = s2 < 0 ? -1 : record.indexOf(' ', s2 + 1);
+        if (s1 != 1 || s3 < 0) return null;
+        String path = record.substring(s3 + 1);
+        if (!stripPrefix.isEmpty() && path.startsWith(stripPrefix)) path = path.substring(stripPrefix.length());
+        if (path.isEmpty()) return null;
+        byte t = (byte) record.charAt(0);
+        try {
+            long size = Long.parseLong(record.substring(s1 + 1, s2));
+            long mtime = (long) (Double.parseDouble(record.substring(s2 + 1, s3)) * 1000);
+            return new Raw(path, t == 'd' ? TYPE_DIR : t == 'l' ? TYPE_LINK : TYPE_FILE, size, mtime);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpATTRS;
+import javafx.application.Platform;
+import javafx.beans.Observable;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * The remote browser's folder table (Name, Size, Items, Modified), filled by a streaming listing: entries come
+ * from ChannelSftp.ls with an LsEntrySelector and are handed to the FX thread in batches as they arrive, so a
+ * directory with hundreds of thousands of entries shows its first folders at once and never holds the whole
+ * listing in memory. The table is virtualized and sorted through a SortedList, which places each new batch
+ * (and each size that arrives later) in order instead of re-sorting everything. Typing filters by name.
+ * A newer listing, Stop or disconnect cancels the running one between SFTP reads.
+ * All ChannelSftp calls for the window go through one worker thread (the channel is not safe to share).
+ */
+final class RemoteFolderListing {
+
+    /** Entries handed to the FX thread at once, or fewer if BATCH_NANOS have passed. */
+    private static final int BATCH_SIZE = 500;
+    private static final long BATCH_NANOS = 100_000_000L;
+    /** Sizes one directory at a time; a newer listing cancels the running job. */
+    private static final ExecutorService SIZER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "remote-dir-sizer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** One folder row; size and items stay -1 until RemoteDirSizer reports them. */
+    static final class Entry {
+        final String name;
+        final long mtime;
+        final SimpleLongProperty size = new SimpleLongProperty(-1);
+        final SimpleLongProperty items = new SimpleLongProperty(-1);
+
+        Entry(String name, long mtime) {
+            this.name = name;
+            this.mtime = mtime;
+        }
+
+        @Override
+        public String toString() {
+            return "[DIR]  " + name;
+        }
+    }
+
+    /** A channel operation run on the SFTP worker. */
+    interface ChannelTask {
+        void run(ChannelSftp channel) throws Exception;
+    }
+
+    private final ExecutorService sftp = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "remote-folder-sftp");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicInteger generation = new AtomicInteger();
+    /** Size computation of the latest listing; cancelled with it. */
+    private volatile RemoteDirSizer.Job sizing;
+    /** Generation of the listing the table shows (FX thread only); Stop bumps generation but keeps the rows. */
+    private int shownGeneration;
+    // Size/items changes fire update events, so the sorted view keeps its order as results stream in
+    private final ObservableList<Entry> entries = FXCollections.observableArrayList(e -> new Observable[] { e.size, e.items });
+    private final FilteredList<Entry> filtered = new FilteredList<>(entries);
+    private final TableView<Entry> table = new TableView<>();
+    private final TextField filterField = new TextField();
+    private final Button stopBtn = new Button("Stop");
+    private final Label progressLabel = new Label("");
+    private final Label pathLabel;
+    private final Button upBtn;
+
+    RemoteFolderListing(Label pathLabel, Button upBtn) {
+        this.pathLabel = pathLabel;
+        this.upBtn = upBtn;
+        buildTable();
+        filterField.setPromptText("Filter folders");
+        filterField.textProperty().addListener((o, a, b) -> {
+            String q = b == null ? "" : b.trim().toLowerCase(Locale.ROOT);
+            filtered.setPredicate(q.isEmpty() ? null : e -> e.name.toLowerCase(Locale.ROOT).contains(q));
+        });
+        filterField.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.ESCAPE) filterField.clear();
+            if (e.getCode() == KeyCode.DOWN) table.requestFocus();
+        });
+        // Type-ahead: typing in the table goes to the filter
+        table.setOnKeyTyped(e -> {
+            String ch = e.getCharacter();
+            if (ch.isEmpty() || Character.isISOControl(ch.charAt(0)) || e.isShortcutDown()) return;
+            filterField.requestFocus();
+            filterField.appendText(ch);
+            e.consume();
+        });
+        stopBtn.setDisable(true);
+        stopBtn.setOnAction(e -> cancel());
+    }
+
+    TableView<Entry> table() {
+        return table;
+    }
+
+    /** Filter field, Stop button and listing progress. */
+    HBox toolbar() {
+        HBox.setHgrow(filterField, Priority.ALWAYS);
+        HBox bar = new HBox(8, filterField, stopBtn, progressLabel);
+        bar.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+        return bar;
+    }
+
+    /** Cancel the running listing and size computation (if any); what has arrived stays in the table. */
+    void cancel() {
+        generation.incrementAndGet();
+        cancelSizing();
+    }
+
+    /** Close the running RemoteDirSizer exec, so the sizer thread is free for the next folder at once. */
+    private void cancelSizing() {
+        RemoteDirSizer.Job job = sizing;
+        if (job != null) job.cancel();
+    }
+
+    void shutdown() {
+        cancel();
+        sftp.shutdownNow();
+    }
+
+    /**
+     * Run a channel operation on the SFTP worker, after any listing in progress (cancel first to cut it short).
+     * onDone gets null or the failure, on the FX thread.
+     */
+    void submit(ChannelSftp channel, ChannelTask task, Consumer<Exception> onDone) {
+        sftp.execute(() -> {
+            Exception failure = null;
+            try {
+                task.run(channel);
+            } catch (Exception e) {
+                failure = e;
+            }
+            Exception result = failure;
+            Platform.runLater(() -> onDone.accept(result));
+        });
+    }
+
+    /** List the folders of path (or the channel's current directory if null) into the table. Call on the FX thread. */
+    void load(Session session, ChannelSftp channel, String path) {
+        int gen = generation.incrementAndGet();
+        cancelSizing();
+        shownGeneration = gen;
+        entries.clear();
+        filterField.clear();
+        stopBtn.setDisable(false);
+        progressLabel.setText("Listing...");
+        sftp.execute(() -> list(session, channel, path, gen));
+    }
+
+    private void list(Session session, ChannelSftp channel, String requested, int gen) {
+        if (gen != generation.get()) return;
+        String path = requested;
+        try {
+            if (path == null || path.isEmpty()) {
+                path = channel.pwd();
+            } else {
+                channel.cd(path);
+            }
+        } catch (Exception e) {
+            String shown = path;
+            Platform.runLater(() -> {
+                if (gen != shownGeneration) return;
+                stopBtn.setDisable(true);
+                progressLabel.setText("");
+                pathLabel.setText(shown + " — error: " + e.getMessage());
+            });
+            return;
+        }
+        String dir = path;
+        Platform.runLater(() -> {
+            if (gen != shownGeneration) return;
+            pathLabel.setText(dir);
+            upBtn.setDisable("/".equals(dir));
+        });
+
+        Map<String, Long> toSize = new LinkedHashMap<>();
+        Map<String, Entry> byName = new HashMap<>();
+        List<Entry> batch = new ArrayList<>();
+        int[] scanned = { 0 };
+        int[] folders = { 0 };
+        long[] lastFlush = { System.nanoTime() };
+        FlightEvents.SftpOperation event = new FlightEvents.SftpOperation("ls", dir);
+        long start = System.nanoTime();
+        Exception failure = null;
+        try {
+            channel.ls(".", lsEntry -> {
+                if (gen != generation.get()) return ChannelSftp.LsEntrySelector.BREAK;
+                scanned[0]++;
+                String name = lsEntry.getFilename();
+                SftpATTRS attrs = lsEntry.getAttrs();
+                if (!".".equals(name) && !"..".equals(name) && attrs.isDir()) { // list only folders
+                    folders[0]++;
+                    Entry e = new Entry(name, attrs.getMTime());
+                    RemoteDirSizer.Usage cached = session == null ? null : RemoteDirSizer.cached(session, dir, name, e.mtime);
+                    if (cached != null) {
+                        e.size.set(cached.bytes);
+                        e.items.set(cached.items);
+                    } else {
+                        toSize.put(name, e.mtime);
+                        byName.put(name, e);
+                    }
+                    batch.add(e);
+                }
+                long now = System.nanoTime();
+                if (batch.size() >= BATCH_SIZE || now - lastFlush[0] >= BATCH_NANOS) {
+                    flush(gen, batch, String.format("Listing... %,d folders (%,d entries)", folders[0], scanned[0]));
+                    lastFlush[0] = now;
+                }
+                return ChannelSftp.LsEntrySelector.CONTINUE;
+            });
+        } catch (Exception e) {
+            failure = e;
+        }
+        Metrics.REMOTE_LS.recordNanos(System.nanoTime() - start);
+        event.bytes = scanned[0];
+        event.commit();
+
+        boolean cancelled = gen != generation.get();
+        String summary = failure != null ? "Listing failed after " + String.format("%,d", scanned[0]) + " entries: " + failure.getMessage()
+                : String.format("%,d folders%s", folders[0], cancelled ? " (stopped)" : "");
+        flush(gen, batch, null);
+        Platform.runLater(() -> {
+            if (gen != shownGeneration) return;
+            stopBtn.setDisable(true);
+            progressLabel.setText(summary);
+        });
+        if (cancelled || session == null || toSize.isEmpty()) return;
+        RemoteDirSizer.Job job = new RemoteDirSizer.Job();
+        sizing = job;
+        if (gen != generation.get()) job.cancel(); // A newer listing started while this one finished
+        SIZER.execute(() -> {
+            if (job.isCancelled()) return;
+            try {
+                RemoteDirSizer.compute(session, dir, toSize, u -> Platform.runLater(() -> {
+                    Entry e = byName.get(u.name);
+                    e.size.set(u.bytes);
+                    e.items.set(u.items);
+                }), job);
+            } catch (Exception ex) {
+                // Sizes are extras: leave the columns at "…"
+            }
+        });
+    }
+
+    /** Hand the batch to the FX thread (dropped if another folder has been loaded meanwhile). */
+    private void flush(int gen, List<Entry> batch, String progress) {
+        List<Entry> chunk = new ArrayList<>(batch);
+        batch.clear();
+        Platform.runLater(() -> {
+            if (gen != shownGeneration) return;
+            entries.addAll(chunk);
+            if (progress != null && gen == generation.get()) progressLabel.setText(progress);
+        });
+    }
+
+    private void buildTable() {
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        TableColumn<Entry, String> nameCol = new TableColumn<>("Name");
+        nameCol.setCellValueFactory(c -> new ReadOnlyStringWrapper(c.getValue().toString()));
+        nameCol.setComparator(String.CASE_INSENSITIVE_ORDER);
+        nameCol.setPrefWidth(300);
+        TableColumn<Entry, Number> sizeCol = numberColumn("Size", e -> e.size, RemoteFolderListing::formatBytes);
+        TableColumn<Entry, Number> itemsCol = numberColumn("Items", e -> e.items, n -> String.format("%,d", n));
+        TableColumn<Entry, Number> modifiedCol = numberColumn("Modified", e -> new SimpleLongProperty(e.mtime),
+                t -> new SimpleDateFormat("yyyy-MM-dd HH:mm").format(new Date(t * 1000)));
+        modifiedCol.setPrefWidth(130);
+        table.getColumns().add(nameCol);
+        table.getColumns().add(sizeCol);
+        table.getColumns().add(itemsCol);
+        table.getColumns().add(modifiedCol);
+        // Sorted by name until the user clicks another header, so streamed batches go in name order
+        table.getSortOrder().add(nameCol);
+        SortedList<Entry> sorted = new SortedList<>(filtered);
+        sorted.comparatorProperty().bind(table.comparatorProperty());
+        table.setItems(sorted);
+    }
+
+    /** Column over a long property; values below 0 (not known yet) show as "…" and sort last. */
+    private static TableColumn<Entry, Number> numberColumn(String title, Function<Entry, SimpleLongProperty> property,
+                                                           LongFunction<String> format) {
+        TableColumn<Entry, Number> col = new TableColumn<>(title);
+        col.setPrefWidth(90);
+        col.setCellValueFactory(c -> property.apply(c.getValue()));
+        col.setComparator((a, b) -> {
+            long x = a.longValue();
+            long y = b.longValue();
+            if ((x < 0) != (y < 0)) return x < 0 ? 1 : -1;
+            return Long.compare(x, y);
+        });
+        col.setCellFactory(c -> new TableCell<>() {
+            @Override
+            protected void updateItem(Number item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                } else {
+                    setText(item.longValue() < 0 ? "…" : format.apply(item.longValue()));
+                }
+                setStyle("-fx-alignment: CENTER-RIGHT;");
+            }
+        });
+        return col;
+    }
+
+    static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        String[] units = { "KiB", "MiB", "GiB", "TiB", "PiB" };
+        double v = bytes;
+        int u = -1;
+        while (v >= 1024 && u < units.length - 1) {
+            v /= 1024;
+            u++;
+        }
+        return String.format(v < 10 ? "%.1f %s" : "%.0f %s", v, units[u]);
+    }
+}
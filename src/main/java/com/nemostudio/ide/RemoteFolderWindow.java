@@ -1,9 +1,7 @@
 package com.nemostudio.ide;
 
 import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.Session;
-import com.jcraft.jsch.SftpATTRS;
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -21,11 +19,14 @@ import java.util.Optional;
 /**
  * Window to browse folders on the remote host (from Connect). Uses SFTP over SSH.
  * User enters username/password (or uses default SSH key), then navigates the remote file system.
+ * Index builds a RemoteFileIndex of the current folder so files anywhere below it can be found by name.
+ * The folder table is a RemoteFolderListing: streamed in batches, filterable, with sizes from RemoteDirSizer
+ * filled in afterwards. Channel operations (mkdir, rename, delete) run on its SFTP worker, off the FX thread.
  */
 public class RemoteFolderWindow {
 
-    private static final int SSH_PORT = 22;
-    private static final int CONNECT_TIMEOUT_MS = 10000;
+    /** Search results shown at once; the total count is still reported. */
+    private static final int SEARCH_LIMIT = 2000;
 
     public static void show(Stage owner) {
         Stage stage = new Stage();
@@ -70,10 +71,25 @@ public class RemoteFolderWindow {
         deleteBtn.setDisable(true);
         Label selectionLabel = new Label("");
         selectionLabel.setWrapText(true);
-        ListView<RemoteEntry> listView = new ListView<>();
+        RemoteFolderListing listing = new RemoteFolderListing(pathLabel, upBtn);
+        TableView<RemoteFolderListing.Entry> listView = listing.table();
         listView.setPrefSize(520, 280);
         listView.setPlaceholder(new Label("Not connected."));
 
+        TextField searchField = new TextField();
+        searchField.setPromptText("Search files under the indexed folder");
+        searchField.setDisable(true);
+        HBox.setHgrow(searchField, Priority.ALWAYS);
+        Button indexBtn = new Button("Index");
+        indexBtn.setDisable(true);
+        Label indexLabel = new Label("");
+        indexLabel.setWrapText(true);
+        ListView<RemoteFileIndex.Hit> searchResults = new ListView<>();
+        searchResults.setPrefSize(520, 280);
+        searchResults.setPlaceholder(new Label("No matches."));
+        searchResults.setVisible(false);
+        searchResults.setManaged(false);
+
         GridPane connectPane = new GridPane();
         connectPane.setHgap(8);
         connectPane.setVgap(8);
@@ -93,7 +109,12 @@ public class RemoteFolderWindow {
         pathBar.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
         HBox folderToolbar = new HBox(8, newFolderBtn, renameBtn, deleteBtn);
         folderToolbar.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
-        listPane.getChildren().addAll(pathBar, folderToolbar, selectionLabel, listView);
+        HBox searchBar = new HBox(8, searchField, indexBtn);
+        searchBar.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+        listPane.getChildren().addAll(pathBar, folderToolbar, selectionLabel, searchBar, indexLabel,
+                listing.toolbar(), listView, searchResults);
+        VBox.setVgrow(listView, Priority.ALWAYS);
+        VBox.setVgrow(searchResults, Priority.ALWAYS);
         listPane.setVisible(false);
 
         BorderPane root = new BorderPane();
@@ -102,6 +123,7 @@ public class RemoteFolderWindow {
 
         Session[] sessionHolder = { null };
         ChannelSftp[] channelHolder = { null };
+        RemoteFileIndex[] indexHolder = { null };
 
         Runnable disconnect = () -> {
             if (channelHolder[0] != null) {
@@ -114,6 +136,7 @@ public class RemoteFolderWindow {
                 sessionHolder[0].disconnect();
                 sessionHolder[0] = null;
             }
+            listing.cancel();
             listPane.setVisible(false);
             listView.setPlaceholder(new Label("Not connected."));
             connectPane.setDisable(false);
@@ -122,11 +145,17 @@ public class RemoteFolderWindow {
             newFolderBtn.setDisable(true);
             renameBtn.setDisable(true);
             deleteBtn.setDisable(true);
+            indexBtn.setDisable(true);
+            searchField.setDisable(true);
+            indexHolder[0] = null;
+            // Closing the browser does not mean the link is down; LinkHealthMonitor keeps reporting that
             statusLabel.setText("Disconnected.");
-            ConnectionState.setConnected(false);
         };
 
-        stage.setOnCloseRequest(e -> disconnect.run());
+        stage.setOnCloseRequest(e -> {
+            disconnect.run();
+            listing.shutdown();
+        });
 
         Runnable doConnect = () -> {
             String host = hostField.getText().trim();
@@ -140,15 +169,8 @@ public class RemoteFolderWindow {
             connectPane.setDisable(true);
             new Thread(() -> {
                 try {
-                    JSch jsch = new JSch();
-                    Session session = jsch.getSession(user, host, SSH_PORT);
-                    if (pass != null && !pass.isEmpty()) {
-                        session.setPassword(pass);
-                    }
-                    session.setConfig("StrictHostKeyChecking", "no");
-                    session.connect(CONNECT_TIMEOUT_MS);
-                    ChannelSftp channel = (ChannelSftp) session.openChannel("sftp");
-                    channel.connect(CONNECT_TIMEOUT_MS);
+                    Session session = SessionPool.openSession(host, user, pass);
+                    ChannelSftp channel = SessionPool.openSftp(session);
                     sessionHolder[0] = session;
                     channelHolder[0] = channel;
                     final String hostToSave = host;
@@ -161,11 +183,12 @@ public class RemoteFolderWindow {
                         listView.setPlaceholder(new Label("No folders in this directory."));
                         selectBtn.setDisable(false);
                         newFolderBtn.setDisable(false);
+                        indexBtn.setDisable(false);
                         String savedPath = ConnectionStore.loadRemoteFolder();
                         if (savedPath != null && !savedPath.trim().isEmpty()) {
-                            loadList(channel, savedPath.trim(), listView, pathLabel, upBtn);
+                            listing.load(session, channel, savedPath.trim());
                         } else {
-                            loadList(channel, null, listView, pathLabel, upBtn);
+                            listing.load(session, channel, null);
                         }
                         try {
                             ConnectionStore.saveHostAndUser(hostToSave, userToSave);
@@ -209,7 +232,7 @@ public class RemoteFolderWindow {
             int last = parent.lastIndexOf('/');
             parent = last <= 0 ? "/" : parent.substring(0, last);
             if (parent.isEmpty()) parent = "/";
-            loadList(ch, parent, listView, pathLabel, upBtn);
+            listing.load(sessionHolder[0], ch, parent);
         });
 
         listView.getSelectionModel().selectedItemProperty().addListener((o, old, item) -> {
@@ -220,19 +243,85 @@ public class RemoteFolderWindow {
 
         listView.setOnMouseClicked(me -> {
             if (me.getButton() != MouseButton.PRIMARY || me.getClickCount() != 2) return;
-            RemoteEntry item = listView.getSelectionModel().getSelectedItem();
-            if (item == null || !item.isDir) return;
+            RemoteFolderListing.Entry item = listView.getSelectionModel().getSelectedItem();
+            if (item == null) return;
             ChannelSftp ch = channelHolder[0];
             if (ch == null) return;
             String base = pathLabel.getText();
             if (!base.endsWith("/")) base += "/";
             String next = base + item.name;
-            loadList(ch, next, listView, pathLabel, upBtn);
+            listing.load(sessionHolder[0], ch, next);
+        });
+
+        Runnable runSearch = () -> {
+            RemoteFileIndex index = indexHolder[0];
+            String query = searchField.getText();
+            boolean searching = index != null && query != null && !query.trim().isEmpty();
+            listView.setVisible(!searching);
+            listView.setManaged(!searching);
+            searchResults.setVisible(searching);
+            searchResults.setManaged(searching);
+            if (!searching) return;
+            RemoteFileIndex.SearchResult result = index.search(query, SEARCH_LIMIT);
+            searchResults.getItems().setAll(result.getHits());
+            indexLabel.setText(String.format("%,d matches in %.1f ms%s  ·  %,d entries under %s",
+                    result.getTotal(), result.getNanos() / 1e6,
+                    result.getTotal() > SEARCH_LIMIT ? " (showing first " + SEARCH_LIMIT + ")" : "",
+                    index.size(), index.getRoot()));
+        };
+
+        searchField.textProperty().addListener((o, a, b) -> runSearch.run());
+
+        // Build an index of the current folder, or refresh (re-list changed directories only) if it is already indexed
+        indexBtn.setOnAction(ev -> {
+            Session session = sessionHolder[0];
+            if (session == null) return;
+            String current = pathLabel.getText();
+            RemoteFileIndex previous = indexHolder[0];
+            boolean incremental = previous != null && previous.getRoot().equals(current);
+            indexBtn.setDisable(true);
+            indexLabel.setText(incremental ? "Refreshing index..." : "Indexing " + current + "...");
+            new Thread(() -> {
+                try {
+                    java.util.function.IntConsumer progress = n -> Platform.runLater(() ->
+                            indexLabel.setText(String.format("Indexing... %,d entries", n)));
+                    RemoteFileIndex index = incremental
+                            ? previous.refresh(session, progress)
+                            : RemoteFileIndex.build(session, current, progress);
+                    Platform.runLater(() -> {
+                        indexHolder[0] = index;
+                        indexBtn.setText("Refresh Index");
+                        indexBtn.setDisable(false);
+                        searchField.setDisable(false);
+                        indexLabel.setText(String.format("%,d entries indexed under %s in %.1f s",
+                                index.size(), index.getRoot(), index.getBuildMillis() / 1000.0));
+                        runSearch.run();
+                    });
+                } catch (Exception ex) {
+                    Platform.runLater(() -> {
+                        indexBtn.setDisable(false);
+                        indexLabel.setText("Indexing failed: " + ex.getMessage());
+                    });
+                }
+            }, "remote-file-index").start();
+        });
+
+        // Double-click a match: open its folder (or the folder itself) in the browser
+        searchResults.setOnMouseClicked(me -> {
+            if (me.getButton() != MouseButton.PRIMARY || me.getClickCount() != 2) return;
+            RemoteFileIndex.Hit hit = searchResults.getSelectionModel().getSelectedItem();
+            ChannelSftp ch = channelHolder[0];
+            RemoteFileIndex index = indexHolder[0];
+            if (hit == null || ch == null || index == null) return;
+            String full = index.absolutePath(hit);
+            String folder = hit.isDir() ? full : full.substring(0, Math.max(1, full.lastIndexOf('/')));
+            searchField.clear();
+            listing.load(sessionHolder[0], ch, folder);
         });
 
         Runnable refreshCurrentList = () -> {
             ChannelSftp ch = channelHolder[0];
-            if (ch != null) loadList(ch, pathLabel.getText(), listView, pathLabel, upBtn);
+            if (ch != null) listing.load(sessionHolder[0], ch, pathLabel.getText());
         };
 
         newFolderBtn.setOnAction(ev -> {
@@ -250,19 +339,23 @@ public class RemoteFolderWindow {
                             showError("Invalid name", "Folder name cannot contain '/' or be '.' or '..'.");
                             return;
                         }
-                        try {
-                            ch.mkdir(name);
-                            refreshCurrentList.run();
-                        } catch (Exception ex) {
-                            showError("Could not create folder", ex.getMessage());
-                        }
+                        String currentPath = pathLabel.getText();
+                        String full = (currentPath.endsWith("/") ? currentPath : currentPath + "/") + name;
+                        listing.submit(ch, c -> {
+                            FlightEvents.SftpOperation event = new FlightEvents.SftpOperation("mkdir", full);
+                            c.mkdir(full);
+                            event.commit();
+                        }, ex -> {
+                            if (ex != null) showError("Could not create folder", ex.getMessage());
+                            else refreshCurrentList.run();
+                        });
                     });
         });
 
         renameBtn.setOnAction(ev -> {
             ChannelSftp ch = channelHolder[0];
             if (ch == null) return;
-            RemoteEntry item = listView.getSelectionModel().getSelectedItem();
+            RemoteFolderListing.Entry item = listView.getSelectionModel().getSelectedItem();
             if (item == null) return;
             String currentPath = pathLabel.getText();
             String base = currentPath.endsWith("/") ? currentPath : currentPath + "/";
@@ -280,19 +373,21 @@ public class RemoteFolderWindow {
                         }
                         if (newName.equals(item.name)) return;
                         String newFull = base + newName;
-                        try {
-                            ch.rename(oldFull, newFull);
-                            refreshCurrentList.run();
-                        } catch (Exception ex) {
-                            showError("Could not rename folder", ex.getMessage());
-                        }
+                        listing.submit(ch, c -> {
+                            FlightEvents.SftpOperation event = new FlightEvents.SftpOperation("rename", oldFull);
+                            c.rename(oldFull, newFull);
+                            event.commit();
+                        }, ex -> {
+                            if (ex != null) showError("Could not rename folder", ex.getMessage());
+                            else refreshCurrentList.run();
+                        });
                     });
         });
 
         deleteBtn.setOnAction(ev -> {
             ChannelSftp ch = channelHolder[0];
             if (ch == null) return;
-            RemoteEntry item = listView.getSelectionModel().getSelectedItem();
+            RemoteFolderListing.Entry item = listView.getSelectionModel().getSelectedItem();
             if (item == null) return;
             String currentPath = pathLabel.getText();
             String base = currentPath.endsWith("/") ? currentPath : currentPath + "/";
@@ -303,16 +398,15 @@ public class RemoteFolderWindow {
             confirm.setContentText("This folder and all its contents will be permanently removed. This cannot be undone.");
             Optional<ButtonType> choice = confirm.showAndWait();
             if (choice.isPresent() && choice.get() == ButtonType.OK) {
-                try {
-                    deleteRecursive(ch, fullPath);
-                    refreshCurrentList.run();
-                } catch (Exception ex) {
-                    showError("Could not delete folder", ex.getMessage());
-                }
+                listing.cancel();
+                listing.submit(ch, c -> deleteRecursive(c, fullPath), ex -> {
+                    if (ex != null) showError("Could not delete folder", ex.getMessage());
+                    else refreshCurrentList.run();
+                });
             }
         });
 
-        Scene scene = new Scene(root, 560, 520);
+        Scene scene = new Scene(root, 720, 560);
         java.net.URL css = RemoteFolderWindow.class.getResource("/styles/ide.css");
         if (css != null) scene.getStylesheets().add(css.toExternalForm());
         stage.setScene(scene);
@@ -344,7 +438,9 @@ public class RemoteFolderWindow {
 
     /** Recursively delete a folder and all its contents over SFTP. */
     private static void deleteRecursive(ChannelSftp channel, String fullPath) throws Exception {
+        FlightEvents.SftpOperation lsEvent = new FlightEvents.SftpOperation("ls", fullPath);
         Vector<?> list = channel.ls(fullPath);
+        lsEvent.commit();
         for (Object o : list) {
             ChannelSftp.LsEntry entry = (ChannelSftp.LsEntry) o;
             String name = entry.getFilename();
@@ -353,52 +449,13 @@ public class RemoteFolderWindow {
             if (entry.getAttrs().isDir()) {
                 deleteRecursive(channel, childPath);
             } else {
+                FlightEvents.SftpOperation event = new FlightEvents.SftpOperation("rm", childPath);
                 channel.rm(childPath);
+                event.commit();
             }
         }
+        FlightEvents.SftpOperation event = new FlightEvents.SftpOperation("rmdir", fullPath);
         channel.rmdir(fullPath);
-    }
-
-    private static void loadList(ChannelSftp channel, String path, ListView<RemoteEntry> listView,
-                                 Label pathLabel, Button upBtn) {
-        try {
-            if (path == null || path.isEmpty()) {
-                path = channel.pwd();
-            } else {
-                channel.cd(path);
-            }
-            pathLabel.setText(path);
-            upBtn.setDisable("/".equals(path));
-
-            listView.getItems().clear();
-            Vector<?> list = channel.ls(".");
-            for (Object o : list) {
-                ChannelSftp.LsEntry entry = (ChannelSftp.LsEntry) o;
-                String name = entry.getFilename();
-                if (".".equals(name) || "..".equals(name)) continue;
-                SftpATTRS attrs = entry.getAttrs();
-                if (!attrs.isDir()) continue; // list only folders
-                listView.getItems().add(new RemoteEntry(name, true));
-            }
-            listView.getItems().sort((a, b) -> {
-                if (a.isDir != b.isDir) return a.isDir ? -1 : 1;
-                return String.CASE_INSENSITIVE_ORDER.compare(a.name, b.name);
-            });
-        } catch (Exception e) {
-            pathLabel.setText(path + " — error: " + e.getMessage());
-        }
-    }
-
-    private static class RemoteEntry {
-        final String name;
-        final boolean isDir;
-        RemoteEntry(String name, boolean isDir) {
-            this.name = name;
-            this.isDir = isDir;
-        }
-        @Override
-        public String toString() {
-            return (isDir ? "[DIR]  " : "       ") + name;
-        }
+        event.commit();
     }
 }
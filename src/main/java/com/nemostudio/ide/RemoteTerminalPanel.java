@@ -1,37 +1,67 @@
 package com.nemostudio.ide;
 
 import com.jcraft.jsch.ChannelShell;
-import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.Session;
 import javafx.application.Platform;
 import javafx.scene.control.TextArea;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.StackPane;
 
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * JavaFX panel that shows a terminal connected to the remote machine via SSH.
  * Output is displayed in a TextArea; commands can be sent with sendCommand().
+ * Ctrl/Cmd+F opens a find bar backed by an incremental index of the scrollback (TerminalSearchIndex).
  */
 public class RemoteTerminalPanel extends StackPane {
 
-    private static final int SSH_PORT = 22;
     private static final int CONNECT_TIMEOUT_MS = 10000;
 
     /** Strip ANSI escape sequences (e.g. [?2004h, [?2004l, other CSI) so the TextArea shows clean text. */
     private static final Pattern ANSI_CSI = Pattern.compile("\u001B\\[[^a-zA-Z]*[a-zA-Z]");
 
+    /**
+     * Exit line echoed after a runScript heredoc. The echoed command has quotes between the delimiter and
+     * "_DONE", so only the shell's output matches.
+     */
+    private static final Pattern SCRIPT_DONE = Pattern.compile("(SCRIPT_END_\\d+)_DONE (\\d+)");
+    /** Output kept between reads so an exit line split across two reads is still found. */
+    private static final int SCRIPT_SCAN_TAIL = 128;
+
+    private static final KeyCombination FIND = new KeyCodeCombination(KeyCode.F, KeyCombination.SHORTCUT_DOWN);
+
     private final TextArea textArea;
+    private final TerminalSearchIndex searchIndex = new TerminalSearchIndex();
+    private final TerminalFindBar findBar;
     private Session session;
     private ChannelShell channel;
     private InputStream channelInput;
     private OutputStream channelOutput;
     private Thread readerThread;
+    private String recordingName;
+    private volatile SessionRecorder recorder;
+    /** Guards starting and stopping recorder: the FX thread and the connect thread both do it. */
+    private final Object recorderLock = new Object();
+    private volatile boolean queueWhenOffline;
+    private volatile boolean backgroundTraffic;
     private final AtomicBoolean connected = new AtomicBoolean(false);
+    /** runScript completions by heredoc delimiter, waiting for the script's exit line. */
+    private final Map<String, IntConsumer> pendingScripts = new ConcurrentHashMap<>();
 
     public RemoteTerminalPanel() {
         this("Terminal will connect when you press a Get Ready button.");
@@ -46,10 +76,67 @@ public class RemoteTerminalPanel extends StackPane {
         textArea.setWrapText(true);
         textArea.setStyle("-fx-font-family: monospace; -fx-font-size: 13px;");
         textArea.setPromptText(promptText != null ? promptText : "");
-        getChildren().add(textArea);
+        findBar = new TerminalFindBar(textArea, searchIndex);
+        BorderPane layout = new BorderPane(textArea);
+        layout.setTop(findBar);
+        layout.setRight(findBar.getRuler());
+        getChildren().add(layout);
+        addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (FIND.match(e)) {
+                findBar.open();
+                e.consume();
+            } else if (e.getCode() == KeyCode.F3) {
+                findBar.step(e.isShiftDown() ? -1 : 1);
+                e.consume();
+            }
+        });
         setStyle("-fx-background-color: #1e1e1e;");
     }
 
+    /**
+     * Make this panel's sessions recordable under name (see SessionRecorder); they are recorded while
+     * ConnectionStore.loadRecordSessions() is on. Panels without a name are never recorded.
+     */
+    public void setRecordingName(String name) {
+        this.recordingName = name;
+    }
+
+    /**
+     * Queue commands sent while disconnected instead of dropping them. Only the panel whose terminal
+     * replays OfflineQueue commands (the main terminal) should set this.
+     */
+    public void setQueueWhenOffline(boolean queue) {
+        this.queueWhenOffline = queue;
+    }
+
+    /**
+     * Mark what this panel sends as periodic background traffic (e.g. the docker ps refresh), which does
+     * not count as interactive for TrafficScheduler.
+     */
+    public void setBackgroundTraffic(boolean background) {
+        this.backgroundTraffic = background;
+    }
+
+    /** Turn recording of this panel's session on or off (takes effect immediately if connected). */
+    public void setRecording(boolean on) {
+        synchronized (recorderLock) {
+            if (on && recordingName != null && connected.get() && recorder == null) {
+                recorder = SessionRecorder.start(recordingName);
+            } else if (!on) {
+                stopRecording();
+            }
+        }
+    }
+
+    private void stopRecording() {
+        SessionRecorder r;
+        synchronized (recorderLock) {
+            r = recorder;
+            recorder = null;
+        }
+        if (r != null) new Thread(r::close, "session-recorder-close").start();
+    }
+
     public void setPromptText(String promptText) {
         textArea.setPromptText(promptText != null ? promptText : "");
     }
@@ -83,18 +170,17 @@ public class RemoteTerminalPanel extends StackPane {
         appendOutput("Connecting to " + host + " as " + user + " ...\n");
         new Thread(() -> {
             try {
-                JSch jsch = new JSch();
-                Session s = jsch.getSession(user, host.trim(), SSH_PORT);
-                if (pass != null && !pass.isEmpty()) s.setPassword(pass);
-                s.setConfig("StrictHostKeyChecking", "no");
-                s.connect(CONNECT_TIMEOUT_MS);
+                Session s = SessionPool.openSession(host.trim(), user, pass);
+                FlightEvents.ChannelOpen event = new FlightEvents.ChannelOpen(s.getHost(), "shell");
                 ChannelShell ch = (ChannelShell) s.openChannel("shell");
                 ch.connect(CONNECT_TIMEOUT_MS);
+                event.commit();
                 session = s;
                 channel = ch;
                 channelInput = ch.getInputStream();
                 channelOutput = ch.getOutputStream();
                 connected.set(true);
+                setRecording(ConnectionStore.loadRecordSessions());
                 Platform.runLater(() -> {
                     appendOutput("Connected. You can run commands from Get Ready buttons.\n");
                     if (onConnected != null) onConnected.run();
@@ -106,26 +192,80 @@ public class RemoteTerminalPanel extends StackPane {
         }).start();
     }
 
+    /**
+     * Connect if needed and wait up to timeoutMs for the shell. Returns whether it is connected.
+     * Must not be called on the FX thread.
+     */
+    public boolean awaitConnected(long timeoutMs) throws InterruptedException {
+        if (connected.get()) return true;
+        CountDownLatch done = new CountDownLatch(1);
+        Platform.runLater(() -> connect(done::countDown));
+        return done.await(timeoutMs, TimeUnit.MILLISECONDS) && connected.get();
+    }
+
     private void startReader() {
+        ChannelShell readerChannel = channel;
         readerThread = new Thread(() -> {
             byte[] buf = new byte[1024];
+            String scanTail = "";
             try {
                 while (connected.get() && channelInput != null) {
                     int n = channelInput.read(buf);
                     if (n <= 0) break;
+                    Metrics.TERMINAL_BYTES_IN.add(n);
+                    SessionRecorder rec = recorder;
+                    if (rec != null) rec.record(buf, 0, n);
                     String line = new String(buf, 0, n, StandardCharsets.UTF_8);
-                    Platform.runLater(() -> appendOutput(line));
-                }
-            } catch (Exception ignored) {
-                if (connected.get()) {
-                    Platform.runLater(() -> appendOutput("\n[Connection closed]\n"));
+                    Metrics.runLater(() -> appendOutput(line));
+                    if (!pendingScripts.isEmpty()) scanTail = completeScripts(scanTail + line);
                 }
+            } catch (Exception ignored) {}
+            // Closed by the remote or the link dropped (not by disconnect()): mark this panel offline so
+            // sendCommand queues instead of writing into a dead channel
+            if (channel == readerChannel && connected.get()) {
+                disconnect();
+                Platform.runLater(() -> appendOutput("\n[Connection closed]\n"));
             }
+            stopRecording();
+            failPendingScripts();
         }, "terminal-reader");
         readerThread.setDaemon(true);
         readerThread.start();
     }
 
+    /**
+     * Run the completion of every script whose exit line is in text; returns the tail of text to scan
+     * again with the next read. Reader thread only.
+     */
+    private String completeScripts(String text) {
+        Matcher m = SCRIPT_DONE.matcher(text);
+        int end = 0;
+        while (m.find()) {
+            IntConsumer onExit = pendingScripts.remove(m.group(1));
+            if (onExit != null) onExit.accept(Integer.parseInt(m.group(2)));
+            end = m.end();
+        }
+        String rest = text.substring(end);
+        return rest.length() > SCRIPT_SCAN_TAIL ? rest.substring(rest.length() - SCRIPT_SCAN_TAIL) : rest;
+    }
+
+    /** The shell is gone: scripts still running will never report, so complete them with -1. */
+    private void failPendingScripts() {
+        for (String delimiter : pendingScripts.keySet()) {
+            IntConsumer onExit = pendingScripts.remove(delimiter);
+            if (onExit != null) onExit.accept(-1);
+        }
+    }
+
+    private void writeOut(byte[] data) throws java.io.IOException {
+        channelOutput.write(data);
+        channelOutput.flush();
+        Metrics.TERMINAL_BYTES_OUT.add(data.length);
+        if (!backgroundTraffic) TrafficScheduler.touch(TrafficScheduler.Priority.INTERACTIVE);
+        SessionRecorder rec = recorder;
+        if (rec != null) rec.recordInput(data);
+    }
+
     /**
      * Filter out ANSI escape sequences (bracketed paste [?2004h/l, other CSI) so the terminal output is readable.
      */
@@ -134,8 +274,44 @@ public class RemoteTerminalPanel extends StackPane {
         return ANSI_CSI.matcher(raw).replaceAll("");
     }
 
+    /** Raw shell output as the terminal shows it (ANSI sequences and control characters removed). */
+    static String toDisplayText(String raw) {
+        return removeControlChars(filterAnsi(raw));
+    }
+
     public void appendOutput(String text) {
-        textArea.appendText(filterAnsi(text));
+        String clean = toDisplayText(text);
+        if (clean.isEmpty()) return;
+        if (findBar.isPinned()) {
+            // Keep the current match selected and in view instead of following the output
+            double scrollTop = textArea.getScrollTop();
+            textArea.appendText(clean);
+            findBar.reselect();
+            textArea.setScrollTop(scrollTop);
+        } else {
+            textArea.appendText(clean);
+        }
+        searchIndex.append(clean);
+        findBar.onAppend();
+    }
+
+    /**
+     * Drop the control characters TextArea would drop (all below 0x20 except tab and newline, and DEL), so
+     * search offsets line up with the TextArea's.
+     */
+    private static String removeControlChars(String s) {
+        StringBuilder sb = null;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            boolean drop = c == 0x7F || (c < 0x20 && c != '\n' && c != '\t');
+            if (drop && sb == null) {
+                sb = new StringBuilder(s.length());
+                sb.append(s, 0, i);
+            } else if (!drop && sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb == null ? s : sb.toString();
     }
 
     /**
@@ -143,21 +319,29 @@ public class RemoteTerminalPanel extends StackPane {
      */
     public void clearOutput() {
         textArea.clear();
+        searchIndex.clear();
+        findBar.onClear();
     }
 
     /**
      * Send a command to the remote shell (adds newline). Safe to call from FX thread.
+     * While disconnected, a panel set to queueWhenOffline queues the command (OfflineQueue) to be sent
+     * once the link is back.
      */
     public void sendCommand(String command) {
         if (!isRemoteConnected() || channelOutput == null) {
-            appendOutput("[Not connected. Connect first.]\n");
+            if (queueWhenOffline) {
+                OfflineQueue.enqueueCommand(command);
+                appendOutput("[Not connected. Queued \"" + command + "\" to run on reconnect.]\n");
+            } else {
+                appendOutput("[Not connected. Connect first.]\n");
+            }
             return;
         }
         String line = command + "\n";
         new Thread(() -> {
             try {
-                channelOutput.write(line.getBytes(StandardCharsets.UTF_8));
-                channelOutput.flush();
+                writeOut(line.getBytes(StandardCharsets.UTF_8));
             } catch (Exception e) {
                 Platform.runLater(() -> appendOutput("Send failed: " + e.getMessage() + "\n"));
             }
@@ -174,8 +358,7 @@ public class RemoteTerminalPanel extends StackPane {
         }
         new Thread(() -> {
             try {
-                channelOutput.write(text.getBytes(StandardCharsets.UTF_8));
-                channelOutput.flush();
+                writeOut(text.getBytes(StandardCharsets.UTF_8));
             } catch (Exception e) {
                 Platform.runLater(() -> appendOutput("Send failed: " + e.getMessage() + "\n"));
             }
@@ -188,18 +371,37 @@ public class RemoteTerminalPanel extends StackPane {
      * Safe to call from FX thread.
      */
     public void runScript(String scriptContent) {
+        runScript(scriptContent, null);
+    }
+
+    /**
+     * Like runScript(String), then call onExit with the script's exit status once it has finished, or -1 if
+     * it could not be sent or the shell closed first. The heredoc is followed by an echo of the status, which
+     * the reader picks up. onExit runs on the terminal's reader or sender thread, not the FX thread.
+     */
+    public void runScript(String scriptContent, IntConsumer onExit) {
         if (!isRemoteConnected() || channelOutput == null) {
             appendOutput("[Not connected. Connect first.]\n");
+            if (onExit != null) onExit.accept(-1);
             return;
         }
-        String delimiter = "SCRIPT_END_" + System.currentTimeMillis();
-        String fullPayload = "bash -s << '" + delimiter + "'\n" + scriptContent + "\n" + delimiter + "\n";
+        String delimiter = "SCRIPT_END_" + System.nanoTime();
+        String fullPayload = "bash -s << '" + delimiter + "'\n" + scriptContent + "\n" + delimiter + "\n"
+                + "echo \"" + delimiter + "\"\"_DONE $?\"\n";
+        byte[] payload = fullPayload.getBytes(StandardCharsets.UTF_8);
+        FlightEvents.ScriptRun event = new FlightEvents.ScriptRun(delimiter, payload.length);
+        pendingScripts.put(delimiter, exitCode -> {
+            event.exitCode = exitCode;
+            event.commit();
+            if (onExit != null) onExit.accept(exitCode);
+        });
         new Thread(() -> {
             try {
-                channelOutput.write(fullPayload.getBytes(StandardCharsets.UTF_8));
-                channelOutput.flush();
+                writeOut(payload);
             } catch (Exception e) {
                 Platform.runLater(() -> appendOutput("Send failed: " + e.getMessage() + "\n"));
+                IntConsumer failed = pendingScripts.remove(delimiter);
+                if (failed != null) failed.accept(-1);
             }
         }).start();
     }
@@ -210,6 +412,7 @@ public class RemoteTerminalPanel extends StackPane {
 
     public void disconnect() {
         connected.set(false);
+        stopRecording();
         try {
             if (channel != null) channel.disconnect();
         } catch (Exception ignored) {}
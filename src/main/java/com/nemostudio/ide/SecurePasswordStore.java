@@ -36,6 +36,11 @@ public final class SecurePasswordStore {
         return Path.of(System.getProperty("user.home")).resolve(DIR_NAME).resolve(FILE_NAME);
     }
 
+    /** Credential file for a fleet host profile: {@code ~/.nemostudio/credentials-<id>.enc}. */
+    public static Path getCredentialPath(String profileId) {
+        return Path.of(System.getProperty("user.home")).resolve(DIR_NAME).resolve("credentials-" + profileId + ".enc");
+    }
+
     /**
      * Derive a secret key from machine-bound data so the credential is only decryptable on this machine.
      */
@@ -53,7 +58,19 @@ public final class SecurePasswordStore {
             deleteSavedPassword();
             return;
         }
-        Path path = getCredentialPath();
+        writeEncrypted(getCredentialPath(), password);
+    }
+
+    /** Saves the password for a fleet host profile. Empty password removes it. */
+    public static void savePassword(String profileId, char[] password) throws Exception {
+        if (password == null || password.length == 0) {
+            deleteSavedPassword(profileId);
+            return;
+        }
+        writeEncrypted(getCredentialPath(profileId), password);
+    }
+
+    private static void writeEncrypted(Path path, char[] password) throws Exception {
         Path dir = path.getParent();
         if (dir != null && !Files.isDirectory(dir)) {
             Files.createDirectories(dir);
@@ -80,7 +97,15 @@ public final class SecurePasswordStore {
      * Loads and decrypts the saved password. Returns null if no file or decryption fails.
      */
     public static char[] loadPassword() {
-        Path path = getCredentialPath();
+        return readEncrypted(getCredentialPath());
+    }
+
+    /** Loads the password for a fleet host profile, or null if none is saved. */
+    public static char[] loadPassword(String profileId) {
+        return readEncrypted(getCredentialPath(profileId));
+    }
+
+    private static char[] readEncrypted(Path path) {
         if (!Files.isRegularFile(path)) {
             return null;
         }
@@ -114,6 +139,12 @@ public final class SecurePasswordStore {
         } catch (IOException ignored) {}
     }
 
+    public static void deleteSavedPassword(String profileId) {
+        try {
+            Files.deleteIfExists(getCredentialPath(profileId));
+        } catch (IOException ignored) {}
+    }
+
     private static SecretKey deriveKey(byte[] salt) throws Exception {
         byte[] machine = getMachineSalt();
         char[] machineChars = new String(machine, java.nio.charset.StandardCharsets.UTF_8).toCharArray();
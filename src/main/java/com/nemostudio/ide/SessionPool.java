@@ -0,0 +1,216 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SocketFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Shared, long-lived SSH sessions keyed by user@host. Channels (exec, sftp, probes) are opened on the
+ * pooled session instead of paying a TCP + SSH handshake per operation. Callers must not disconnect a
+ * pooled session; call invalidate() when it turns out to be broken.
+ */
+public final class SessionPool {
+
+    private static final int SSH_PORT = 22;
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    /** How long addresses resolved by ConnectionProber are reused before falling back to DNS. */
+    private static final long ADDRESS_TTL_MS = 10 * 60 * 1000;
+
+    private static final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private static final Map<String, CachedAddresses> addresses = new ConcurrentHashMap<>();
+    /** Per user@host connect locks so fleet connects to different hosts run in parallel. */
+    private static final Map<String, Object> connectLocks = new ConcurrentHashMap<>();
+
+    private SessionPool() {}
+
+    /**
+     * Pooled session for the saved host and user (ConnectionStore / SecurePasswordStore), connecting if needed.
+     */
+    public static Session acquire() throws Exception {
+        String host = ConnectionStore.loadHost();
+        String user = ConnectionStore.loadUsername();
+        if (host == null || host.trim().isEmpty() || user == null || user.trim().isEmpty()) {
+            throw new Exception("No host or username saved. Use Project → Connect first.");
+        }
+        return acquire(host.trim(), user.trim(), null);
+    }
+
+    /**
+     * Pooled session for host and user. If password is null the saved password (or SSH key) is used.
+     */
+    public static Session acquire(String host, String user, String password) throws Exception {
+        String key = key(host, user);
+        Session existing = sessions.get(key);
+        if (existing != null && existing.isConnected()) {
+            return existing;
+        }
+        synchronized (connectLocks.computeIfAbsent(key, k -> new Object())) {
+            existing = sessions.get(key);
+            if (existing != null && existing.isConnected()) {
+                return existing;
+            }
+            String pass = password;
+            if (pass == null) {
+                char[] passChars = SecurePasswordStore.loadPassword();
+                pass = (passChars != null && passChars.length > 0) ? new String(passChars) : null;
+                if (passChars != null) java.util.Arrays.fill(passChars, '\0');
+            }
+            Session session = openSession(host, user, pass);
+            if (existing != null) ContainerShell.closeFor(existing);
+            sessions.put(key, session);
+            return session;
+        }
+    }
+
+    /** Open and connect an SFTP channel on session with the host's tuned request depth. */
+    public static ChannelSftp openSftp(Session session) throws Exception {
+        FlightEvents.ChannelOpen event = new FlightEvents.ChannelOpen(session.getHost(), "sftp");
+        ChannelSftp channel = (ChannelSftp) session.openChannel("sftp");
+        channel.connect(CONNECT_TIMEOUT_MS);
+        event.commit();
+        LinkTuning.forHost(session.getHost()).applyTo(channel);
+        return channel;
+    }
+
+    /** Pooled session for the saved host if one is already connected; never connects. */
+    public static Session peek() {
+        String host = ConnectionStore.loadHost();
+        String user = ConnectionStore.loadUsername();
+        if (host == null || host.trim().isEmpty() || user == null || user.trim().isEmpty()) return null;
+        Session s = sessions.get(key(host.trim(), user.trim()));
+        return s != null && s.isConnected() ? s : null;
+    }
+
+    /** Drop a broken session from the pool and disconnect it. */
+    public static void invalidate(Session session) {
+        if (session == null) return;
+        sessions.values().remove(session);
+        ContainerShell.closeFor(session);
+        try {
+            session.disconnect();
+        } catch (Exception ignored) {}
+    }
+
+    public static void closeAll() {
+        for (Session s : sessions.values()) {
+            try {
+                s.disconnect();
+            } catch (Exception ignored) {}
+        }
+        sessions.clear();
+        ContainerShell.closeAll();
+    }
+
+    /**
+     * Remember resolved addresses for host (preferred address first). New sessions to that host connect
+     * to these directly instead of resolving again, until the entry expires.
+     */
+    public static void rememberAddresses(String host, List<InetAddress> resolved) {
+        if (host == null || resolved == null || resolved.isEmpty()) return;
+        addresses.put(host.trim(), new CachedAddresses(List.copyOf(resolved), System.currentTimeMillis()));
+    }
+
+    /**
+     * Create and connect a new (unpooled) session with the host's LinkTuning (cipher, compression) applied.
+     * Caller owns it. The first connect to an untuned host starts LinkTuner in the background.
+     */
+    static Session openSession(String host, String user, String pass) throws Exception {
+        Session session = openSession(host, user, pass, LinkTuning.forHost(host.trim())::applyTo);
+        LinkTuner.tuneInBackgroundIfNeeded(host.trim(), user, pass);
+        return session;
+    }
+
+    /** Create and connect a new session, letting configure adjust its config before connecting. */
+    static Session openSession(String host, String user, String pass, Consumer<Session> configure) throws Exception {
+        JSch jsch = new JSch();
+        Session session = jsch.getSession(user, host.trim(), SSH_PORT);
+        if (pass != null && !pass.isEmpty()) {
+            session.setPassword(pass);
+        }
+        session.setConfig("StrictHostKeyChecking", "no");
+        CachedAddresses cached = addresses.get(host.trim());
+        if (cached != null && System.currentTimeMillis() - cached.resolvedAt < ADDRESS_TTL_MS) {
+            session.setSocketFactory(new CachedAddressSocketFactory(cached.addresses));
+        }
+        session.setDaemonThread(true);
+        configure.accept(session);
+        FlightEvents.SshConnect event = new FlightEvents.SshConnect(host.trim(), user);
+        long start = System.nanoTime();
+        try {
+            session.connect(CONNECT_TIMEOUT_MS);
+        } catch (Exception e) {
+            Metrics.SSH_HANDSHAKE_FAILURES.inc();
+            event.error = e.getMessage();
+            event.commit();
+            throw e;
+        }
+        Metrics.SSH_HANDSHAKE.recordNanos(System.nanoTime() - start);
+        event.success = true;
+        event.commit();
+        return session;
+    }
+
+    private static String key(String host, String user) {
+        return user + "@" + host + ":" + SSH_PORT;
+    }
+
+    private static final class CachedAddresses {
+        final List<InetAddress> addresses;
+        final long resolvedAt;
+
+        CachedAddresses(List<InetAddress> addresses, long resolvedAt) {
+            this.addresses = addresses;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+
+    /** Connects to the cached addresses in order; falls back to normal resolution if all of them fail. */
+    private static final class CachedAddressSocketFactory implements SocketFactory {
+        private final List<InetAddress> candidates;
+
+        CachedAddressSocketFactory(List<InetAddress> candidates) {
+            this.candidates = candidates;
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            for (InetAddress addr : candidates) {
+                Socket socket = new Socket();
+                try {
+                    socket.connect(new InetSocketAddress(addr, port), CONNECT_TIMEOUT_MS);
+                    socket.setTcpNoDelay(true);
+                    return socket;
+                } catch (IOException e) {
+                    socket.close();
+                }
+            }
+            addresses.remove(host);
+            Socket socket = new Socket();
+            socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+            socket.setTcpNoDelay(true);
+            return socket;
+        }
+
+        @Override
+        public InputStream getInputStream(Socket socket) throws IOException {
+            return socket.getInputStream();
+        }
+
+        @Override
+        public OutputStream getOutputStream(Socket socket) throws IOException {
+            return socket.getOutputStream();
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.nemostudio.ide;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records a terminal session as asciicast v2 ({@code [seconds, "o"|"i", "text"]} lines after a JSON header)
+ * into gzip files under {@code ~/.nemostudio/sessions}, rotated at ROTATE_BYTES compressed. Each file has
+ * its own header, so every part replays on its own.
+ * <p>
+ * record() is called from the terminal reader thread. It copies the bytes into a preallocated ring and
+ * returns: no allocation, no lock, no I/O. If the ring is full the chunk is dropped and counted rather than
+ * stalling the reader. A daemon writer thread (the only consumer) drains the ring, decodes UTF-8 across
+ * chunk boundaries, merges bursts into one event, compresses and flushes about once per second. recordInput() (text sent by the user or a
+ * script) shares the ring: a producer claims it by swapping tail for a negative marker while it copies.
+ */
+public final class SessionRecorder {
+
+    private static final String DIR_NAME = ".nemostudio";
+    private static final String SESSIONS_DIR = "sessions";
+    static final String EXTENSION = ".cast.gz";
+    private static final int RING_BYTES = 4 * 1024 * 1024;
+    /** Per-record header: type (1), length (4), nanoTime (8). */
+    private static final int HEADER = 13;
+    private static final long ROTATE_BYTES = 8L * 1024 * 1024;
+    /** Oldest files are deleted once the folder holds more than this. */
+    private static final long MAX_TOTAL_BYTES = 512L * 1024 * 1024;
+    private static final long FLUSH_INTERVAL_NS = 1_000_000_000L;
+    private static final long IDLE_PARK_NS = 20_000_000L;
+    /** Records of one type closer together than this are written as one event. */
+    private static final long COALESCE_NS = 10_000_000L;
+    private static final int COALESCE_MAX_CHARS = 256 * 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final Metrics.Counter RECORDED = Metrics.counter("session_record_bytes_total", "Terminal bytes recorded");
+    private static final Metrics.Counter DROPPED = Metrics.counter("session_record_dropped_bytes_total",
+            "Terminal bytes not recorded because the ring was full");
+    private static final Set<SessionRecorder> open = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (SessionRecorder r : open) r.close();
+        }, "session-recorder-shutdown"));
+    }
+
+    private final String name;
+    private final byte[] ring = new byte[RING_BYTES];
+    /** Producer position (bytes ever written); published after the record is complete. */
+    private final AtomicLong tail = new AtomicLong();
+    /** Consumer position (bytes ever read). */
+    private final AtomicLong head = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private SessionRecorder(String name) {
+        this.name = name;
+        writer = new Thread(this::drain, "session-recorder-" + name);
+        writer.setDaemon(true);
+    }
+
+    /** Start recording a session; name goes into the file names (e.g. "terminal"). */
+    public static SessionRecorder start(String name) {
+        SessionRecorder r = new SessionRecorder(name);
+        open.add(r);
+        r.writer.start();
+        return r;
+    }
+
+    /** Terminal output (reader thread only). */
+    public void record(byte[] buf, int off, int len) {
+        put((byte) 'o', buf, off, len);
+    }
+
+    /** Text sent to the remote. */
+    public void recordInput(byte[] data) {
+        put((byte) 'i', data, 0, data.length);
+    }
+
+    private void put(byte type, byte[] buf, int off, int len) {
+        if (closed || len <= 0) return;
+        int need = HEADER + len;
+        while (true) {
+            long t = tail.get();
+            if (t < 0) {
+                // The other producer is mid-copy (a few microseconds at most)
+                Thread.onSpinWait();
+                continue;
+            }
+            if (need > RING_BYTES - (t - head.get())) {
+                DROPPED.add(len);
+                return;
+            }
+            // Claim the ring by marking tail negative while copying, then publish the new position
+            if (!tail.compareAndSet(t, -1 - t)) continue;
+            int pos = (int) (t % RING_BYTES);
+            pos = putByte(pos, type);
+            pos = putInt(pos, len);
+            pos = putLong(pos, System.nanoTime());
+            copyIn(pos, buf, off, len);
+            tail.set(t + need);
+            RECORDED.add(len);
+            return;
+        }
+    }
+
+    private int putByte(int pos, byte b) {
+        ring[pos] = b;
+        return (pos + 1) % RING_BYTES;
+    }
+
+    private int putInt(int pos, int v) {
+        for (int s = 24; s >= 0; s -= 8) pos = putByte(pos, (byte) (v >>> s));
+        return pos;
+    }
+
+    private int putLong(int pos, long v) {
+        for (int s = 56; s >= 0; s -= 8) pos = putByte(pos, (byte) (v >>> s));
+        return pos;
+    }
+
+    private void copyIn(int pos, byte[] buf, int off, int len) {
+        int first = Math.min(len, RING_BYTES - pos);
+        System.arraycopy(buf, off, ring, pos, first);
+        if (first < len) System.arraycopy(buf, off + first, ring, 0, len - first);
+    }
+
+    /** Finish the current file (the writer drains what is buffered first). */
+    public void close() {
+        if (closed) return;
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        open.remove(this);
+    }
+
+    private void drain() {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer in = ByteBuffer.allocate(64 * 1024 + 8);
+        CharBuffer chars = CharBuffer.allocate(64 * 1024 + 8);
+        // Pending event: consecutive records of one type within COALESCE_NS become one asciicast line
+        StringBuilder json = new StringBuilder();
+        char pendingType = 0;
+        long pendingNanos = 0;
+        byte[] header = new byte[HEADER];
+        Part part = null;
+        long lastFlush = System.nanoTime();
+        try {
+            while (true) {
+                long h = head.get();
+                long t = tail.get();
+                if (t < 0) t = -1 - t;
+                if (h == t) {
+                    if (part != null && json.length() > 0) {
+                        writeEvent(part, pendingType, pendingNanos, json);
+                    }
+                    if (closed && tail.get() >= 0 && head.get() == tail.get()) break;
+                    if (part != null && System.nanoTime() - lastFlush > FLUSH_INTERVAL_NS) {
+                        part.writer.flush();
+                        lastFlush = System.nanoTime();
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NS);
+                    continue;
+                }
+                int pos = (int) (h % RING_BYTES);
+                for (int i = 0; i < HEADER; i++) header[i] = ring[(pos + i) % RING_BYTES];
+                char type = (char) header[0];
+                int len = ((header[1] & 0xff) << 24) | ((header[2] & 0xff) << 16) | ((header[3] & 0xff) << 8) | (header[4] & 0xff);
+                long nanos = 0;
+                for (int i = 5; i < 13; i++) nanos = (nanos << 8) | (header[i] & 0xff);
+                int dataPos = (pos + HEADER) % RING_BYTES;
+
+                boolean sameEvent = json.length() > 0 && type == pendingType
+                        && nanos - pendingNanos < COALESCE_NS && json.length() < COALESCE_MAX_CHARS;
+                if (!sameEvent) {
+                    if (part != null && json.length() > 0) writeEvent(part, pendingType, pendingNanos, json);
+                    if (part == null || part.counter.count >= ROTATE_BYTES) {
+                        if (part != null) part.close();
+                        part = Part.open(name, nanos);
+                        deleteOldest();
+                    }
+                    pendingType = type;
+                    pendingNanos = nanos;
+                }
+                // Decode in slices; leftover partial UTF-8 sequences stay in "in" for the next record
+                for (int done = 0; done < len; ) {
+                    int n = Math.min(len - done, in.remaining());
+                    int p = (dataPos + done) % RING_BYTES;
+                    int first = Math.min(n, RING_BYTES - p);
+                    in.put(ring, p, first);
+                    if (first < n) in.put(ring, 0, n - first);
+                    done += n;
+                    in.flip();
+                    decoder.decode(in, chars, false);
+                    in.compact();
+                    chars.flip();
+                    escape(chars, json);
+                    chars.clear();
+                }
+                head.set(h + HEADER + len);
+                if (System.nanoTime() - lastFlush > FLUSH_INTERVAL_NS) {
+                    part.writer.flush();
+                    lastFlush = System.nanoTime();
+                }
+            }
+        } catch (IOException e) {
+            closed = true;
+        } finally {
+            if (part != null) {
+                try {
+                    part.close();
+                } catch (IOException ignored) {
+                    // Partial file is still a valid gzip prefix up to the last flush
+                }
+            }
+        }
+    }
+
+    /** Write {@code [seconds, "type", "json"]} and clear json. */
+    private static void writeEvent(Part part, char type, long nanos, StringBuilder json) throws IOException {
+        long micros = Math.max(0, (nanos - part.startNanos) / 1000);
+        StringBuilder line = part.line;
+        line.setLength(0);
+        line.append('[').append(micros / 1_000_000).append('.');
+        String frac = Long.toString(micros % 1_000_000);
+        for (int i = frac.length(); i < 6; i++) line.append('0');
+        line.append(frac).append(", \"").append(type).append("\", \"");
+        part.writer.append(line);
+        part.writer.append(json);
+        part.writer.write("\"]\n");
+        json.setLength(0);
+    }
+
+    private static void escape(CharBuffer chars, StringBuilder out) {
+        while (chars.hasRemaining()) {
+            char c = chars.get();
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+                    else out.append(c);
+                }
+            }
+        }
+    }
+
+    /** One gzip file of the session. */
+    private static final class Part {
+        final CountingOutputStream counter;
+        final Writer writer;
+        final long startNanos;
+        final StringBuilder line = new StringBuilder();
+
+        private Part(CountingOutputStream counter, Writer writer, long startNanos) {
+            this.counter = counter;
+            this.writer = writer;
+            this.startNanos = startNanos;
+        }
+
+        static Part open(String name, long startNanos) throws IOException {
+            Path dir = getSessionsDir();
+            Files.createDirectories(dir);
+            String base = name + "-" + LocalDateTime.now().format(STAMP);
+            Path file = dir.resolve(base + EXTENSION);
+            for (int i = 2; Files.exists(file); i++) file = dir.resolve(base + "-" + i + EXTENSION);
+            CountingOutputStream counter = new CountingOutputStream(Files.newOutputStream(file));
+            Writer w = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(counter, 64 * 1024, true) {
+                { def.setLevel(Deflater.BEST_SPEED); }
+            },
+                    StandardCharsets.UTF_8), 64 * 1024);
+            w.write("{\"version\": 2, \"width\": 120, \"height\": 40, \"timestamp\": "
+                    + System.currentTimeMillis() / 1000 + ", \"title\": \"" + name + "\"}\n");
+            return new Part(counter, w, startNanos);
+        }
+
+        void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+    }
+
+    public static Path getSessionsDir() {
+        return Path.of(System.getProperty("user.home")).resolve(DIR_NAME).resolve(SESSIONS_DIR);
+    }
+
+    /** Recordings, newest first. */
+    public static List<Path> listRecordings() {
+        List<Path> out = new ArrayList<>();
+        try (Stream<Path> s = Files.list(getSessionsDir())) {
+            s.filter(p -> p.getFileName().toString().endsWith(EXTENSION)).forEach(out::add);
+        } catch (IOException ignored) {
+            // No recordings yet
+        }
+        out.sort(Comparator.comparing(SessionRecorder::lastModified).reversed());
+        return out;
+    }
+
+    private static long lastModified(Path p) {
+        try {
+            return Files.getLastModifiedTime(p).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteOldest() {
+        List<Path> files = listRecordings();
+        long total = 0;
+        for (Path p : files) {
+            try {
+                total += Files.size(p);
+                if (total > MAX_TOTAL_BYTES) Files.deleteIfExists(p);
+            } catch (IOException ignored) {
+                // Try again on the next rotation
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.nemostudio.ide;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Project → Session Recordings: lists the SessionRecorder files and replays one. The file is parsed once
+ * (in the background) into one text buffer plus per-event offsets and times, with idle gaps capped at
+ * IDLE_LIMIT_S. Playback then only appends the slice due since the last frame, and seeking or "Show all" is a
+ * single setText. Output is cleaned the same way as in the live terminal.
+ */
+public class SessionReplayWindow {
+
+    private static final double IDLE_LIMIT_S = 2.0;
+    private static final double FRAME_S = 0.03;
+
+    /** A parsed recording: text of all output events, cumulative end offsets and (idle-capped) times. */
+    static final class Replay {
+        final String text;
+        final int[] ends;
+        final double[] times;
+        final int count;
+
+        Replay(String text, int[] ends, double[] times, int count) {
+            this.text = text;
+            this.ends = ends;
+            this.times = times;
+            this.count = count;
+        }
+
+        double duration() {
+            return count == 0 ? 0 : times[count - 1];
+        }
+
+        /** Number of events at or before time t. */
+        int eventsUntil(double t) {
+            int lo = 0;
+            int hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (times[mid] <= t) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        int offsetAfter(int events) {
+            return events == 0 ? 0 : ends[events - 1];
+        }
+    }
+
+    public static void show(Stage owner) {
+        Stage stage = new Stage();
+        stage.initModality(Modality.NONE);
+        if (owner != null) {
+            stage.initOwner(owner);
+        }
+        stage.setTitle("Session Recordings");
+
+        ListView<Path> files = new ListView<>();
+        files.getItems().setAll(SessionRecorder.listRecordings());
+        files.setCellFactory(lv -> new ListCell<>() {
+            @Override
+            protected void updateItem(Path item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                    return;
+                }
+                long size = 0;
+                try {
+                    size = Files.size(item);
+                } catch (IOException ignored) {
+                    // Shown as 0 KB
+                }
+                setText(item.getFileName().toString().replace(SessionRecorder.EXTENSION, "")
+                        + "  (" + Math.max(1, size / 1024) + " KB)");
+            }
+        });
+        files.setPrefWidth(260);
+        if (files.getItems().isEmpty()) {
+            files.setPlaceholder(new Label("No recordings in\n" + SessionRecorder.getSessionsDir()));
+        }
+
+        TextArea output = new TextArea();
+        output.setEditable(false);
+        output.setWrapText(true);
+        output.setStyle("-fx-font-family: monospace; -fx-font-size: 13px;");
+
+        Button playBtn = new Button("Play");
+        Button showAllBtn = new Button("Show all");
+        ComboBox<String> speed = new ComboBox<>();
+        speed.getItems().addAll("1×", "4×", "16×", "64×");
+        speed.setValue("4×");
+        Slider position = new Slider(0, 1, 0);
+        HBox.setHgrow(position, Priority.ALWAYS);
+        Label timeLabel = new Label("");
+        timeLabel.setMinWidth(110);
+        HBox controls = new HBox(8, playBtn, speed, position, timeLabel, showAllBtn);
+        controls.setAlignment(Pos.CENTER_LEFT);
+        controls.setDisable(true);
+
+        Label statusLabel = new Label("Select a recording.");
+        statusLabel.setStyle("-fx-text-fill: #666;");
+        Button closeBtn = new Button("Close");
+        closeBtn.setOnAction(e -> stage.close());
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox bottom = new HBox(10, statusLabel, spacer, closeBtn);
+        bottom.setAlignment(Pos.CENTER_LEFT);
+
+        VBox right = new VBox(8, controls, output);
+        VBox.setVgrow(output, Priority.ALWAYS);
+        BorderPane root = new BorderPane();
+        root.setLeft(files);
+        root.setCenter(right);
+        root.setBottom(bottom);
+        BorderPane.setMargin(right, new Insets(0, 0, 0, 10));
+        BorderPane.setMargin(bottom, new Insets(8, 0, 0, 0));
+        root.setPadding(new Insets(12));
+
+        Replay[] current = { null };
+        int[] shown = { 0 };
+        double[] playTime = { 0 };
+        boolean[] updatingSlider = { false };
+        Timeline timeline = new Timeline();
+        timeline.setCycleCount(Timeline.INDEFINITE);
+
+        Runnable updateTime = () -> {
+            Replay r = current[0];
+            if (r == null) return;
+            timeLabel.setText(formatTime(playTime[0]) + " / " + formatTime(r.duration()));
+            updatingSlider[0] = true;
+            position.setValue(r.duration() == 0 ? 1 : playTime[0] / r.duration());
+            updatingSlider[0] = false;
+        };
+        // Show exactly the events up to time t: append when moving forward, setText when seeking back
+        java.util.function.DoubleConsumer seek = t -> {
+            Replay r = current[0];
+            if (r == null) return;
+            playTime[0] = Math.max(0, Math.min(r.duration(), t));
+            int events = r.eventsUntil(playTime[0]);
+            if (events >= shown[0]) {
+                if (events > shown[0]) output.appendText(r.text.substring(r.offsetAfter(shown[0]), r.offsetAfter(events)));
+            } else {
+                output.setText(r.text.substring(0, r.offsetAfter(events)));
+                output.positionCaret(output.getLength());
+            }
+            shown[0] = events;
+            updateTime.run();
+        };
+        timeline.getKeyFrames().add(new KeyFrame(Duration.seconds(FRAME_S), e -> {
+            Replay r = current[0];
+            if (r == null) return;
+            double factor = Double.parseDouble(speed.getValue().replace("×", ""));
+            seek.accept(playTime[0] + FRAME_S * factor);
+            if (playTime[0] >= r.duration()) {
+                timeline.stop();
+                playBtn.setText("Play");
+            }
+        }));
+        playBtn.setOnAction(e -> {
+            Replay r = current[0];
+            if (r == null) return;
+            if (timeline.getStatus() == javafx.animation.Animation.Status.RUNNING) {
+                timeline.stop();
+                playBtn.setText("Play");
+            } else {
+                if (playTime[0] >= r.duration()) seek.accept(0);
+                timeline.play();
+                playBtn.setText("Pause");
+            }
+        });
+        showAllBtn.setOnAction(e -> {
+            timeline.stop();
+            playBtn.setText("Play");
+            Replay r = current[0];
+            if (r != null) seek.accept(r.duration());
+        });
+        position.valueProperty().addListener((o, old, v) -> {
+            Replay r = current[0];
+            if (!updatingSlider[0] && r != null) seek.accept(v.doubleValue() * r.duration());
+        });
+
+        files.getSelectionModel().selectedItemProperty().addListener((o, old, path) -> {
+            timeline.stop();
+            playBtn.setText("Play");
+            current[0] = null;
+            output.clear();
+            controls.setDisable(true);
+            if (path == null) return;
+            statusLabel.setText("Loading " + path.getFileName() + "...");
+            new Thread(() -> {
+                try {
+                    long start = System.nanoTime();
+                    Replay r = load(path);
+                    long ms = (System.nanoTime() - start) / 1_000_000;
+                    Platform.runLater(() -> {
+                        if (path != files.getSelectionModel().getSelectedItem()) return;
+                        current[0] = r;
+                        shown[0] = 0;
+                        playTime[0] = 0;
+                        controls.setDisable(false);
+                        statusLabel.setText(r.count + " events, " + r.text.length() / 1024 + " KB of output, loaded in " + ms + " ms");
+                        seek.accept(r.duration());
+                    });
+                } catch (Exception ex) {
+                    Platform.runLater(() -> statusLabel.setText("Could not read " + path.getFileName() + ": " + ex.getMessage()));
+                }
+            }, "session-replay-load").start();
+        });
+        stage.setOnHidden(e -> timeline.stop());
+
+        stage.setScene(new Scene(root, 980, 600));
+        stage.show();
+    }
+
+    /** Parse an asciicast v2 gzip file (output events only). A truncated gzip yields what was readable. */
+    static Replay load(Path path) throws IOException {
+        StringBuilder text = new StringBuilder();
+        int[] ends = new int[1024];
+        double[] times = new double[1024];
+        int count = 0;
+        double lastRaw = 0;
+        double t = 0;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path), 64 * 1024), StandardCharsets.UTF_8))) {
+            String line = in.readLine(); // header
+            if (line == null || !line.startsWith("{")) throw new IOException("not an asciicast file");
+            while ((line = in.readLine()) != null) {
+                int comma = line.indexOf(',');
+                int q1 = line.indexOf('"', comma + 1);
+                if (!line.startsWith("[") || comma < 0 || q1 < 0 || q1 + 1 >= line.length()) continue;
+                if (line.charAt(q1 + 1) != 'o') continue;
+                int q3 = line.indexOf('"', q1 + 3);
+                int endQuote = line.lastIndexOf('"');
+                if (q3 < 0 || endQuote <= q3) continue;
+                double raw = Double.parseDouble(line.substring(1, comma).trim());
+                t += Math.min(IDLE_LIMIT_S, Math.max(0, raw - lastRaw));
+                lastRaw = raw;
+                text.append(RemoteTerminalPanel.toDisplayText(unescape(line, q3 + 1, endQuote)));
+                if (count == ends.length) {
+                    ends = Arrays.copyOf(ends, count * 2);
+                    times = Arrays.copyOf(times, count * 2);
+                }
+                ends[count] = text.length();
+                times[count] = t;
+                count++;
+            }
+        } catch (java.io.EOFException e) {
+            // Recording still open or cut off: keep what was read
+        }
+        return new Replay(text.toString(), ends, times, count);
+    }
+
+    /** JSON string unescape of line[from, to). */
+    private static String unescape(String line, int from, int to) {
+        StringBuilder sb = new StringBuilder(to - from);
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c != '\\' || i + 1 >= to) {
+                sb.append(c);
+                continue;
+            }
+            char e = line.charAt(++i);
+            switch (e) {
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (i + 4 < to) {
+                        sb.append((char) Integer.parseInt(line.substring(i + 1, i + 5), 16));
+                        i += 4;
+                    }
+                }
+                default -> sb.append(e);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String formatTime(double seconds) {
+        long s = (long) seconds;
+        return String.format("%d:%02d:%02d", s / 3600, (s / 60) % 60, s % 60);
+    }
+}
@@ -1,12 +1,18 @@
 package com.nemostudio.ide;
 
 import com.jcraft.jsch.ChannelSftp;
-import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.Session;
 import com.jcraft.jsch.SftpATTRS;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.security.DigestInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.Vector;
 
 /**
@@ -14,13 +20,13 @@ import java.util.Vector;
  */
 public final class SftpHelper {
 
-    private static final int SSH_PORT = 22;
-    private static final int CONNECT_TIMEOUT_MS = 10000;
+    /** Re-send rounds for files whose remote checksum does not match before the upload fails. */
+    private static final int MAX_RESENDS = 2;
 
     private SftpHelper() {}
 
     /**
-     * Create an SFTP session using saved credentials. Caller must disconnect when done.
+     * Create an SFTP session using saved credentials (with the host's LinkTuning). Caller must disconnect when done.
      */
     public static Session createSftpSession() throws Exception {
         String host = ConnectionStore.loadHost();
@@ -32,14 +38,7 @@ public final class SftpHelper {
         String pass = (passChars != null && passChars.length > 0) ? new String(passChars) : null;
         if (passChars != null) java.util.Arrays.fill(passChars, '\0');
 
-        JSch jsch = new JSch();
-        Session session = jsch.getSession(user, host.trim(), SSH_PORT);
-        if (pass != null && !pass.isEmpty()) {
-            session.setPassword(pass);
-        }
-        session.setConfig("StrictHostKeyChecking", "no");
-        session.connect(CONNECT_TIMEOUT_MS);
-        return session;
+        return SessionPool.openSession(host.trim(), user.trim(), pass);
     }
 
     /**
@@ -49,8 +48,7 @@ public final class SftpHelper {
     public static boolean isDirectoryEmpty(String remotePath) throws Exception {
         Session session = createSftpSession();
         try {
-            ChannelSftp channel = (ChannelSftp) session.openChannel("sftp");
-            channel.connect(CONNECT_TIMEOUT_MS);
+            ChannelSftp channel = SessionPool.openSftp(session);
             try {
                 try {
                     Vector<?> list = channel.ls(remotePath);
@@ -77,7 +75,7 @@ public final class SftpHelper {
     /**
      * Ensure a remote directory exists, creating parent directories if needed.
      */
-    private static void ensureDirectoryExists(ChannelSftp channel, String remotePath) throws Exception {
+    static void ensureDirectoryExists(ChannelSftp channel, String remotePath) throws Exception {
         if (remotePath == null || remotePath.isEmpty() || remotePath.equals("/")) {
             return;
         }
@@ -92,21 +90,45 @@ public final class SftpHelper {
             if (!parent.isEmpty() && !parent.equals("/")) {
                 ensureDirectoryExists(channel, parent);
             }
+            FlightEvents.SftpOperation event = new FlightEvents.SftpOperation("mkdir", remotePath);
             channel.mkdir(remotePath);
+            event.commit();
         }
     }
 
     /**
      * Upload a file or directory recursively to the remote path. Reports progress via callback.
+     * A directory of many small files is sent as one tar stream (TarStreamUploader); its large files
+     * still go over SFTP afterwards.
      */
     public static void upload(File localFile, String remotePath, ProgressCallback callback) throws Exception {
+        uploadAll(List.of(localFile), remotePath, callback);
+    }
+
+    /**
+     * Upload several files and/or directories into the remote path over one session. Many small files
+     * (by count and average size) are bundled into a single tar stream; otherwise each goes over SFTP,
+     * spread over as many SFTP channels as the host's LinkTuning asks for. Every file's SHA-256 is taken
+     * while it is sent and checked on the remote afterwards (UploadVerifier); mismatches are re-sent.
+     */
+    public static void uploadAll(List<File> localFiles, String remotePath, ProgressCallback callback) throws Exception {
         Session session = createSftpSession();
         try {
-            ChannelSftp channel = (ChannelSftp) session.openChannel("sftp");
-            channel.connect(CONNECT_TIMEOUT_MS);
+            ChannelSftp channel = SessionPool.openSftp(session);
             try {
                 ensureDirectoryExists(channel, remotePath);
-                uploadRecursive(channel, localFile, remotePath, callback);
+                UploadVerifier verifier = new UploadVerifier();
+                TarStreamUploader.Plan plan = TarStreamUploader.scan(localFiles);
+                int channels = LinkTuning.forHost(session.getHost()).getTransferChannels();
+                boolean bundled = plan.shouldBundle() && uploadBundled(session, channel, plan, remotePath, callback, verifier);
+                if (!bundled && channels > 1 && plan.getFileCount() > 1) {
+                    uploadParallel(session, channel, plan, remotePath, channels, callback, verifier);
+                } else if (!bundled) {
+                    for (File localFile : localFiles) {
+                        uploadRecursive(channel, localFile, remotePath, callback, verifier);
+                    }
+                }
+                verifyAndResend(session, channel, verifier, callback);
             } finally {
                 channel.disconnect();
             }
@@ -115,7 +137,154 @@ public final class SftpHelper {
         }
     }
 
-    private static void uploadRecursive(ChannelSftp channel, File localFile, String remotePath, ProgressCallback callback) throws Exception {
+    /**
+     * Check every sent file's hash on the remote in one exec and re-send the ones that differ, up to
+     * MAX_RESENDS rounds. The outcome is reported through callback.onVerified.
+     */
+    static void verifyAndResend(Session session, ChannelSftp channel, UploadVerifier verifier,
+                                ProgressCallback callback) throws Exception {
+        int checked = verifier.size();
+        List<String> resent = new ArrayList<>();
+        for (int round = 0; ; round++) {
+            List<UploadVerifier.Entry> bad = verifier.verify(session);
+            if (bad == null) {
+                if (callback != null) callback.onVerified(checked, resent, false);
+                return;
+            }
+            if (bad.isEmpty()) {
+                if (callback != null) callback.onVerified(checked, resent, true);
+                return;
+            }
+            Metrics.UPLOAD_CHECKSUM_MISMATCHES.add(bad.size());
+            if (round == MAX_RESENDS) {
+                StringBuilder names = new StringBuilder();
+                for (UploadVerifier.Entry e : bad) names.append("\n  ").append(e.remotePath);
+                throw new Exception(bad.size() + " file(s) still differ on the remote after " + MAX_RESENDS
+                        + " re-sends:" + names);
+            }
+            UploadVerifier retry = new UploadVerifier();
+            for (UploadVerifier.Entry e : bad) {
+                if (callback != null) callback.onFileStart(e.file.getName() + " (re-send, checksum mismatch)");
+                putFile(channel, e.file, e.remotePath, callback, retry);
+                resent.add(e.remotePath);
+            }
+            verifier = retry;
+        }
+    }
+
+    /** Returns false (nothing uploaded) when the remote has no tar. */
+    private static boolean uploadBundled(Session session, ChannelSftp channel, TarStreamUploader.Plan plan,
+                                         String remotePath, ProgressCallback callback, UploadVerifier verifier) throws Exception {
+        try {
+            TarStreamUploader.upload(session, plan, remotePath, callback, verifier);
+        } catch (TarStreamUploader.TarUnavailableException e) {
+            return false;
+        }
+        // Directories were created by tar; send the large files directly
+        String base = remotePath.endsWith("/") ? remotePath : remotePath + "/";
+        for (int i = 0; i < plan.getLargeFiles().size(); i++) {
+            if (callback != null && callback.isCancelled()) {
+                throw new IOException("Upload cancelled.");
+            }
+            File f = plan.getLargeFiles().get(i);
+            if (callback != null) callback.onFileStart(f.getName());
+            putFile(channel, f, base + plan.getLargePaths().get(i), callback, verifier);
+        }
+        return true;
+    }
+
+    /**
+     * Create the plan's directories, then let several SFTP channels on the session take files from a
+     * shared queue (large files first). Progress is aggregate bytes over all files.
+     */
+    private static void uploadParallel(Session session, ChannelSftp first, TarStreamUploader.Plan plan,
+                                       String remotePath, int channels, ProgressCallback callback,
+                                       UploadVerifier verifier) throws Exception {
+        String base = remotePath.endsWith("/") ? remotePath : remotePath + "/";
+        for (String dir : plan.getDirs()) {
+            ensureDirectoryExists(first, base + dir);
+        }
+        List<File> files = plan.getAllFiles();
+        List<String> paths = plan.getAllPaths();
+        long total = 0;
+        for (File f : files) total += f.length();
+        final long totalBytes = total;
+        String label = files.size() + " files over " + channels + " channels";
+        if (callback != null) callback.onFileStart(label);
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong done = new AtomicLong();
+        AtomicReference<Exception> error = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int k = 0; k < Math.min(channels, files.size()); k++) {
+            boolean own = k > 0;
+            Thread w = new Thread(() -> {
+                ChannelSftp ch = null;
+                try {
+                    ch = own ? SessionPool.openSftp(session) : first;
+                    int i;
+                    while (error.get() == null && (i = next.getAndIncrement()) < files.size()) {
+                        if (callback != null && callback.isCancelled()) {
+                            throw new Exception("Upload cancelled.");
+                        }
+                        if (files.get(i).length() >= DeltaUploader.MIN_BYTES
+                                && DeltaUploader.upload(session, files.get(i), base + paths.get(i), null, verifier) != null) {
+                            long d = done.addAndGet(files.get(i).length());
+                            if (callback != null) callback.onFileProgress(d, totalBytes);
+                            continue;
+                        }
+                        long start = System.nanoTime();
+                        FlightEvents.SftpOperation event = new FlightEvents.SftpOperation("put", base + paths.get(i));
+                        DigestInputStream in = new DigestInputStream(TrafficScheduler.bulk(new FileInputStream(files.get(i))),
+                                UploadVerifier.newDigest());
+                        try (in) {
+                            ch.put(in, base + paths.get(i), new com.jcraft.jsch.SftpProgressMonitor() {
+                                @Override
+                                public void init(int op, String src, String dest, long max) {}
+                                @Override
+                                public boolean count(long count) {
+                                    long d = done.addAndGet(count);
+                                    if (callback != null) callback.onFileProgress(d, totalBytes);
+                                    return error.get() == null && (callback == null || !callback.isCancelled());
+                                }
+                                @Override
+                                public void end() {}
+                            });
+                        }
+                        // count() returning false leaves this file truncated; stop rather than record it
+                        if (error.get() != null) {
+                            return;
+                        }
+                        if (callback != null && callback.isCancelled()) {
+                            throw new IOException("Upload cancelled.");
+                        }
+                        verifier.record(files.get(i), base + paths.get(i), in.getMessageDigest());
+                        Metrics.recordPut(files.get(i).length(), System.nanoTime() - start);
+                        event.bytes = files.get(i).length();
+                        event.commit();
+                    }
+                } catch (Exception e) {
+                    error.compareAndSet(null, e);
+                } finally {
+                    if (own && ch != null) ch.disconnect();
+                }
+            }, "sftp-upload-" + k);
+            w.setDaemon(true);
+            w.start();
+            workers.add(w);
+        }
+        for (Thread w : workers) w.join();
+        if (error.get() != null) {
+            throw error.get();
+        }
+        if (callback != null) callback.onFileComplete(label, totalBytes);
+    }
+
+    private static void uploadRecursive(ChannelSftp channel, File localFile, String remotePath, ProgressCallback callback,
+                                        UploadVerifier verifier) throws Exception {
+        if (callback != null && callback.isCancelled()) {
+            throw new Exception("Upload cancelled.");
+        }
         String remoteFile = remotePath.endsWith("/") ? remotePath + localFile.getName() : remotePath + "/" + localFile.getName();
         if (callback != null) callback.onFileStart(localFile.getName());
 
@@ -142,36 +311,79 @@ public final class SftpHelper {
             File[] children = localFile.listFiles();
             if (children != null) {
                 for (File child : children) {
-                    uploadRecursive(channel, child, remoteFile, callback);
+                    uploadRecursive(channel, child, remoteFile, callback, verifier);
                 }
             }
         } else {
-            long fileSize = localFile.length();
-            try (FileInputStream in = new FileInputStream(localFile)) {
-                channel.put(in, remoteFile, new com.jcraft.jsch.SftpProgressMonitor() {
-                    private long transferred = 0;
-                    @Override
-                    public void init(int op, String src, String dest, long max) {
-                        if (callback != null) callback.onFileProgress(0, fileSize);
-                    }
-                    @Override
-                    public boolean count(long count) {
-                        transferred += count;
-                        if (callback != null) callback.onFileProgress(transferred, fileSize);
-                        return true;
-                    }
-                    @Override
-                    public void end() {
-                        if (callback != null) callback.onFileComplete(localFile.getName(), fileSize);
-                    }
-                });
-            }
+            putFile(channel, localFile, remoteFile, callback, verifier);
         }
     }
 
+    /**
+     * Put one file, hashing the bytes as they are read for the upload and recording them in verifier. A large
+     * file that already exists on the remote is sent as a delta against it (DeltaUploader) when possible.
+     */
+    static void putFile(ChannelSftp channel, File localFile, String remoteFile, ProgressCallback callback,
+                        UploadVerifier verifier) throws Exception {
+        long fileSize = localFile.length();
+        long start = System.nanoTime();
+        if (fileSize >= DeltaUploader.MIN_BYTES
+                && DeltaUploader.upload(channel.getSession(), localFile, remoteFile, callback, verifier) != null) {
+            if (callback != null) callback.onFileComplete(localFile.getName(), fileSize);
+            return;
+        }
+        FlightEvents.SftpOperation event = new FlightEvents.SftpOperation("put", remoteFile);
+        DigestInputStream in = new DigestInputStream(TrafficScheduler.bulk(new FileInputStream(localFile)), UploadVerifier.newDigest());
+        try (in) {
+            channel.put(in, remoteFile, new com.jcraft.jsch.SftpProgressMonitor() {
+                private long transferred = 0;
+                @Override
+                public void init(int op, String src, String dest, long max) {
+                    if (callback != null) callback.onFileProgress(0, fileSize);
+                }
+                @Override
+                public boolean count(long count) {
+                    transferred += count;
+                    if (callback != null) callback.onFileProgress(transferred, fileSize);
+                    return callback == null || !callback.isCancelled();
+                }
+                @Override
+                public void end() {}
+            });
+        }
+        // A false from count() ends put() normally with the file cut short: never record or report it as sent
+        if (callback != null && callback.isCancelled()) {
+            throw new IOException("Upload cancelled.");
+        }
+        if (callback != null) callback.onFileComplete(localFile.getName(), fileSize);
+        verifier.record(localFile, remoteFile, in.getMessageDigest());
+        Metrics.recordPut(fileSize, System.nanoTime() - start);
+        event.bytes = fileSize;
+        event.commit();
+    }
+
+    /** One-line summary of an onVerified report for the terminal. */
+    public static String describeVerification(int checked, List<String> resent, boolean verified) {
+        if (!verified) {
+            return checked + " file(s) sent; not verified (no sha256sum on the remote).";
+        }
+        String text = checked + " file(s) verified by SHA-256";
+        if (resent.isEmpty()) return text + ".";
+        return text + "; " + resent.size() + " re-sent after a checksum mismatch: " + String.join(", ", resent);
+    }
+
     public interface ProgressCallback {
         void onFileStart(String fileName);
         void onFileProgress(long bytesTransferred, long totalBytes);
         void onFileComplete(String fileName, long fileSize);
+        /** Polled between files and chunks; returning true stops the upload with an exception. */
+        default boolean isCancelled() {
+            return false;
+        }
+        /**
+         * After the upload: checked files were compared by SHA-256 with the remote copies; resent lists the
+         * remote paths sent again after a mismatch. verified is false if the remote has no sha256sum.
+         */
+        default void onVerified(int checked, List<String> resent, boolean verified) {}
     }
 }
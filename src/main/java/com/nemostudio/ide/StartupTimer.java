@@ -0,0 +1,87 @@
+package com.nemostudio.ide;
+
+import javafx.scene.Scene;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures cold-start phases (JVM start → FX start → first frame) and appends one line per launch
+ * to {@code ~/.nemostudio/cache/startup.log} so time-to-first-frame can be tracked across releases.
+ */
+public final class StartupTimer {
+
+    private static final String DIR_NAME = ".nemostudio";
+    private static final String CACHE_DIR = "cache";
+    private static final String LOG_FILE = "startup.log";
+    /** Keep the log small: older lines are dropped once this many are stored. */
+    private static final int MAX_LOG_LINES = 200;
+
+    private static final long JVM_START_MS = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli)
+            .orElse(System.currentTimeMillis());
+
+    private static final List<String> marks = new ArrayList<>();
+    private static volatile long firstFrameMs = -1;
+
+    private StartupTimer() {}
+
+    /** Record a named phase, as milliseconds since JVM start. FX thread only. */
+    public static void mark(String phase) {
+        marks.add(phase + "=" + (System.currentTimeMillis() - JVM_START_MS));
+    }
+
+    /** Milliseconds from JVM start to the first rendered frame, or -1 if not reached yet. */
+    public static long getTimeToFirstFrameMs() {
+        return firstFrameMs;
+    }
+
+    /**
+     * Run onFirstFrame once, right after the first pulse of the scene has been laid out and rendered,
+     * and log the startup timings. Used to defer work (SSH connects, diagram rendering) past first paint.
+     */
+    public static void whenFirstFrame(Scene scene, Runnable onFirstFrame) {
+        final boolean[] fired = { false };
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            if (fired[0]) return;
+            fired[0] = true;
+            scene.removePostLayoutPulseListener(listener[0]);
+            // The frame for this pulse is rendered right after layout; run deferred work on the next turn
+            javafx.application.Platform.runLater(() -> {
+                firstFrameMs = System.currentTimeMillis() - JVM_START_MS;
+                mark("firstFrame");
+                writeLog();
+                if (onFirstFrame != null) onFirstFrame.run();
+            });
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    private static void writeLog() {
+        String line = Instant.now() + " ttff_ms=" + firstFrameMs + " " + String.join(" ", marks);
+        Path path = Path.of(System.getProperty("user.home")).resolve(DIR_NAME).resolve(CACHE_DIR).resolve(LOG_FILE);
+        Thread writer = new Thread(() -> {
+            try {
+                Files.createDirectories(path.getParent());
+                List<String> lines = Files.isRegularFile(path)
+                        ? new ArrayList<>(Files.readAllLines(path, StandardCharsets.UTF_8))
+                        : new ArrayList<>();
+                lines.add(line);
+                if (lines.size() > MAX_LOG_LINES) {
+                    lines = lines.subList(lines.size() - MAX_LOG_LINES, lines.size());
+                }
+                Files.write(path, lines, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            } catch (IOException ignored) {}
+        }, "startup-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+}
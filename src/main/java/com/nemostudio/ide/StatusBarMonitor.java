@@ -1,87 +1,80 @@
 package com.nemostudio.ide;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.scene.control.Label;
 import javafx.scene.layout.Region;
-import javafx.util.Duration;
 
-import java.net.InetSocketAddress;
-import java.net.Socket;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
- * Background monitor that runs every 5 seconds. In each cycle it:
- * 1) Checks connectivity to the saved remote host (TCP port 22) and updates the status bar
- *    ("Connected" + green icon or "Disconnected" + gray icon).
- * 2) Re-reads the remote folder path from the config file and updates the status bar
- *    ("Remote folder: not set" or "Remote folder: &lt;path&gt;").
+ * Keeps the status bar in sync with the link. Subscribes to ConnectionState's LinkEvent stream
+ * (published by LinkHealthMonitor) and on each event:
+ * 1) Shows "Connected" + green icon with median / p99 round-trip latency, or "Disconnected" + gray icon.
+ * 2) Re-reads the remote folder path from the config file (on the publishing thread, not the FX thread)
+ *    and shows "Remote folder: not set" or "Remote folder: &lt;path&gt;".
+ * 3) While connected, appends the cached RemoteEnvironment summary (arch, Docker, GPUs, free disk) and asks
+ *    for a refresh of the STATUS_FIELDS that are past their TTL; the next event shows the new values.
  */
 public final class StatusBarMonitor {
 
-    private static final double POLL_INTERVAL_SECONDS = 5.0;
-    private static final int CONNECT_CHECK_TIMEOUT_MS = 3000;
-    private static final int SSH_PORT = 22;
+    private static final Set<RemoteEnvironment.Field> STATUS_FIELDS = EnumSet.of(RemoteEnvironment.Field.SYSTEM,
+            RemoteEnvironment.Field.DOCKER, RemoteEnvironment.Field.GPU, RemoteEnvironment.Field.DISK);
 
-    private Timeline timeline;
-    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "status-bar-connectivity");
-        t.setDaemon(true);
-        return t;
-    });
+    private final LinkHealthMonitor healthMonitor = new LinkHealthMonitor();
+    private Runnable unsubscribe;
 
     public void start(Region connectionIndicator, Label connectionLabel, Label remoteFolderLabel) {
         stop();
-        timeline = new Timeline(
-                new KeyFrame(Duration.seconds(POLL_INTERVAL_SECONDS), e -> {
-                    String host = ConnectionStore.loadHost();
-                    if (host == null || host.trim().isEmpty()) {
-                        Platform.runLater(() -> updateUi(false, connectionIndicator, connectionLabel, remoteFolderLabel));
-                        return;
-                    }
-                    executor.execute(() -> {
-                        boolean reachable = checkConnectivity(host.trim());
-                        Platform.runLater(() -> updateUi(reachable, connectionIndicator, connectionLabel, remoteFolderLabel));
-                    });
-                })
-        );
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.play();
-        // Run once immediately
-        executor.execute(() -> {
-            String host = ConnectionStore.loadHost();
-            boolean reachable = host != null && !host.trim().isEmpty() && checkConnectivity(host.trim());
-            Platform.runLater(() -> updateUi(reachable, connectionIndicator, connectionLabel, remoteFolderLabel));
+        unsubscribe = ConnectionState.subscribe(event -> {
+            FlightEvents.LinkState jfr = new FlightEvents.LinkState();
+            jfr.state = event.getState().name();
+            jfr.rttP50 = event.getRttMedianMicros();
+            jfr.rttP99 = event.getRttP99Micros();
+            jfr.commit();
+            String path = ConnectionStore.loadRemoteFolder();
+            String env = "";
+            if (event.isUp()) {
+                env = RemoteEnvironment.cached().summary();
+                RemoteEnvironment.getAsync(STATUS_FIELDS, snapshot -> {});
+            }
+            String shownEnv = env;
+            Platform.runLater(() -> updateUi(event, path, shownEnv, connectionIndicator, connectionLabel, remoteFolderLabel));
         });
+        healthMonitor.start();
     }
 
-    private static boolean checkConnectivity(String host) {
-        try (Socket socket = new Socket()) {
-            socket.connect(new InetSocketAddress(host, SSH_PORT), CONNECT_CHECK_TIMEOUT_MS);
-            return true;
-        } catch (Exception ignored) {
-            return false;
-        }
+    public LinkHealthMonitor getHealthMonitor() {
+        return healthMonitor;
     }
 
-    /** Updates connection status and remote folder path (both refreshed every 5s from the same cycle). */
-    private static void updateUi(boolean connected, Region connectionIndicator, Label connectionLabel, Label remoteFolderLabel) {
-        connectionLabel.setText(connected ? "Connected" : "Disconnected");
+    private static void updateUi(LinkEvent event, String path, String env, Region connectionIndicator,
+                                 Label connectionLabel, Label remoteFolderLabel) {
+        boolean connected = event.isUp();
+        String text = connected ? "Connected" : "Disconnected";
+        if (connected && event.getRttMedianMicros() >= 0) {
+            text += "  ·  RTT " + formatMillis(event.getRttMedianMicros()) + " p50 / "
+                    + formatMillis(event.getRttP99Micros()) + " p99";
+        }
+        connectionLabel.setText(text);
         connectionIndicator.getStyleClass().removeAll("status-connected", "status-disconnected");
         connectionIndicator.getStyleClass().add(connected ? "status-connected" : "status-disconnected");
-        // Re-read remote folder path every 5s so status bar stays in sync with config file
-        String path = ConnectionStore.loadRemoteFolder();
         remoteFolderLabel.setText(path == null || path.trim().isEmpty()
                 ? "Remote folder: not set"
-                : "Remote folder: " + path.trim());
+                : "Remote folder: " + path.trim() + (env.isEmpty() ? "" : "  ·  " + env));
+    }
+
+    private static String formatMillis(long micros) {
+        return micros < 10_000
+                ? String.format("%.1f ms", micros / 1000.0)
+                : (micros / 1000) + " ms";
     }
 
     public void stop() {
-        if (timeline != null) {
-            timeline.stop();
-            timeline = null;
+        if (unsubscribe != null) {
+            unsubscribe.run();
+            unsubscribe = null;
         }
+        healthMonitor.stop();
     }
 }
@@ -0,0 +1,253 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.Session;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Uploads a folder of many small files as one gzip'd tar stream over an exec channel into
+ * {@code tar -xzf - -C <dest>} on the remote, instead of one SFTP put (and stat/mkdir) per file.
+ * scan() splits a tree into directories, small files (bundled) and large files (left for SFTP);
+ * shouldBundle() decides from file count and average size whether bundling pays off.
+ */
+public final class TarStreamUploader {
+
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    /** Files at or above this size stay on the direct SFTP path. */
+    static final long LARGE_FILE_BYTES = 4L * 1024 * 1024;
+    /** Bundle only when there are at least this many small files ... */
+    private static final int BUNDLE_MIN_FILES = 64;
+    /** ... and their average size is at most this (per-file round-trips dominate below it). */
+    private static final long BUNDLE_MAX_AVG_BYTES = 256 * 1024;
+    private static final int BLOCK = 512;
+
+    /** Result of scanning local files and folders. Relative paths start with each source's own name. */
+    public static final class Plan {
+        final String label;
+        final List<String> dirs = new ArrayList<>();
+        final List<File> smallFiles = new ArrayList<>();
+        final List<String> smallPaths = new ArrayList<>();
+        final List<File> largeFiles = new ArrayList<>();
+        final List<String> largePaths = new ArrayList<>();
+        long smallBytes;
+
+        Plan(String label) {
+            this.label = label;
+        }
+
+        public boolean shouldBundle() {
+            return smallFiles.size() >= BUNDLE_MIN_FILES && smallBytes / smallFiles.size() <= BUNDLE_MAX_AVG_BYTES;
+        }
+
+        /** Directories in pre-order (parents first), relative like the file paths. */
+        public List<String> getDirs() {
+            return dirs;
+        }
+
+        public int getFileCount() {
+            return smallFiles.size() + largeFiles.size();
+        }
+
+        /** Large files first, then small ones. */
+        public List<File> getAllFiles() {
+            List<File> all = new ArrayList<>(largeFiles);
+            all.addAll(smallFiles);
+            return all;
+        }
+
+        /** Remote-relative paths parallel to getAllFiles(). */
+        public List<String> getAllPaths() {
+            List<String> all = new ArrayList<>(largePaths);
+            all.addAll(smallPaths);
+            return all;
+        }
+
+        public int getSmallFileCount() {
+            return smallFiles.size();
+        }
+
+        public long getSmallBytes() {
+            return smallBytes;
+        }
+
+        public List<File> getLargeFiles() {
+            return largeFiles;
+        }
+
+        /** Remote-relative paths of the large files, parallel to getLargeFiles(). */
+        public List<String> getLargePaths() {
+            return largePaths;
+        }
+    }
+
+    private TarStreamUploader() {}
+
+    public static Plan scan(List<File> sources) {
+        Plan plan = new Plan(sources.size() == 1 ? sources.get(0).getName() : sources.size() + " items");
+        for (File f : sources) walk(f, f.getName(), plan);
+        return plan;
+    }
+
+    private static void walk(File file, String relative, Plan plan) {
+        if (file.isDirectory()) {
+            plan.dirs.add(relative);
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) walk(child, relative + "/" + child.getName(), plan);
+            }
+        } else if (file.isFile()) {
+            long len = file.length();
+            if (len >= LARGE_FILE_BYTES) {
+                plan.largeFiles.add(file);
+                plan.largePaths.add(relative);
+            } else {
+                plan.smallFiles.add(file);
+                plan.smallPaths.add(relative);
+                plan.smallBytes += len;
+            }
+        }
+    }
+
+    /**
+     * Stream every directory and small file of plan into remoteDir (created if missing). Progress is
+     * bytes read locally out of plan.getSmallBytes(). Throws with tar's stderr if extraction fails; a remote
+     * without tar is reported as TarUnavailableException (before anything is sent) so callers can fall back.
+     */
+    public static void upload(Session session, Plan plan, String remoteDir, SftpHelper.ProgressCallback callback) throws Exception {
+        upload(session, plan, remoteDir, callback, null);
+    }
+
+    /** As above, also recording each file's SHA-256 (of the bytes put in the stream) in verifier if not null. */
+    static void upload(Session session, Plan plan, String remoteDir, SftpHelper.ProgressCallback callback,
+                       UploadVerifier verifier) throws Exception {
+        if (RemoteExec.run(session, "command -v tar >/dev/null", null, null) != 0) {
+            throw new TarUnavailableException();
+        }
+        String dest = RemoteExec.shellQuote(remoteDir);
+        ChannelExec channel = (ChannelExec) session.openChannel("exec");
+        channel.setCommand("mkdir -p " + dest + " && tar -xzf - -C " + dest);
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        channel.setErrStream(stderr);
+        String label = plan.label + " (" + plan.smallFiles.size() + " files bundled)";
+        try {
+            OutputStream remoteIn = TrafficScheduler.bulk(channel.getOutputStream());
+            channel.connect(CONNECT_TIMEOUT_MS);
+            if (callback != null) callback.onFileStart(label);
+            // Fast deflate: the link, not the CPU, is what bundling is trying to save
+            try (OutputStream out = new BufferedOutputStream(new GZIPOutputStream(remoteIn, 64 * 1024) {
+                { def.setLevel(Deflater.BEST_SPEED); }
+            }, 64 * 1024)) {
+                for (String dir : plan.dirs) {
+                    writeHeader(out, dir + "/", '5', 0, 0755, System.currentTimeMillis());
+                }
+                byte[] buf = new byte[64 * 1024];
+                long done = 0;
+                for (int i = 0; i < plan.smallFiles.size(); i++) {
+                    if (callback != null && callback.isCancelled()) {
+                        throw new Exception("Upload cancelled.");
+                    }
+                    File f = plan.smallFiles.get(i);
+                    long size = f.length();
+                    writeHeader(out, plan.smallPaths.get(i), '0', size, f.canExecute() ? 0755 : 0644, f.lastModified());
+                    long written = 0;
+                    MessageDigest digest = verifier != null ? UploadVerifier.newDigest() : null;
+                    try (FileInputStream in = new FileInputStream(f)) {
+                        int n;
+                        while (written < size && (n = in.read(buf, 0, (int) Math.min(buf.length, size - written))) > 0) {
+                            out.write(buf, 0, n);
+                            if (digest != null) digest.update(buf, 0, n);
+                            written += n;
+                            done += n;
+                            Metrics.TAR_STREAM_BYTES.add(n);
+                            if (callback != null) callback.onFileProgress(done, plan.smallBytes);
+                        }
+                    }
+                    // File shrank since the header was written: pad to the declared size
+                    for (; written < size; written++) out.write(0);
+                    pad(out, size);
+                    if (verifier != null) {
+                        String base = remoteDir.endsWith("/") ? remoteDir : remoteDir + "/";
+                        verifier.record(f, base + plan.smallPaths.get(i), digest);
+                    }
+                }
+                out.write(new byte[BLOCK * 2]);
+            }
+            while (!channel.isClosed()) {
+                Thread.sleep(20);
+            }
+            int exit = channel.getExitStatus();
+            if (exit != 0) {
+                throw new Exception("Remote tar failed (exit " + exit + "): " + stderr.toString(StandardCharsets.UTF_8).trim());
+            }
+            if (callback != null) callback.onFileComplete(label, plan.smallBytes);
+        } finally {
+            channel.disconnect();
+        }
+    }
+
+    /** Remote has no tar; the caller should use plain SFTP instead. */
+    public static final class TarUnavailableException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        TarUnavailableException() {
+            super("tar not available on remote");
+        }
+    }
+
+    /**
+     * Old-GNU tar header (understood by GNU tar and busybox). Names longer than 100 bytes are preceded
+     * by a ././@LongLink entry carrying the full name.
+     */
+    private static void writeHeader(OutputStream out, String name, char type, long size, int mode, long mtimeMillis) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > 100) {
+            writeHeader(out, "././@LongLink", 'L', nameBytes.length + 1, 0644, 0);
+            out.write(nameBytes);
+            out.write(0);
+            pad(out, nameBytes.length + 1);
+        }
+        byte[] h = new byte[BLOCK];
+        System.arraycopy(nameBytes, 0, h, 0, Math.min(100, nameBytes.length));
+        octal(h, 100, 8, mode);
+        octal(h, 108, 8, 0);
+        octal(h, 116, 8, 0);
+        octal(h, 124, 12, size);
+        octal(h, 136, 12, Math.max(0, mtimeMillis / 1000));
+        for (int i = 148; i < 156; i++) h[i] = ' ';
+        h[156] = (byte) type;
+        byte[] magic = "ustar  ".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(magic, 0, h, 257, magic.length);
+        long sum = 0;
+        for (byte b : h) sum += b & 0xff;
+        octal(h, 148, 7, sum);
+        out.write(h);
+    }
+
+    /** Zero-padded octal, NUL-terminated, filling len bytes at offset. */
+    private static void octal(byte[] h, int offset, int len, long value) {
+        String s = Long.toOctalString(value);
+        int digits = len - 1;
+        for (int i = 0; i < digits; i++) {
+            int from = s.length() - digits + i;
+            h[offset + i] = (byte) (from >= 0 ? s.charAt(from) : '0');
+        }
+        h[offset + digits] = 0;
+    }
+
+    private static void pad(OutputStream out, long size) throws IOException {
+        int rem = (int) (size % BLOCK);
+        if (rem != 0) out.write(new byte[BLOCK - rem]);
+    }
+}
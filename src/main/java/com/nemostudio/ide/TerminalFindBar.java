@@ -0,0 +1,296 @@
+package com.nemostudio.ide;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.util.Duration;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Find bar for a RemoteTerminalPanel (Ctrl/Cmd+F). Searches the panel's TerminalSearchIndex on a
+ * background thread. Plain text or regex, optionally case-sensitive. Every match is marked on a ruler beside
+ * the text (click a mark to jump to it). The current match is selected in the TextArea and stays put while
+ * output streams in. New output is searched incrementally: only the still-open tail chunk is rescanned, at
+ * most every RESCAN_DELAY.
+ */
+final class TerminalFindBar extends HBox {
+
+    private static final int MAX_MATCHES = 100_000;
+    private static final Duration RESCAN_DELAY = Duration.millis(150);
+    private static final double RULER_WIDTH = 10;
+    private static final ExecutorService SEARCH = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "terminal-search");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final TextArea textArea;
+    private final TerminalSearchIndex index;
+    private final TextField field = new TextField();
+    private final CheckBox regexBox = new CheckBox("Regex");
+    private final CheckBox caseBox = new CheckBox("Match case");
+    private final Label countLabel = new Label();
+    private final Pane ruler = new Pane();
+    private final Canvas rulerCanvas = new Canvas(RULER_WIDTH, 0);
+    private final PauseTransition rescan = new PauseTransition(RESCAN_DELAY);
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private Pattern pattern;
+    private String required;
+    private int[] starts = new int[0];
+    private int[] ends = new int[0];
+    private int count;
+    private int current = -1;
+    private int rescanFrom;
+    private boolean truncated;
+
+    TerminalFindBar(TextArea textArea, TerminalSearchIndex index) {
+        super(6);
+        this.textArea = textArea;
+        this.index = index;
+        setAlignment(Pos.CENTER_LEFT);
+        setPadding(new Insets(4, 6, 4, 6));
+        setStyle("-fx-background-color: #2d2d2d;");
+        field.setPromptText("Find in terminal");
+        field.setPrefColumnCount(24);
+        regexBox.setStyle("-fx-text-fill: #ddd;");
+        caseBox.setStyle("-fx-text-fill: #ddd;");
+        countLabel.setStyle("-fx-text-fill: #ddd;");
+        countLabel.setMinWidth(90);
+        Button prevBtn = new Button("↑");
+        prevBtn.setOnAction(e -> step(-1));
+        Button nextBtn = new Button("↓");
+        nextBtn.setOnAction(e -> step(1));
+        Button closeBtn = new Button("✕");
+        closeBtn.setOnAction(e -> close());
+        getChildren().addAll(field, regexBox, caseBox, prevBtn, nextBtn, countLabel, closeBtn);
+
+        field.textProperty().addListener((o, old, v) -> search());
+        regexBox.selectedProperty().addListener((o, old, v) -> search());
+        caseBox.selectedProperty().addListener((o, old, v) -> search());
+        field.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.ENTER) {
+                step(e.isShiftDown() ? -1 : 1);
+                e.consume();
+            } else if (e.getCode() == KeyCode.ESCAPE) {
+                close();
+                e.consume();
+            }
+        });
+        rescan.setOnFinished(e -> runSearch(rescanFrom));
+
+        ruler.setPrefWidth(RULER_WIDTH);
+        ruler.setMinWidth(RULER_WIDTH);
+        ruler.setStyle("-fx-background-color: #252525;");
+        ruler.getChildren().add(rulerCanvas);
+        rulerCanvas.heightProperty().bind(ruler.heightProperty());
+        rulerCanvas.heightProperty().addListener((o, old, v) -> drawRuler());
+        ruler.setOnMouseClicked(e -> jumpNear(e.getY() / Math.max(1, ruler.getHeight())));
+
+        setVisible(false);
+        setManaged(false);
+        ruler.setVisible(false);
+        ruler.setManaged(false);
+    }
+
+    /** Match ruler to place beside the TextArea. */
+    Pane getRuler() {
+        return ruler;
+    }
+
+    void open() {
+        setVisible(true);
+        setManaged(true);
+        ruler.setVisible(true);
+        ruler.setManaged(true);
+        field.requestFocus();
+        field.selectAll();
+        if (pattern == null) search();
+    }
+
+    void close() {
+        setVisible(false);
+        setManaged(false);
+        ruler.setVisible(false);
+        ruler.setManaged(false);
+        generation.incrementAndGet();
+        rescan.stop();
+        pattern = null;
+        clearMatches();
+        textArea.deselect();
+        textArea.requestFocus();
+    }
+
+    /** True while a match is selected, so appends should keep the selection and scroll position. */
+    boolean isPinned() {
+        return isVisible() && current >= 0;
+    }
+
+    /** Restore the current match's selection after the TextArea moved the caret (e.g. on append). */
+    void reselect() {
+        if (current >= 0) textArea.selectRange(starts[current], ends[current]);
+    }
+
+    void step(int direction) {
+        if (count == 0) return;
+        current = current < 0 ? (direction > 0 ? 0 : count - 1) : Math.floorMod(current + direction, count);
+        showCurrent();
+    }
+
+    /** Output was appended to the index: rescan its open tail soon. */
+    void onAppend() {
+        if (pattern != null && isVisible()) rescan.playFromStart();
+    }
+
+    /** Scrollback was cleared. */
+    void onClear() {
+        clearMatches();
+        rescanFrom = 0;
+    }
+
+    private void search() {
+        String q = field.getText();
+        rescan.stop();
+        if (q == null || q.isEmpty()) {
+            pattern = null;
+            generation.incrementAndGet();
+            clearMatches();
+            return;
+        }
+        int flags = Pattern.MULTILINE | (caseBox.isSelected() ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        try {
+            pattern = Pattern.compile(regexBox.isSelected() ? q : Pattern.quote(q), flags);
+        } catch (PatternSyntaxException ex) {
+            pattern = null;
+            generation.incrementAndGet();
+            clearMatches();
+            countLabel.setText("Bad regex");
+            return;
+        }
+        required = TerminalSearchIndex.requiredLiteral(q, regexBox.isSelected());
+        current = -1;
+        runSearch(0);
+    }
+
+    private void runSearch(int from) {
+        if (pattern == null) return;
+        Pattern p = pattern;
+        String req = required;
+        int gen = generation.incrementAndGet();
+        int kept = from == 0 ? 0 : lowerBound(from);
+        SEARCH.execute(() -> {
+            TerminalSearchIndex.Result r = index.search(p, req, from, MAX_MATCHES - kept);
+            Platform.runLater(() -> {
+                if (gen == generation.get()) merge(from, r);
+            });
+        });
+    }
+
+    /** Keep matches before from and append r's. */
+    private void merge(int from, TerminalSearchIndex.Result r) {
+        boolean fresh = from == 0;
+        int keep = fresh ? 0 : lowerBound(from);
+        int total = keep + r.count;
+        if (starts.length < total) {
+            starts = Arrays.copyOf(starts, total);
+            ends = Arrays.copyOf(ends, total);
+        }
+        System.arraycopy(r.starts, 0, starts, keep, r.count);
+        System.arraycopy(r.ends, 0, ends, keep, r.count);
+        count = total;
+        rescanFrom = r.rescanFrom;
+        truncated = r.truncated;
+        if (current >= count) current = count - 1;
+        if (fresh && count > 0) {
+            // Newest output is usually what the user is after
+            current = count - 1;
+            showCurrent();
+        } else {
+            updateLabel();
+            drawRuler();
+        }
+    }
+
+    private int lowerBound(int offset) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < offset) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private void showCurrent() {
+        textArea.selectRange(starts[current], ends[current]);
+        updateLabel();
+        drawRuler();
+    }
+
+    private void jumpNear(double fraction) {
+        if (count == 0) return;
+        int i = Math.min(count - 1, lowerBound((int) (fraction * Math.max(1, textArea.getLength()))));
+        if (i > 0 && Math.abs(starts[i - 1] - fraction * textArea.getLength()) < Math.abs(starts[i] - fraction * textArea.getLength())) {
+            i--;
+        }
+        current = i;
+        showCurrent();
+    }
+
+    private void clearMatches() {
+        count = 0;
+        current = -1;
+        updateLabel();
+        drawRuler();
+    }
+
+    private void updateLabel() {
+        if (pattern == null) {
+            countLabel.setText("");
+        } else if (count == 0) {
+            countLabel.setText("No matches");
+        } else {
+            countLabel.setText((current >= 0 ? (current + 1) + " / " : "") + count + (truncated ? "+" : ""));
+        }
+    }
+
+    /** One mark per pixel row that holds a match; the current match in orange. */
+    private void drawRuler() {
+        GraphicsContext g = rulerCanvas.getGraphicsContext2D();
+        double h = rulerCanvas.getHeight();
+        g.clearRect(0, 0, RULER_WIDTH, h);
+        int length = Math.max(1, textArea.getLength());
+        if (count == 0 || h <= 0) return;
+        g.setFill(Color.web("#d7ba7d"));
+        int lastRow = -1;
+        for (int i = 0; i < count; i++) {
+            int row = (int) ((double) starts[i] / length * (h - 2));
+            if (row == lastRow) continue;
+            lastRow = row;
+            g.fillRect(1, row, RULER_WIDTH - 2, 2);
+        }
+        if (current >= 0) {
+            g.setFill(Color.web("#ff8c00"));
+            g.fillRect(0, (double) starts[current] / length * (h - 3), RULER_WIDTH, 3);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.nemostudio.ide;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Search index over a terminal's scrollback. Text is kept in chunks of about CHUNK_CHARS, split after a
+ * newline (lines longer than twice that are hard-split). Each chunk has a small Bloom-style bitset of its lower-cased character trigrams, updated
+ * as output is appended, so cost stays proportional to new output. A search turns the query into a literal
+ * that every match must contain (the whole query, or the longest plain run of a regex). It skips chunks whose
+ * bitset lacks any of that literal's trigrams and runs the regex only on the rest. Matches that span a chunk
+ * boundary (regexes across a newline) are not found. Appends and snapshots are synchronized; search() works
+ * on a snapshot and may run on any thread.
+ */
+final class TerminalSearchIndex {
+
+    static final int CHUNK_CHARS = 64 * 1024;
+    private static final int BLOOM_BITS = 8192;
+
+    /** Offsets [start, end) of each match in scrollback coordinates (same as the TextArea's). */
+    static final class Result {
+        final int[] starts;
+        final int[] ends;
+        final int count;
+        /** Matches at or after this offset may change as output streams in; rescan from here. */
+        final int rescanFrom;
+        final boolean truncated;
+
+        Result(int[] starts, int[] ends, int count, int rescanFrom, boolean truncated) {
+            this.starts = starts;
+            this.ends = ends;
+            this.count = count;
+            this.rescanFrom = rescanFrom;
+            this.truncated = truncated;
+        }
+    }
+
+    private static final class Chunk {
+        final int start;
+        final StringBuilder text = new StringBuilder();
+        final long[] bloom = new long[BLOOM_BITS / 64];
+        /** Sealed text; null while the chunk is still open. */
+        String sealed;
+        char prev1;
+        char prev2;
+
+        Chunk(int start) {
+            this.start = start;
+        }
+    }
+
+    private final List<Chunk> chunks = new ArrayList<>();
+    private int length;
+
+    TerminalSearchIndex() {
+        chunks.add(new Chunk(0));
+    }
+
+    synchronized void append(String s) {
+        int from = 0;
+        while (from < s.length()) {
+            Chunk open = chunks.get(chunks.size() - 1);
+            int room = CHUNK_CHARS - open.text.length();
+            int to = s.length();
+            boolean seal = false;
+            if (to - from >= room) {
+                // Seal after the first newline past CHUNK_CHARS; hard-split only lines that reach twice that
+                int hardLimit = from + 2 * CHUNK_CHARS - open.text.length();
+                int nl = s.indexOf('\n', from + Math.max(0, room - 1));
+                if (nl >= 0 && nl < hardLimit) {
+                    to = nl + 1;
+                    seal = true;
+                } else if (s.length() >= hardLimit) {
+                    to = hardLimit;
+                    seal = true;
+                }
+            }
+            for (int i = from; i < to; i++) {
+                char c = Character.toLowerCase(s.charAt(i));
+                if (open.text.length() + (i - from) >= 2) addTrigram(open.bloom, open.prev2, open.prev1, c);
+                open.prev2 = open.prev1;
+                open.prev1 = c;
+            }
+            open.text.append(s, from, to);
+            length += to - from;
+            from = to;
+            if (seal) {
+                open.sealed = open.text.toString();
+                chunks.add(new Chunk(length));
+            }
+        }
+    }
+
+    synchronized void clear() {
+        chunks.clear();
+        chunks.add(new Chunk(0));
+        length = 0;
+    }
+
+    synchronized int length() {
+        return length;
+    }
+
+    /**
+     * All matches of pattern starting in the chunk that contains from, up to limit. required is a literal every
+     * match contains (see requiredLiteral), or null to scan every chunk.
+     */
+    Result search(Pattern pattern, String required, int from, int limit) {
+        List<Chunk> snapshot;
+        List<String> texts = new ArrayList<>();
+        int rescanFrom;
+        synchronized (this) {
+            snapshot = new ArrayList<>();
+            for (Chunk c : chunks) {
+                if (c.sealed == null || c.start + c.sealed.length() > from) {
+                    snapshot.add(c);
+                    texts.add(c.sealed != null ? c.sealed : c.text.toString());
+                }
+            }
+            rescanFrom = chunks.get(chunks.size() - 1).start;
+        }
+        int[] gramHashes = required != null && required.length() >= 3 ? trigramHashes(required) : null;
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        int count = 0;
+        for (int k = 0; k < snapshot.size(); k++) {
+            Chunk c = snapshot.get(k);
+            if (gramHashes != null && !mayContain(c.bloom, gramHashes)) continue;
+            Matcher m = pattern.matcher(texts.get(k));
+            while (m.find()) {
+                if (m.end() == m.start()) continue; // Empty match (e.g. "x*"): nothing to highlight
+                if (count == limit) {
+                    return new Result(starts, ends, count, rescanFrom, true);
+                }
+                if (count == starts.length) {
+                    starts = java.util.Arrays.copyOf(starts, count * 2);
+                    ends = java.util.Arrays.copyOf(ends, count * 2);
+                }
+                starts[count] = c.start + m.start();
+                ends[count] = c.start + m.end();
+                count++;
+            }
+        }
+        return new Result(starts, ends, count, rescanFrom, false);
+    }
+
+    /**
+     * A literal that every match of query must contain, used to skip chunks: the query itself for plain
+     * search, or the longest run of ordinary characters in a regex that has no alternation. Null if none of
+     * length 3 or more can be derived.
+     */
+    static String requiredLiteral(String query, boolean regex) {
+        if (!regex) return query.length() >= 3 ? query : null;
+        if (query.indexOf('|') >= 0) return null;
+        String best = "";
+        StringBuilder run = new StringBuilder();
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            char next = i + 1 < query.length() ? query.charAt(i + 1) : 0;
+            if (c == '\\' && i + 1 < query.length()) {
+                char e = next;
+                i++;
+                if (!Character.isLetterOrDigit(e)) {
+                    char after = i + 1 < query.length() ? query.charAt(i + 1) : 0;
+                    if (after == '?' || after == '*' || after == '{') {
+                        best = longer(best, run);
+                        run.setLength(0);
+                    } else {
+                        run.append(e);
+                    }
+                    continue;
+                }
+                best = longer(best, run);
+                run.setLength(0);
+                continue;
+            }
+            if (c == '[' || c == '(') {
+                // Classes and groups (which may be optional) are skipped whole
+                best = longer(best, run);
+                run.setLength(0);
+                int close = closing(query, i);
+                if (close < 0) break;
+                i = close;
+                continue;
+            }
+            if (next == '?' || next == '*' || next == '{') {
+                // Optional or repeated zero times: the run ends before it
+                best = longer(best, run);
+                run.setLength(0);
+                continue;
+            }
+            if (".^$()+*?{}]".indexOf(c) >= 0) {
+                best = longer(best, run);
+                run.setLength(0);
+                continue;
+            }
+            run.append(c);
+        }
+        best = longer(best, run);
+        return best.length() >= 3 ? best : null;
+    }
+
+    /** Index of the bracket closing the one at open (nesting and escapes respected), or -1. */
+    private static int closing(String query, int open) {
+        char o = query.charAt(open);
+        char cl = o == '[' ? ']' : ')';
+        int depth = 0;
+        for (int i = open; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == o && (o == '(' || i == open)) {
+                depth++;
+            } else if (c == cl && !(o == '[' && i == open + 1)) {
+                if (--depth == 0) return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String longer(String best, StringBuilder run) {
+        return run.length() > best.length() ? run.toString() : best;
+    }
+
+    private static void addTrigram(long[] bloom, char a, char b, char c) {
+        int h = hash(a, b, c);
+        bloom[h >>> 6] |= 1L << (h & 63);
+    }
+
+    private static int[] trigramHashes(String s) {
+        int[] out = new int[s.length() - 2];
+        for (int i = 0; i + 2 < s.length(); i++) {
+            out[i] = hash(Character.toLowerCase(s.charAt(i)), Character.toLowerCase(s.charAt(i + 1)),
+                    Character.toLowerCase(s.charAt(i + 2)));
+        }
+        return out;
+    }
+
+    private static boolean mayContain(long[] bloom, int[] hashes) {
+        for (int h : hashes) {
+            if ((bloom[h >>> 6] & (1L << (h & 63))) == 0) return false;
+        }
+        return true;
+    }
+
+    private static int hash(char a, char b, char c) {
+        int h = (a * 31 + b) * 31 + c;
+        h ^= h >>> 13;
+        h *= 0x5bd1e995;
+        h ^= h >>> 15;
+        return h & (BLOOM_BITS - 1);
+    }
+}
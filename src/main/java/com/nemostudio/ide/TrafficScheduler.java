@@ -0,0 +1,244 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.Session;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the terminal and status refreshes responsive while uploads fill the link. Traffic is tagged by
+ * Priority: interactive (terminal keystrokes) and monitoring (status the user asked for, e.g. Probe again)
+ * report activity with touch() and are never delayed; periodic background refreshes do not touch, or a
+ * target would always be active. Bulk transfers read or write through bulk() streams that draw from one
+ * token bucket.
+ * <p>
+ * While bulk data flows, a controller opens a bare channel on the pooled session every PROBE_INTERVAL_MS
+ * (as LinkHealthMonitor does) to measure the RTT that interactive traffic would see. Above the latency
+ * target of the most sensitive class active in the last ACTIVE_WINDOW_MS, the bulk rate is cut
+ * multiplicatively; well below it, the rate grows again, as long as bulk is actually using its allowance.
+ * When a target becomes active, the rate starts from the bulk throughput measured so far, so pacing begins
+ * near what the link was carrying. The target never goes below the link's base RTT plus MIN_QUEUE_MS. With
+ * no latency-sensitive traffic active, bulk is not limited.
+ */
+public final class TrafficScheduler {
+
+    /** Traffic classes and the probe RTT each tolerates while active (0 = no target). */
+    public enum Priority {
+        INTERACTIVE(50),
+        MONITORING(150),
+        BULK(0);
+
+        final long targetMs;
+
+        Priority(long targetMs) {
+            this.targetMs = targetMs;
+        }
+    }
+
+    private static final long PROBE_INTERVAL_MS = 200;
+    private static final int PROBE_TIMEOUT_MS = 3000;
+    private static final long ACTIVE_WINDOW_MS = 10_000;
+    /** Bulk counts as flowing this long after its last byte. */
+    private static final long BULK_IDLE_MS = 1000;
+    private static final long MIN_QUEUE_MS = 5;
+    /** The base RTT is re-learned this often, in case the route changed. */
+    private static final long BASE_RTT_RESET_MS = 60_000;
+    private static final double DECREASE = 0.7;
+    private static final double INCREASE = 1.15;
+    private static final long MIN_RATE = 64 * 1024;
+    private static final long MAX_RATE = 10L * 1024 * 1024 * 1024;
+    /** Starting rate if a target applies before any bulk throughput has been measured. */
+    private static final long INITIAL_RATE = 4 * 1024 * 1024;
+    /** Weight of the newest sample in the measured throughput. */
+    private static final double THROUGHPUT_WEIGHT = 0.3;
+    /** Bucket depth in seconds of the current rate. */
+    private static final double BURST_SECONDS = 0.05;
+    /** Bulk reads and writes are split so one call never takes a large share of the bucket. */
+    private static final int CHUNK = 16 * 1024;
+
+    private static final Object lock = new Object();
+    private static final long[] lastActive = new long[Priority.values().length];
+    private static final LatencyHistogram probeRtt = Metrics.timeHistogram("traffic_probe_rtt",
+            "RTT measured by TrafficScheduler while bulk transfers run");
+    private static final Metrics.Counter bulkBytes = Metrics.counter("traffic_bulk_bytes_total",
+            "Bytes sent through the bulk token bucket");
+    private static final Metrics.Counter bulkDelays = Metrics.counter("traffic_bulk_throttled_total",
+            "Bulk writes delayed by the token bucket");
+    private static double rate = INITIAL_RATE;
+    /** Whether the bucket is currently applied (a target is active); rate is re-seeded when it starts. */
+    private static boolean limiting;
+    private static double tokens;
+    private static long lastRefillNanos = System.nanoTime();
+    private static long lastBulkMs;
+    private static long bytesSinceProbe;
+    private static long lastSampleNanos = System.nanoTime();
+    /** Bulk bytes per second, smoothed over control steps while bulk flows; 0 until measured. */
+    private static double throughput;
+    private static long baseRttMicros = Long.MAX_VALUE;
+    private static long baseRttSetMs;
+    private static ScheduledExecutorService controller;
+
+    static {
+        Metrics.gauge("traffic_bulk_rate_bytes_per_second", "Current bulk rate limit (0 = unlimited)",
+                () -> {
+                    synchronized (lock) {
+                        return activeTargetMs() > 0 ? (long) rate : 0;
+                    }
+                });
+    }
+
+    private TrafficScheduler() {}
+
+    /** Record that traffic of this class just happened (e.g. a keystroke was sent). */
+    public static void touch(Priority priority) {
+        synchronized (lock) {
+            lastActive[priority.ordinal()] = System.currentTimeMillis();
+        }
+    }
+
+    /** Input stream whose reads (e.g. the file an SFTP put sends) are paced as bulk traffic. */
+    public static InputStream bulk(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, Math.min(len, CHUNK));
+                if (n > 0) acquire(n);
+                return n;
+            }
+        };
+    }
+
+    /** Output stream whose writes (e.g. into a remote tar or delta exec) are paced as bulk traffic. */
+    public static OutputStream bulk(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                while (len > 0) {
+                    int n = Math.min(len, CHUNK);
+                    acquire(n);
+                    out.write(b, off, n);
+                    off += n;
+                    len -= n;
+                }
+            }
+        };
+    }
+
+    /** Take n bytes from the bucket, sleeping while it is in debt. */
+    private static void acquire(int n) throws InterruptedIOException {
+        bulkBytes.add(n);
+        long waitNanos;
+        synchronized (lock) {
+            lastBulkMs = System.currentTimeMillis();
+            bytesSinceProbe += n;
+            startController();
+            if (activeTargetMs() <= 0) {
+                limiting = false;
+                return;
+            }
+            long now = System.nanoTime();
+            if (!limiting) {
+                limiting = true;
+                rate = throughput > 0 ? Math.max(MIN_RATE, Math.min(MAX_RATE, throughput)) : INITIAL_RATE;
+                tokens = 0;
+                lastRefillNanos = now;
+            }
+            double burst = Math.max(CHUNK, rate * BURST_SECONDS);
+            tokens = Math.min(burst, tokens + rate * (now - lastRefillNanos) / 1e9);
+            lastRefillNanos = now;
+            tokens -= n;
+            if (tokens >= 0) return;
+            waitNanos = (long) (-tokens / rate * 1e9);
+        }
+        bulkDelays.inc();
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload interrupted");
+        }
+    }
+
+    /** Lowest latency target among classes active in the last ACTIVE_WINDOW_MS; 0 if none. Caller holds lock. */
+    private static long activeTargetMs() {
+        long now = System.currentTimeMillis();
+        long target = 0;
+        for (Priority p : Priority.values()) {
+            if (p.targetMs > 0 && now - lastActive[p.ordinal()] < ACTIVE_WINDOW_MS
+                    && (target == 0 || p.targetMs < target)) {
+                target = p.targetMs;
+            }
+        }
+        return target;
+    }
+
+    /** Caller holds lock. */
+    private static void startController() {
+        if (controller != null) return;
+        controller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "traffic-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        controller.scheduleWithFixedDelay(TrafficScheduler::control, PROBE_INTERVAL_MS, PROBE_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /** One control step: probe the RTT and adjust the bulk rate. Idle unless bulk is flowing. */
+    private static void control() {
+        double used;
+        synchronized (lock) {
+            long nowNanos = System.nanoTime();
+            used = bytesSinceProbe * 1e9 / Math.max(1, nowNanos - lastSampleNanos);
+            bytesSinceProbe = 0;
+            lastSampleNanos = nowNanos;
+            if (System.currentTimeMillis() - lastBulkMs > BULK_IDLE_MS) return;
+            throughput = throughput == 0 ? used : throughput * (1 - THROUGHPUT_WEIGHT) + used * THROUGHPUT_WEIGHT;
+        }
+        Session session = SessionPool.peek();
+        if (session == null) return;
+        long rttMicros = probe(session);
+        if (rttMicros < 0) return;
+        probeRtt.recordMicros(rttMicros);
+        synchronized (lock) {
+            long now = System.currentTimeMillis();
+            if (now - baseRttSetMs > BASE_RTT_RESET_MS) {
+                baseRttMicros = rttMicros;
+                baseRttSetMs = now;
+            }
+            baseRttMicros = Math.min(baseRttMicros, rttMicros);
+            long target = activeTargetMs();
+            if (target <= 0) return;
+            long targetMicros = Math.max(target * 1000, baseRttMicros + MIN_QUEUE_MS * 1000);
+            if (rttMicros > targetMicros) {
+                rate = Math.max(MIN_RATE, rate * DECREASE);
+            } else if (rttMicros < baseRttMicros + (targetMicros - baseRttMicros) / 2 && used > rate * 0.5) {
+                // Only grow while bulk is close to its allowance; otherwise the limit is not what holds it back
+                rate = Math.min(MAX_RATE, rate * INCREASE + MIN_RATE);
+            }
+        }
+    }
+
+    /** RTT of one channel open on session, in microseconds; -1 on failure. */
+    private static long probe(Session session) {
+        Channel channel = null;
+        try {
+            long start = System.nanoTime();
+            channel = session.openChannel("session");
+            channel.connect(PROBE_TIMEOUT_MS);
+            return (System.nanoTime() - start) / 1000;
+        } catch (Exception e) {
+            return -1;
+        } finally {
+            if (channel != null) channel.disconnect();
+        }
+    }
+}
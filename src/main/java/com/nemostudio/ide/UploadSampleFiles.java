@@ -57,36 +57,33 @@ public final class UploadSampleFiles {
         new Thread(() -> {
             try {
                 long totalFiles = selectedFiles.size();
-                final long[] currentFile = {0};
-                for (File file : selectedFiles) {
-                    if (progressDialog.isCancelled()) {
-                        Platform.runLater(() -> {
-                            progressDialog.setStatus("Upload cancelled.");
-                            progressDialog.close();
-                            terminal.appendOutput("[Upload Files] Upload cancelled.\n");
-                        });
-                        return;
+                Platform.runLater(() -> {
+                    progressDialog.setStatus(String.format("Uploading %d item(s)...", totalFiles));
+                });
+                // One session for the whole selection; many small files are bundled into one tar stream
+                SftpHelper.uploadAll(selectedFiles, dataSamplePath, new SftpHelper.ProgressCallback() {
+                    @Override
+                    public void onFileStart(String fileName) {
+                        progressDialog.onFileStart(fileName);
                     }
-                    currentFile[0]++;
-                    final long fileNum = currentFile[0];
-                    Platform.runLater(() -> {
-                        progressDialog.setStatus(String.format("Uploading file %d of %d...", fileNum, totalFiles));
-                    });
-                    SftpHelper.upload(file, dataSamplePath, new SftpHelper.ProgressCallback() {
-                        @Override
-                        public void onFileStart(String fileName) {
-                            progressDialog.onFileStart(fileName);
-                        }
-                        @Override
-                        public void onFileProgress(long bytesTransferred, long totalBytes) {
-                            progressDialog.onFileProgress(bytesTransferred, totalBytes);
-                        }
-                        @Override
-                        public void onFileComplete(String fileName, long fileSize) {
-                            progressDialog.onFileComplete(fileName, fileSize);
-                        }
-                    });
-                }
+                    @Override
+                    public void onFileProgress(long bytesTransferred, long totalBytes) {
+                        progressDialog.onFileProgress(bytesTransferred, totalBytes);
+                    }
+                    @Override
+                    public void onFileComplete(String fileName, long fileSize) {
+                        progressDialog.onFileComplete(fileName, fileSize);
+                    }
+                    @Override
+                    public boolean isCancelled() {
+                        return progressDialog.isCancelled();
+                    }
+                    @Override
+                    public void onVerified(int checked, List<String> resent, boolean verified) {
+                        String text = SftpHelper.describeVerification(checked, resent, verified);
+                        Platform.runLater(() -> terminal.appendOutput("[Upload Files] " + text + "\n"));
+                    }
+                });
                 Platform.runLater(() -> {
                     progressDialog.setStatus("Upload completed successfully.");
                     progressDialog.setProgress(1.0);
@@ -94,6 +91,25 @@ public final class UploadSampleFiles {
                     terminal.appendOutput("[Upload Files] Upload completed. " + totalFiles + " file(s) uploaded.\n");
                 });
             } catch (Exception e) {
+                if (progressDialog.isCancelled()) {
+                    Platform.runLater(() -> {
+                        progressDialog.setStatus("Upload cancelled.");
+                        progressDialog.close();
+                        terminal.appendOutput("[Upload Files] Upload cancelled.\n");
+                    });
+                    return;
+                }
+                if (OfflineQueue.isLinkFailure(e)) {
+                    // Host unreachable: replay the whole selection once the link is back (already sent files are
+                    // sent again, which is harmless)
+                    OfflineQueue.enqueueUpload(selectedFiles, dataSamplePath);
+                    Platform.runLater(() -> {
+                        progressDialog.close();
+                        terminal.appendOutput("[Upload Files] Connection lost (" + e.getMessage()
+                                + "). Queued; the upload resumes when the link is back.\n");
+                    });
+                    return;
+                }
                 Platform.runLater(() -> {
                     progressDialog.setStatus("Upload failed: " + e.getMessage());
                     progressDialog.close();
@@ -0,0 +1,105 @@
+package com.nemostudio.ide;
+
+import com.jcraft.jsch.Session;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the SHA-256 of every file an upload sends, computed from the same bytes as they are streamed (no
+ * second local read), then checks them all on the remote in one exec: the remote paths go NUL-separated to
+ * {@code xargs -0 sha256sum} on stdin, so any number of files costs one round trip. Files whose remote hash
+ * differs or that are missing are returned for re-sending. Safe to record from several upload threads.
+ */
+final class UploadVerifier {
+
+    /** One sent file and the hash of the bytes that were sent. */
+    static final class Entry {
+        final File file;
+        final String remotePath;
+        final String sha256;
+
+        Entry(File file, String remotePath, String sha256) {
+            this.file = file;
+            this.remotePath = remotePath;
+            this.sha256 = sha256;
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every Java platform has SHA-256
+        }
+    }
+
+    synchronized void record(File file, String remotePath, MessageDigest digest) {
+        entries.add(new Entry(file, remotePath, HexFormat.of().formatHex(digest.digest())));
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Hash every recorded remote file and return the entries that do not match (wrong hash or missing).
+     * Returns null if the remote has no sha256sum, i.e. the upload could not be verified.
+     */
+    List<Entry> verify(Session session) throws Exception {
+        List<Entry> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(entries);
+        }
+        if (snapshot.isEmpty()) return snapshot;
+        if (RemoteExec.run(session, "command -v sha256sum >/dev/null", null, null) != 0) {
+            return null;
+        }
+        ByteArrayOutputStream paths = new ByteArrayOutputStream();
+        for (Entry e : snapshot) {
+            paths.write(e.remotePath.getBytes(StandardCharsets.UTF_8));
+            paths.write(0);
+        }
+        Map<String, String> remote = new HashMap<>();
+        // Missing files only print an error line (and set a non-zero exit), so the exit code is not checked
+        RemoteExec.run(session, "xargs -0 sha256sum --", paths.toByteArray(), line -> {
+            // "<hash>  <path>", or "\<hash>  <escaped path>" when the path has a newline or backslash
+            boolean escaped = line.startsWith("\\");
+            String rest = escaped ? line.substring(1) : line;
+            if (rest.length() < 66 || rest.charAt(64) != ' ') return;
+            String path = rest.substring(66);
+            if (escaped) path = unescape(path);
+            remote.put(path, rest.substring(0, 64));
+        });
+        List<Entry> bad = new ArrayList<>();
+        for (Entry e : snapshot) {
+            if (!e.sha256.equalsIgnoreCase(remote.getOrDefault(e.remotePath, ""))) bad.add(e);
+        }
+        return bad;
+    }
+
+    /** Undo sha256sum's escaping of "\\n" and "\\\\" in file names. */
+    private static String unescape(String path) {
+        StringBuilder sb = new StringBuilder(path.length());
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '\\' && i + 1 < path.length()) {
+                char e = path.charAt(++i);
+                sb.append(e == 'n' ? '\n' : e);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
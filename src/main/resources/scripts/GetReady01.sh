@@ -54,11 +54,11 @@ echo "Verifying mount..."
 # Wait a moment for container to start
 sleep 2
 
-# Check if /workspace exists and list its contents
-if docker exec "$CONTAINER_ID" test -d /workspace; then
+# Check if /workspace exists and list its contents (one docker exec for both)
+if WORKSPACE_LISTING=$(docker exec "$CONTAINER_ID" sh -c 'test -d /workspace && ls -la /workspace'); then
   echo "Mount verified: /workspace exists in container"
   echo "Contents of /workspace in container:"
-  docker exec "$CONTAINER_ID" ls -la /workspace
+  echo "$WORKSPACE_LISTING"
   echo ""
   echo "Expected path on host: $REMOTE_PATH"
   echo "Mount point in container: /workspace"